@@ -0,0 +1,81 @@
+package com.safetyname.alerts.controller;
+
+import com.safetyname.alerts.service.AutocompleteService;
+import com.safetyname.alerts.service.IAutocompleteService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller suggesting last names and addresses from a partial input.
+ * <p>
+ * This controller lets operators type the beginning of a last name or an address and get the
+ * matching values, which can then be used with the exact-match endpoints such as
+ * {@code /personInfolastName/{lastName}} or {@code /fire?address=}.
+ * </p>
+ */
+
+@RestController
+@RequestMapping("/autocomplete")
+public class AutocompleteController {
+
+    private static final Logger logger = LogManager.getLogger(AutocompleteController.class);
+
+    private final IAutocompleteService autocompleteService;
+
+    /**
+     * Constructor for AutocompleteController that initializes the autocomplete service.
+     *
+     * @param autocompleteService The service responsible for looking up suggestions.
+     */
+
+    @Autowired
+    public AutocompleteController(IAutocompleteService autocompleteService) {
+        this.autocompleteService = autocompleteService;
+    }
+
+    /**
+     * Retrieves the last names or addresses starting with the given prefix.
+     * <p>
+     * If the prefix is empty, the field is neither {@code lastName} nor {@code address}, or the limit
+     * is not positive, a 400 HTTP status (Bad Request) is returned.
+     * If nothing matches the prefix, a 404 HTTP status is returned.
+     * </p>
+     *
+     * @param field  The field to complete, {@code lastName} or {@code address}.
+     * @param prefix The beginning of the value.
+     * @param limit  The maximum number of suggestions, 10 by default.
+     * @return ResponseEntity containing the list of suggestions or an error status (400 or 404).
+     */
+
+    @GetMapping
+    public ResponseEntity<List<String>> getSuggestions(@RequestParam("field") String field,
+                                                       @RequestParam("prefix") String prefix,
+                                                       @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        logger.info("Autocomplete request received for field {} and prefix: {}", field, prefix);
+
+        if (prefix == null || prefix.trim().isEmpty() || limit <= 0
+                || !(AutocompleteService.LAST_NAME.equals(field) || AutocompleteService.ADDRESS.equals(field))) {
+            logger.error("Bad request in getSuggestions - field: {}, prefix: {}, limit: {}", field, prefix, limit);
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        List<String> suggestions = autocompleteService.getSuggestions(field, prefix, limit);
+
+        if (suggestions.isEmpty()) {
+            logger.warn("No suggestion found for field {} and prefix: {}", field, prefix);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        logger.info("Found {} suggestion(s) for field {} and prefix: {}", suggestions.size(), field, prefix);
+        return new ResponseEntity<>(suggestions, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,115 @@
+package com.safetyname.alerts.controller;
+
+import com.safetyname.alerts.service.IBundleService;
+import com.safetyname.alerts.service.StationBundle;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * REST controller serving the offline bundles of the fire stations.
+ * <p>
+ * The bundles are files built in the background by the bundle service; serving one does not query the data.
+ * Downloads can be resumed with the {@code Range} header.
+ * </p>
+ */
+
+@RestController
+@RequestMapping("/bundles")
+public class BundleController {
+
+    private static final Logger logger = LogManager.getLogger(BundleController.class);
+
+    /**
+     * Media type of the bundle files.
+     */
+    public static final MediaType BUNDLE_MEDIA_TYPE = MediaType.parseMediaType("application/gzip");
+
+    private final IBundleService bundleService;
+
+    /**
+     * Constructor for BundleController that initializes the bundle service.
+     *
+     * @param bundleService The service building the bundles of the stations.
+     */
+
+    public BundleController(IBundleService bundleService) {
+        this.bundleService = bundleService;
+    }
+
+    /**
+     * Retrieves the current bundle of a fire station.
+     * <p>
+     * The bundle is a gzip-compressed Smile document holding the station number, the data version, the day it was
+     * built and the households covered by the station, with the phone, age, medications and allergies of each
+     * resident. Its id is returned as the ETag, so a client holding the current bundle gets a 304 HTTP status
+     * (Not Modified) with {@code If-None-Match}, and its permanent address as {@code Content-Location}, where an
+     * interrupted download is resumed with a {@code Range} header. If the station covers no address, or its bundle
+     * is not built yet, a 404 HTTP status (Not Found) is returned.
+     * </p>
+     *
+     * @param stationNumber The fire station number.
+     * @return ResponseEntity containing the bundle file or a 404 HTTP status.
+     */
+
+    @GetMapping("/{stationNumber}")
+    public ResponseEntity<Resource> getBundle(@PathVariable("stationNumber") int stationNumber) {
+        logger.info("Bundle requested for station: {}", stationNumber);
+        StationBundle bundle = bundleService.getBundle(stationNumber);
+        if (bundle == null) {
+            logger.error("No bundle for station: {}", stationNumber);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return serve(bundle, CacheControl.noCache());
+    }
+
+    /**
+     * Retrieves a bundle of a fire station by its id.
+     * <p>
+     * The content of an id never changes, so it is cacheable and its download can be resumed with a {@code Range}
+     * header. Once the bundle has been replaced twice, a 404 HTTP status (Not Found) is returned and the current
+     * bundle must be downloaded again.
+     * </p>
+     *
+     * @param stationNumber The fire station number.
+     * @param id            The id of the bundle.
+     * @return ResponseEntity containing the bundle file or a 404 HTTP status.
+     */
+
+    @GetMapping("/{stationNumber}/{id}")
+    public ResponseEntity<Resource> getBundle(@PathVariable("stationNumber") int stationNumber,
+                                              @PathVariable("id") String id) {
+        logger.info("Bundle {} requested for station: {}", id, stationNumber);
+        StationBundle bundle = bundleService.getBundle(stationNumber, id);
+        if (bundle == null) {
+            logger.error("No bundle {} for station: {}", id, stationNumber);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return serve(bundle, CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable());
+    }
+
+    private static ResponseEntity<Resource> serve(StationBundle bundle, CacheControl cacheControl) {
+        return ResponseEntity.ok()
+                .contentType(BUNDLE_MEDIA_TYPE)
+                .eTag(bundle.getId())
+                .lastModified(bundle.getLastModified())
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.CONTENT_LOCATION, "/bundles/" + bundle.getStation() + "/" + bundle.getId())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(bundle.getFileName()).build().toString())
+                .body(new FileSystemResource(bundle.getPath()));
+    }
+}
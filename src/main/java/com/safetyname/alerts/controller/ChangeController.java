@@ -0,0 +1,86 @@
+package com.safetyname.alerts.controller;
+
+import com.safetyname.alerts.service.ChangeLog;
+import com.safetyname.alerts.service.IChangeStreamService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+/**
+ * REST controller streaming the changes of the data as Server-Sent Events.
+ * <p>
+ * Downstream systems keep a replica of the persons, medical records and fire station mappings up to date
+ * by applying these events, instead of polling the read endpoints.
+ * </p>
+ */
+
+@RestController
+@RequestMapping("/changes")
+public class ChangeController {
+
+    private static final Logger logger = LogManager.getLogger(ChangeController.class);
+
+    /**
+     * Time after which a stream is closed; clients reconnect with their {@code Last-Event-ID}.
+     */
+    static final long STREAM_TIMEOUT = Duration.ofMinutes(30).toMillis();
+
+    private final IChangeStreamService changeStreamService;
+
+    /**
+     * Constructor for ChangeController that initializes the change stream service.
+     *
+     * @param changeStreamService The service streaming the changes of the data.
+     */
+
+    @Autowired
+    public ChangeController(IChangeStreamService changeStreamService) {
+        this.changeStreamService = changeStreamService;
+    }
+
+    /**
+     * Streams the changes of the data.
+     * <p>
+     * Each event is named {@code change}, has as id the position it reached, {@code <epoch>-<version>}, the epoch
+     * changing at every start of the application, and holds the kind of entity, the operation, the key of the
+     * entity and its states before and after the change, in JSON.
+     * A client resumes from a position with the {@code since} parameter or the {@code Last-Event-ID} header,
+     * the parameter taking precedence, and first receives the events it missed; without either, it only
+     * receives new events. An event with the {@code RELOADED} operation tells the client to fetch the data again,
+     * either because the dataset was reloaded, because the missed events are no longer retained or because the
+     * position is from before a restart. A position that is not a version, optionally preceded by an epoch and a dash,
+     * results in a 400 HTTP status (Bad Request).
+     * </p>
+     *
+     * @param since       The position to resume from.
+     * @param lastEventId The id of the last event received before reconnecting.
+     * @return ResponseEntity containing the event stream or a 400 HTTP status.
+     */
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(@RequestParam(value = "since", required = false) String since,
+                                                    @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        String from = since != null ? since : lastEventId;
+        logger.info("Change stream requested from position: {}", from);
+
+        if (from != null && !ChangeLog.isPosition(from)) {
+            logger.error("Bad request in streamChanges - Invalid position: {}", from);
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT);
+        changeStreamService.subscribe(emitter, from);
+        return new ResponseEntity<>(emitter, HttpStatus.OK);
+    }
+}
@@ -2,6 +2,9 @@ package com.safetyname.alerts.controller;
 
 
 import com.safetyname.alerts.dto.FireResponse;
+import com.safetyname.alerts.json.FieldSet;
+import com.safetyname.alerts.json.FireInfoSerializer;
+import com.safetyname.alerts.json.SharedResponse;
 import com.safetyname.alerts.service.IFireService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -46,23 +49,39 @@ public class FireController {
      * This endpoint returns details about people living at the specified address, including their medical information and the fire station that covers the address.
      * If the address parameter is missing or empty, a 400 HTTP status (Bad Request) is returned.
      * If no data is found for the address, a 404 HTTP status is returned.
+     * The response is pre-serialized and cached until the data changes; concurrent identical requests share one computation.
+     * It is encoded in JSON, CBOR or Smile according to the {@code Accept} header.
+     * </p>
+     * <p>
+     * With {@code fields}, for instance {@code fields=lastName,phone}, only the listed fields of each resident are
+     * returned; the station number always is. An unknown field results in a 400 HTTP status (Bad Request).
      * </p>
      *
      * @param address The address to retrieve fire-related information for.
-     * @return ResponseEntity containing a FireResponse object or an error status (400 or 404).
+     * @param fields  The comma-separated fields of the residents to return, all of them by default.
+     * @return ResponseEntity containing the FireResponse or an error status (400 or 404).
      */
 
     @GetMapping
-    public ResponseEntity<FireResponse> getFireInfo(@RequestParam("address") String address) {
+    public ResponseEntity<SharedResponse<FireResponse>> getFireInfo(@RequestParam("address") String address,
+                                                                    @RequestParam(value = "fields", required = false) String fields) {
         logger.info("Request received for address: {}", address);
 
         if (address == null || address.trim().isEmpty()) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
 
-        FireResponse response = fireService.getFireService(address);
+        FieldSet fieldSet;
+        try {
+            fieldSet = FieldSet.parse(fields, FireInfoSerializer.FIELDS);
+        } catch (IllegalArgumentException e) {
+            logger.error("Bad request in getFireInfo - {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        SharedResponse<FireResponse> response = fireService.getFireResponse(address, fieldSet);
 
-        if(response==null){
+        if(response==null || response.getBody()==null){
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
 
         }
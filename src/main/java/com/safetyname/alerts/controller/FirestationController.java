@@ -1,7 +1,9 @@
 package com.safetyname.alerts.controller;
 
+import com.safetyname.alerts.dto.AgeHistogramResponse;
 import com.safetyname.alerts.dto.FirestationResponse;
 import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.json.SharedResponse;
 import com.safetyname.alerts.service.*;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -26,6 +28,7 @@ import java.util.List;
 public class FirestationController {
 
     private static final Logger logger = LogManager.getLogger(FirestationController.class);
+    private static final int MAX_AGE_BOUND = 150;
 
     private final IFireStationService fireStationService;
     private final IDataService dataService;
@@ -68,7 +71,7 @@ public class FirestationController {
                     return new ResponseEntity<>("Conflict", HttpStatus.CONFLICT);
                 }
             }
-            fireStations.add(newFireStation);
+            dataService.addFireStation(newFireStation);
             dataService.saveData();
             return new ResponseEntity<>("Fire Station added successfully", HttpStatus.CREATED);
         } catch (Exception e) {
@@ -104,7 +107,7 @@ public class FirestationController {
                         return new ResponseEntity<>("Conflict: Fire station already exists with the same address and station", HttpStatus.CONFLICT);
                     }
 
-                    fireStation.setStation(updateFirestation.getStation());
+                    dataService.updateFireStation(updateFirestation);
                     dataService.saveData();
                     logger.info("Fire station updated successfully");
                     return new ResponseEntity<>("Fire station updated successfully", HttpStatus.OK);
@@ -137,8 +140,9 @@ public class FirestationController {
         }
         try {
             List<FireStation> fireStations = dataService.getFireStations();
-            boolean removed = fireStations.removeIf(fireStation -> fireStation.getAddress().equals(address));
-            if (removed) {
+            boolean found = fireStations.stream().anyMatch(fireStation -> fireStation.getAddress().equals(address));
+            if (found) {
+                dataService.deleteFireStation(address);
                 dataService.saveData();
                 logger.info("Fire station deleted successfully");
                 return new ResponseEntity<>("Fire station deleted successfully", HttpStatus.OK);
@@ -165,11 +169,11 @@ public class FirestationController {
 
 
     @GetMapping
-    public ResponseEntity<FirestationResponse> getPersonsCoveredByFirestation(@RequestParam("stationNumber") int stationNumber) {
+    public ResponseEntity<SharedResponse<FirestationResponse>> getPersonsCoveredByFirestation(@RequestParam("stationNumber") int stationNumber) {
         logger.info("Request received for fire station number: {}", stationNumber);
 
-        FirestationResponse response = fireStationService.getFireStationService(stationNumber);
-        if (response == null) {
+        SharedResponse<FirestationResponse> response = fireStationService.getFireStationResponse(stationNumber);
+        if (response == null || response.getBody() == null) {
             logger.warn("No people or medical records found for fire station number: {}", stationNumber);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -177,4 +181,40 @@ public class FirestationController {
         logger.info("Returning information for fire station number: {}", stationNumber);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
+
+    /**
+     * Retrieves the age histogram of the people covered by a specific fire station.
+     * <p>
+     * The buckets start at 0 and at each bound, so the default bounds give the children, the adults under 65
+     * and the seniors. If the bounds are not strictly ascending between 1 and 150, a 400 Bad Request response
+     * is returned. If no data is found, a 404 Not Found response is returned.
+     * </p>
+     *
+     * @param stationNumber The fire station number to check for coverage.
+     * @param bounds        The first age of each bucket but the first.
+     * @return A ResponseEntity containing an AgeHistogramResponse object, or an error status (400 or 404).
+     */
+
+    @GetMapping("/ages")
+    public ResponseEntity<AgeHistogramResponse> getAgeHistogram(@RequestParam("stationNumber") int stationNumber,
+                                                                @RequestParam(value = "bounds", defaultValue = "18,65") List<Integer> bounds) {
+        logger.info("Request received for the age histogram of fire station number: {}", stationNumber);
+
+        for (int k = 0; k < bounds.size(); k++) {
+            Integer bound = bounds.get(k);
+            if (bound == null || bound < 1 || bound > MAX_AGE_BOUND || (k > 0 && bound <= bounds.get(k - 1))) {
+                logger.error("Bad request in getAgeHistogram - Invalid bounds {}", bounds);
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        AgeHistogramResponse response = fireStationService.getAgeHistogram(stationNumber, bounds);
+        if (response == null) {
+            logger.warn("No people or medical records found for fire station number: {}", stationNumber);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        logger.info("Returning the age histogram of fire station number: {}", stationNumber);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
 }
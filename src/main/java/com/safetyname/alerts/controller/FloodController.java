@@ -3,6 +3,9 @@ package com.safetyname.alerts.controller;
 import com.safetyname.alerts.dto.FloodResponse;
 import com.safetyname.alerts.entity.MedicalRecord;
 import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.json.FieldSet;
+import com.safetyname.alerts.json.FloodResponseSerializer;
+import com.safetyname.alerts.json.SharedResponse;
 import com.safetyname.alerts.service.CalculateAgeService;
 import com.safetyname.alerts.service.DataService;
 import com.safetyname.alerts.service.IDataService;
@@ -48,18 +51,35 @@ public class FloodController {
      * This endpoint returns a map where the keys are addresses and the values are lists of persons
      * (with their medical information) residing at those addresses.
      * If no households are found for the given fire stations, a 404 HTTP status is returned.
+     * The response is pre-serialized and cached until the data changes; concurrent identical requests share one computation.
+     * It is encoded in JSON, CBOR or Smile according to the {@code Accept} header.
+     * </p>
+     * <p>
+     * With {@code fields}, for instance {@code fields=lastName,phone}, only the listed fields of each resident are
+     * returned, and the medical records are not read unless age, medications or allergies are requested.
+     * An unknown field results in a 400 HTTP status (Bad Request).
      * </p>
      *
      * @param stationNumbers A list of fire station numbers to check for covered households.
-     * @return ResponseEntity containing a map of addresses and their respective FloodResponse objects or a 404 HTTP status if no households are found.
+     * @param fields         The comma-separated fields of the residents to return, all of them by default.
+     * @return ResponseEntity containing the map of addresses and their respective FloodResponse objects or an error status (400 or 404).
      */
 
     @GetMapping("/stations")
-    public ResponseEntity<Map<String, List<FloodResponse>>> getHouseholdsByStation(@RequestParam("stations") List<Integer> stationNumbers) {
+    public ResponseEntity<SharedResponse<Map<String, List<FloodResponse>>>> getHouseholdsByStation(@RequestParam("stations") List<Integer> stationNumbers,
+                                                                                                 @RequestParam(value = "fields", required = false) String fields) {
+
+        FieldSet fieldSet;
+        try {
+            fieldSet = FieldSet.parse(fields, FloodResponseSerializer.FIELDS);
+        } catch (IllegalArgumentException e) {
+            logger.error("Bad request in getHouseholdsByStation - {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
 
-        Map<String, List<FloodResponse>> householdsByAddress = floodService.getFloodService(stationNumbers);
+        SharedResponse<Map<String, List<FloodResponse>>> householdsByAddress = floodService.getFloodResponse(stationNumbers, fieldSet);
 
-        if (householdsByAddress.isEmpty()) {
+        if (householdsByAddress == null || householdsByAddress.getBody().isEmpty()) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
 
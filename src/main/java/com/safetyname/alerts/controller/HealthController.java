@@ -0,0 +1,71 @@
+package com.safetyname.alerts.controller;
+
+import com.safetyname.alerts.dto.LoadStatus;
+import com.safetyname.alerts.service.IDataLoadService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for the health checks of the application, separating liveness from readiness.
+ * <p>
+ * Both endpoints return the progress of the loading of the data file. They are never refused while the data
+ * is loading, unlike the data endpoints.
+ * </p>
+ */
+
+@RestController
+@RequestMapping("/health")
+public class HealthController {
+
+    private final IDataLoadService dataLoadService;
+
+    /**
+     * Constructor for HealthController that initializes the data load service.
+     *
+     * @param dataLoadService The service loading the data file at startup.
+     */
+
+    public HealthController(IDataLoadService dataLoadService) {
+        this.dataLoadService = dataLoadService;
+    }
+
+    /**
+     * Tells whether the application is alive, whether or not its data is loaded.
+     * <p>
+     * A 503 HTTP status (Service Unavailable) means the application has to be restarted.
+     * </p>
+     *
+     * @return ResponseEntity containing the load status, with a 200 or a 503 HTTP status.
+     */
+
+    @GetMapping("/liveness")
+    public ResponseEntity<LoadStatus> getLiveness() {
+        HttpStatus status = dataLoadService.isLive() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return new ResponseEntity<>(dataLoadService.getStatus(), status);
+    }
+
+    /**
+     * Tells whether the application serves its data.
+     * <p>
+     * Until the data file is loaded, a 503 HTTP status (Service Unavailable) is returned with a {@code Retry-After}
+     * header; the body tells the phase of the load and the share of the file already parsed.
+     * </p>
+     *
+     * @return ResponseEntity containing the load status, with a 200 or a 503 HTTP status.
+     */
+
+    @GetMapping("/readiness")
+    public ResponseEntity<LoadStatus> getReadiness() {
+        LoadStatus loadStatus = dataLoadService.getStatus();
+        if (loadStatus.isReady()) {
+            return new ResponseEntity<>(loadStatus, HttpStatus.OK);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(dataLoadService.getRetryAfterSeconds()));
+        return new ResponseEntity<>(loadStatus, headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
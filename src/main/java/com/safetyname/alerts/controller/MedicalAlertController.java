@@ -0,0 +1,107 @@
+package com.safetyname.alerts.controller;
+
+import com.safetyname.alerts.dto.MedicalAlertResponse;
+import com.safetyname.alerts.service.IMedicalAlertService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for finding residents by medication or allergy.
+ * <p>
+ * This controller answers questions such as "everyone at station 3 allergic to penicillin" or
+ * "everyone on insulin at these addresses". The search can be restricted to the addresses covered by
+ * one or more fire stations and/or to a list of addresses. It interacts with the IMedicalAlertService
+ * to fetch the data.
+ * </p>
+ */
+
+@RestController
+@RequestMapping("/medicalAlert")
+public class MedicalAlertController {
+
+    private static final Logger logger = LogManager.getLogger(MedicalAlertController.class);
+
+    private final IMedicalAlertService medicalAlertService;
+
+    /**
+     * Constructor for MedicalAlertController that initializes the medical alert service.
+     *
+     * @param medicalAlertService The service responsible for searching residents by medical term.
+     */
+
+    @Autowired
+    public MedicalAlertController(IMedicalAlertService medicalAlertService) {
+        this.medicalAlertService = medicalAlertService;
+    }
+
+    /**
+     * Retrieves the residents taking the given medication.
+     * <p>
+     * If the medication is empty, a 400 HTTP status (Bad Request) is returned.
+     * If nobody matches, a 404 HTTP status is returned.
+     * </p>
+     *
+     * @param name           The drug name, without dosage.
+     * @param stationNumbers Optional fire station numbers restricting the search.
+     * @param addresses      Optional addresses restricting the search.
+     * @return ResponseEntity containing a list of MedicalAlertResponse objects or an error status (400 or 404).
+     */
+
+    @GetMapping("/medication")
+    public ResponseEntity<List<MedicalAlertResponse>> getPersonsByMedication(@RequestParam("name") String name,
+                                                                             @RequestParam(value = "stations", required = false) List<Integer> stationNumbers,
+                                                                             @RequestParam(value = "addresses", required = false) List<String> addresses) {
+        logger.info("Request received for medication: {}", name);
+        if (name == null || name.trim().isEmpty()) {
+            logger.error("Bad request in getPersonsByMedication - Medication is null or empty");
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        List<MedicalAlertResponse> responses = medicalAlertService.getPersonsByMedication(name, stationNumbers, addresses);
+        if (responses.isEmpty()) {
+            logger.warn("No person found taking medication: {}", name);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(responses, HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the residents having the given allergy.
+     * <p>
+     * If the allergy is empty, a 400 HTTP status (Bad Request) is returned.
+     * If nobody matches, a 404 HTTP status is returned.
+     * </p>
+     *
+     * @param name           The allergy.
+     * @param stationNumbers Optional fire station numbers restricting the search.
+     * @param addresses      Optional addresses restricting the search.
+     * @return ResponseEntity containing a list of MedicalAlertResponse objects or an error status (400 or 404).
+     */
+
+    @GetMapping("/allergy")
+    public ResponseEntity<List<MedicalAlertResponse>> getPersonsByAllergy(@RequestParam("name") String name,
+                                                                          @RequestParam(value = "stations", required = false) List<Integer> stationNumbers,
+                                                                          @RequestParam(value = "addresses", required = false) List<String> addresses) {
+        logger.info("Request received for allergy: {}", name);
+        if (name == null || name.trim().isEmpty()) {
+            logger.error("Bad request in getPersonsByAllergy - Allergy is null or empty");
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        List<MedicalAlertResponse> responses = medicalAlertService.getPersonsByAllergy(name, stationNumbers, addresses);
+        if (responses.isEmpty()) {
+            logger.warn("No person found with allergy: {}", name);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(responses, HttpStatus.OK);
+    }
+}
@@ -1,5 +1,6 @@
 package com.safetyname.alerts.controller;
 
+import com.safetyname.alerts.dto.MedicalRecordResidency;
 import com.safetyname.alerts.entity.MedicalRecord;
 import com.safetyname.alerts.service.DataService;
 import com.safetyname.alerts.service.IDataService;
@@ -63,7 +64,7 @@ public class MedicalRecordController {
                     return new ResponseEntity<>("Conflict in addMedicalRecord", HttpStatus.CONFLICT);
                 }
             }
-            medicalRecords.add(newMedicalRecord);
+            dataService.addMedicalRecord(newMedicalRecord);
             dataService.saveData();
             logger.info("Medical record added successfully");
             return new ResponseEntity<>("Medical record added successfully", HttpStatus.CREATED);
@@ -99,9 +100,7 @@ public class MedicalRecordController {
                 }
                 if (medicalRecord.getFirstName().equals(updateMedicalRecord.getFirstName()) &&
                         medicalRecord.getLastName().equals(updateMedicalRecord.getLastName())) {
-                    medicalRecord.setBirthdate(updateMedicalRecord.getBirthdate());
-                    medicalRecord.setMedications(updateMedicalRecord.getMedications());
-                    medicalRecord.setAllergies(updateMedicalRecord.getAllergies());
+                    dataService.updateMedicalRecord(updateMedicalRecord);
                     dataService.saveData();
                     logger.info("Medical record updated successfully");
                     return new ResponseEntity<>("Medical record updated successfully", HttpStatus.OK);
@@ -133,11 +132,12 @@ public class MedicalRecordController {
         }
         try {
             List<MedicalRecord> medicalRecords = dataService.getMedicalRecords();
-            boolean removed = medicalRecords.removeIf(record ->
+            boolean found = medicalRecords.stream().anyMatch(record ->
                     record.getFirstName().equals(firstName) && record.getLastName().equals(lastName)
             );
 
-            if (removed) {
+            if (found) {
+                dataService.deleteMedicalRecord(firstName, lastName);
                 dataService.saveData();
                 logger.info("Medical record deleted successfully");
                 return new ResponseEntity<>("Medical record deleted successfully", HttpStatus.OK);
@@ -150,4 +150,22 @@ public class MedicalRecordController {
             return new ResponseEntity<>("Failed to delete medical record: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    /**
+     * Endpoint to get how the medications and allergies of the medical records are split between memory and disk.
+     * <p>
+     * If the medical records are not tiered ({@code data.medicalRecords.tiered}), a 404 HTTP status is returned.
+     *
+     * @return ResponseEntity containing the residency counters, or a 404 status.
+     */
+    @GetMapping("/residency")
+    public ResponseEntity<MedicalRecordResidency> getResidency() {
+        logger.info("Received request for the medical record residency");
+        MedicalRecordResidency residency = dataService.getMedicalRecordResidency();
+        if (residency == null) {
+            logger.warn("Medical records are not tiered");
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(residency, HttpStatus.OK);
+    }
 }
@@ -63,7 +63,7 @@ public class PersonController {
                     return new ResponseEntity<>("Conflict in addPerson", HttpStatus.CONFLICT);
                 }
             }
-            persons.add(newPerson);
+            dataService.addPerson(newPerson);
             dataService.saveData();
             logger.info("Person added successfully: {} {}", newPerson.getFirstName(), newPerson.getLastName());
             return new ResponseEntity<>("Person added successfully", HttpStatus.CREATED);
@@ -100,11 +100,7 @@ public class PersonController {
                 }
                 if (person.getFirstName().equals(updatedPerson.getFirstName()) &&
                         person.getLastName().equals(updatedPerson.getLastName())) {
-                    person.setAddress(updatedPerson.getAddress());
-                    person.setCity(updatedPerson.getCity());
-                    person.setZip(updatedPerson.getZip());
-                    person.setPhone(updatedPerson.getPhone());
-                    person.setEmail(updatedPerson.getEmail());
+                    dataService.updatePerson(updatedPerson);
                     dataService.saveData();
                     logger.info("Person updated successfully: {} {}", person.getFirstName(), person.getLastName());
                     return new ResponseEntity<>("Person updated successfully", HttpStatus.OK);
@@ -136,11 +132,12 @@ public class PersonController {
         }
         try {
             List<Person> persons = dataService.getPersons();
-            boolean removed = persons.removeIf(person ->
+            boolean found = persons.stream().anyMatch(person ->
                     person.getFirstName().equals(firstName) && person.getLastName().equals(lastName)
             );
 
-            if (removed) {
+            if (found) {
+                dataService.deletePerson(firstName, lastName);
                 dataService.saveData();
                 logger.info("Person deleted successfully: {} {}", firstName, lastName);
                 return new ResponseEntity<>("Person deleted successfully", HttpStatus.OK);
@@ -3,6 +3,9 @@ package com.safetyname.alerts.controller;
 import com.safetyname.alerts.dto.PersonInfoLastNameResponse;
 import com.safetyname.alerts.entity.MedicalRecord;
 import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.json.FieldSet;
+import com.safetyname.alerts.json.PersonInfoLastNameResponseSerializer;
+import com.safetyname.alerts.json.SharedResponse;
 import com.safetyname.alerts.service.CalculateAgeService;
 import com.safetyname.alerts.service.DataService;
 import com.safetyname.alerts.service.IDataService;
@@ -33,6 +36,9 @@ public class PersonInfoLastNameController {
 
     private static final Logger logger = LogManager.getLogger(PersonInfoLastNameController.class);
 
+    private static final String MATCH_EXACT = "exact";
+    private static final String MATCH_PHONETIC = "phonetic";
+
     private final IPersonInfoLastNameService personInfoLastNameService;
 
     /**
@@ -51,23 +57,51 @@ public class PersonInfoLastNameController {
      * <p>
      * This endpoint returns a list of {@link PersonInfoLastNameResponse} containing details about persons with the given last name,
      * such as their address, age, email, medications, and allergies. If no persons are found with the given last name, a 404 HTTP status is returned.
-     * If the last name is null or empty, a 400 HTTP status (Bad Request) is returned.
+     * If the last name is null or empty, or the match mode is unknown, a 400 HTTP status (Bad Request) is returned.
+     * </p>
+     * <p>
+     * With {@code match=phonetic}, last names that sound like the requested one are also returned,
+     * ranked with the closest spellings first, so that a name misspelled over the phone still matches.
+     * </p>
+     * <p>
+     * With {@code fields}, for instance {@code fields=address,email}, only the listed fields of each person are
+     * returned. An unknown field results in a 400 HTTP status (Bad Request).
      * </p>
      *
      * @param lastName The last name to search for.
+     * @param match    The match mode, {@code exact} (default) or {@code phonetic}.
+     * @param fields   The comma-separated fields of the persons to return, all of them by default.
      * @return ResponseEntity containing a list of PersonInfoLastNameResponse objects or an error status (400 or 404).
      */
 
     @GetMapping("/{lastName}")
-    public ResponseEntity<List<PersonInfoLastNameResponse>> getPersonInfolastName(@PathVariable String lastName) {
-        logger.info("Received request to get person information for last name: {}", lastName);
+    public ResponseEntity<SharedResponse<List<PersonInfoLastNameResponse>>> getPersonInfolastName(@PathVariable String lastName,
+                                                                                                  @RequestParam(value = "match", defaultValue = MATCH_EXACT) String match,
+                                                                                                  @RequestParam(value = "fields", required = false) String fields) {
+        logger.info("Received request to get person information for last name: {} ({} match)", lastName, match);
 
         if (lastName == null || lastName.trim().isEmpty()) {
             logger.error("Bad request in getPersonInfolastName - Last name is null or empty");
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
 
-        List<PersonInfoLastNameResponse> responses=personInfoLastNameService.getPersonInfoLastNameService(lastName);
+        FieldSet fieldSet;
+        try {
+            fieldSet = FieldSet.parse(fields, PersonInfoLastNameResponseSerializer.FIELDS);
+        } catch (IllegalArgumentException e) {
+            logger.error("Bad request in getPersonInfolastName - {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        List<PersonInfoLastNameResponse> responses;
+        if (MATCH_EXACT.equals(match)) {
+            responses = personInfoLastNameService.getPersonInfoLastNameService(lastName, fieldSet);
+        } else if (MATCH_PHONETIC.equals(match)) {
+            responses = personInfoLastNameService.getPersonInfoPhoneticLastNameService(lastName, fieldSet);
+        } else {
+            logger.error("Bad request in getPersonInfolastName - Unknown match mode: {}", match);
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
 
         if (responses.isEmpty()) {
             logger.warn("No matching records found between persons and medical records for last name: {}", lastName);
@@ -75,6 +109,6 @@ public class PersonInfoLastNameController {
         }
 
         logger.info("Found {} person(s) with last name: {}", responses.size(), lastName);
-        return new ResponseEntity<>(responses, HttpStatus.OK);
+        return new ResponseEntity<>(new SharedResponse<>(responses, fieldSet), HttpStatus.OK);
     }
 }
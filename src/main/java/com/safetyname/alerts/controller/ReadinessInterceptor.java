@@ -0,0 +1,56 @@
+package com.safetyname.alerts.controller;
+
+import com.safetyname.alerts.service.IDataLoadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Interceptor refusing the requests of the data endpoints with a 503 HTTP status (Service Unavailable) and a
+ * {@code Retry-After} header until the data is loaded, see {@link IDataLoadService#isReady()}.
+ * <p>
+ * Writes are refused as well as reads: a change made before the data file is loaded would be lost when it is.
+ * The health endpoints are always served. Without a data load service, as in the controller tests, every
+ * request is served.
+ */
+@Component
+public class ReadinessInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+    private static final Logger logger = LogManager.getLogger(ReadinessInterceptor.class);
+
+    private final ObjectProvider<IDataLoadService> dataLoadService;
+
+    /**
+     * Constructor for ReadinessInterceptor.
+     *
+     * @param dataLoadService The service loading the data file, if any.
+     */
+    public ReadinessInterceptor(ObjectProvider<IDataLoadService> dataLoadService) {
+        this.dataLoadService = dataLoadService;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).excludePathPatterns("/health/**", "/error");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        IDataLoadService loadService = dataLoadService.getIfAvailable();
+        if (loadService == null || loadService.isReady()) {
+            return true;
+        }
+        logger.warn("Refused {} {}: the data is not loaded yet", request.getMethod(), request.getRequestURI());
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(loadService.getRetryAfterSeconds()));
+        return false;
+    }
+}
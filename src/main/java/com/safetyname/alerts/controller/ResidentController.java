@@ -0,0 +1,165 @@
+package com.safetyname.alerts.controller;
+
+import com.safetyname.alerts.dto.MedicalAlertResponse;
+import com.safetyname.alerts.index.QueryPlan;
+import com.safetyname.alerts.index.ResidentQuery;
+import com.safetyname.alerts.service.IResidentService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for combined searches over the residents.
+ * <p>
+ * This controller answers wide-area filtered alerts such as "residents of stations 1 and 3 who are
+ * minors and allergic to peanut". All the criteria are optional but at least one is required.
+ * It interacts with the IResidentService to fetch the data.
+ * </p>
+ */
+
+@RestController
+@RequestMapping("/residents")
+public class ResidentController {
+
+    private static final Logger logger = LogManager.getLogger(ResidentController.class);
+
+    private final IResidentService residentService;
+
+    /**
+     * Constructor for ResidentController that initializes the resident service.
+     *
+     * @param residentService The service responsible for the combined searches.
+     */
+
+    @Autowired
+    public ResidentController(IResidentService residentService) {
+        this.residentService = residentService;
+    }
+
+    /**
+     * Retrieves the residents matching every given criterion.
+     * <p>
+     * Residents must live at an address covered by one of the stations or listed in the addresses,
+     * live in one of the cities, have one of the last names, be aged between {@code minAge} and
+     * {@code maxAge} (inclusive), and take every listed medication and have every listed allergy.
+     * If no criterion is given or the age range is invalid, a 400 HTTP status (Bad Request) is returned.
+     * If nobody matches, a 404 HTTP status is returned.
+     * </p>
+     *
+     * @param stations    Optional fire station numbers.
+     * @param addresses   Optional addresses.
+     * @param cities      Optional cities.
+     * @param lastNames   Optional last names.
+     * @param minAge      Optional minimum age.
+     * @param maxAge      Optional maximum age.
+     * @param medications Optional drug names, without dosage.
+     * @param allergies   Optional allergies.
+     * @return ResponseEntity containing a list of MedicalAlertResponse objects or an error status (400 or 404).
+     */
+
+    @GetMapping
+    public ResponseEntity<List<MedicalAlertResponse>> findResidents(@RequestParam(value = "stations", required = false) List<Integer> stations,
+                                                                    @RequestParam(value = "addresses", required = false) List<String> addresses,
+                                                                    @RequestParam(value = "cities", required = false) List<String> cities,
+                                                                    @RequestParam(value = "lastNames", required = false) List<String> lastNames,
+                                                                    @RequestParam(value = "minAge", required = false) Integer minAge,
+                                                                    @RequestParam(value = "maxAge", required = false) Integer maxAge,
+                                                                    @RequestParam(value = "medications", required = false) List<String> medications,
+                                                                    @RequestParam(value = "allergies", required = false) List<String> allergies) {
+        ResidentQuery query = toQuery(stations, addresses, cities, lastNames, minAge, maxAge, medications, allergies);
+        logger.info("Request received for residents of stations {} and addresses {}", stations, addresses);
+
+        if (!isValid(query)) {
+            logger.error("Bad request in findResidents - No criterion or invalid age range");
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        List<MedicalAlertResponse> residents = residentService.findResidents(query);
+        if (residents.isEmpty()) {
+            logger.warn("No resident matches the search.");
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        logger.info("Found {} resident(s) matching the search.", residents.size());
+        return new ResponseEntity<>(residents, HttpStatus.OK);
+    }
+
+    /**
+     * Describes how a search would be evaluated, without running it.
+     * <p>
+     * The parameters are the same as for {@link #findResidents}. The response lists the steps of the plan
+     * chosen by the data layer, with their estimated rows and cost. If no criterion is given or the age
+     * range is invalid, a 400 HTTP status (Bad Request) is returned.
+     * </p>
+     *
+     * @param stations    Optional fire station numbers.
+     * @param addresses   Optional addresses.
+     * @param cities      Optional cities.
+     * @param lastNames   Optional last names.
+     * @param minAge      Optional minimum age.
+     * @param maxAge      Optional maximum age.
+     * @param medications Optional drug names, without dosage.
+     * @param allergies   Optional allergies.
+     * @return ResponseEntity containing the QueryPlan or a 400 status.
+     */
+
+    @GetMapping("/explain")
+    public ResponseEntity<QueryPlan> explainResidents(@RequestParam(value = "stations", required = false) List<Integer> stations,
+                                                      @RequestParam(value = "addresses", required = false) List<String> addresses,
+                                                      @RequestParam(value = "cities", required = false) List<String> cities,
+                                                      @RequestParam(value = "lastNames", required = false) List<String> lastNames,
+                                                      @RequestParam(value = "minAge", required = false) Integer minAge,
+                                                      @RequestParam(value = "maxAge", required = false) Integer maxAge,
+                                                      @RequestParam(value = "medications", required = false) List<String> medications,
+                                                      @RequestParam(value = "allergies", required = false) List<String> allergies) {
+        ResidentQuery query = toQuery(stations, addresses, cities, lastNames, minAge, maxAge, medications, allergies);
+        if (!isValid(query)) {
+            logger.error("Bad request in explainResidents - No criterion or invalid age range");
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        QueryPlan plan = residentService.explain(query);
+        logger.info("Explained search: {}", plan.explain());
+        return new ResponseEntity<>(plan, HttpStatus.OK);
+    }
+
+    private static ResidentQuery toQuery(List<Integer> stations, List<String> addresses, List<String> cities,
+                                         List<String> lastNames, Integer minAge, Integer maxAge,
+                                         List<String> medications, List<String> allergies) {
+        ResidentQuery query = new ResidentQuery();
+        if (stations != null) {
+            query.getStations().addAll(stations);
+        }
+        if (addresses != null) {
+            query.getAddresses().addAll(addresses);
+        }
+        if (cities != null) {
+            query.getCities().addAll(cities);
+        }
+        if (lastNames != null) {
+            query.getLastNames().addAll(lastNames);
+        }
+        if (medications != null) {
+            query.getMedications().addAll(medications);
+        }
+        if (allergies != null) {
+            query.getAllergies().addAll(allergies);
+        }
+        query.setMinAge(minAge);
+        query.setMaxAge(maxAge);
+        return query;
+    }
+
+    private static boolean isValid(ResidentQuery query) {
+        return query.hasCriteria() && (query.getMinAge() == null || query.getMaxAge() == null
+                || query.getMinAge() <= query.getMaxAge());
+    }
+}
@@ -0,0 +1,70 @@
+package com.safetyname.alerts.controller;
+
+import com.safetyname.alerts.dto.SyncResponse;
+import com.safetyname.alerts.service.ChangeLog;
+import com.safetyname.alerts.service.ISyncService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller synchronizing offline replicas of the data covered by fire stations.
+ * <p>
+ * A responder device downloads the persons, medical records and fire station mappings of its stations once,
+ * then only what changed since the version it holds.
+ * </p>
+ */
+
+@RestController
+@RequestMapping("/sync")
+public class SyncController {
+
+    private static final Logger logger = LogManager.getLogger(SyncController.class);
+    private final ISyncService syncService;
+
+    /**
+     * Constructor for SyncController that initializes the synchronization service.
+     *
+     * @param syncService The service computing the changes of the data covered by fire stations.
+     */
+
+    public SyncController(ISyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    /**
+     * Retrieves the changes of the data covered by fire stations since a version.
+     * <p>
+     * The response holds the version reached, {@code <epoch>-<version>}, to send as {@code since} at the next
+     * synchronization, the persons, medical records and mappings to add or replace, and those to remove. Several
+     * changes of one entity are collapsed into its current state. Without {@code since}, when the changes since that
+     * version are no longer retained, or when it comes from before a restart of the application, {@code full} is
+     * true and the response holds the whole data of the stations, replacing the replica. An empty list of stations
+     * or a malformed version results in a 400 HTTP status (Bad Request).
+     * </p>
+     *
+     * @param stationNumbers The fire station numbers covered by the replica.
+     * @param since          The version of the replica, if it holds data.
+     * @return ResponseEntity containing the SyncResponse or a 400 HTTP status.
+     */
+
+    @GetMapping
+    public ResponseEntity<SyncResponse> getChanges(@RequestParam("stations") List<Integer> stationNumbers,
+                                                   @RequestParam(value = "since", required = false) String since) {
+        logger.info("Synchronization requested for stations {} from version {}", stationNumbers, since);
+
+        if (stationNumbers.isEmpty() || stationNumbers.contains(null) || (since != null && !ChangeLog.isPosition(since))) {
+            logger.error("Bad request in getChanges - stations: {}, since: {}", stationNumbers, since);
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        return new ResponseEntity<>(syncService.getChanges(stationNumbers, since), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,24 @@
+package com.safetyname.alerts.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object representing one bucket of an age histogram.
+ * <p>
+ * This class encapsulates an age range, both bounds included, and the number of persons
+ * whose age falls within it. The last bucket has no maximum age.
+ * <strong>Note:</strong> This class uses Lombok annotations to automatically generate
+ * getters, setters and an all-arguments constructor.
+ * Make sure Lombok is properly configured in your development environment.
+ */
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class AgeBucket {
+    private int minAge;
+    private Integer maxAge;
+    private long count;
+}
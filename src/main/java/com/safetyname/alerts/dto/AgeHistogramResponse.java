@@ -0,0 +1,26 @@
+package com.safetyname.alerts.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object representing the age histogram of the persons covered by a fire station.
+ * <p>
+ * This class encapsulates the station number, the age buckets in ascending order, and the number
+ * of persons whose birthdate is missing or invalid, who are not counted in any bucket.
+ * <strong>Note:</strong> This class uses Lombok annotations to automatically generate
+ * getters, setters and an all-arguments constructor.
+ * Make sure Lombok is properly configured in your development environment.
+ */
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class AgeHistogramResponse {
+    private int stationNumber;
+    private List<AgeBucket> buckets;
+    private long unknownCount;
+}
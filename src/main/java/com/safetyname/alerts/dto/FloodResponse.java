@@ -5,8 +5,17 @@ package com.safetyname.alerts.dto;
 import java.util.List;
 
 
-
+/**
+ * Data Transfer Object representing a resident of a household in a flood alert.
+ * <p>
+ * The first name is held but deliberately not written to JSON:
+ * {@link com.safetyname.alerts.json.FloodResponseSerializer} lists the residents by last name, phone, age and
+ * medical history only, so there is no getter for it.
+ */
 public class FloodResponse {
+    /**
+     * Not serialized, see {@link com.safetyname.alerts.json.FloodResponseSerializer}.
+     */
     private String firstName;
     private String lastName;
     private String phone;
@@ -23,10 +32,6 @@ public class FloodResponse {
         this.allergies = allergies;
     }
 
-   /* public String getFirstName() {
-        return firstName;
-    }*/
-
     public void setFirstName(String firstName) {
         this.firstName = firstName;
     }
@@ -0,0 +1,34 @@
+package com.safetyname.alerts.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object representing the progress of the loading of the data file.
+ * <p>
+ * This class encapsulates whether the application serves the data, the phase of the last read of the data file
+ * (pending, reading, indexing, recovering, ready or failed), the file, the bytes read out of its size and the
+ * corresponding percentage, the number of entities once parsed, the time spent so far and the error of a
+ * failed read.
+ * <strong>Note:</strong> This class uses Lombok annotations to automatically generate
+ * getters, setters and an all-arguments constructor.
+ * Make sure Lombok is properly configured in your development environment.
+ */
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class LoadStatus {
+    private boolean ready;
+    private String phase;
+    private String file;
+    private long bytesRead;
+    private long totalBytes;
+    private int percent;
+    private long persons;
+    private long fireStations;
+    private long medicalRecords;
+    private long elapsedMillis;
+    private String error;
+}
@@ -0,0 +1,30 @@
+package com.safetyname.alerts.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object representing a resident matched by a medical or combined resident search.
+ * <p>
+ * This class encapsulates the identity, location and medical information of a resident,
+ * so that responders can reach the persons concerned by a hazmat or mass-casualty event.
+ * <strong>Note:</strong> This class uses Lombok annotations to automatically generate
+ * getters, setters and an all-arguments constructor.
+ * Make sure Lombok is properly configured in your development environment.
+ */
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class MedicalAlertResponse {
+    private String firstName;
+    private String lastName;
+    private String address;
+    private String phone;
+    private int age;
+    private List<String> medications;
+    private List<String> allergies;
+}
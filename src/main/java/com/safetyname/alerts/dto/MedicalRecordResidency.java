@@ -0,0 +1,30 @@
+package com.safetyname.alerts.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object representing where the medications and allergies of the medical records reside.
+ * <p>
+ * This class encapsulates the number of records, the capacity of the in-memory (hot) tier and the number of
+ * records in it, the number of records only in the on-disk segment (cold), the size of the segment, and the
+ * hits, misses and evictions of the hot tier since the data was loaded.
+ * <strong>Note:</strong> This class uses Lombok annotations to automatically generate
+ * getters, setters and an all-arguments constructor.
+ * Make sure Lombok is properly configured in your development environment.
+ */
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class MedicalRecordResidency {
+    private long records;
+    private int hotCapacity;
+    private long hotRecords;
+    private long coldRecords;
+    private long segmentBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+}
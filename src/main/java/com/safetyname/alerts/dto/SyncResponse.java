@@ -0,0 +1,36 @@
+package com.safetyname.alerts.dto;
+
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object representing the changes a replica of some fire stations needs to reach a data version.
+ * <p>
+ * This class encapsulates the change log position reached, whether the replica must be replaced ({@code full}), the persons,
+ * medical records and fire station mappings to add or replace, and those to remove, given in the state the replica
+ * last received. Persons and medical records are identified by their first and last names, mappings by their
+ * address and station.
+ * <strong>Note:</strong> This class uses Lombok annotations to automatically generate
+ * getters, setters and an all-arguments constructor.
+ * Make sure Lombok is properly configured in your development environment.
+ */
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class SyncResponse {
+    private String version;
+    private boolean full;
+    private List<Person> persons;
+    private List<MedicalRecord> medicalRecords;
+    private List<FireStation> fireStations;
+    private List<Person> deletedPersons;
+    private List<MedicalRecord> deletedMedicalRecords;
+    private List<FireStation> deletedFireStations;
+}
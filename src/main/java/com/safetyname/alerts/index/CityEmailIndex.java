@@ -0,0 +1,82 @@
+package com.safetyname.alerts.index;
+
+import com.safetyname.alerts.entity.Person;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory index mapping a normalized city name to the de-duplicated email addresses of its residents.
+ * <p>
+ * Each email is reference-counted per city so that removing one resident does not drop an
+ * address still shared by another resident of the same city. The index is kept up to date by
+ * the data layer on every person addition, update and deletion.
+ */
+public class CityEmailIndex {
+
+    private final Map<String, Map<String, Integer>> emailsByCity = new HashMap<>();
+
+    /**
+     * Rebuilds the index from the given persons, discarding any previous content.
+     *
+     * @param persons The persons to index.
+     */
+    public synchronized void rebuild(Collection<Person> persons) {
+        emailsByCity.clear();
+        if (persons != null) {
+            persons.forEach(this::add);
+        }
+    }
+
+    /**
+     * Adds a person's email to the entry of their city.
+     *
+     * @param person The person to index.
+     */
+    public synchronized void add(Person person) {
+        if (person == null || person.getEmail() == null) {
+            return;
+        }
+        emailsByCity.computeIfAbsent(TextNormalizer.normalize(person.getCity()), k -> new LinkedHashMap<>())
+                .merge(person.getEmail(), 1, Integer::sum);
+    }
+
+    /**
+     * Removes a person's email from the entry of their city.
+     *
+     * @param person The person to remove from the index.
+     */
+    public synchronized void remove(Person person) {
+        if (person == null || person.getEmail() == null) {
+            return;
+        }
+        String city = TextNormalizer.normalize(person.getCity());
+        Map<String, Integer> emails = emailsByCity.get(city);
+        if (emails == null) {
+            return;
+        }
+        emails.computeIfPresent(person.getEmail(), (email, count) -> count > 1 ? count - 1 : null);
+        if (emails.isEmpty()) {
+            emailsByCity.remove(city);
+        }
+    }
+
+    /**
+     * Retrieves the distinct email addresses of the residents of a city.
+     *
+     * @param city The city name, matched on its normalized form.
+     * @return The distinct email addresses in insertion order, or an empty list if the city is unknown.
+     */
+    public synchronized List<String> getEmails(String city) {
+        Map<String, Integer> emails = emailsByCity.get(TextNormalizer.normalize(city));
+        if (emails == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(emails.keySet());
+    }
+}
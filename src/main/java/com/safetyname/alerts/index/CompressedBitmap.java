@@ -0,0 +1,421 @@
+package com.safetyname.alerts.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed bitmap of non-negative integers, organized like a Roaring bitmap.
+ * <p>
+ * Integers are split into a 16-bit high part selecting a chunk and a 16-bit low part stored in that chunk.
+ * A chunk holding at most {@value #ARRAY_MAX} values is a sorted {@code char[]}; a denser chunk is a
+ * fixed 8 KB {@code long[]} bitset. Intersections and unions work chunk by chunk, so combining posting
+ * lists of a million persons only touches a few hundred small arrays.
+ * <p>
+ * This class is not thread-safe; the indexes using it synchronize their accesses.
+ */
+public class CompressedBitmap {
+
+    static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+
+    private char[] keys = new char[4];
+    private Object[] chunks = new Object[4];
+    private int[] cardinalities = new int[4];
+    private int size;
+
+    /**
+     * Creates a bitmap containing the given values.
+     *
+     * @param values The values to add.
+     * @return A new bitmap.
+     */
+    public static CompressedBitmap of(int... values) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Adds a value to the bitmap.
+     *
+     * @param value The non-negative value to add.
+     * @return true if the value was not already present.
+     */
+    public boolean add(int value) {
+        char high = (char) (value >>> 16);
+        char low = (char) value;
+        int index = find(high);
+        if (index < 0) {
+            index = -index - 1;
+            insertChunk(index, high, new char[]{low}, 1);
+            return true;
+        }
+        Object chunk = chunks[index];
+        int cardinality = cardinalities[index];
+        if (chunk instanceof long[] words) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) != 0) {
+                return false;
+            }
+            words[low >>> 6] |= bit;
+            cardinalities[index] = cardinality + 1;
+            return true;
+        }
+        char[] values = (char[]) chunk;
+        int position = Arrays.binarySearch(values, 0, cardinality, low);
+        if (position >= 0) {
+            return false;
+        }
+        position = -position - 1;
+        if (cardinality == ARRAY_MAX) {
+            long[] words = toWords(values, cardinality);
+            words[low >>> 6] |= 1L << low;
+            chunks[index] = words;
+        } else {
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, cardinality * 2)));
+                chunks[index] = values;
+            }
+            System.arraycopy(values, position, values, position + 1, cardinality - position);
+            values[position] = low;
+        }
+        cardinalities[index] = cardinality + 1;
+        return true;
+    }
+
+    /**
+     * Removes a value from the bitmap.
+     *
+     * @param value The value to remove.
+     * @return true if the value was present.
+     */
+    public boolean remove(int value) {
+        char high = (char) (value >>> 16);
+        char low = (char) value;
+        int index = find(high);
+        if (index < 0) {
+            return false;
+        }
+        Object chunk = chunks[index];
+        int cardinality = cardinalities[index];
+        if (chunk instanceof long[] words) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) {
+                return false;
+            }
+            words[low >>> 6] &= ~bit;
+            cardinality--;
+            if (cardinality <= ARRAY_MAX) {
+                chunks[index] = toValues(words, cardinality);
+            }
+        } else {
+            char[] values = (char[]) chunk;
+            int position = Arrays.binarySearch(values, 0, cardinality, low);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(values, position + 1, values, position, cardinality - position - 1);
+            cardinality--;
+        }
+        if (cardinality == 0) {
+            removeChunk(index);
+        } else {
+            cardinalities[index] = cardinality;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a value is in the bitmap.
+     *
+     * @param value The value to look for.
+     * @return true if the value is present.
+     */
+    public boolean contains(int value) {
+        int index = find((char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) value;
+        Object chunk = chunks[index];
+        if (chunk instanceof long[] words) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) chunk, 0, cardinalities[index], low) >= 0;
+    }
+
+    /**
+     * Returns the number of values in the bitmap.
+     *
+     * @return The cardinality.
+     */
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += cardinalities[i];
+        }
+        return total;
+    }
+
+    /**
+     * Checks whether the bitmap is empty.
+     *
+     * @return true if the bitmap holds no value.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Calls the action for each value, in ascending order.
+     *
+     * @param action The action to perform.
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            int base = keys[i] << 16;
+            Object chunk = chunks[i];
+            if (chunk instanceof long[] words) {
+                for (int w = 0; w < WORDS; w++) {
+                    long word = words[w];
+                    while (word != 0) {
+                        action.accept(base | (w << 6) | Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                char[] values = (char[]) chunk;
+                for (int v = 0; v < cardinalities[i]; v++) {
+                    action.accept(base | values[v]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the values of the bitmap in ascending order.
+     *
+     * @return A new array of values.
+     */
+    public int[] toArray() {
+        int[] values = new int[cardinality()];
+        int[] position = {0};
+        forEach(value -> values[position[0]++] = value);
+        return values;
+    }
+
+    /**
+     * Returns a copy of this bitmap.
+     *
+     * @return A new, independent bitmap with the same values.
+     */
+    public CompressedBitmap copy() {
+        CompressedBitmap copy = new CompressedBitmap();
+        copy.keys = Arrays.copyOf(keys, keys.length);
+        copy.cardinalities = Arrays.copyOf(cardinalities, cardinalities.length);
+        copy.chunks = new Object[chunks.length];
+        for (int i = 0; i < size; i++) {
+            copy.chunks[i] = chunks[i] instanceof long[] words ? words.clone() : ((char[]) chunks[i]).clone();
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Computes the intersection of two bitmaps.
+     *
+     * @param a The first bitmap.
+     * @param b The second bitmap.
+     * @return A new bitmap holding the values present in both.
+     */
+    public static CompressedBitmap and(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                result.appendAnd(a.keys[i], a.chunks[i], a.cardinalities[i], b.chunks[j], b.cardinalities[j]);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the union of two bitmaps.
+     *
+     * @param a The first bitmap.
+     * @param b The second bitmap.
+     * @return A new bitmap holding the values present in either.
+     */
+    public static CompressedBitmap or(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            if (j >= b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.appendChunk(a.keys[i], copyChunk(a.chunks[i]), a.cardinalities[i]);
+                i++;
+            } else if (i >= a.size || a.keys[i] > b.keys[j]) {
+                result.appendChunk(b.keys[j], copyChunk(b.chunks[j]), b.cardinalities[j]);
+                j++;
+            } else {
+                result.appendOr(a.keys[i], a.chunks[i], a.cardinalities[i], b.chunks[j], b.cardinalities[j]);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    private void appendAnd(char key, Object left, int leftCardinality, Object right, int rightCardinality) {
+        if (left instanceof long[] leftWords && right instanceof long[] rightWords) {
+            long[] words = new long[WORDS];
+            int cardinality = 0;
+            for (int w = 0; w < WORDS; w++) {
+                words[w] = leftWords[w] & rightWords[w];
+                cardinality += Long.bitCount(words[w]);
+            }
+            if (cardinality > 0) {
+                appendChunk(key, cardinality > ARRAY_MAX ? words : toValues(words, cardinality), cardinality);
+            }
+            return;
+        }
+        if (left instanceof long[]) {
+            appendAnd(key, right, rightCardinality, left, leftCardinality);
+            return;
+        }
+        char[] leftValues = (char[]) left;
+        char[] values = new char[leftCardinality];
+        int cardinality = 0;
+        if (right instanceof long[] rightWords) {
+            for (int v = 0; v < leftCardinality; v++) {
+                char low = leftValues[v];
+                if ((rightWords[low >>> 6] & (1L << low)) != 0) {
+                    values[cardinality++] = low;
+                }
+            }
+        } else {
+            char[] rightValues = (char[]) right;
+            int i = 0;
+            int j = 0;
+            while (i < leftCardinality && j < rightCardinality) {
+                if (leftValues[i] < rightValues[j]) {
+                    i++;
+                } else if (leftValues[i] > rightValues[j]) {
+                    j++;
+                } else {
+                    values[cardinality++] = leftValues[i];
+                    i++;
+                    j++;
+                }
+            }
+        }
+        if (cardinality > 0) {
+            appendChunk(key, values, cardinality);
+        }
+    }
+
+    private void appendOr(char key, Object left, int leftCardinality, Object right, int rightCardinality) {
+        if (left instanceof char[] leftValues && right instanceof char[] rightValues
+                && leftCardinality + rightCardinality <= ARRAY_MAX) {
+            char[] values = new char[leftCardinality + rightCardinality];
+            int cardinality = 0;
+            int i = 0;
+            int j = 0;
+            while (i < leftCardinality || j < rightCardinality) {
+                if (j >= rightCardinality || (i < leftCardinality && leftValues[i] < rightValues[j])) {
+                    values[cardinality++] = leftValues[i++];
+                } else if (i >= leftCardinality || leftValues[i] > rightValues[j]) {
+                    values[cardinality++] = rightValues[j++];
+                } else {
+                    values[cardinality++] = leftValues[i];
+                    i++;
+                    j++;
+                }
+            }
+            appendChunk(key, values, cardinality);
+            return;
+        }
+        long[] words = left instanceof long[] leftWords ? leftWords.clone() : toWords((char[]) left, leftCardinality);
+        if (right instanceof long[] rightWords) {
+            for (int w = 0; w < WORDS; w++) {
+                words[w] |= rightWords[w];
+            }
+        } else {
+            char[] rightValues = (char[]) right;
+            for (int v = 0; v < rightCardinality; v++) {
+                words[rightValues[v] >>> 6] |= 1L << rightValues[v];
+            }
+        }
+        int cardinality = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        appendChunk(key, cardinality > ARRAY_MAX ? words : toValues(words, cardinality), cardinality);
+    }
+
+    private int find(char high) {
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    private void appendChunk(char key, Object chunk, int cardinality) {
+        insertChunk(size, key, chunk, cardinality);
+    }
+
+    private void insertChunk(int index, char key, Object chunk, int cardinality) {
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            chunks = Arrays.copyOf(chunks, capacity);
+            cardinalities = Arrays.copyOf(cardinalities, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(chunks, index, chunks, index + 1, size - index);
+        System.arraycopy(cardinalities, index, cardinalities, index + 1, size - index);
+        keys[index] = key;
+        chunks[index] = chunk;
+        cardinalities[index] = cardinality;
+        size++;
+    }
+
+    private void removeChunk(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(chunks, index + 1, chunks, index, size - index - 1);
+        System.arraycopy(cardinalities, index + 1, cardinalities, index, size - index - 1);
+        size--;
+        chunks[size] = null;
+    }
+
+    private static Object copyChunk(Object chunk) {
+        return chunk instanceof long[] words ? words.clone() : ((char[]) chunk).clone();
+    }
+
+    private static long[] toWords(char[] values, int cardinality) {
+        long[] words = new long[WORDS];
+        for (int v = 0; v < cardinality; v++) {
+            words[values[v] >>> 6] |= 1L << values[v];
+        }
+        return words;
+    }
+
+    private static char[] toValues(long[] words, int cardinality) {
+        char[] values = new char[cardinality];
+        int position = 0;
+        for (int w = 0; w < WORDS; w++) {
+            long word = words[w];
+            while (word != 0) {
+                values[position++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return values;
+    }
+}
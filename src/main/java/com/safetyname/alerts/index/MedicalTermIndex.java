@@ -0,0 +1,127 @@
+package com.safetyname.alerts.index;
+
+import com.safetyname.alerts.entity.MedicalRecord;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Inverted index mapping a medical term (a drug name or an allergy) to the medical records mentioning it.
+ * <p>
+ * Terms are normalized with {@link TextNormalizer}; for medications the dosage is dropped, so
+ * {@code "aznol:350mg"} and {@code "Aznol:60mg"} are both indexed under {@code "aznol"}.
+ * Records are compared by identity, so they must be removed before being modified and added back afterwards.
+ */
+public class MedicalTermIndex {
+
+    private final Map<String, List<MedicalRecord>> recordsByTerm = new HashMap<>();
+    private final Function<MedicalRecord, List<String>> termsOf;
+
+    private MedicalTermIndex(Function<MedicalRecord, List<String>> termsOf) {
+        this.termsOf = termsOf;
+    }
+
+    /**
+     * Creates an index over the medications of the records, keyed by drug name.
+     *
+     * @return A new, empty medication index.
+     */
+    public static MedicalTermIndex medications() {
+        return new MedicalTermIndex(MedicalRecord::getMedications);
+    }
+
+    /**
+     * Creates an index over the allergies of the records.
+     *
+     * @return A new, empty allergy index.
+     */
+    public static MedicalTermIndex allergies() {
+        return new MedicalTermIndex(MedicalRecord::getAllergies);
+    }
+
+    /**
+     * Extracts the normalized term of a medication or allergy entry, dropping any dosage after a colon.
+     *
+     * @param entry The entry, e.g. {@code "hydrapermazol:100mg"} or {@code "peanut"}.
+     * @return The normalized term, e.g. {@code "hydrapermazol"}.
+     */
+    public static String term(String entry) {
+        if (entry == null) {
+            return "";
+        }
+        int colon = entry.indexOf(':');
+        return TextNormalizer.normalize(colon >= 0 ? entry.substring(0, colon) : entry);
+    }
+
+    /**
+     * Rebuilds the index from the given records, discarding any previous content.
+     *
+     * @param medicalRecords The records to index.
+     */
+    public synchronized void rebuild(Collection<MedicalRecord> medicalRecords) {
+        recordsByTerm.clear();
+        if (medicalRecords != null) {
+            medicalRecords.forEach(this::add);
+        }
+    }
+
+    /**
+     * Adds a record under each distinct term it mentions.
+     *
+     * @param medicalRecord The record to index.
+     */
+    public synchronized void add(MedicalRecord medicalRecord) {
+        for (String term : termsOf(medicalRecord)) {
+            recordsByTerm.computeIfAbsent(term, k -> new ArrayList<>()).add(medicalRecord);
+        }
+    }
+
+    /**
+     * Removes a record from each term it mentions.
+     *
+     * @param medicalRecord The record to remove from the index.
+     */
+    public synchronized void remove(MedicalRecord medicalRecord) {
+        for (String term : termsOf(medicalRecord)) {
+            List<MedicalRecord> records = recordsByTerm.get(term);
+            if (records != null) {
+                records.removeIf(indexed -> indexed == medicalRecord);
+                if (records.isEmpty()) {
+                    recordsByTerm.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves the records mentioning a term.
+     *
+     * @param entry The term to look for; a dosage, case and accents are ignored.
+     * @return The matching records, or an empty list if none mention the term.
+     */
+    public synchronized List<MedicalRecord> find(String entry) {
+        List<MedicalRecord> records = recordsByTerm.get(term(entry));
+        return records == null ? Collections.emptyList() : new ArrayList<>(records);
+    }
+
+    private Set<String> termsOf(MedicalRecord medicalRecord) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (medicalRecord == null || termsOf.apply(medicalRecord) == null) {
+            return terms;
+        }
+        for (String entry : termsOf.apply(medicalRecord)) {
+            String term = term(entry);
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
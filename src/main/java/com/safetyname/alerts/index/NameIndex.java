@@ -0,0 +1,121 @@
+package com.safetyname.alerts.index;
+
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory index of persons or medical records by full name.
+ * <p>
+ * Persons and medical records are linked by their exact first and last names throughout the
+ * application; this index turns that join into a hash lookup instead of a scan of all entities.
+ *
+ * @param <T> The type of indexed entity.
+ */
+public class NameIndex<T> {
+
+    private final Map<String, List<T>> entitiesByName = new HashMap<>();
+    private final Function<T, String> firstNameOf;
+    private final Function<T, String> lastNameOf;
+
+    private NameIndex(Function<T, String> firstNameOf, Function<T, String> lastNameOf) {
+        this.firstNameOf = firstNameOf;
+        this.lastNameOf = lastNameOf;
+    }
+
+    /**
+     * Creates an index of persons by full name.
+     *
+     * @return A new, empty index.
+     */
+    public static NameIndex<Person> persons() {
+        return new NameIndex<>(Person::getFirstName, Person::getLastName);
+    }
+
+    /**
+     * Creates an index of medical records by full name.
+     *
+     * @return A new, empty index.
+     */
+    public static NameIndex<MedicalRecord> medicalRecords() {
+        return new NameIndex<>(MedicalRecord::getFirstName, MedicalRecord::getLastName);
+    }
+
+    /**
+     * Builds the key under which an entity with the given names is indexed.
+     *
+     * @param firstName The first name.
+     * @param lastName  The last name.
+     * @return The full name key.
+     */
+    public static String key(String firstName, String lastName) {
+        return firstName + " " + lastName;
+    }
+
+    /**
+     * Rebuilds the index from the given entities, discarding any previous content.
+     *
+     * @param entities The entities to index.
+     */
+    public synchronized void rebuild(Collection<T> entities) {
+        entitiesByName.clear();
+        if (entities != null) {
+            entities.forEach(this::add);
+        }
+    }
+
+    /**
+     * Adds an entity under its full name.
+     *
+     * @param entity The entity to index.
+     */
+    public synchronized void add(T entity) {
+        if (entity == null) {
+            return;
+        }
+        entitiesByName.computeIfAbsent(keyOf(entity), k -> new ArrayList<>()).add(entity);
+    }
+
+    /**
+     * Removes an entity, compared by identity, from the index.
+     *
+     * @param entity The entity to remove from the index.
+     */
+    public synchronized void remove(T entity) {
+        if (entity == null) {
+            return;
+        }
+        String key = keyOf(entity);
+        List<T> entities = entitiesByName.get(key);
+        if (entities == null) {
+            return;
+        }
+        entities.removeIf(indexed -> indexed == entity);
+        if (entities.isEmpty()) {
+            entitiesByName.remove(key);
+        }
+    }
+
+    /**
+     * Retrieves the entities with the given first and last name.
+     *
+     * @param firstName The first name.
+     * @param lastName  The last name.
+     * @return The matching entities, or an empty list if none is found.
+     */
+    public synchronized List<T> find(String firstName, String lastName) {
+        List<T> entities = entitiesByName.get(key(firstName, lastName));
+        return entities == null ? Collections.emptyList() : new ArrayList<>(entities);
+    }
+
+    private String keyOf(T entity) {
+        return key(firstNameOf.apply(entity), lastNameOf.apply(entity));
+    }
+}
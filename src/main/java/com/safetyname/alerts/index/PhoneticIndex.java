@@ -0,0 +1,132 @@
+package com.safetyname.alerts.index;
+
+import com.safetyname.alerts.entity.Person;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory index grouping persons by the Soundex code of their last name.
+ * <p>
+ * A lookup encodes the requested name once and reads the matching bucket, so misspelled names
+ * such as {@code "Boyde"} find the {@code "Boyd"} family without encoding every person on each request.
+ * Candidate last names are ranked by their edit distance to the requested name.
+ */
+public class PhoneticIndex {
+
+    private final Map<String, Map<String, List<Person>>> personsByCode = new HashMap<>();
+
+    /**
+     * Rebuilds the index from the given persons, discarding any previous content.
+     *
+     * @param persons The persons to index.
+     */
+    public synchronized void rebuild(Collection<Person> persons) {
+        personsByCode.clear();
+        if (persons != null) {
+            persons.forEach(this::add);
+        }
+    }
+
+    /**
+     * Adds a person to the bucket of their last name.
+     *
+     * @param person The person to index.
+     */
+    public synchronized void add(Person person) {
+        if (person == null || person.getLastName() == null) {
+            return;
+        }
+        String code = Soundex.encode(person.getLastName());
+        if (code.isEmpty()) {
+            return;
+        }
+        personsByCode.computeIfAbsent(code, k -> new HashMap<>())
+                .computeIfAbsent(person.getLastName(), k -> new ArrayList<>())
+                .add(person);
+    }
+
+    /**
+     * Removes a person from the bucket of their last name.
+     * <p>
+     * Persons are compared by identity, so only the given instance is removed.
+     *
+     * @param person The person to remove from the index.
+     */
+    public synchronized void remove(Person person) {
+        if (person == null || person.getLastName() == null) {
+            return;
+        }
+        String code = Soundex.encode(person.getLastName());
+        Map<String, List<Person>> byLastName = personsByCode.get(code);
+        if (byLastName == null) {
+            return;
+        }
+        List<Person> persons = byLastName.get(person.getLastName());
+        if (persons != null) {
+            persons.removeIf(indexed -> indexed == person);
+            if (persons.isEmpty()) {
+                byLastName.remove(person.getLastName());
+            }
+        }
+        if (byLastName.isEmpty()) {
+            personsByCode.remove(code);
+        }
+    }
+
+    /**
+     * Retrieves the persons whose last name sounds like the given name.
+     * <p>
+     * Persons are grouped by last name, the closest spellings first; last names at the same
+     * distance are sorted alphabetically.
+     *
+     * @param lastName The last name as heard by the operator.
+     * @return The matching persons, or an empty list if no last name sounds alike.
+     */
+    public synchronized List<Person> find(String lastName) {
+        Map<String, List<Person>> byLastName = personsByCode.get(Soundex.encode(lastName));
+        if (byLastName == null) {
+            return Collections.emptyList();
+        }
+        String query = TextNormalizer.normalize(lastName);
+        List<String> candidates = new ArrayList<>(byLastName.keySet());
+        candidates.sort(Comparator.<String>comparingInt(candidate -> distance(query, TextNormalizer.normalize(candidate)))
+                .thenComparing(Comparator.naturalOrder()));
+        List<Person> persons = new ArrayList<>();
+        for (String candidate : candidates) {
+            persons.addAll(byLastName.get(candidate));
+        }
+        return persons;
+    }
+
+    /**
+     * Computes the Levenshtein distance between two strings.
+     *
+     * @param a The first string.
+     * @param b The second string.
+     * @return The minimal number of single-character edits turning one string into the other.
+     */
+    public static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -0,0 +1,646 @@
+package com.safetyname.alerts.index;
+
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Bitmap posting lists over the residents, identified by dense integer IDs.
+ * <p>
+ * Each person gets an ID in load order (IDs are not reused after a deletion, so ascending IDs follow the
+ * order of the list of persons). For each address, fire station, birth year, medication and allergy, a
+ * {@link CompressedBitmap} holds the IDs of the matching persons, so a combined search such as
+ * "stations {1, 3} and minors and allergic to peanut" is a handful of bitmap unions and intersections.
+ * <p>
+ * Attributes coming from the medical record (birth year, medications, allergies) are attached to every
+ * person with the same first and last name. Entities are compared by identity: the data layer removes an
+ * entity before modifying it and adds it back afterwards. Station posting lists are built from the address
+ * posting lists on a load, then maintained one mapping at a time: adding or removing a mapping only touches the
+ * posting list of its station, by the residents of its address.
+ * <p>
+ * {@link #find(ResidentQuery, LocalDate)} does not combine the posting lists in a fixed order: it first
+ * builds a {@link QueryPlan} from the cardinality of the posting lists involved. The most selective
+ * predicate is read from its posting list, and each other predicate is either intersected as a posting
+ * list or tested on the remaining candidates, whichever is estimated cheaper; a full scan is chosen when
+ * it beats every index plan. Predicates are assumed independent to estimate the rows left after a step.
+ */
+public class PostingIndex {
+
+    private static final DateTimeFormatter BIRTHDATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+    /**
+     * Cost of reading one entry of a posting list when combining bitmaps, relative to one predicate test.
+     */
+    static final double POSTING_COST = 0.05;
+
+    /**
+     * Cost of testing one predicate on one resident (hash lookups of the address or of the medical record).
+     */
+    static final double FILTER_COST = 1.0;
+
+    private final List<Person> personsById = new ArrayList<>();
+    private final Map<Person, Integer> ids = new IdentityHashMap<>();
+    private final Map<String, CompressedBitmap> byName = new HashMap<>();
+    private final Map<String, CompressedBitmap> byAddress = new HashMap<>();
+    private final Map<String, CompressedBitmap> byCity = new HashMap<>();
+    private final Map<String, CompressedBitmap> byLastName = new HashMap<>();
+    private final Map<Integer, CompressedBitmap> byStation = new HashMap<>();
+    private final Map<Integer, CompressedBitmap> byBirthYear = new HashMap<>();
+    private final Map<String, CompressedBitmap> byMedication = new HashMap<>();
+    private final Map<String, CompressedBitmap> byAllergy = new HashMap<>();
+    private final Map<String, Map<Integer, Integer>> stationsByAddress = new HashMap<>();
+    private final Map<String, MedicalRecord> recordsByName = new HashMap<>();
+
+    /**
+     * Rebuilds every posting list from the given entities, assigning new dense IDs.
+     *
+     * @param persons        The persons to index.
+     * @param firestations   The fire station mappings.
+     * @param medicalRecords The medical records to index.
+     */
+    public synchronized void rebuild(Collection<Person> persons, Collection<FireStation> firestations,
+                                     Collection<MedicalRecord> medicalRecords) {
+        personsById.clear();
+        ids.clear();
+        byName.clear();
+        byAddress.clear();
+        byCity.clear();
+        byLastName.clear();
+        byStation.clear();
+        byBirthYear.clear();
+        byMedication.clear();
+        byAllergy.clear();
+        stationsByAddress.clear();
+        recordsByName.clear();
+        if (medicalRecords != null) {
+            medicalRecords.forEach(record -> recordsByName.put(keyOf(record), record));
+        }
+        if (persons != null) {
+            persons.forEach(this::addPerson);
+        }
+        rebuildStations(firestations);
+    }
+
+    /**
+     * Indexes a person, assigning a new ID unless the person was already known.
+     *
+     * @param person The person to index.
+     */
+    public synchronized void addPerson(Person person) {
+        Integer id = ids.get(person);
+        if (id == null) {
+            id = personsById.size();
+            personsById.add(person);
+            ids.put(person, id);
+        }
+        add(byName, NameIndex.key(person.getFirstName(), person.getLastName()), id);
+        add(byCity, TextNormalizer.normalize(person.getCity()), id);
+        if (person.getLastName() != null) {
+            add(byLastName, person.getLastName(), id);
+        }
+        if (person.getAddress() != null) {
+            add(byAddress, person.getAddress(), id);
+            for (Integer station : stationsOf(person.getAddress())) {
+                add(byStation, station, id);
+            }
+        }
+        MedicalRecord record = recordsByName.get(NameIndex.key(person.getFirstName(), person.getLastName()));
+        if (record != null) {
+            addRecordAttributes(record, id);
+        }
+    }
+
+    /**
+     * Removes a person from every posting list while keeping their ID, before the person is modified.
+     *
+     * @param person The person to remove.
+     */
+    public synchronized void removePerson(Person person) {
+        Integer id = ids.get(person);
+        if (id == null) {
+            return;
+        }
+        String name = NameIndex.key(person.getFirstName(), person.getLastName());
+        remove(byName, name, id);
+        remove(byCity, TextNormalizer.normalize(person.getCity()), id);
+        if (person.getLastName() != null) {
+            remove(byLastName, person.getLastName(), id);
+        }
+        if (person.getAddress() != null) {
+            remove(byAddress, person.getAddress(), id);
+            for (Integer station : stationsOf(person.getAddress())) {
+                remove(byStation, station, id);
+            }
+        }
+        MedicalRecord record = recordsByName.get(name);
+        if (record != null) {
+            removeRecordAttributes(record, id);
+        }
+    }
+
+    /**
+     * Removes a deleted person from every posting list and frees their ID slot.
+     *
+     * @param person The deleted person.
+     */
+    public synchronized void releasePerson(Person person) {
+        removePerson(person);
+        Integer id = ids.remove(person);
+        if (id != null) {
+            personsById.set(id, null);
+        }
+    }
+
+    /**
+     * Attaches the attributes of a medical record to the persons with the same name.
+     *
+     * @param medicalRecord The medical record to index.
+     */
+    public synchronized void addMedicalRecord(MedicalRecord medicalRecord) {
+        String name = keyOf(medicalRecord);
+        MedicalRecord previous = recordsByName.put(name, medicalRecord);
+        CompressedBitmap persons = byName.get(name);
+        if (persons == null) {
+            return;
+        }
+        persons.forEach(id -> {
+            if (previous != null) {
+                removeRecordAttributes(previous, id);
+            }
+            addRecordAttributes(medicalRecord, id);
+        });
+    }
+
+    /**
+     * Detaches the attributes of a medical record from the persons with the same name.
+     *
+     * @param medicalRecord The medical record to remove.
+     */
+    public synchronized void removeMedicalRecord(MedicalRecord medicalRecord) {
+        String name = keyOf(medicalRecord);
+        if (recordsByName.get(name) != medicalRecord) {
+            return;
+        }
+        recordsByName.remove(name);
+        CompressedBitmap persons = byName.get(name);
+        if (persons != null) {
+            persons.forEach(id -> removeRecordAttributes(medicalRecord, id));
+        }
+    }
+
+    /**
+     * Recomputes the station posting lists from the fire station mappings and the address posting lists.
+     *
+     * @param firestations The current fire station mappings.
+     */
+    public synchronized void rebuildStations(Collection<FireStation> firestations) {
+        stationsByAddress.clear();
+        byStation.clear();
+        if (firestations == null) {
+            return;
+        }
+        for (FireStation fireStation : firestations) {
+            stationsByAddress.computeIfAbsent(fireStation.getAddress(), k -> new HashMap<>())
+                    .merge(fireStation.getStation(), 1, Integer::sum);
+        }
+        stationsByAddress.forEach((address, stations) -> {
+            CompressedBitmap residents = byAddress.get(address);
+            if (residents == null) {
+                return;
+            }
+            for (Integer station : stations.keySet()) {
+                byStation.merge(station, residents.copy(), CompressedBitmap::or);
+            }
+        });
+    }
+
+    /**
+     * Registers a new fire station mapping, adding the residents of its address to the station posting list
+     * unless another mapping already covered them.
+     *
+     * @param fireStation The mapping added.
+     */
+    public synchronized void addFireStation(FireStation fireStation) {
+        Integer mappings = stationsByAddress.computeIfAbsent(fireStation.getAddress(), k -> new HashMap<>())
+                .merge(fireStation.getStation(), 1, Integer::sum);
+        CompressedBitmap residents = byAddress.get(fireStation.getAddress());
+        if (mappings == 1 && residents != null) {
+            byStation.merge(fireStation.getStation(), residents.copy(), CompressedBitmap::or);
+        }
+    }
+
+    /**
+     * Unregisters a fire station mapping, removing the residents of its address from the station posting list
+     * once no other mapping of the address points to the station.
+     *
+     * @param fireStation The mapping removed, with the station it had.
+     */
+    public synchronized void removeFireStation(FireStation fireStation) {
+        Map<Integer, Integer> stations = stationsByAddress.get(fireStation.getAddress());
+        if (stations == null || !stations.containsKey(fireStation.getStation())) {
+            return;
+        }
+        if (stations.merge(fireStation.getStation(), -1, Integer::sum) > 0) {
+            return;
+        }
+        stations.remove(fireStation.getStation());
+        if (stations.isEmpty()) {
+            stationsByAddress.remove(fireStation.getAddress());
+        }
+        CompressedBitmap residents = byAddress.get(fireStation.getAddress());
+        if (residents != null) {
+            residents.forEach(id -> remove(byStation, fireStation.getStation(), id));
+        }
+    }
+
+    /**
+     * Retrieves the persons living at an address.
+     *
+     * @param address The exact address.
+     * @return The persons in load order, or an empty list if none live there.
+     */
+    public synchronized List<Person> findByAddress(String address) {
+        return toPersons(byAddress.get(address));
+    }
+
+    /**
+     * Retrieves the persons living at an address covered by a fire station.
+     *
+     * @param stationNumber The fire station number.
+     * @return The persons in load order, or an empty list if none are covered.
+     */
+    public synchronized List<Person> findByStation(int stationNumber) {
+        return toPersons(byStation.get(stationNumber));
+    }
+
+    /**
+     * Retrieves the persons matching every criterion of a query, following the plan of {@link #plan}.
+     *
+     * @param query The criteria of the search.
+     * @param today The date used to compute ages.
+     * @return The matching persons in load order.
+     */
+    public synchronized List<Person> find(ResidentQuery query, LocalDate today) {
+        return execute(plan(query, today));
+    }
+
+    /**
+     * Chooses the cheapest access path for a query from the cardinality of the posting lists.
+     *
+     * @param query The criteria of the search.
+     * @param today The date used to compute ages.
+     * @return The plan, which {@link #execute(QueryPlan)} runs as long as the index is not modified: a caller
+     *         running both must hold the monitor of the index across the two calls.
+     */
+    public synchronized QueryPlan plan(ResidentQuery query, LocalDate today) {
+        long total = ids.size();
+        List<Predicate> predicates = predicates(query, today);
+        predicates.sort((a, b) -> Long.compare(a.estimate, b.estimate));
+
+        List<QueryPlan.Step> scanPlan = new ArrayList<>();
+        double rows = total;
+        scanPlan.add(new QueryPlan.Step(QueryPlan.Access.FULL_SCAN, "all residents", total, total * POSTING_COST,
+                this::all, null));
+        for (Predicate predicate : predicates) {
+            double cost = rows * FILTER_COST;
+            rows = narrow(rows, predicate, total);
+            scanPlan.add(new QueryPlan.Step(QueryPlan.Access.FILTER, predicate.description, Math.round(rows), cost,
+                    null, predicate.test));
+        }
+        if (predicates.isEmpty()) {
+            return new QueryPlan("posting index", total, scanPlan);
+        }
+
+        List<QueryPlan.Step> indexPlan = new ArrayList<>();
+        Predicate first = predicates.get(0);
+        rows = Math.min(first.estimate, total);
+        indexPlan.add(new QueryPlan.Step(QueryPlan.Access.INDEX_LOOKUP, first.description, Math.round(rows),
+                first.lookupCost, first.postings, null));
+        for (Predicate predicate : predicates.subList(1, predicates.size())) {
+            double filterCost = rows * FILTER_COST;
+            rows = narrow(rows, predicate, total);
+            if (predicate.lookupCost < filterCost) {
+                indexPlan.add(new QueryPlan.Step(QueryPlan.Access.BITMAP_AND, predicate.description, Math.round(rows),
+                        predicate.lookupCost, predicate.postings, null));
+            } else {
+                indexPlan.add(new QueryPlan.Step(QueryPlan.Access.FILTER, predicate.description, Math.round(rows),
+                        filterCost, null, predicate.test));
+            }
+        }
+        QueryPlan index = new QueryPlan("posting index", total, indexPlan);
+        QueryPlan scan = new QueryPlan("posting index", total, scanPlan);
+        return index.getCost() <= scan.getCost() ? index : scan;
+    }
+
+    /**
+     * Runs a plan built by {@link #plan(ResidentQuery, LocalDate)}.
+     *
+     * @param plan The plan to run.
+     * @return The matching persons in load order.
+     */
+    public synchronized List<Person> execute(QueryPlan plan) {
+        CompressedBitmap candidates = null;
+        for (QueryPlan.Step step : plan.getSteps()) {
+            switch (step.getAccess()) {
+                case FULL_SCAN:
+                case INDEX_LOOKUP:
+                    candidates = step.postings.get();
+                    break;
+                case BITMAP_AND:
+                    candidates = CompressedBitmap.and(candidates, step.postings.get());
+                    break;
+                case FILTER:
+                    CompressedBitmap kept = new CompressedBitmap();
+                    candidates.forEach(id -> {
+                        if (step.test.test(id)) {
+                            kept.add(id);
+                        }
+                    });
+                    candidates = kept;
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown access: " + step.getAccess());
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+        }
+        return toPersons(candidates);
+    }
+
+    /**
+     * Turns the criteria of a query into predicates, with their statistics.
+     */
+    private List<Predicate> predicates(ResidentQuery query, LocalDate today) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (!query.getStations().isEmpty() || !query.getAddresses().isEmpty()) {
+            Set<Integer> stations = query.getStations();
+            Set<String> addresses = query.getAddresses();
+            List<CompressedBitmap> postings = new ArrayList<>();
+            stations.forEach(station -> postings.add(byStation.get(station)));
+            addresses.forEach(address -> postings.add(byAddress.get(address)));
+            predicates.add(new Predicate("stations in " + stations + " or addresses in " + addresses, postings,
+                    id -> {
+                        String address = personsById.get(id).getAddress();
+                        return address != null && (addresses.contains(address)
+                                || stationsOf(address).stream().anyMatch(stations::contains));
+                    }));
+        }
+        if (!query.getCities().isEmpty()) {
+            Set<String> cities = query.getCities().stream().map(TextNormalizer::normalize).collect(Collectors.toSet());
+            predicates.add(new Predicate("city in " + query.getCities(),
+                    cities.stream().map(byCity::get).collect(Collectors.toList()),
+                    id -> cities.contains(TextNormalizer.normalize(personsById.get(id).getCity()))));
+        }
+        if (!query.getLastNames().isEmpty()) {
+            Set<String> lastNames = query.getLastNames();
+            predicates.add(new Predicate("lastName in " + lastNames,
+                    lastNames.stream().map(byLastName::get).collect(Collectors.toList()),
+                    id -> lastNames.contains(personsById.get(id).getLastName())));
+        }
+        if (query.getMinAge() != null || query.getMaxAge() != null) {
+            predicates.add(agePredicate(query.getMinAge(), query.getMaxAge(), today));
+        }
+        for (String medication : query.getMedications()) {
+            String term = MedicalTermIndex.term(medication);
+            predicates.add(new Predicate("medication " + term, Collections.singletonList(byMedication.get(term)),
+                    id -> hasTerm(id, term, MedicalRecord::getMedications)));
+        }
+        for (String allergy : query.getAllergies()) {
+            String term = MedicalTermIndex.term(allergy);
+            predicates.add(new Predicate("allergy " + term, Collections.singletonList(byAllergy.get(term)),
+                    id -> hasTerm(id, term, MedicalRecord::getAllergies)));
+        }
+        return predicates;
+    }
+
+    /**
+     * Builds the age predicate. Its posting list is the union of the birth years within the bounds, plus
+     * the exact age check of the persons born in the boundary years, which is counted as filtering them.
+     */
+    private Predicate agePredicate(Integer minAge, Integer maxAge, LocalDate today) {
+        int min = minAge == null ? 0 : minAge;
+        int max = maxAge == null ? Integer.MAX_VALUE : maxAge;
+        long estimate = 0;
+        double boundary = 0;
+        for (Map.Entry<Integer, CompressedBitmap> entry : byBirthYear.entrySet()) {
+            int youngest = today.getYear() - entry.getKey() - 1;
+            int oldest = today.getYear() - entry.getKey();
+            if (oldest >= min && youngest <= max) {
+                estimate += entry.getValue().cardinality();
+                if (youngest < min || oldest > max) {
+                    boundary += entry.getValue().cardinality();
+                }
+            }
+        }
+        return new Predicate("age in [" + min + ", " + (maxAge == null ? "+inf" : maxAge) + "]", estimate,
+                estimate * POSTING_COST + boundary * FILTER_COST, () -> ageBitmap(minAge, maxAge, today),
+                id -> {
+                    LocalDate birthdate = birthdateOf(id);
+                    if (birthdate == null) {
+                        return false;
+                    }
+                    int age = Period.between(birthdate, today).getYears();
+                    return age >= min && age <= max;
+                });
+    }
+
+    private boolean hasTerm(int id, String term, Function<MedicalRecord, List<String>> entries) {
+        Person person = personsById.get(id);
+        MedicalRecord record = recordsByName.get(NameIndex.key(person.getFirstName(), person.getLastName()));
+        return record != null && terms(entries.apply(record)).contains(term);
+    }
+
+    private LocalDate birthdateOf(int id) {
+        Person person = personsById.get(id);
+        MedicalRecord record = recordsByName.get(NameIndex.key(person.getFirstName(), person.getLastName()));
+        return record == null ? null : birthdate(record.getBirthdate());
+    }
+
+    private CompressedBitmap all() {
+        CompressedBitmap all = new CompressedBitmap();
+        for (int id = 0; id < personsById.size(); id++) {
+            if (personsById.get(id) != null) {
+                all.add(id);
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Estimates the rows left after a predicate, assuming it is independent of the previous ones.
+     */
+    private static double narrow(double rows, Predicate predicate, long total) {
+        return total == 0 ? 0 : rows * Math.min(1.0, (double) predicate.estimate / total);
+    }
+
+    /**
+     * A criterion of a query with its statistics: the estimated number of matching residents, the cost of
+     * building its posting list, and the two ways of evaluating it.
+     */
+    private static final class Predicate {
+        final String description;
+        final long estimate;
+        final double lookupCost;
+        final Supplier<CompressedBitmap> postings;
+        final IntPredicate test;
+
+        Predicate(String description, long estimate, double lookupCost, Supplier<CompressedBitmap> postings,
+                  IntPredicate test) {
+            this.description = description;
+            this.estimate = estimate;
+            this.lookupCost = lookupCost;
+            this.postings = postings;
+            this.test = test;
+        }
+
+        /**
+         * Creates a predicate matching the union of posting lists, estimated by the sum of their sizes.
+         */
+        Predicate(String description, List<CompressedBitmap> unionOf, IntPredicate test) {
+            this(description, unionOf.stream().mapToLong(bitmap -> bitmap == null ? 0 : bitmap.cardinality()).sum(),
+                    unionOf.stream().mapToLong(bitmap -> bitmap == null ? 0 : bitmap.cardinality()).sum() * POSTING_COST,
+                    () -> {
+                        CompressedBitmap union = new CompressedBitmap();
+                        for (CompressedBitmap bitmap : unionOf) {
+                            union = union(union, bitmap);
+                        }
+                        return union;
+                    }, test);
+        }
+    }
+
+    /**
+     * Builds the bitmap of the persons whose age is within the bounds.
+     * <p>
+     * A birth year gives two possible ages; years where both are within the bounds are taken as a whole,
+     * and only the persons born in the one or two boundary years have their exact age computed.
+     */
+    private CompressedBitmap ageBitmap(Integer minAge, Integer maxAge, LocalDate today) {
+        int min = minAge == null ? 0 : minAge;
+        int max = maxAge == null ? Integer.MAX_VALUE : maxAge;
+        CompressedBitmap result = new CompressedBitmap();
+        for (Map.Entry<Integer, CompressedBitmap> entry : byBirthYear.entrySet()) {
+            int youngest = today.getYear() - entry.getKey() - 1;
+            int oldest = today.getYear() - entry.getKey();
+            if (youngest >= min && oldest <= max) {
+                result = CompressedBitmap.or(result, entry.getValue());
+            } else if (oldest >= min && youngest <= max) {
+                CompressedBitmap exact = new CompressedBitmap();
+                entry.getValue().forEach(id -> {
+                    Person person = personsById.get(id);
+                    MedicalRecord record = recordsByName.get(NameIndex.key(person.getFirstName(), person.getLastName()));
+                    LocalDate birthdate = record == null ? null : birthdate(record.getBirthdate());
+                    if (birthdate != null) {
+                        int age = Period.between(birthdate, today).getYears();
+                        if (age >= min && age <= max) {
+                            exact.add(id);
+                        }
+                    }
+                });
+                result = CompressedBitmap.or(result, exact);
+            }
+        }
+        return result;
+    }
+
+    private void addRecordAttributes(MedicalRecord record, int id) {
+        LocalDate birthdate = birthdate(record.getBirthdate());
+        if (birthdate != null) {
+            add(byBirthYear, birthdate.getYear(), id);
+        }
+        for (String term : terms(record.getMedications())) {
+            add(byMedication, term, id);
+        }
+        for (String term : terms(record.getAllergies())) {
+            add(byAllergy, term, id);
+        }
+    }
+
+    private void removeRecordAttributes(MedicalRecord record, int id) {
+        LocalDate birthdate = birthdate(record.getBirthdate());
+        if (birthdate != null) {
+            remove(byBirthYear, birthdate.getYear(), id);
+        }
+        for (String term : terms(record.getMedications())) {
+            remove(byMedication, term, id);
+        }
+        for (String term : terms(record.getAllergies())) {
+            remove(byAllergy, term, id);
+        }
+    }
+
+    private Set<Integer> stationsOf(String address) {
+        return stationsByAddress.getOrDefault(address, Collections.emptyMap()).keySet();
+    }
+
+    private List<Person> toPersons(CompressedBitmap bitmap) {
+        if (bitmap == null || bitmap.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Person> persons = new ArrayList<>(bitmap.cardinality());
+        bitmap.forEach(id -> persons.add(personsById.get(id)));
+        return persons;
+    }
+
+    private static CompressedBitmap union(CompressedBitmap result, CompressedBitmap bitmap) {
+        return bitmap == null ? result : CompressedBitmap.or(result, bitmap);
+    }
+
+    private static <K> void add(Map<K, CompressedBitmap> postings, K key, int id) {
+        postings.computeIfAbsent(key, k -> new CompressedBitmap()).add(id);
+    }
+
+    private static <K> void remove(Map<K, CompressedBitmap> postings, K key, int id) {
+        CompressedBitmap bitmap = postings.get(key);
+        if (bitmap != null && bitmap.remove(id) && bitmap.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private static Set<String> terms(List<String> entries) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (entries != null) {
+            for (String entry : entries) {
+                String term = MedicalTermIndex.term(entry);
+                if (!term.isEmpty()) {
+                    terms.add(term);
+                }
+            }
+        }
+        return terms;
+    }
+
+    private static String keyOf(MedicalRecord record) {
+        return NameIndex.key(record.getFirstName(), record.getLastName());
+    }
+
+    private static LocalDate birthdate(String birthdate) {
+        if (birthdate == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(birthdate.trim(), BIRTHDATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
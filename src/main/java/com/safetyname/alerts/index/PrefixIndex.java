@@ -0,0 +1,103 @@
+package com.safetyname.alerts.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Sorted in-memory index answering prefix (autocomplete) queries over a set of strings.
+ * <p>
+ * Values are stored under their normalized form (see {@link TextNormalizer}) in a {@link TreeMap},
+ * so a prefix query is a range scan starting at the prefix and stopping after the requested number
+ * of matches. Each value is reference-counted so that it stays suggested as long as one entity uses it.
+ */
+public class PrefixIndex {
+
+    private final NavigableMap<String, Map<String, Integer>> valuesByKey = new TreeMap<>();
+
+    /**
+     * Rebuilds the index from the given values, discarding any previous content.
+     *
+     * @param values The values to index.
+     */
+    public synchronized void rebuild(Collection<String> values) {
+        valuesByKey.clear();
+        if (values != null) {
+            values.forEach(this::add);
+        }
+    }
+
+    /**
+     * Adds one occurrence of a value.
+     *
+     * @param value The value to index, ignored if null or blank.
+     */
+    public synchronized void add(String value) {
+        add(value, 1);
+    }
+
+    /**
+     * Adds several occurrences of a value at once.
+     *
+     * @param value       The value to index, ignored if null or blank.
+     * @param occurrences The number of occurrences to add.
+     */
+    public synchronized void add(String value, int occurrences) {
+        String key = TextNormalizer.normalize(value);
+        if (key.isEmpty() || occurrences <= 0) {
+            return;
+        }
+        valuesByKey.computeIfAbsent(key, k -> new LinkedHashMap<>()).merge(value, occurrences, Integer::sum);
+    }
+
+    /**
+     * Removes one occurrence of a value.
+     *
+     * @param value The value to remove from the index.
+     */
+    public synchronized void remove(String value) {
+        String key = TextNormalizer.normalize(value);
+        Map<String, Integer> values = valuesByKey.get(key);
+        if (values == null) {
+            return;
+        }
+        values.computeIfPresent(value, (v, count) -> count > 1 ? count - 1 : null);
+        if (values.isEmpty()) {
+            valuesByKey.remove(key);
+        }
+    }
+
+    /**
+     * Retrieves the indexed values starting with the given prefix, in alphabetical order.
+     * <p>
+     * The prefix is matched on its normalized form, so case, accents and extra whitespace are ignored.
+     *
+     * @param prefix The prefix to search for.
+     * @param limit  The maximum number of values to return.
+     * @return Up to {@code limit} distinct values starting with the prefix, or an empty list if none match.
+     */
+    public synchronized List<String> complete(String prefix, int limit) {
+        String key = TextNormalizer.normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<String> matches = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Integer>> entry : valuesByKey.tailMap(key, true).entrySet()) {
+            if (!entry.getKey().startsWith(key)) {
+                break;
+            }
+            for (String value : entry.getValue().keySet()) {
+                matches.add(value);
+                if (matches.size() == limit) {
+                    return matches;
+                }
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,118 @@
+package com.safetyname.alerts.index;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Access path chosen for a {@link ResidentQuery}, as an ordered list of steps.
+ * <p>
+ * The first step produces the candidate residents, either from the posting list of one predicate or from
+ * a full scan; each following step narrows the candidates, either by intersecting them with the posting
+ * list of a predicate or by testing the predicate on each candidate. Every step carries the estimated
+ * number of rows it outputs and its estimated cost, in units of one predicate test on one resident, so
+ * {@link #explain()} shows why a plan was chosen.
+ * <strong>Note:</strong> This class uses Lombok annotations to automatically generate getters.
+ * Make sure Lombok is properly configured in your development environment.
+ */
+
+@Getter
+public class QueryPlan {
+
+    /**
+     * How a step reads or narrows the candidates.
+     */
+    public enum Access {
+        /** Reads every resident. */
+        FULL_SCAN,
+        /** Reads the posting list of a predicate. */
+        INDEX_LOOKUP,
+        /** Intersects the candidates with the posting list of a predicate. */
+        BITMAP_AND,
+        /** Tests a predicate on each candidate. */
+        FILTER
+    }
+
+    /**
+     * One step of a plan.
+     */
+    @Getter
+    public static class Step {
+        private final Access access;
+        private final String predicate;
+        private final long estimatedRows;
+        private final double cost;
+        final Supplier<CompressedBitmap> postings;
+        final IntPredicate test;
+
+        Step(Access access, String predicate, long estimatedRows, double cost,
+             Supplier<CompressedBitmap> postings, IntPredicate test) {
+            this.access = access;
+            this.predicate = predicate;
+            this.estimatedRows = estimatedRows;
+            this.cost = cost;
+            this.postings = postings;
+            this.test = test;
+        }
+    }
+
+    private final String store;
+    private final long totalRows;
+    private final List<Step> steps;
+
+    /**
+     * Creates a plan.
+     *
+     * @param store     The name of the store executing the plan.
+     * @param totalRows The number of residents in the store.
+     * @param steps     The steps, in execution order.
+     */
+    public QueryPlan(String store, long totalRows, List<Step> steps) {
+        this.store = store;
+        this.totalRows = totalRows;
+        this.steps = Collections.unmodifiableList(new ArrayList<>(steps));
+    }
+
+    /**
+     * Gets the estimated cost of the whole plan.
+     *
+     * @return The sum of the costs of the steps.
+     */
+    public double getCost() {
+        return steps.stream().mapToDouble(Step::getCost).sum();
+    }
+
+    /**
+     * Describes the plan, one line per step.
+     *
+     * @return The lines of the description, the first one summing up the plan.
+     */
+    public List<String> explain() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "%s plan over %d resident(s), cost %.1f", store, totalRows, getCost()));
+        for (int i = 0; i < steps.size(); i++) {
+            Step step = steps.get(i);
+            lines.add(String.format(Locale.ROOT, "%d. %s %s (rows=%d, cost=%.1f)", i + 1, step.getAccess(),
+                    step.getPredicate(), step.getEstimatedRows(), step.getCost()));
+        }
+        return lines;
+    }
+
+    /**
+     * Creates a step that can only be described, for stores executing plans on their own.
+     *
+     * @param access        How the step reads or narrows the candidates.
+     * @param predicate     The description of the predicate.
+     * @param estimatedRows The estimated number of rows output by the step.
+     * @param cost          The estimated cost of the step.
+     * @return A new step.
+     */
+    public static Step step(Access access, String predicate, long estimatedRows, double cost) {
+        return new Step(access, predicate, estimatedRows, cost, null, null);
+    }
+}
@@ -0,0 +1,82 @@
+package com.safetyname.alerts.index;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Criteria of a combined search over the residents.
+ * <p>
+ * A resident matches when they live at an address covered by one of the stations or listed in the
+ * addresses (if any of both is given), in one of the cities (matched on their normalized form) and with
+ * one of the last names (exact match) if given, their age is within the optional bounds, and their medical
+ * record lists every requested medication and every requested allergy. Empty criteria are ignored.
+ * The data layer chooses how to evaluate the criteria, see {@link QueryPlan}.
+ * <strong>Note:</strong> This class uses Lombok annotations to automatically generate
+ * getters, setters and a no-arguments constructor.
+ * Make sure Lombok is properly configured in your development environment.
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ResidentQuery {
+    private Set<Integer> stations = new LinkedHashSet<>();
+    private Set<String> addresses = new LinkedHashSet<>();
+    private Set<String> cities = new LinkedHashSet<>();
+    private Set<String> lastNames = new LinkedHashSet<>();
+    private Integer minAge;
+    private Integer maxAge;
+    private Set<String> medications = new LinkedHashSet<>();
+    private Set<String> allergies = new LinkedHashSet<>();
+
+    /**
+     * Checks whether at least one criterion is set.
+     *
+     * @return true if the query restricts the residents in any way.
+     */
+    public boolean hasCriteria() {
+        return !stations.isEmpty() || !addresses.isEmpty() || !cities.isEmpty() || !lastNames.isEmpty()
+                || minAge != null || maxAge != null || !medications.isEmpty() || !allergies.isEmpty();
+    }
+
+    /**
+     * Creates a query for the residents covered by fire stations.
+     *
+     * @param stations The fire station numbers.
+     * @return A new query.
+     */
+    public static ResidentQuery ofStations(Collection<Integer> stations) {
+        ResidentQuery query = new ResidentQuery();
+        query.getStations().addAll(stations);
+        return query;
+    }
+
+    /**
+     * Creates a query for the residents of an address.
+     *
+     * @param address The exact address.
+     * @return A new query.
+     */
+    public static ResidentQuery ofAddress(String address) {
+        ResidentQuery query = new ResidentQuery();
+        query.getAddresses().add(address);
+        return query;
+    }
+
+    /**
+     * Creates a query for the residents with a last name.
+     *
+     * @param lastName The exact last name.
+     * @return A new query.
+     */
+    public static ResidentQuery ofLastName(String lastName) {
+        ResidentQuery query = new ResidentQuery();
+        query.getLastNames().add(lastName);
+        return query;
+    }
+}
@@ -0,0 +1,53 @@
+package com.safetyname.alerts.index;
+
+/**
+ * Utility class computing the American Soundex code of a name.
+ * <p>
+ * Names that sound alike when spelled over the phone share the same four-character code,
+ * e.g. {@code "Boyd"} and {@code "Boyde"} both encode to {@code "B300"}. Accents are removed
+ * before encoding and characters other than latin letters are ignored.
+ */
+public final class Soundex {
+
+    // Digit for each letter from A to Z, '0' for vowels and the letters H, W and Y.
+    private static final String CODES = "01230120022455012623010202";
+
+    private Soundex() {
+    }
+
+    /**
+     * Encodes a name with the Soundex algorithm.
+     *
+     * @param name The name to encode.
+     * @return The four-character Soundex code, or an empty string if the name contains no letter.
+     */
+    public static String encode(String name) {
+        String normalized = TextNormalizer.normalize(name);
+        StringBuilder code = new StringBuilder(4);
+        char previous = 0;
+        for (int i = 0; i < normalized.length() && code.length() < 4; i++) {
+            char letter = normalized.charAt(i);
+            if (letter < 'a' || letter > 'z') {
+                continue;
+            }
+            char digit = CODES.charAt(letter - 'a');
+            if (code.length() == 0) {
+                code.append(Character.toUpperCase(letter));
+                previous = digit;
+            } else if (digit != '0' && digit != previous) {
+                code.append(digit);
+                previous = digit;
+            } else if (letter != 'h' && letter != 'w') {
+                // A vowel separates two identical codes, H and W do not.
+                previous = digit;
+            }
+        }
+        if (code.length() == 0) {
+            return "";
+        }
+        while (code.length() < 4) {
+            code.append('0');
+        }
+        return code.toString();
+    }
+}
@@ -0,0 +1,110 @@
+package com.safetyname.alerts.index;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dictionary mapping every distinct value of a field to one canonical {@link String} instance.
+ * <p>
+ * Jackson creates a new string for every occurrence read from the data file, so a value shared by
+ * many entities (an address, a city, a last name, a medication...) is duplicated on the heap. Passing
+ * each value through {@link #encode(String)} when an entity is loaded or modified makes all entities
+ * reference the same instance, and the duplicates become garbage.
+ * <p>
+ * The dictionary also keeps an estimate of the heap saved, based on the layout of a compact string
+ * (object header and fields, plus a byte array of one byte per character for Latin-1 content or two otherwise).
+ */
+public class StringDictionary {
+
+    private final String name;
+    private final Map<String, String> values = new HashMap<>();
+    private long hits;
+    private long savedBytes;
+
+    /**
+     * Creates an empty dictionary.
+     *
+     * @param name The name of the encoded field, used in statistics.
+     */
+    public StringDictionary(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the canonical instance of a value, registering it if it is new.
+     *
+     * @param value The value to encode.
+     * @return The canonical instance equal to the value, or null if the value is null.
+     */
+    public synchronized String encode(String value) {
+        if (value == null) {
+            return null;
+        }
+        String canonical = values.putIfAbsent(value, value);
+        if (canonical == null) {
+            return value;
+        }
+        if (canonical != value) {
+            hits++;
+            savedBytes += estimateSize(value);
+        }
+        return canonical;
+    }
+
+    /**
+     * Discards every registered value and resets the statistics.
+     */
+    public synchronized void clear() {
+        values.clear();
+        hits = 0;
+        savedBytes = 0;
+    }
+
+    /**
+     * Gets the name of the encoded field.
+     *
+     * @return The name of the field.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of distinct values registered.
+     *
+     * @return The number of canonical instances.
+     */
+    public synchronized int size() {
+        return values.size();
+    }
+
+    /**
+     * Gets the number of duplicates replaced by a canonical instance.
+     *
+     * @return The number of duplicates encoded since the last {@link #clear()}.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the estimated number of heap bytes released by replacing duplicates.
+     *
+     * @return The estimated saving, in bytes.
+     */
+    public synchronized long getSavedBytes() {
+        return savedBytes;
+    }
+
+    /**
+     * Estimates the shallow size of a string and its backing array with compressed references.
+     *
+     * @param value The string to measure.
+     * @return The estimated number of bytes, aligned on 8 bytes.
+     */
+    static long estimateSize(String value) {
+        boolean latin1 = value.chars().allMatch(c -> c < 256);
+        long arrayBytes = 16L + (latin1 ? value.length() : 2L * value.length());
+        return 24L + ((arrayBytes + 7) & ~7L);
+    }
+}
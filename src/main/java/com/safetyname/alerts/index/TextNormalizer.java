@@ -0,0 +1,35 @@
+package com.safetyname.alerts.index;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class producing the normalized form of free-text keys used by the in-memory indexes.
+ * <p>
+ * Two strings that only differ by case, accents or surrounding/repeated whitespace
+ * share the same normalized form, e.g. {@code "  Chalon-sur-Saône "} and {@code "chalon-sur-saone"}.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Normalizes a string by stripping accents, lower-casing it and collapsing whitespace.
+     *
+     * @param value The string to normalize.
+     * @return The normalized form, or an empty string if the value is null or blank.
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        String withoutAccents = DIACRITICS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(withoutAccents.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,39 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.safetyname.alerts.dto.AgeBucket;
+
+import java.io.IOException;
+
+import static com.safetyname.alerts.json.JsonFields.*;
+
+/**
+ * Writes an {@link AgeBucket} without reflection; the open last bucket has a null maximum age.
+ */
+public class AgeBucketSerializer extends StdSerializer<AgeBucket> {
+
+    static final AgeBucketSerializer INSTANCE = new AgeBucketSerializer();
+
+    /**
+     * Creates the serializer.
+     */
+    public AgeBucketSerializer() {
+        super(AgeBucket.class);
+    }
+
+    @Override
+    public void serialize(AgeBucket value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        writeNumber(gen, MIN_AGE, value.getMinAge());
+        gen.writeFieldName(MAX_AGE);
+        if (value.getMaxAge() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value.getMaxAge());
+        }
+        writeNumber(gen, COUNT, value.getCount());
+        gen.writeEndObject();
+    }
+}
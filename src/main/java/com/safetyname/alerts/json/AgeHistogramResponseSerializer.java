@@ -0,0 +1,34 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.safetyname.alerts.dto.AgeHistogramResponse;
+
+import java.io.IOException;
+
+import static com.safetyname.alerts.json.JsonFields.*;
+
+/**
+ * Writes an {@link AgeHistogramResponse} and its {@link com.safetyname.alerts.dto.AgeBucket} entries without reflection.
+ */
+public class AgeHistogramResponseSerializer extends StdSerializer<AgeHistogramResponse> {
+
+    static final AgeHistogramResponseSerializer INSTANCE = new AgeHistogramResponseSerializer();
+
+    /**
+     * Creates the serializer.
+     */
+    public AgeHistogramResponseSerializer() {
+        super(AgeHistogramResponse.class);
+    }
+
+    @Override
+    public void serialize(AgeHistogramResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        writeNumber(gen, STATION_NUMBER, value.getStationNumber());
+        writeArray(gen, BUCKETS, value.getBuckets(), AgeBucketSerializer.INSTANCE, provider);
+        writeNumber(gen, UNKNOWN_COUNT, value.getUnknownCount());
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,49 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.safetyname.alerts.dto.AgeBucket;
+import com.safetyname.alerts.dto.AgeHistogramResponse;
+import com.safetyname.alerts.dto.ChildResponse;
+import com.safetyname.alerts.dto.FireInfo;
+import com.safetyname.alerts.dto.FireResponse;
+import com.safetyname.alerts.dto.FirestationResponse;
+import com.safetyname.alerts.dto.FloodResponse;
+import com.safetyname.alerts.dto.LoadStatus;
+import com.safetyname.alerts.dto.MedicalAlertResponse;
+import com.safetyname.alerts.dto.MedicalRecordResidency;
+import com.safetyname.alerts.dto.PersonInfo;
+import com.safetyname.alerts.dto.PersonInfoLastNameResponse;
+import com.safetyname.alerts.dto.SyncResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * Jackson module registering the hand-written serializers of the response DTOs.
+ * <p>
+ * Each serializer writes the fields of its DTO with a {@code JsonGenerator}, in the order and with the names
+ * of the reflective bean serialization, without introspection or getter calls through reflection. Spring Boot
+ * registers this module in the application {@code ObjectMapper}; other mappers can register it explicitly.
+ * A DTO field only reaches the JSON once its serializer writes it.
+ */
+@Component
+public class AlertsJsonModule extends SimpleModule {
+
+    /**
+     * Creates the module with a serializer for every response DTO.
+     */
+    public AlertsJsonModule() {
+        super("AlertsJsonModule");
+        addSerializer(AgeBucket.class, AgeBucketSerializer.INSTANCE);
+        addSerializer(AgeHistogramResponse.class, AgeHistogramResponseSerializer.INSTANCE);
+        addSerializer(ChildResponse.class, ChildResponseSerializer.INSTANCE);
+        addSerializer(FireInfo.class, FireInfoSerializer.INSTANCE);
+        addSerializer(FireResponse.class, FireResponseSerializer.INSTANCE);
+        addSerializer(FirestationResponse.class, FirestationResponseSerializer.INSTANCE);
+        addSerializer(FloodResponse.class, FloodResponseSerializer.INSTANCE);
+        addSerializer(LoadStatus.class, LoadStatusSerializer.INSTANCE);
+        addSerializer(MedicalAlertResponse.class, MedicalAlertResponseSerializer.INSTANCE);
+        addSerializer(MedicalRecordResidency.class, MedicalRecordResidencySerializer.INSTANCE);
+        addSerializer(PersonInfo.class, PersonInfoSerializer.INSTANCE);
+        addSerializer(PersonInfoLastNameResponse.class, PersonInfoLastNameResponseSerializer.INSTANCE);
+        addSerializer(SyncResponse.class, SyncResponseSerializer.INSTANCE);
+    }
+}
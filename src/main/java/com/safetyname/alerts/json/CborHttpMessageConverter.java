@@ -0,0 +1,26 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes and reads {@code application/cbor} with a mapper configured like the application JSON mapper,
+ * including the serializers of {@link AlertsJsonModule}.
+ * <p>
+ * It replaces the CBOR converter Spring MVC registers by default, whose mapper ignores the Jackson modules of
+ * the application.
+ */
+@Component
+public class CborHttpMessageConverter extends MappingJackson2CborHttpMessageConverter {
+
+    /**
+     * Creates the converter.
+     *
+     * @param builder The builder of the application, holding its Jackson modules and settings.
+     */
+    public CborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        super(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,38 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.safetyname.alerts.dto.ChildResponse;
+
+import java.io.IOException;
+
+import static com.safetyname.alerts.json.JsonFields.*;
+
+/**
+ * Writes a {@link ChildResponse} without reflection.
+ * <p>
+ * The last name comes last, as in the reflective output: its field is named {@code LastName}, so Jackson
+ * could not tie the property to the field order.
+ */
+public class ChildResponseSerializer extends StdSerializer<ChildResponse> {
+
+    static final ChildResponseSerializer INSTANCE = new ChildResponseSerializer();
+
+    /**
+     * Creates the serializer.
+     */
+    public ChildResponseSerializer() {
+        super(ChildResponse.class);
+    }
+
+    @Override
+    public void serialize(ChildResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        writeString(gen, FIRST_NAME, value.getFirstName());
+        writeNumber(gen, AGE, value.getAge());
+        writeStrings(gen, FAMILY, value.getFamily());
+        writeString(gen, LAST_NAME, value.getLastName());
+        gen.writeEndObject();
+    }
+}
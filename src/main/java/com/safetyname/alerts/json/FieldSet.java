@@ -0,0 +1,132 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The fields of a response DTO requested by a caller through the {@code fields} parameter of a read endpoint.
+ * <p>
+ * Services use it to skip the work behind fields nobody asked for, such as the medical-record join, and the
+ * hand-written serializers to leave those fields out. It travels to the serializers as an attribute of the
+ * {@code ObjectWriter}, see {@link SharedResponse#serialize(com.fasterxml.jackson.databind.ObjectMapper, Object, FieldSet)}.
+ * Field sets are immutable and comparable, so they can be part of a cache key.
+ */
+public final class FieldSet {
+
+    /**
+     * Every field of the DTO, the default when no {@code fields} parameter is given.
+     */
+    public static final FieldSet ALL = new FieldSet(null);
+
+    /**
+     * Name of the {@code ObjectWriter} attribute holding the field set of a serialization.
+     */
+    static final String ATTRIBUTE = FieldSet.class.getName();
+
+    private final Set<String> names;
+
+    private FieldSet(Set<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * Parses the {@code fields} parameter of a request.
+     *
+     * @param fields  The comma-separated field names, or null or blank for every field.
+     * @param allowed The names of the fields of the DTO.
+     * @return The requested fields, in no particular order; the DTO order is kept when writing them.
+     * @throws IllegalArgumentException if a name is not a field of the DTO, or no name is given.
+     */
+    public static FieldSet parse(String fields, Collection<String> allowed) {
+        if (fields == null || fields.trim().isEmpty()) {
+            return ALL;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(trimmed)) {
+                throw new IllegalArgumentException("Unknown field: " + trimmed + ", expected one of " + allowed);
+            }
+            names.add(trimmed);
+        }
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("No field requested");
+        }
+        if (names.containsAll(allowed)) {
+            return ALL;
+        }
+        return new FieldSet(Collections.unmodifiableSet(names));
+    }
+
+    /**
+     * Tells whether a field is requested.
+     *
+     * @param name The name of the field.
+     * @return true if the field must be computed and written.
+     */
+    public boolean includes(String name) {
+        return names == null || names.contains(name);
+    }
+
+    /**
+     * Tells whether at least one of several fields is requested.
+     *
+     * @param names The names of the fields.
+     * @return true if one of the fields must be computed and written.
+     */
+    public boolean includesAny(String... names) {
+        for (String name : names) {
+            if (includes(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tells whether a pre-encoded field name is requested.
+     */
+    boolean includes(SerializableString name) {
+        return names == null || names.contains(name.getValue());
+    }
+
+    /**
+     * Gets the field set of the serialization in progress.
+     *
+     * @param provider The provider of the serialization.
+     * @return The field set given to the writer, or {@link #ALL}.
+     */
+    static FieldSet of(SerializerProvider provider) {
+        Object fields = provider.getAttribute(ATTRIBUTE);
+        return fields instanceof FieldSet ? (FieldSet) fields : ALL;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof FieldSet)) {
+            return false;
+        }
+        return names == null ? ((FieldSet) other).names == null : names.equals(((FieldSet) other).names);
+    }
+
+    @Override
+    public int hashCode() {
+        return names == null ? 0 : names.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return names == null ? "*" : String.join(",", names);
+    }
+}
@@ -0,0 +1,53 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.safetyname.alerts.dto.FireInfo;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.safetyname.alerts.json.JsonFields.*;
+
+/**
+ * Writes a {@link FireInfo} without reflection, limited to the fields of the {@link FieldSet} given to the writer.
+ */
+public class FireInfoSerializer extends StdSerializer<FireInfo> {
+
+    /**
+     * The names of the fields written, in order; a {@link FieldSet} selects among them.
+     */
+    public static final List<String> FIELDS = List.of("lastName", "phone", "age", "medications", "allergies");
+
+    static final FireInfoSerializer INSTANCE = new FireInfoSerializer();
+
+    /**
+     * Creates the serializer.
+     */
+    public FireInfoSerializer() {
+        super(FireInfo.class);
+    }
+
+    @Override
+    public void serialize(FireInfo value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        FieldSet fields = FieldSet.of(provider);
+        gen.writeStartObject(value);
+        if (fields.includes(LAST_NAME)) {
+            writeString(gen, LAST_NAME, value.getLastName());
+        }
+        if (fields.includes(PHONE)) {
+            writeString(gen, PHONE, value.getPhone());
+        }
+        if (fields.includes(AGE)) {
+            writeNumber(gen, AGE, value.getAge());
+        }
+        if (fields.includes(MEDICATIONS)) {
+            writeStrings(gen, MEDICATIONS, value.getMedications());
+        }
+        if (fields.includes(ALLERGIES)) {
+            writeStrings(gen, ALLERGIES, value.getAllergies());
+        }
+        gen.writeEndObject();
+    }
+}
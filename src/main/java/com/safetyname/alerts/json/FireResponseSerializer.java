@@ -0,0 +1,33 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.safetyname.alerts.dto.FireResponse;
+
+import java.io.IOException;
+
+import static com.safetyname.alerts.json.JsonFields.*;
+
+/**
+ * Writes a {@link FireResponse} and its {@link com.safetyname.alerts.dto.FireInfo} entries without reflection.
+ */
+public class FireResponseSerializer extends StdSerializer<FireResponse> {
+
+    static final FireResponseSerializer INSTANCE = new FireResponseSerializer();
+
+    /**
+     * Creates the serializer.
+     */
+    public FireResponseSerializer() {
+        super(FireResponse.class);
+    }
+
+    @Override
+    public void serialize(FireResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        writeArray(gen, FIRE_INFOS, value.getFireInfos(), FireInfoSerializer.INSTANCE, provider);
+        writeNumber(gen, STATION, value.getStation());
+        gen.writeEndObject();
+    }
+}
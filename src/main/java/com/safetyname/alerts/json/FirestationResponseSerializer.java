@@ -0,0 +1,34 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.safetyname.alerts.dto.FirestationResponse;
+
+import java.io.IOException;
+
+import static com.safetyname.alerts.json.JsonFields.*;
+
+/**
+ * Writes a {@link FirestationResponse} and its {@link com.safetyname.alerts.dto.PersonInfo} entries without reflection.
+ */
+public class FirestationResponseSerializer extends StdSerializer<FirestationResponse> {
+
+    static final FirestationResponseSerializer INSTANCE = new FirestationResponseSerializer();
+
+    /**
+     * Creates the serializer.
+     */
+    public FirestationResponseSerializer() {
+        super(FirestationResponse.class);
+    }
+
+    @Override
+    public void serialize(FirestationResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        writeArray(gen, PERSONS, value.getPersons(), PersonInfoSerializer.INSTANCE, provider);
+        writeNumber(gen, ADULT_COUNT, value.getAdultCount());
+        writeNumber(gen, CHILD_COUNT, value.getChildCount());
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,57 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.safetyname.alerts.dto.FloodResponse;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.safetyname.alerts.json.JsonFields.*;
+
+/**
+ * Writes a {@link FloodResponse} without reflection.
+ * <p>
+ * The first name is deliberately not written: like {@link com.safetyname.alerts.dto.FireInfo}, a flood alert
+ * lists the residents of a household by last name, phone, age and medical history. Callers may narrow these
+ * down further with a {@link FieldSet}.
+ */
+public class FloodResponseSerializer extends StdSerializer<FloodResponse> {
+
+    /**
+     * The names of the fields written, in order; a {@link FieldSet} selects among them.
+     */
+    public static final List<String> FIELDS = List.of("lastName", "phone", "age", "medications", "allergies");
+
+    static final FloodResponseSerializer INSTANCE = new FloodResponseSerializer();
+
+    /**
+     * Creates the serializer.
+     */
+    public FloodResponseSerializer() {
+        super(FloodResponse.class);
+    }
+
+    @Override
+    public void serialize(FloodResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        FieldSet fields = FieldSet.of(provider);
+        gen.writeStartObject(value);
+        if (fields.includes(LAST_NAME)) {
+            writeString(gen, LAST_NAME, value.getLastName());
+        }
+        if (fields.includes(PHONE)) {
+            writeString(gen, PHONE, value.getPhone());
+        }
+        if (fields.includes(AGE)) {
+            writeNumber(gen, AGE, value.getAge());
+        }
+        if (fields.includes(MEDICATIONS)) {
+            writeStrings(gen, MEDICATIONS, value.getMedications());
+        }
+        if (fields.includes(ALLERGIES)) {
+            writeStrings(gen, ALLERGIES, value.getAllergies());
+        }
+        gen.writeEndObject();
+    }
+}
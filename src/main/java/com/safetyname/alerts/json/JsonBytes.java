@@ -0,0 +1,111 @@
+package com.safetyname.alerts.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A JSON document already serialized to UTF-8, held as a sequence of fragments.
+ * <p>
+ * Fragments are shared, not copied: a document assembled from cached fragments, such as one household
+ * per address, references their buffers, and {@link #writeTo(OutputStream)} writes them one after the
+ * other. The buffers must not be modified once they are part of a document.
+ */
+public final class JsonBytes {
+
+    private static final byte[] OPEN_OBJECT = {'{'};
+    private static final byte[] CLOSE_OBJECT = {'}'};
+    private static final byte[] COLON = {':'};
+    private static final byte[] COMMA = {','};
+
+    private final List<byte[]> fragments;
+    private final long length;
+
+    private JsonBytes(List<byte[]> fragments) {
+        this.fragments = Collections.unmodifiableList(fragments);
+        long total = 0;
+        for (byte[] fragment : fragments) {
+            total += fragment.length;
+        }
+        this.length = total;
+    }
+
+    /**
+     * Wraps a serialized JSON value.
+     *
+     * @param json The UTF-8 JSON bytes, not copied.
+     * @return A document made of one fragment.
+     */
+    public static JsonBytes of(byte[] json) {
+        return new JsonBytes(List.of(json));
+    }
+
+    /**
+     * Assembles a JSON object from serialized names and values.
+     *
+     * @param names  The serialized names, JSON strings including their quotes.
+     * @param values The serialized values, in the order of the names.
+     * @return A document referencing the fragments of the values.
+     */
+    public static JsonBytes object(List<byte[]> names, List<JsonBytes> values) {
+        if (names.size() != values.size()) {
+            throw new IllegalArgumentException("Expected " + names.size() + " values, got " + values.size());
+        }
+        List<byte[]> fragments = new ArrayList<>(2 + names.size() * 3);
+        fragments.add(OPEN_OBJECT);
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                fragments.add(COMMA);
+            }
+            fragments.add(names.get(i));
+            fragments.add(COLON);
+            fragments.addAll(values.get(i).fragments);
+        }
+        fragments.add(CLOSE_OBJECT);
+        return new JsonBytes(fragments);
+    }
+
+    /**
+     * Gets the size of the document.
+     *
+     * @return The number of bytes written by {@link #writeTo(OutputStream)}.
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Writes the fragments of the document, in order.
+     *
+     * @param out The stream to write to; it is not closed.
+     * @throws IOException if the stream cannot be written.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        for (byte[] fragment : fragments) {
+            out.write(fragment);
+        }
+    }
+
+    /**
+     * Copies the document into one array.
+     *
+     * @return A new array holding the UTF-8 JSON bytes.
+     */
+    public byte[] toByteArray() {
+        byte[] json = new byte[Math.toIntExact(length)];
+        int offset = 0;
+        for (byte[] fragment : fragments) {
+            System.arraycopy(fragment, 0, json, offset, fragment.length);
+            offset += fragment.length;
+        }
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return new String(toByteArray(), StandardCharsets.UTF_8);
+    }
+}
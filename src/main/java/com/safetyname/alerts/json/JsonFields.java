@@ -0,0 +1,142 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Field names and writing helpers shared by the hand-written serializers of the response DTOs.
+ * <p>
+ * The names are pre-encoded once, so writing a field name is a buffer copy.
+ */
+final class JsonFields {
+
+    static final SerializableString FIRST_NAME = new SerializedString("firstName");
+    static final SerializableString LAST_NAME = new SerializedString("lastName");
+    static final SerializableString ADDRESS = new SerializedString("address");
+    static final SerializableString PHONE = new SerializedString("phone");
+    static final SerializableString EMAIL = new SerializedString("email");
+    static final SerializableString AGE = new SerializedString("age");
+    static final SerializableString MEDICATIONS = new SerializedString("medications");
+    static final SerializableString ALLERGIES = new SerializedString("allergies");
+    static final SerializableString FAMILY = new SerializedString("family");
+    static final SerializableString FIRE_INFOS = new SerializedString("fireInfos");
+    static final SerializableString STATION = new SerializedString("station");
+    static final SerializableString PERSONS = new SerializedString("persons");
+    static final SerializableString ADULT_COUNT = new SerializedString("adultCount");
+    static final SerializableString CHILD_COUNT = new SerializedString("childCount");
+    static final SerializableString STATION_NUMBER = new SerializedString("stationNumber");
+    static final SerializableString BUCKETS = new SerializedString("buckets");
+    static final SerializableString UNKNOWN_COUNT = new SerializedString("unknownCount");
+    static final SerializableString MIN_AGE = new SerializedString("minAge");
+    static final SerializableString MAX_AGE = new SerializedString("maxAge");
+    static final SerializableString COUNT = new SerializedString("count");
+    static final SerializableString VERSION = new SerializedString("version");
+    static final SerializableString FULL = new SerializedString("full");
+    static final SerializableString MEDICAL_RECORDS = new SerializedString("medicalRecords");
+    static final SerializableString FIRE_STATIONS = new SerializedString("fireStations");
+    static final SerializableString DELETED_PERSONS = new SerializedString("deletedPersons");
+    static final SerializableString DELETED_MEDICAL_RECORDS = new SerializedString("deletedMedicalRecords");
+    static final SerializableString DELETED_FIRE_STATIONS = new SerializedString("deletedFireStations");
+    static final SerializableString RECORDS = new SerializedString("records");
+    static final SerializableString HOT_CAPACITY = new SerializedString("hotCapacity");
+    static final SerializableString HOT_RECORDS = new SerializedString("hotRecords");
+    static final SerializableString COLD_RECORDS = new SerializedString("coldRecords");
+    static final SerializableString SEGMENT_BYTES = new SerializedString("segmentBytes");
+    static final SerializableString HITS = new SerializedString("hits");
+    static final SerializableString MISSES = new SerializedString("misses");
+    static final SerializableString EVICTIONS = new SerializedString("evictions");
+    static final SerializableString READY = new SerializedString("ready");
+    static final SerializableString PHASE = new SerializedString("phase");
+    static final SerializableString FILE = new SerializedString("file");
+    static final SerializableString BYTES_READ = new SerializedString("bytesRead");
+    static final SerializableString TOTAL_BYTES = new SerializedString("totalBytes");
+    static final SerializableString PERCENT = new SerializedString("percent");
+    static final SerializableString ELAPSED_MILLIS = new SerializedString("elapsedMillis");
+    static final SerializableString ERROR = new SerializedString("error");
+
+    private JsonFields() {
+    }
+
+    /**
+     * Writes a string field, or null.
+     */
+    static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        gen.writeString(value);
+    }
+
+    /**
+     * Writes an int field.
+     */
+    static void writeNumber(JsonGenerator gen, SerializableString name, int value) throws IOException {
+        gen.writeFieldName(name);
+        gen.writeNumber(value);
+    }
+
+    /**
+     * Writes a long field.
+     */
+    static void writeNumber(JsonGenerator gen, SerializableString name, long value) throws IOException {
+        gen.writeFieldName(name);
+        gen.writeNumber(value);
+    }
+
+    /**
+     * Writes a boolean field.
+     */
+    static void writeBoolean(JsonGenerator gen, SerializableString name, boolean value) throws IOException {
+        gen.writeFieldName(name);
+        gen.writeBoolean(value);
+    }
+
+    /**
+     * Writes a value with the serializer the provider has for its type, or null.
+     */
+    static void writeValue(JsonGenerator gen, SerializableString name, Object value, SerializerProvider provider) throws IOException {
+        gen.writeFieldName(name);
+        provider.defaultSerializeValue(value, gen);
+    }
+
+    /**
+     * Writes an array of strings, or null.
+     */
+    static void writeStrings(JsonGenerator gen, SerializableString name, List<String> values) throws IOException {
+        gen.writeFieldName(name);
+        if (values == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartArray(values, values.size());
+        for (String value : values) {
+            gen.writeString(value);
+        }
+        gen.writeEndArray();
+    }
+
+    /**
+     * Writes an array of DTOs with their serializer, or null.
+     */
+    static <T> void writeArray(JsonGenerator gen, SerializableString name, List<T> values, JsonSerializer<T> serializer,
+                               SerializerProvider provider) throws IOException {
+        gen.writeFieldName(name);
+        if (values == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartArray(values, values.size());
+        for (T value : values) {
+            if (value == null) {
+                gen.writeNull();
+            } else {
+                serializer.serialize(value, gen, provider);
+            }
+        }
+        gen.writeEndArray();
+    }
+}
@@ -0,0 +1,42 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.safetyname.alerts.dto.LoadStatus;
+
+import java.io.IOException;
+
+import static com.safetyname.alerts.json.JsonFields.*;
+
+/**
+ * Writes a {@link LoadStatus} without reflection.
+ */
+public class LoadStatusSerializer extends StdSerializer<LoadStatus> {
+
+    static final LoadStatusSerializer INSTANCE = new LoadStatusSerializer();
+
+    /**
+     * Creates the serializer.
+     */
+    public LoadStatusSerializer() {
+        super(LoadStatus.class);
+    }
+
+    @Override
+    public void serialize(LoadStatus value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        writeBoolean(gen, READY, value.isReady());
+        writeString(gen, PHASE, value.getPhase());
+        writeString(gen, FILE, value.getFile());
+        writeNumber(gen, BYTES_READ, value.getBytesRead());
+        writeNumber(gen, TOTAL_BYTES, value.getTotalBytes());
+        writeNumber(gen, PERCENT, value.getPercent());
+        writeNumber(gen, PERSONS, value.getPersons());
+        writeNumber(gen, FIRE_STATIONS, value.getFireStations());
+        writeNumber(gen, MEDICAL_RECORDS, value.getMedicalRecords());
+        writeNumber(gen, ELAPSED_MILLIS, value.getElapsedMillis());
+        writeString(gen, ERROR, value.getError());
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,38 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.safetyname.alerts.dto.MedicalAlertResponse;
+
+import java.io.IOException;
+
+import static com.safetyname.alerts.json.JsonFields.*;
+
+/**
+ * Writes a {@link MedicalAlertResponse} without reflection.
+ */
+public class MedicalAlertResponseSerializer extends StdSerializer<MedicalAlertResponse> {
+
+    static final MedicalAlertResponseSerializer INSTANCE = new MedicalAlertResponseSerializer();
+
+    /**
+     * Creates the serializer.
+     */
+    public MedicalAlertResponseSerializer() {
+        super(MedicalAlertResponse.class);
+    }
+
+    @Override
+    public void serialize(MedicalAlertResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        writeString(gen, FIRST_NAME, value.getFirstName());
+        writeString(gen, LAST_NAME, value.getLastName());
+        writeString(gen, ADDRESS, value.getAddress());
+        writeString(gen, PHONE, value.getPhone());
+        writeNumber(gen, AGE, value.getAge());
+        writeStrings(gen, MEDICATIONS, value.getMedications());
+        writeStrings(gen, ALLERGIES, value.getAllergies());
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,39 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.safetyname.alerts.dto.MedicalRecordResidency;
+
+import java.io.IOException;
+
+import static com.safetyname.alerts.json.JsonFields.*;
+
+/**
+ * Writes a {@link MedicalRecordResidency} without reflection.
+ */
+public class MedicalRecordResidencySerializer extends StdSerializer<MedicalRecordResidency> {
+
+    static final MedicalRecordResidencySerializer INSTANCE = new MedicalRecordResidencySerializer();
+
+    /**
+     * Creates the serializer.
+     */
+    public MedicalRecordResidencySerializer() {
+        super(MedicalRecordResidency.class);
+    }
+
+    @Override
+    public void serialize(MedicalRecordResidency value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        writeNumber(gen, RECORDS, value.getRecords());
+        writeNumber(gen, HOT_CAPACITY, value.getHotCapacity());
+        writeNumber(gen, HOT_RECORDS, value.getHotRecords());
+        writeNumber(gen, COLD_RECORDS, value.getColdRecords());
+        writeNumber(gen, SEGMENT_BYTES, value.getSegmentBytes());
+        writeNumber(gen, HITS, value.getHits());
+        writeNumber(gen, MISSES, value.getMisses());
+        writeNumber(gen, EVICTIONS, value.getEvictions());
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,57 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.safetyname.alerts.dto.PersonInfoLastNameResponse;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.safetyname.alerts.json.JsonFields.*;
+
+/**
+ * Writes a {@link PersonInfoLastNameResponse} without reflection;
+ * only the fields requested through a {@link FieldSet} are written.
+ */
+public class PersonInfoLastNameResponseSerializer extends StdSerializer<PersonInfoLastNameResponse> {
+
+    /**
+     * The names of the fields written, in order; a {@link FieldSet} selects among them.
+     */
+    public static final List<String> FIELDS = List.of("lastName", "address", "age", "email", "medications", "allergies");
+
+    static final PersonInfoLastNameResponseSerializer INSTANCE = new PersonInfoLastNameResponseSerializer();
+
+    /**
+     * Creates the serializer.
+     */
+    public PersonInfoLastNameResponseSerializer() {
+        super(PersonInfoLastNameResponse.class);
+    }
+
+    @Override
+    public void serialize(PersonInfoLastNameResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        FieldSet fields = FieldSet.of(provider);
+        gen.writeStartObject(value);
+        if (fields.includes(LAST_NAME)) {
+            writeString(gen, LAST_NAME, value.getLastName());
+        }
+        if (fields.includes(ADDRESS)) {
+            writeString(gen, ADDRESS, value.getAddress());
+        }
+        if (fields.includes(AGE)) {
+            writeNumber(gen, AGE, value.getAge());
+        }
+        if (fields.includes(EMAIL)) {
+            writeString(gen, EMAIL, value.getEmail());
+        }
+        if (fields.includes(MEDICATIONS)) {
+            writeStrings(gen, MEDICATIONS, value.getMedications());
+        }
+        if (fields.includes(ALLERGIES)) {
+            writeStrings(gen, ALLERGIES, value.getAllergies());
+        }
+        gen.writeEndObject();
+    }
+}
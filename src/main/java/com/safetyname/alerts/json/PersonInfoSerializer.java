@@ -0,0 +1,35 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.safetyname.alerts.dto.PersonInfo;
+
+import java.io.IOException;
+
+import static com.safetyname.alerts.json.JsonFields.*;
+
+/**
+ * Writes a {@link PersonInfo} without reflection.
+ */
+public class PersonInfoSerializer extends StdSerializer<PersonInfo> {
+
+    static final PersonInfoSerializer INSTANCE = new PersonInfoSerializer();
+
+    /**
+     * Creates the serializer.
+     */
+    public PersonInfoSerializer() {
+        super(PersonInfo.class);
+    }
+
+    @Override
+    public void serialize(PersonInfo value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        writeString(gen, FIRST_NAME, value.getFirstName());
+        writeString(gen, LAST_NAME, value.getLastName());
+        writeString(gen, ADDRESS, value.getAddress());
+        writeString(gen, PHONE, value.getPhone());
+        gen.writeEndObject();
+    }
+}
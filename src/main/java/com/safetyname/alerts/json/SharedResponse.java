@@ -0,0 +1,144 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A response body computed once and handed to every caller coalesced by a
+ * {@link com.safetyname.alerts.service.SingleFlight} or served from a
+ * {@link com.safetyname.alerts.service.ResponseCache}, together with its encoded forms, each one produced by the
+ * first caller that needs it and reused by the others.
+ * <p>
+ * The JSON form may be assembled from cached fragments; the binary forms (CBOR, Smile) are encoded from the body
+ * as a whole. {@link SharedResponseHttpMessageConverter} writes the form negotiated from the {@code Accept}
+ * header. A response may be limited to the fields requested by the caller, see {@link FieldSet}; every form
+ * then leaves the other fields out. The body is shared between concurrent requests and must not be modified.
+ *
+ * @param <T> The type of the body.
+ */
+public class SharedResponse<T> {
+
+    private final T body;
+    private final FieldSet fields;
+    private final Function<ObjectMapper, JsonBytes> serializer;
+    private JsonBytes json;
+    private final Map<String, byte[]> encoded = new HashMap<>();
+
+    /**
+     * Creates a shared response serialized by Jackson.
+     *
+     * @param body The response body.
+     */
+    public SharedResponse(T body) {
+        this(body, FieldSet.ALL);
+    }
+
+    /**
+     * Creates a shared response serialized by Jackson, limited to some fields.
+     *
+     * @param body   The response body.
+     * @param fields The fields written in every form of the body.
+     */
+    public SharedResponse(T body, FieldSet fields) {
+        this(body, fields, mapper -> JsonBytes.of(serialize(mapper, body, fields)));
+    }
+
+    /**
+     * Creates a shared response with its own JSON serialization, for instance assembled from cached fragments.
+     *
+     * @param body       The response body.
+     * @param serializer The function serializing the body to JSON, called at most once.
+     */
+    public SharedResponse(T body, Function<ObjectMapper, JsonBytes> serializer) {
+        this(body, FieldSet.ALL, serializer);
+    }
+
+    /**
+     * Creates a shared response limited to some fields, with its own JSON serialization.
+     *
+     * @param body       The response body.
+     * @param fields     The fields written in the binary forms of the body; the serializer must honour them too.
+     * @param serializer The function serializing the body to JSON, called at most once.
+     */
+    public SharedResponse(T body, FieldSet fields, Function<ObjectMapper, JsonBytes> serializer) {
+        this.body = body;
+        this.fields = fields;
+        this.serializer = serializer;
+    }
+
+    /**
+     * Gets the response body.
+     *
+     * @return The body, shared with the other callers.
+     */
+    public T getBody() {
+        return body;
+    }
+
+    /**
+     * Gets the fields written in every form of the body.
+     *
+     * @return The requested fields, {@link FieldSet#ALL} by default.
+     */
+    public FieldSet getFields() {
+        return fields;
+    }
+
+    /**
+     * Gets the JSON form of the body, serializing it on the first call.
+     *
+     * @param mapper The JSON mapper used for the first serialization; later calls return the same buffers.
+     * @return The UTF-8 JSON document, shared with the other callers.
+     */
+    public synchronized JsonBytes getJson(ObjectMapper mapper) {
+        if (json == null) {
+            json = serializer.apply(mapper);
+        }
+        return json;
+    }
+
+    /**
+     * Gets the body encoded in the format of a mapper, encoding it on the first call for that format.
+     *
+     * @param mapper The mapper of a binary format, such as CBOR or Smile.
+     * @return The encoded body, shared with the other callers and not to be modified.
+     */
+    public synchronized byte[] getEncoded(ObjectMapper mapper) {
+        return encoded.computeIfAbsent(mapper.getFactory().getFormatName(), format -> serialize(mapper, body, fields));
+    }
+
+    /**
+     * Serializes a value with Jackson.
+     *
+     * @param mapper The mapper to use.
+     * @param value  The value to serialize.
+     * @return The encoded bytes.
+     */
+    public static byte[] serialize(ObjectMapper mapper, Object value) {
+        return serialize(mapper, value, FieldSet.ALL);
+    }
+
+    /**
+     * Serializes a value with Jackson, limited to some fields of the response DTOs.
+     *
+     * @param mapper The mapper to use.
+     * @param value  The value to serialize.
+     * @param fields The fields written by the serializers of the DTOs.
+     * @return The encoded bytes.
+     */
+    public static byte[] serialize(ObjectMapper mapper, Object value, FieldSet fields) {
+        try {
+            if (fields == FieldSet.ALL) {
+                return mapper.writeValueAsBytes(value);
+            }
+            return mapper.writer().withAttribute(FieldSet.ATTRIBUTE, fields).writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Writes the body of a {@link SharedResponse} in the encoding negotiated from the {@code Accept} header, reusing
+ * the bytes already encoded for that response.
+ * <p>
+ * JSON is written fragment by fragment from {@link SharedResponse#getJson(ObjectMapper)}; CBOR and Smile are
+ * written from {@link SharedResponse#getEncoded(ObjectMapper)} with the mappers of
+ * {@link CborHttpMessageConverter} and {@link SmileHttpMessageConverter}. JSON comes first, so it is used when
+ * the client accepts any type. Spring Boot registers this converter ahead of the Jackson ones. It only writes.
+ */
+@Component
+public class SharedResponseHttpMessageConverter extends AbstractHttpMessageConverter<SharedResponse<?>> {
+
+    /**
+     * The media type of Smile.
+     */
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+    private final ObjectMapper smileMapper;
+
+    /**
+     * Creates the converter.
+     *
+     * @param objectMapper The application JSON mapper.
+     * @param cbor         The CBOR converter, whose mapper is reused.
+     * @param smile        The Smile converter, whose mapper is reused.
+     */
+    public SharedResponseHttpMessageConverter(ObjectMapper objectMapper, CborHttpMessageConverter cbor,
+                                              SmileHttpMessageConverter smile) {
+        super(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+        this.jsonMapper = objectMapper;
+        this.cborMapper = cbor.getObjectMapper();
+        this.smileMapper = smile.getObjectMapper();
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return SharedResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected SharedResponse<?> readInternal(Class<? extends SharedResponse<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Shared responses are write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(SharedResponse<?> response, MediaType contentType) {
+        ObjectMapper binaryMapper = binaryMapper(contentType);
+        return binaryMapper == null ? response.getJson(jsonMapper).length() : response.getEncoded(binaryMapper).length;
+    }
+
+    @Override
+    protected void writeInternal(SharedResponse<?> response, HttpOutputMessage outputMessage) throws IOException {
+        ObjectMapper binaryMapper = binaryMapper(outputMessage.getHeaders().getContentType());
+        if (binaryMapper == null) {
+            response.getJson(jsonMapper).writeTo(outputMessage.getBody());
+        } else {
+            outputMessage.getBody().write(response.getEncoded(binaryMapper));
+        }
+    }
+
+    /**
+     * Gets the mapper of a binary content type.
+     *
+     * @return The CBOR or Smile mapper, or null for JSON.
+     */
+    private ObjectMapper binaryMapper(MediaType contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        if (MediaType.APPLICATION_CBOR.isCompatibleWith(contentType)) {
+            return cborMapper;
+        }
+        if (APPLICATION_SMILE.isCompatibleWith(contentType)) {
+            return smileMapper;
+        }
+        return null;
+    }
+}
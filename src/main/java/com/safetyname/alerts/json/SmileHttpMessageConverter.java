@@ -0,0 +1,26 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes and reads {@code application/x-jackson-smile} with a mapper configured like the application JSON mapper,
+ * including the serializers of {@link AlertsJsonModule}.
+ * <p>
+ * It replaces the Smile converter Spring MVC registers by default, whose mapper ignores the Jackson modules of
+ * the application.
+ */
+@Component
+public class SmileHttpMessageConverter extends MappingJackson2SmileHttpMessageConverter {
+
+    /**
+     * Creates the converter.
+     *
+     * @param builder The builder of the application, holding its Jackson modules and settings.
+     */
+    public SmileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        super(builder.factory(new SmileFactory()).build());
+    }
+}
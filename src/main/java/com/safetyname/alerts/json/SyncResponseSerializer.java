@@ -0,0 +1,39 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.safetyname.alerts.dto.SyncResponse;
+
+import java.io.IOException;
+
+import static com.safetyname.alerts.json.JsonFields.*;
+
+/**
+ * Writes a {@link SyncResponse}; the entities it holds keep the serialization of the CRUD endpoints.
+ */
+public class SyncResponseSerializer extends StdSerializer<SyncResponse> {
+
+    static final SyncResponseSerializer INSTANCE = new SyncResponseSerializer();
+
+    /**
+     * Creates the serializer.
+     */
+    public SyncResponseSerializer() {
+        super(SyncResponse.class);
+    }
+
+    @Override
+    public void serialize(SyncResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        writeString(gen, VERSION, value.getVersion());
+        writeBoolean(gen, FULL, value.isFull());
+        writeValue(gen, PERSONS, value.getPersons(), provider);
+        writeValue(gen, MEDICAL_RECORDS, value.getMedicalRecords(), provider);
+        writeValue(gen, FIRE_STATIONS, value.getFireStations(), provider);
+        writeValue(gen, DELETED_PERSONS, value.getDeletedPersons(), provider);
+        writeValue(gen, DELETED_MEDICAL_RECORDS, value.getDeletedMedicalRecords(), provider);
+        writeValue(gen, DELETED_FIRE_STATIONS, value.getDeletedFireStations(), provider);
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,533 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.store.DataFileFormat;
+import com.safetyname.alerts.store.Dataset;
+import com.safetyname.alerts.store.JacksonDataFileFormat;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Base of the data services, splitting the storage engine in three parts chosen independently in the
+ * configuration:
+ * <ul>
+ *     <li>the {@link DataFileFormat} reading and writing the data file as a {@link Dataset}
+ *     ({@code data.format}),</li>
+ *     <li>the {@link ChangePersistence} deciding how saves reach the data file ({@code data.persistence}),</li>
+ *     <li>the subclass, which stores the loaded dataset and answers the queries with its own indexes
+ *     ({@code data.store}).</li>
+ * </ul>
+ * The services and controllers only see {@link IDataService}, whatever the combination.
+ * <p>
+ * {@link #reloadDataFile()} brings the data up to date with a data file replaced while the application runs,
+ * applying only the differences with the current data.
+ * <p>
+ * The data can also be split in several data files, one per district for instance, listed by {@code data.files}:
+ * {@link #readDataFiles(String)} parses them in parallel and merges them, and each file can then be replaced on its
+ * own. The saves still write all the data to {@code data.filepathWrite}.
+ * <p>
+ * The methods {@link #saveData()} and {@link #readJsonFile()} are overloaded to accept a file path as a parameter
+ * for test purposes, allowing different file paths to be used during testing to avoid impacting the actual
+ * application data.
+ */
+public abstract class AbstractDataService implements IDataService {
+
+    private static final Logger logger = LogManager.getLogger(AbstractDataService.class);
+
+    /**
+     * The changes of the data, recorded by the subclass.
+     */
+    protected final ChangeLog changes = new ChangeLog();
+
+    private DataFileFormat format = JacksonDataFileFormat.JSON;
+    private ChangePersistence persistence = new FullFilePersistence();
+
+    @Value("${data.filepathRead}")
+    private String filePathRead;
+
+    @Value("${data.filepathWrite}")
+    private String filePathWrite;
+
+    @Value("${data.files:}")
+    private String dataFiles;
+
+    private int partitionParallelism = Runtime.getRuntime().availableProcessors();
+    private boolean failOnConflict = true;
+    private volatile DataPartitions partitions;
+    private volatile Path lastFile;
+    private volatile String lastFileState;
+    private final LoadProgress loadProgress = new LoadProgress();
+
+    /**
+     * Reads the default data files specified in the application properties, as {@link DataLoadService} does at
+     * startup: those of {@code data.files} if set, else {@code data.filepathRead}.
+     *
+     * @return true if the data was successfully read, false otherwise.
+     */
+    public boolean readJsonFile() {
+        if (dataFiles != null && !dataFiles.isBlank()) {
+            return readDataFiles(dataFiles);
+        }
+        return readJsonFile(filePathRead);
+    }
+
+    /**
+     * Overloaded method to read data from a specified data file, replacing the current data, then recover the
+     * changes saved after the file was written.
+     * <p>
+     * This method is primarily used for testing purposes, allowing a custom file path to be provided.
+     *
+     * @param filePathRead The path of the data file to read from.
+     * @return true if the data was successfully read and processed, false otherwise.
+     */
+    public synchronized boolean readJsonFile(String filePathRead) {
+        Path file = Paths.get(filePathRead);
+        partitions = null;
+        lastFile = file;
+        loadProgress.start(file);
+        if (!readDataFile(file)) {
+            if (loadProgress.getPhase() != LoadProgress.Phase.FAILED) {
+                loadProgress.failed("Failed to read data from file: " + file);
+            }
+            return false;
+        }
+        lastFileState = fileState(file);
+        loadProgress.recovering();
+        persistence.recover(this, file);
+        loadProgress.ready();
+        return true;
+    }
+
+    /**
+     * Reads the data files of partitions and merges them, replacing the current data.
+     * <p>
+     * The files are parsed in parallel, each one by its own task streaming it, on up to
+     * {@code data.files.parallelism} threads, then merged in their order: see {@link DataPartitions} for the
+     * conflicts, which fail the read unless {@code data.files.onConflict=first} keeps the entities of the first file
+     * holding them. No journal is recovered, since the files are the source of the data.
+     *
+     * @param spec The comma-separated paths of the data files, each of which can use a glob pattern in its file
+     *             name, such as {@code data/districts/*.json}.
+     * @return true if the data files were successfully read and merged, false otherwise.
+     */
+    public synchronized boolean readDataFiles(String spec) {
+        List<Path> files;
+        try {
+            files = DataPartitions.resolve(spec);
+        } catch (IOException e) {
+            logger.error("Failed to find the data files: {}", spec, e);
+            loadProgress.start(List.of());
+            loadProgress.failed(e.toString());
+            return false;
+        }
+        loadProgress.start(files);
+        DataPartitions next = new DataPartitions(files);
+        for (int partition = 0; partition < files.size(); partition++) {
+            // Recorded before the parse, so that a file replaced meanwhile is read again
+            next.setState(partition, fileState(files.get(partition)));
+        }
+        long start = System.nanoTime();
+        List<Dataset> parts;
+        try {
+            parts = readPartitions(files);
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Failed to read the data files: {}", spec, e);
+            loadProgress.failed(e.toString());
+            return false;
+        }
+        List<String> conflicts = new ArrayList<>();
+        Dataset dataset = next.merge(parts, conflicts);
+        if (!conflicts.isEmpty()) {
+            conflicts.forEach(conflict -> logger.warn("Conflicting {}", conflict));
+            if (failOnConflict) {
+                loadProgress.failed(conflicts.size() + " conflicts between the data files, such as "
+                        + conflicts.get(0));
+                return false;
+            }
+        }
+        logger.info("Parsed and merged {} data files in {} ms", files.size(), (System.nanoTime() - start) / 1_000_000);
+        if (filePathWrite != null && next.indexOf(Paths.get(filePathWrite)) >= 0) {
+            logger.warn("The saves to {} will replace a data file with all the data", filePathWrite);
+        }
+        loadProgress.indexing(dataset);
+        try {
+            load(dataset);
+        } catch (UncheckedIOException e) {
+            logger.error("Failed to load the data files: {}", spec, e);
+            loadProgress.failed(e.toString());
+            return false;
+        }
+        partitions = next;
+        lastFile = null;
+        lastFileState = null;
+        loadProgress.ready();
+        return true;
+    }
+
+    private List<Dataset> readPartitions(List<Path> files) throws IOException {
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService readers = Executors.newFixedThreadPool(Math.min(files.size(), partitionParallelism), task -> {
+            Thread thread = new Thread(task, "data-file-reader-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Dataset>> tasks = new ArrayList<>();
+            for (Path file : files) {
+                tasks.add(readers.submit(() -> readPartition(file)));
+            }
+            List<Dataset> parts = new ArrayList<>();
+            for (Future<Dataset> task : tasks) {
+                parts.add(task.get());
+            }
+            return parts;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw (Error) e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading the data files");
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+
+    private Dataset readPartition(Path file) throws IOException {
+        logger.info("Reading data file from: {}", file);
+        try (InputStream in = loadProgress.track(new BufferedInputStream(Files.newInputStream(file)))) {
+            return format.read(in);
+        } catch (IOException e) {
+            throw new IOException("Failed to read data from file: " + file, e);
+        }
+    }
+
+    /**
+     * Gets the data files the service reads, to be watched for changes.
+     *
+     * @return The data files last read, else those configured.
+     */
+    public List<Path> getDataFiles() {
+        DataPartitions current = partitions;
+        if (current != null) {
+            return current.getFiles();
+        }
+        Path file = lastFile;
+        if (file != null) {
+            return List.of(file);
+        }
+        if (dataFiles != null && !dataFiles.isBlank()) {
+            try {
+                return DataPartitions.resolve(dataFiles);
+            } catch (IOException e) {
+                logger.warn("Failed to find the data files: {}", dataFiles, e);
+                return List.of();
+            }
+        }
+        return List.of(Paths.get(filePathRead));
+    }
+
+    /**
+     * Brings the data up to date with the default data file specified in the application properties.
+     *
+     * @return The differences applied, or null if the file was not read.
+     * @see #reloadDataFile(String)
+     */
+    public DatasetDiff reloadDataFile() {
+        return reloadDataFile(filePathRead);
+    }
+
+    /**
+     * Brings the data up to date with a data file replaced since it was read, by applying the differences between
+     * the file and the current data, entity by entity, instead of replacing the whole data.
+     * <p>
+     * The file is parsed without locking the service, so queries go on meanwhile; the differences are then computed
+     * and applied in one block, see {@link #exclusively(Supplier)}, between two other changes. Their events follow each
+     * other in the change log, so the response caches and the bundles of the unchanged stations are kept. The file
+     * is not read if it is the one last read or written by the service, identified by its size and modification
+     * time, and it is ignored if it changes while being parsed, since another notification follows. The changes
+     * saved after the previous file are discarded: the new file replaces them.
+     * <p>
+     * When the data was read from the files of partitions, the file must be one of them, and only the entities it
+     * owns are compared with it: the other partitions are left as they are, and the keys they own are ignored.
+     *
+     * @param filePathRead The path of the data file to read from.
+     * @return The differences applied, possibly none, or null if the file was not read.
+     */
+    public DatasetDiff reloadDataFile(String filePathRead) {
+        Path file = Paths.get(filePathRead);
+        DataPartitions current = partitions;
+        int partition = current == null ? -1 : current.indexOf(file);
+        if (current != null && partition < 0) {
+            logger.warn("{} is not one of the data files, not read", file);
+            return null;
+        }
+        String state = fileState(file);
+        if (state == null || state.equals(partition < 0 ? lastFileState : current.getState(partition))) {
+            return null;
+        }
+        Dataset dataset;
+        try {
+            dataset = format.read(file);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to read the new data file: {}", file, e);
+            return null;
+        }
+        return exclusively(() -> {
+            if (!state.equals(fileState(file))) {
+                logger.info("The data file {} changed while it was read, waiting for the next change", file);
+                return null;
+            }
+            if (partitions != current) {
+                logger.info("The data files were read again while {} was read", file);
+                return null;
+            }
+            DatasetDiff diff;
+            if (partition < 0) {
+                diff = DatasetDiff.between(getDataset(), dataset);
+                applyDiff(diff);
+                lastFileState = state;
+                persistence.discard(this, file);
+            } else {
+                Dataset live = getDataset();
+                List<String> conflicts = new ArrayList<>();
+                Dataset accepted = current.withoutOtherPartitions(live, partition, dataset, conflicts);
+                conflicts.forEach(conflict -> logger.warn("Ignored the conflicting {}", conflict));
+                diff = DatasetDiff.between(current.ownedBy(live, partition, accepted), accepted);
+                applyDiff(diff);
+                current.assign(partition, accepted);
+                current.setState(partition, state);
+            }
+            logger.info("Applied {} changed persons, {} changed fire station addresses and {} changed medical records "
+                            + "from {}, now at version {}", diff.getPersons().size(), diff.getFireStations().size(),
+                    diff.getMedicalRecords().size(), file, getVersion());
+            return diff;
+        });
+    }
+
+    /**
+     * Runs a change of the whole data, such as the application of a reloaded data file, holding the lock of the
+     * service, between two other changes. The stores whose changes of one entity or queries take another lock
+     * extend it to hold that lock too.
+     *
+     * @param update The change to run.
+     * @param <T>    The type of its result.
+     * @return The result of the change.
+     */
+    protected synchronized <T> T exclusively(Supplier<T> update) {
+        return update.get();
+    }
+
+    /**
+     * Applies the differences with a reloaded data file, entity by entity; called holding the lock of the service.
+     * The stores extend it to tidy up their storage once all the changes are made.
+     *
+     * @param diff The differences to apply.
+     */
+    protected void applyDiff(DatasetDiff diff) {
+        diff.applyTo(this);
+    }
+
+    /**
+     * Reads a data file in the configured format and loads it, reporting the bytes parsed to the load progress.
+     *
+     * @param file The data file.
+     * @return true if the data was successfully read and loaded, false otherwise.
+     */
+    protected boolean readDataFile(Path file) {
+        logger.info("Reading data file from: {}", file);
+        try {
+            Dataset dataset;
+            try (InputStream in = loadProgress.track(new BufferedInputStream(Files.newInputStream(file)))) {
+                dataset = format.read(in);
+            }
+            loadProgress.indexing(dataset);
+            load(dataset);
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Failed to read data from file: {}", file, e);
+            loadProgress.failed(e.toString());
+            return false;
+        }
+    }
+
+    /**
+     * Saves the changes to the default data file specified in the application properties, through the configured
+     * change persistence.
+     * <p>
+     * The lock of the service is taken before the persistence is called, as when it recovers or discards the
+     * changes, so that the two locks are always taken in the same order.
+     *
+     * @return true if the data was successfully saved, false otherwise.
+     */
+    public synchronized boolean saveData() {
+        return persistence.persist(this, Paths.get(filePathWrite));
+    }
+
+    /**
+     * Overloaded method to save the current data to a specified data file, in the format read by
+     * {@link #readJsonFile(String)}.
+     * <p>
+     * This method is primarily used for testing purposes, allowing a custom file path to be provided.
+     *
+     * @param filePath The path to the file where data should be saved.
+     * @return true if the data was successfully saved, false otherwise.
+     */
+    public synchronized boolean saveData(String filePath) {
+        logger.info("Saving data to: {}", filePath);
+        try {
+            Path file = Paths.get(filePath);
+            format.write(getDataset(), file);
+            lastFileState = fileState(file);
+            logger.info("Data successfully saved.");
+            return true;
+        } catch (IOException e) {
+            logger.error("Failed to save data to file: {}", filePath, e);
+            return false;
+        }
+    }
+
+    /**
+     * Identifies the content of a data file by its size and modification time, which a move keeps.
+     *
+     * @param file The data file.
+     * @return The state of the file, or null if it cannot be read.
+     */
+    private static String fileState(Path file) {
+        try {
+            return Files.size(file) + "@" + Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the current data with a dataset and records a reload.
+     *
+     * @param dataset The data to load; the service may keep and modify its lists.
+     * @throws UncheckedIOException if the data cannot be stored.
+     */
+    public abstract void load(Dataset dataset);
+
+    /**
+     * Gets the current data, to be written to a data file.
+     *
+     * @return The persons, fire station mappings and medical records.
+     */
+    public abstract Dataset getDataset();
+
+    /**
+     * Gets the version of the data, incremented by every successful load and every change of one entity.
+     * <p>
+     * Two reads made at the same version see the same data, so their results can be shared.
+     *
+     * @return The current version, 0 before the first load.
+     */
+    public long getVersion() {
+        return changes.getVersion();
+    }
+
+    /**
+     * Gets the progress of the last read of a data file by {@link #readJsonFile(String)}.
+     *
+     * @return The load progress of this service.
+     */
+    public LoadProgress getLoadProgress() {
+        return loadProgress;
+    }
+
+    /**
+     * Gets the log of the changes made to the data, one event per version.
+     *
+     * @return The change log of this service.
+     */
+    public ChangeLog getChangeLog() {
+        return changes;
+    }
+
+    /**
+     * Sets the number of change events retained, from the {@code data.changes.capacity} property.
+     *
+     * @param capacity The number of events the change log retains.
+     */
+    @Value("${data.changes.capacity:10000}")
+    public void setChangeLogCapacity(int capacity) {
+        changes.setCapacity(capacity);
+    }
+
+    /**
+     * Sets the format of the data files, from the {@code data.format} property.
+     *
+     * @param format The name of a {@link JacksonDataFileFormat}: {@code json} or {@code smile}.
+     */
+    @Value("${data.format:json}")
+    public void setDataFileFormat(String format) {
+        setDataFileFormat(JacksonDataFileFormat.of(format));
+    }
+
+    /**
+     * Sets the format of the data files.
+     *
+     * @param format The format used to read and write the data files.
+     */
+    public void setDataFileFormat(DataFileFormat format) {
+        this.format = format;
+    }
+
+    /**
+     * Sets the number of threads parsing the data files of partitions, from the {@code data.files.parallelism}
+     * property.
+     *
+     * @param parallelism The number of threads, or 0 or less for one per available processor.
+     */
+    @Value("${data.files.parallelism:0}")
+    public void setPartitionParallelism(int parallelism) {
+        this.partitionParallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Sets what a conflict between the data files of partitions does, from the {@code data.files.onConflict}
+     * property.
+     *
+     * @param onConflict {@code fail} to fail the read, or {@code first} to keep the entities of the first file.
+     */
+    @Value("${data.files.onConflict:fail}")
+    public void setPartitionConflicts(String onConflict) {
+        if (!onConflict.equalsIgnoreCase("fail") && !onConflict.equalsIgnoreCase("first")) {
+            throw new IllegalArgumentException("Unknown data.files.onConflict: " + onConflict);
+        }
+        this.failOnConflict = onConflict.equalsIgnoreCase("fail");
+    }
+
+    /**
+     * Sets how the changes are saved to the data file.
+     *
+     * @param persistence The change persistence selected by the {@code data.persistence} property.
+     */
+    @Autowired
+    public void setChangePersistence(ChangePersistence persistence) {
+        this.persistence = persistence;
+    }
+}
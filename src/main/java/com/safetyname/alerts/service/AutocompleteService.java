@@ -0,0 +1,79 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.controller.AutocompleteController;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Service responsible for suggesting last names and addresses from a partial input.
+ * <p>
+ * This service relies on the prefix indexes maintained by the data layer, so a suggestion
+ * never requires scanning the list of persons.
+ */
+@Service
+public class AutocompleteService implements IAutocompleteService {
+
+    /**
+     * Field name used to request last name suggestions.
+     */
+    public static final String LAST_NAME = "lastName";
+
+    /**
+     * Field name used to request address suggestions.
+     */
+    public static final String ADDRESS = "address";
+
+    /**
+     * Upper bound applied to the number of suggestions requested by a caller.
+     */
+    public static final int MAX_LIMIT = 100;
+
+    private static final Logger logger = LogManager.getLogger(AutocompleteController.class);
+    private final IDataService dataService;
+
+    /**
+     * Constructor for AutocompleteService.
+     *
+     * @param dataService The data service holding the prefix indexes.
+     */
+    @Autowired
+    public AutocompleteService(IDataService dataService) {
+        this.dataService = dataService;
+    }
+
+    /**
+     * Retrieves the values of a field starting with the given prefix.
+     * <p>
+     * The limit is capped to {@link #MAX_LIMIT}. If the field is unknown, or the prefix is null or empty,
+     * an empty list is returned.
+     *
+     * @param field  The field to complete, either {@value #LAST_NAME} or {@value #ADDRESS}.
+     * @param prefix The beginning of the value typed by the operator.
+     * @param limit  The maximum number of suggestions to return.
+     * @return A list of distinct suggestions in alphabetical order, or an empty list if none match.
+     */
+    public List<String> getSuggestions(String field, String prefix, int limit) {
+        logger.info("Autocomplete request received for field {} and prefix: {}", field, prefix);
+
+        if (prefix == null || prefix.trim().isEmpty()) {
+            logger.error("Bad request in getSuggestions - Prefix is null or empty");
+            return Collections.emptyList();
+        }
+
+        int cappedLimit = Math.min(limit, MAX_LIMIT);
+        if (LAST_NAME.equals(field)) {
+            return dataService.getLastNamesByPrefix(prefix, cappedLimit);
+        }
+        if (ADDRESS.equals(field)) {
+            return dataService.getAddressesByPrefix(prefix, cappedLimit);
+        }
+
+        logger.error("Bad request in getSuggestions - Unknown field: {}", field);
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,289 @@
+package com.safetyname.alerts.service;
+
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.safetyname.alerts.dto.FloodResponse;
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.json.AlertsJsonModule;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service building an offline bundle file per fire station, in the background, whenever the data of the station
+ * changes.
+ * <p>
+ * A bundle holds the households covered by the station, as returned by {@code /flood/stations}: the residents of
+ * each address with their phone, age, medications and allergies. It is encoded in Smile, the binary form of JSON,
+ * and compressed with gzip, with the station number, the data version and the day it was built, since ages change
+ * at midnight. Serving a station is then a transfer of an immutable file.
+ * <p>
+ * The service listens to the {@link ChangeLog}: the changes recorded during {@link #BUILD_DELAY_MILLIS} are
+ * collected, and only the stations whose addresses, residents or medical records changed are built again; a
+ * reload of the dataset or a new day rebuilds every station. A bundle is identified by the hash of its content,
+ * and the previous bundle of a station is kept until the next one replaces it, for the downloads still resuming
+ * it.
+ */
+@Service
+public class BundleService implements IBundleService {
+
+    private static final Logger logger = LogManager.getLogger(BundleService.class);
+
+    /**
+     * Extension of the bundle files.
+     */
+    public static final String FILE_SUFFIX = ".smile.gz";
+
+    /**
+     * Time during which the changes are collected before the affected stations are built.
+     */
+    static final long BUILD_DELAY_MILLIS = 1_000;
+
+    private static final String FILE_PREFIX = "station-";
+    private static final int ID_LENGTH = 16;
+
+    private final IDataService dataService;
+    private final IFloodService floodService;
+    private Path directory;
+    private final SmileMapper mapper = SmileMapper.builder().addModule(new AlertsJsonModule()).build();
+    private final ConcurrentHashMap<Integer, StationBundle> bundles = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, StationBundle> previousBundles = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<ChangeEvent> pendingEvents = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean buildScheduled = new AtomicBoolean();
+    private final Consumer<ChangeEvent> listener = this::onChange;
+    private ScheduledExecutorService builder;
+    private LocalDate builtDay;
+
+    /**
+     * Constructor for BundleService.
+     *
+     * @param dataService  The data service whose changes trigger the builds.
+     * @param floodService The service assembling the households of a station.
+     * @param directory    The directory of the bundle files, from the {@code data.bundles.directory} property;
+     *                     if blank, a new temporary directory is used.
+     */
+    @Autowired
+    public BundleService(IDataService dataService, IFloodService floodService,
+                         @Value("${data.bundles.directory:}") String directory) {
+        this.dataService = dataService;
+        this.floodService = floodService;
+        this.directory = directory == null || directory.isBlank() ? null : Paths.get(directory);
+    }
+
+    /**
+     * Removes the bundle files left by a previous run and starts building the bundles of every station in the
+     * background.
+     *
+     * @throws IOException If the bundle directory cannot be created or cleaned.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (directory == null) {
+            directory = Files.createTempDirectory("alerts-bundles-");
+        }
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+        builder = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "bundle-builder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dataService.getChangeLog().subscribe(listener);
+        builder.scheduleWithFixedDelay(this::checkDay, 1, 1, TimeUnit.MINUTES);
+        scheduleBuild(0);
+        logger.info("Building station bundles in {}", directory);
+    }
+
+    /**
+     * Stops the background builds.
+     */
+    @PreDestroy
+    public void shutdown() {
+        dataService.getChangeLog().unsubscribe(listener);
+        if (builder != null) {
+            builder.shutdownNow();
+        }
+    }
+
+    /**
+     * Gets the current bundle of a station.
+     *
+     * @param stationNumber The fire station number.
+     * @return The bundle, or null if the station covers no address or its first bundle is not built yet.
+     */
+    public StationBundle getBundle(int stationNumber) {
+        return bundles.get(stationNumber);
+    }
+
+    /**
+     * Gets a bundle of a station by its id, to resume its download.
+     *
+     * @param stationNumber The fire station number.
+     * @param id            The id of the bundle.
+     * @return The current or the previous bundle of the station with this id, or null if it was replaced since.
+     */
+    public StationBundle getBundle(int stationNumber, String id) {
+        for (StationBundle bundle : Arrays.asList(bundles.get(stationNumber), previousBundles.get(stationNumber))) {
+            if (bundle != null && bundle.getId().equals(id)) {
+                return bundle;
+            }
+        }
+        return null;
+    }
+
+    private void onChange(ChangeEvent event) {
+        // Called while the change log is locked: the stations are looked up by the builder thread
+        pendingEvents.add(event);
+        scheduleBuild(BUILD_DELAY_MILLIS);
+    }
+
+    private void checkDay() {
+        if (!LocalDate.now().equals(builtDay)) {
+            scheduleBuild(0);
+        }
+    }
+
+    private void scheduleBuild(long delayMillis) {
+        if (buildScheduled.compareAndSet(false, true)) {
+            builder.schedule(() -> {
+                buildScheduled.set(false);
+                try {
+                    build();
+                } catch (RuntimeException e) {
+                    logger.error("Failed to build the station bundles", e);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Builds the bundles of the stations affected by the changes recorded since the last build, or of every station
+     * on a new day or after a reload.
+     */
+    void build() {
+        Map<String, Set<Integer>> stationsByAddress = new HashMap<>();
+        for (FireStation fireStation : dataService.getFireStations()) {
+            stationsByAddress.computeIfAbsent(fireStation.getAddress(), address -> new TreeSet<>()).add(fireStation.getStation());
+        }
+        LocalDate today = LocalDate.now();
+        boolean all = !today.equals(builtDay);
+        Set<Integer> stations = new TreeSet<>();
+        ChangeEvent event;
+        while ((event = pendingEvents.poll()) != null) {
+            all |= event.getOperation() == ChangeEvent.Operation.RELOADED;
+            for (Object state : Arrays.asList(event.getBefore(), event.getAfter())) {
+                addStations(state, stationsByAddress, stations);
+            }
+        }
+        if (all) {
+            stationsByAddress.values().forEach(stations::addAll);
+            stations.addAll(bundles.keySet());
+        }
+        long version = dataService.getVersion();
+        for (int station : stations) {
+            if (stationsByAddress.values().stream().anyMatch(numbers -> numbers.contains(station))) {
+                buildBundle(station, version, today);
+            } else {
+                removeBundles(station);
+            }
+        }
+        builtDay = today;
+    }
+
+    private void addStations(Object state, Map<String, Set<Integer>> stationsByAddress, Set<Integer> stations) {
+        if (state instanceof Person) {
+            stations.addAll(stationsByAddress.getOrDefault(((Person) state).getAddress(), Set.of()));
+        } else if (state instanceof MedicalRecord) {
+            MedicalRecord medicalRecord = (MedicalRecord) state;
+            for (Person person : dataService.getPersonsByName(medicalRecord.getFirstName(), medicalRecord.getLastName())) {
+                stations.addAll(stationsByAddress.getOrDefault(person.getAddress(), Set.of()));
+            }
+        } else if (state instanceof FireStation) {
+            stations.add(((FireStation) state).getStation());
+        }
+    }
+
+    private void buildBundle(int station, long version, LocalDate day) {
+        Map<String, List<FloodResponse>> households = floodService.getFloodService(List.of(station));
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("station", station);
+        content.put("version", version);
+        content.put("date", day.toString());
+        content.put("households", households);
+        Path temporary = null;
+        try {
+            temporary = Files.createTempFile(directory, "build-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (OutputStream out = new GZIPOutputStream(new DigestOutputStream(Files.newOutputStream(temporary), digest))) {
+                mapper.writeValue(out, content);
+            }
+            String id = HexFormat.of().formatHex(digest.digest()).substring(0, ID_LENGTH);
+            Path path = directory.resolve(FILE_PREFIX + station + "-" + id + FILE_SUFFIX);
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temporary = null;
+            StationBundle bundle = new StationBundle(station, id, version, path, Files.size(path), Instant.now());
+            StationBundle current = bundles.put(station, bundle);
+            if (current != null) {
+                delete(previousBundles.put(station, current));
+            }
+            logger.info("Built bundle {} of station {} at version {} ({} bytes)", id, station, version, bundle.getSize());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            logger.error("Failed to build the bundle of station {}", station, e);
+        } finally {
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException e) {
+                    logger.warn("Failed to delete {}", temporary, e);
+                }
+            }
+        }
+    }
+
+    private void removeBundles(int station) {
+        delete(bundles.remove(station));
+        delete(previousBundles.remove(station));
+    }
+
+    private static void delete(StationBundle bundle) {
+        if (bundle == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(bundle.getPath());
+        } catch (IOException e) {
+            logger.warn("Failed to delete bundle {}", bundle.getPath(), e);
+        }
+    }
+}
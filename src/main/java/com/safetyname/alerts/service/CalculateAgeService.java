@@ -1,5 +1,6 @@
 package com.safetyname.alerts.service;
 
+import com.safetyname.alerts.store.AgeKernel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -41,4 +42,21 @@ public class CalculateAgeService  {
             return -1; // Return -1 if the date is invalid
         }
     }
+
+    /**
+     * Converts a birthdate string to an epoch day, for the counts of {@link AgeKernel}.
+     *
+     * @param birthdateStr The birthdate string in "MM/dd/yyyy" format.
+     * @return The epoch day of the birthdate, or {@link AgeKernel#UNKNOWN_BIRTHDATE} if it is invalid.
+     */
+    public static int birthEpochDay(String birthdateStr) {
+        if (birthdateStr == null || birthdateStr.trim().isEmpty()) {
+            return AgeKernel.UNKNOWN_BIRTHDATE;
+        }
+        try {
+            return (int) LocalDate.parse(birthdateStr, formatter).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return AgeKernel.UNKNOWN_BIRTHDATE;
+        }
+    }
 }
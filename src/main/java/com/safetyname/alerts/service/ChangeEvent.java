@@ -0,0 +1,104 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import lombok.Getter;
+
+import java.util.ArrayList;
+
+/**
+ * One change of the data, as recorded by the {@link ChangeLog} of an {@link IDataService}.
+ * <p>
+ * Every change of one entity advances the data version by one, so the version identifies the event.
+ * An added entity only has an {@code after} state, a deleted one only a {@code before} state, an updated
+ * one both. A {@link Operation#RELOADED} event has neither: the whole dataset was replaced and replicas
+ * must be fetched again.
+ * <strong>Note:</strong> This class uses Lombok annotations to automatically generate getters.
+ * Make sure Lombok is properly configured in your development environment.
+ */
+@Getter
+public class ChangeEvent {
+
+    /**
+     * The kind of entity that changed.
+     */
+    public enum Entity {
+        PERSON,
+        MEDICAL_RECORD,
+        FIRE_STATION,
+        /** The dataset as a whole. */
+        DATASET
+    }
+
+    /**
+     * What happened to the entity.
+     */
+    public enum Operation {
+        ADDED,
+        UPDATED,
+        DELETED,
+        /** The dataset was loaded again, or replaced by a snapshot. */
+        RELOADED
+    }
+
+    private final long version;
+    private final Entity entity;
+    private final Operation operation;
+    private final String key;
+    private final Object before;
+    private final Object after;
+
+    /**
+     * Creates an event.
+     *
+     * @param version   The data version reached by the change.
+     * @param entity    The kind of entity that changed.
+     * @param operation What happened to the entity.
+     * @param key       The key of the entity: "firstName lastName" for persons and medical records, the address for
+     *                  fire station mappings, null for the dataset.
+     * @param before    The state before the change, or null if the entity was added.
+     * @param after     The state after the change, or null if the entity was deleted.
+     */
+    public ChangeEvent(long version, Entity entity, Operation operation, String key, Object before, Object after) {
+        this.version = version;
+        this.entity = entity;
+        this.operation = operation;
+        this.key = key;
+        this.before = before;
+        this.after = after;
+    }
+
+    /**
+     * Copies a person, so that later changes of the stored one do not alter an event.
+     *
+     * @param person The person to copy.
+     * @return A new person with the same details.
+     */
+    public static Person snapshot(Person person) {
+        return new Person(person.getFirstName(), person.getLastName(), person.getAddress(), person.getCity(),
+                person.getEmail(), person.getZip(), person.getPhone());
+    }
+
+    /**
+     * Copies a medical record and its lists, so that later changes of the stored one do not alter an event.
+     *
+     * @param medicalRecord The medical record to copy.
+     * @return A new medical record with the same details.
+     */
+    public static MedicalRecord snapshot(MedicalRecord medicalRecord) {
+        return new MedicalRecord(medicalRecord.getFirstName(), medicalRecord.getLastName(), medicalRecord.getBirthdate(),
+                medicalRecord.getMedications() == null ? null : new ArrayList<>(medicalRecord.getMedications()),
+                medicalRecord.getAllergies() == null ? null : new ArrayList<>(medicalRecord.getAllergies()));
+    }
+
+    /**
+     * Copies a fire station mapping, so that later changes of the stored one do not alter an event.
+     *
+     * @param fireStation The mapping to copy.
+     * @return A new mapping with the same address and station.
+     */
+    public static FireStation snapshot(FireStation fireStation) {
+        return new FireStation(fireStation.getAddress(), fireStation.getStation());
+    }
+}
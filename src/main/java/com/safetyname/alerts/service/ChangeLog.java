@@ -0,0 +1,304 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Holds the data version of an {@link IDataService} and the most recent {@link ChangeEvent}s that advanced it.
+ * <p>
+ * The data layer records every change here: each recorded event increments the version, so events are numbered
+ * without gaps and a replica at version {@code v} catches up by applying the retained events after {@code v}.
+ * Only the last events are retained; a replica older than the window has to be fetched again.
+ * <p>
+ * Versions start again at 0 whenever the application starts, so a version alone does not tell which run of the
+ * application it comes from. Each log draws a random epoch when it is created, and the positions handed to
+ * clients are {@code <epoch>-<version>}, see {@link #positionOf(long)}: a position from a previous run, or
+ * without epoch, matches no version of this log, and the replica holding it has to be fetched again.
+ * <p>
+ * Listeners are called in version order while the log is locked, so they must only hand the event over,
+ * for instance to a queue. The states held by the events must not be retained by the data layer.
+ */
+public class ChangeLog {
+
+    /**
+     * Default number of events retained.
+     */
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private static final Pattern POSITION = Pattern.compile("(\\d{1,19}-)?\\d{1,19}");
+
+    private int capacity;
+    private final ArrayDeque<ChangeEvent> events = new ArrayDeque<>();
+    private final List<Consumer<ChangeEvent>> listeners = new CopyOnWriteArrayList<>();
+    private volatile long version;
+    private final long epoch = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+
+    /**
+     * Creates a log retaining {@link #DEFAULT_CAPACITY} events.
+     */
+    public ChangeLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a log.
+     *
+     * @param capacity The number of events retained, at least 1.
+     */
+    public ChangeLog(int capacity) {
+        setCapacity(capacity);
+    }
+
+    /**
+     * Gets the number of events retained.
+     *
+     * @return The capacity of the log.
+     */
+    public synchronized int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Changes the number of events retained, dropping the oldest ones if the log holds more.
+     *
+     * @param capacity The number of events retained, at least 1.
+     */
+    public synchronized void setCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be at least 1, got " + capacity);
+        }
+        this.capacity = capacity;
+        while (events.size() > capacity) {
+            events.removeFirst();
+        }
+    }
+
+    /**
+     * Gets the current data version.
+     *
+     * @return The version of the last recorded event, 0 before the first one.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the epoch of this log, drawn at random when it was created.
+     *
+     * @return The epoch, positive.
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Gets the position of a version of this log, to hand over to a client.
+     *
+     * @param version A version of this log.
+     * @return The position {@code <epoch>-<version>}.
+     */
+    public String positionOf(long version) {
+        return epoch + "-" + version;
+    }
+
+    /**
+     * Gets the version of a position handed over by this log.
+     *
+     * @param position A position, as returned by {@link #positionOf(long)}.
+     * @return The version, or null if the position has no epoch or another one, such as a position from before a
+     *         restart.
+     * @throws IllegalArgumentException if the text is not a position.
+     */
+    public Long versionAt(String position) {
+        if (!isPosition(position)) {
+            throw new IllegalArgumentException("Not a change log position: " + position);
+        }
+        int separator = position.indexOf('-');
+        if (separator < 0 || Long.parseLong(position.substring(0, separator)) != epoch) {
+            return null;
+        }
+        return Long.parseLong(position.substring(separator + 1));
+    }
+
+    /**
+     * Tells whether a text is a position, of any epoch, or a version without epoch.
+     *
+     * @param position The text to check.
+     * @return true if it is a version, optionally preceded by an epoch and a dash.
+     */
+    public static boolean isPosition(String position) {
+        if (position == null || !POSITION.matcher(position).matches()) {
+            return false;
+        }
+        try {
+            for (String part : position.split("-")) {
+                Long.parseLong(part);
+            }
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Records that the whole dataset was loaded or replaced.
+     *
+     * @return The recorded event.
+     */
+    public ChangeEvent recordReload() {
+        return record(ChangeEvent.Entity.DATASET, ChangeEvent.Operation.RELOADED, null, null, null);
+    }
+
+    /**
+     * Records a change of a person.
+     *
+     * @param before The person before the change, or null if it was added.
+     * @param after  The person after the change, or null if it was deleted.
+     * @return The recorded event.
+     */
+    public ChangeEvent recordPerson(Person before, Person after) {
+        Person person = after != null ? after : before;
+        return record(ChangeEvent.Entity.PERSON, operation(before, after),
+                person.getFirstName() + " " + person.getLastName(), before, after);
+    }
+
+    /**
+     * Records a change of a medical record.
+     *
+     * @param before The medical record before the change, or null if it was added.
+     * @param after  The medical record after the change, or null if it was deleted.
+     * @return The recorded event.
+     */
+    public ChangeEvent recordMedicalRecord(MedicalRecord before, MedicalRecord after) {
+        MedicalRecord medicalRecord = after != null ? after : before;
+        return record(ChangeEvent.Entity.MEDICAL_RECORD, operation(before, after),
+                medicalRecord.getFirstName() + " " + medicalRecord.getLastName(), before, after);
+    }
+
+    /**
+     * Records a change of a fire station mapping.
+     *
+     * @param before The mapping before the change, or null if it was added.
+     * @param after  The mapping after the change, or null if it was deleted.
+     * @return The recorded event.
+     */
+    public ChangeEvent recordFireStation(FireStation before, FireStation after) {
+        FireStation fireStation = after != null ? after : before;
+        return record(ChangeEvent.Entity.FIRE_STATION, operation(before, after), fireStation.getAddress(), before, after);
+    }
+
+    /**
+     * Gets the retained events after a version.
+     *
+     * @param since The version of the caller's replica.
+     * @return The events after this version, in order, or null if some of them are no longer retained or the
+     *         version is ahead of the log.
+     */
+    public synchronized List<ChangeEvent> getEventsSince(long since) {
+        if (since > version || since < version - events.size()) {
+            return null;
+        }
+        // The retained events are numbered without gaps and end at the current version
+        int count = (int) (version - since);
+        int skipped = events.size() - count;
+        List<ChangeEvent> after = new ArrayList<>(count);
+        for (ChangeEvent event : events) {
+            if (skipped > 0) {
+                skipped--;
+            } else {
+                after.add(event);
+            }
+        }
+        return after;
+    }
+
+    /**
+     * Registers a listener of the events recorded from now on.
+     *
+     * @param listener The listener to register.
+     */
+    public synchronized void subscribe(Consumer<ChangeEvent> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Registers a listener and gets the events after a version, atomically: the listener receives every event
+     * after the returned ones, and only those.
+     *
+     * @param since    The version of the caller's replica.
+     * @param listener The listener of the following events.
+     * @return The retained events after the version or, if some of them are no longer retained or the version is
+     *         ahead of the log, a single {@link ChangeEvent.Operation#RELOADED} event at the current version,
+     *         telling the caller to fetch the dataset again.
+     */
+    public synchronized List<ChangeEvent> subscribe(long since, Consumer<ChangeEvent> listener) {
+        listeners.add(listener);
+        List<ChangeEvent> after = getEventsSince(since);
+        if (after == null) {
+            return List.of(reloaded());
+        }
+        return after;
+    }
+
+    /**
+     * Registers a listener and gets the events after a position, atomically, as {@link #subscribe(long, Consumer)}
+     * does.
+     *
+     * @param position The position of the caller's replica, as returned by {@link #positionOf(long)}.
+     * @param listener The listener of the following events.
+     * @return The retained events after the position or, if the position is from another epoch or has none, a
+     *         single {@link ChangeEvent.Operation#RELOADED} event at the current version.
+     * @throws IllegalArgumentException if the text is not a position.
+     */
+    public synchronized List<ChangeEvent> subscribe(String position, Consumer<ChangeEvent> listener) {
+        Long since = versionAt(position);
+        if (since == null) {
+            listeners.add(listener);
+            return List.of(reloaded());
+        }
+        return subscribe(since, listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener The listener to remove.
+     */
+    public void unsubscribe(Consumer<ChangeEvent> listener) {
+        listeners.remove(listener);
+    }
+
+    private synchronized ChangeEvent record(ChangeEvent.Entity entity, ChangeEvent.Operation operation, String key,
+                                            Object before, Object after) {
+        ChangeEvent event = new ChangeEvent(version + 1, entity, operation, key, before, after);
+        if (events.size() >= capacity) {
+            events.removeFirst();
+        }
+        events.addLast(event);
+        version = event.getVersion();
+        for (Consumer<ChangeEvent> listener : listeners) {
+            listener.accept(event);
+        }
+        return event;
+    }
+
+    private ChangeEvent reloaded() {
+        return new ChangeEvent(version, ChangeEvent.Entity.DATASET, ChangeEvent.Operation.RELOADED, null, null, null);
+    }
+
+    private static ChangeEvent.Operation operation(Object before, Object after) {
+        if (before == null) {
+            return ChangeEvent.Operation.ADDED;
+        }
+        return after == null ? ChangeEvent.Operation.DELETED : ChangeEvent.Operation.UPDATED;
+    }
+}
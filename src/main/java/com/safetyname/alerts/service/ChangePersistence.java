@@ -0,0 +1,44 @@
+package com.safetyname.alerts.service;
+
+import java.nio.file.Path;
+
+/**
+ * How the changes of a data service reach its data file, selected with {@code data.persistence}.
+ * <p>
+ * The data service reads its data file in its {@link com.safetyname.alerts.store.DataFileFormat}, then lets the
+ * persistence {@link #recover(IDataService, Path) recover} the changes saved after the file was written; each
+ * {@link IDataService#saveData()} is then a call to {@link #persist(IDataService, Path)}. A persistence writes the
+ * whole data file through {@link IDataService#saveData(String)}, and finds the changes to save in the
+ * {@link ChangeLog} of the service.
+ * <p>
+ * The data service calls its persistence holding its own lock, so a persistence may lock itself and call the
+ * service back, but must never be called from elsewhere while holding its lock.
+ */
+public interface ChangePersistence {
+
+    /**
+     * Applies to a data service the changes saved after its data file was written.
+     *
+     * @param store    The data service, which just read the data file.
+     * @param dataFile The data file that was read.
+     */
+    void recover(IDataService store, Path dataFile);
+
+    /**
+     * Forgets the changes saved after the data file was written, once the data service has applied a new version
+     * of the file replacing them.
+     *
+     * @param store    The data service, which holds the data of the new file.
+     * @param dataFile The data file that was replaced.
+     */
+    void discard(IDataService store, Path dataFile);
+
+    /**
+     * Saves the changes of a data service.
+     *
+     * @param store    The data service.
+     * @param dataFile The data file to save to.
+     * @return true if the changes were successfully saved, false otherwise.
+     */
+    boolean persist(IDataService store, Path dataFile);
+}
@@ -0,0 +1,181 @@
+package com.safetyname.alerts.service;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Service streaming the {@link ChangeEvent}s of the data layer to Server-Sent Events subscribers.
+ * <p>
+ * Each subscriber gets the retained events after the version it resumes from, then every new event, in
+ * version order; the SSE id of an event is its position in the change log, {@code <epoch>-<version>}, so a
+ * reconnecting client resumes from its {@code Last-Event-ID}, and one reconnecting after a restart of the
+ * application, whose epoch changed, starts again with a {@link ChangeEvent.Operation#RELOADED} event. Events are queued per subscriber by the {@link ChangeLog} listener and written by
+ * a shared pool of threads, so a slow client never delays a change of the data. A subscriber falling more
+ * events behind than the change log retains is disconnected: it could not resume anyway, and starts again
+ * with a {@link ChangeEvent.Operation#RELOADED} event when it reconnects.
+ */
+@Service
+public class ChangeStreamService implements IChangeStreamService {
+
+    private static final Logger logger = LogManager.getLogger(ChangeStreamService.class);
+
+    /**
+     * Name of the SSE events.
+     */
+    public static final String EVENT_NAME = "change";
+
+    private final IDataService dataService;
+    private final ExecutorService senders;
+
+    /**
+     * Constructor for ChangeStreamService.
+     *
+     * @param dataService The data service whose change log is streamed.
+     */
+    public ChangeStreamService(IDataService dataService) {
+        this.dataService = dataService;
+        AtomicInteger threads = new AtomicInteger();
+        this.senders = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "change-stream-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Streams the changes of the data to an emitter.
+     *
+     * @param emitter The emitter of the subscriber, completed when the subscriber falls behind or fails.
+     * @param since   The position the subscriber resumes from, or null to receive only the new events. If it is
+     *                from another epoch or has none, or the events after it are no longer retained, the stream
+     *                starts with a {@link ChangeEvent.Operation#RELOADED} event telling the subscriber to fetch
+     *                the dataset again.
+     * @throws IllegalArgumentException if {@code since} is not a change log position.
+     */
+    public void subscribe(SseEmitter emitter, String since) {
+        ChangeLog changeLog = dataService.getChangeLog();
+        Subscriber subscriber = new Subscriber(emitter, changeLog);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        if (since == null) {
+            changeLog.subscribe(subscriber);
+            logger.info("Change stream subscriber added at version {}", changeLog.getVersion());
+            subscriber.start(List.of());
+        } else {
+            List<ChangeEvent> backlog = changeLog.subscribe(since, subscriber);
+            logger.info("Change stream subscriber added, resuming from {} with {} event(s)", since, backlog.size());
+            subscriber.start(backlog);
+        }
+    }
+
+    /**
+     * Stops the threads writing the events.
+     */
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    /**
+     * Queue of the events of one subscriber, drained by at most one sender thread at a time.
+     * <p>
+     * Events recorded while the backlog is read are queued but not sent until {@link #start(List)} puts the
+     * backlog in front of them.
+     */
+    private final class Subscriber implements Consumer<ChangeEvent> {
+        private final SseEmitter emitter;
+        private final ChangeLog changeLog;
+        private final ArrayDeque<ChangeEvent> pending = new ArrayDeque<>();
+        private boolean draining = true;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter, ChangeLog changeLog) {
+            this.emitter = emitter;
+            this.changeLog = changeLog;
+        }
+
+        private void start(List<ChangeEvent> backlog) {
+            synchronized (this) {
+                for (int i = backlog.size() - 1; i >= 0; i--) {
+                    pending.addFirst(backlog.get(i));
+                }
+            }
+            senders.execute(this::drain);
+        }
+
+        @Override
+        public void accept(ChangeEvent event) {
+            boolean overflow;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                overflow = pending.size() >= changeLog.getCapacity();
+                if (!overflow) {
+                    pending.addLast(event);
+                    if (draining) {
+                        return;
+                    }
+                    draining = true;
+                }
+            }
+            if (overflow) {
+                // Called while the change log is locked: the emitter is completed by a sender thread
+                logger.warn("Change stream subscriber more than {} events behind, disconnecting it", changeLog.getCapacity());
+                close();
+                senders.execute(emitter::complete);
+            } else {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                List<ChangeEvent> batch;
+                synchronized (this) {
+                    if (closed || pending.isEmpty()) {
+                        draining = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(pending);
+                    pending.clear();
+                }
+                try {
+                    for (ChangeEvent event : batch) {
+                        emitter.send(SseEmitter.event()
+                                .id(changeLog.positionOf(event.getVersion()))
+                                .name(EVENT_NAME)
+                                .data(event, MediaType.APPLICATION_JSON));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    logger.info("Change stream subscriber disconnected: {}", e.getMessage());
+                    close();
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+
+        private void close() {
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+            }
+            changeLog.unsubscribe(this);
+        }
+    }
+}
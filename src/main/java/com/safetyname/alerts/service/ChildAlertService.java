@@ -3,6 +3,7 @@ package com.safetyname.alerts.service;
 import com.safetyname.alerts.dto.ChildResponse;
 import com.safetyname.alerts.entity.MedicalRecord;
 import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.index.ResidentQuery;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -47,7 +48,7 @@ public class ChildAlertService implements IChildAlertService {
     public List<ChildResponse> getChildrenByAddress(String address) {
         logger.info("Searching for children at address: {}", address);
 
-        List<Person> persons = dataService.getPersonsByAddress(address);
+        List<Person> persons = dataService.findPersons(ResidentQuery.ofAddress(address));
         if (persons.isEmpty()) {
             logger.warn("No person found at address: {}", address);
             return Collections.emptyList();  // No person found
@@ -0,0 +1,943 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.dto.MedicalRecordResidency;
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.index.MedicalTermIndex;
+import com.safetyname.alerts.index.PhoneticIndex;
+import com.safetyname.alerts.index.PrefixIndex;
+import com.safetyname.alerts.index.QueryPlan;
+import com.safetyname.alerts.index.ResidentQuery;
+import com.safetyname.alerts.index.Soundex;
+import com.safetyname.alerts.index.TextNormalizer;
+import com.safetyname.alerts.store.AgeKernel;
+import com.safetyname.alerts.store.CodeDictionary;
+import com.safetyname.alerts.store.ColumnStorage;
+import com.safetyname.alerts.store.Dataset;
+import com.safetyname.alerts.store.FireStationTable;
+import com.safetyname.alerts.store.IntColumn;
+import com.safetyname.alerts.store.IntPairMap;
+import com.safetyname.alerts.store.MedicalRecordTable;
+import com.safetyname.alerts.store.PersonTable;
+import com.safetyname.alerts.store.SnapshotReader;
+import com.safetyname.alerts.store.SnapshotWriter;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * Column-wise implementation of {@link IDataService}, selected with {@code data.store=columnar}.
+ * <p>
+ * Persons and medical records are stored in a {@link PersonTable} and a {@link MedicalRecordTable}:
+ * one dictionary-encoded {@code int} column per field, indexed by a dense row ID. Queries scan the
+ * columns they need and compare codes, and {@link Person} or {@link MedicalRecord} objects are only
+ * created for the rows returned to the caller. The returned entities are detached copies: changes
+ * must go through the mutation methods.
+ * <p>
+ * Fire station mappings are stored in a {@link FireStationTable} sharing the address dictionary of the
+ * persons. The data file format is the same for both implementations, and {@link OffHeapDataService}
+ * is the same store with its columns kept outside of the Java heap.
+ */
+@Service
+@ConditionalOnProperty(name = "data.store", havingValue = "columnar")
+public class ColumnarDataService extends AbstractDataService {
+
+    private static final Logger logger = LogManager.getLogger(ColumnarDataService.class);
+    private static final long NO_NAME = -1L;
+
+    private final ColumnStorage storage;
+    private CodeDictionary firstNames;
+    private CodeDictionary lastNames;
+    private PersonTable persons;
+    private MedicalRecordTable medicalRecords;
+    private FireStationTable firestations;
+    private IntPairMap medicalRecordIdsByName;
+    private final PrefixIndex lastNamePrefixIndex = new PrefixIndex();
+    private final PrefixIndex addressPrefixIndex = new PrefixIndex();
+
+    /**
+     * Default constructor for ColumnarDataService, keeping the columns on the Java heap.
+     */
+    public ColumnarDataService() {
+        this(ColumnStorage.HEAP);
+    }
+
+    /**
+     * Creates a column-wise data service.
+     *
+     * @param storage Where the columns and dictionaries keep their data.
+     */
+    protected ColumnarDataService(ColumnStorage storage) {
+        this.storage = storage;
+        this.firstNames = storage.newDictionary();
+        this.lastNames = storage.newDictionary();
+        this.persons = new PersonTable(storage, firstNames, lastNames);
+        this.medicalRecords = new MedicalRecordTable(storage, firstNames, lastNames);
+        this.firestations = new FireStationTable(storage, persons.addresses());
+        this.medicalRecordIdsByName = new IntPairMap(storage);
+    }
+
+    /**
+     * Replaces the current data with the entities of a dataset, appended to emptied columns.
+     *
+     * @param dataset The data to load.
+     */
+    public synchronized void load(Dataset dataset) {
+        persons.clear();
+        medicalRecords.clear();
+        firestations.clear();
+        firstNames.clear();
+        lastNames.clear();
+        medicalRecordIdsByName.clear();
+        lastNamePrefixIndex.rebuild(Collections.emptyList());
+        addressPrefixIndex.rebuild(Collections.emptyList());
+        dataset.getPersons().forEach(this::appendPerson);
+        dataset.getMedicalRecords().forEach(this::appendMedicalRecord);
+        dataset.getFireStations().forEach(firestations::add);
+        persons.trim();
+        medicalRecords.trim();
+        changes.recordReload();
+        logger.info("Data successfully read and processed: {} persons and {} medical records in columns.",
+                persons.liveCount(), medicalRecords.rowCount());
+    }
+
+    /**
+     * Gets the current data, materialized from the columns.
+     *
+     * @return New lists of the persons, fire station mappings and medical records.
+     */
+    public synchronized Dataset getDataset() {
+        return new Dataset(getPersons(), firestations.materialize(), getMedicalRecords());
+    }
+
+    /**
+     * Writes the current data to a snapshot that {@link #mapSnapshot(Path, Path)} maps back without parsing.
+     *
+     * @param snapshot The snapshot file, replaced atomically.
+     * @param source   The JSON file holding the same data; its size and modification time are recorded.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    protected synchronized void writeSnapshot(Path snapshot, Path source) throws IOException {
+        logger.info("Writing snapshot to: {}", snapshot);
+        try (SnapshotWriter out = new SnapshotWriter(snapshot, Files.size(source), Files.getLastModifiedTime(source).toMillis())) {
+            out.writeDictionary(firstNames);
+            out.writeDictionary(lastNames);
+            persons.writeTo(out);
+            medicalRecords.writeTo(out);
+            firestations.writeTo(out);
+            medicalRecordIdsByName.writeTo(out);
+            out.commit();
+        }
+    }
+
+    /**
+     * Replaces the current data with a snapshot mapped in memory.
+     * <p>
+     * The columns and dictionaries are used in place from the mapped file, so nothing is parsed or copied
+     * except the deletion flags and the prefix indexes, which are rebuilt from the distinct values.
+     *
+     * @param snapshot The snapshot file.
+     * @param source   The JSON file the snapshot must have been built from, in its current version.
+     * @throws IOException if the snapshot cannot be mapped, is invalid or is out of date; the current data is kept.
+     */
+    protected synchronized void mapSnapshot(Path snapshot, Path source) throws IOException {
+        logger.info("Mapping snapshot from: {}", snapshot);
+        SnapshotReader in = new SnapshotReader(snapshot, Files.size(source), Files.getLastModifiedTime(source).toMillis());
+        try {
+            CodeDictionary mappedFirstNames = in.readDictionary();
+            CodeDictionary mappedLastNames = in.readDictionary();
+            PersonTable mappedPersons = new PersonTable(in, mappedFirstNames, mappedLastNames);
+            MedicalRecordTable mappedMedicalRecords = new MedicalRecordTable(in, mappedFirstNames, mappedLastNames);
+            FireStationTable mappedFireStations = new FireStationTable(in, storage, mappedPersons.addresses());
+            IntPairMap mappedMedicalRecordIds = new IntPairMap(in, storage);
+            firstNames = mappedFirstNames;
+            lastNames = mappedLastNames;
+            persons = mappedPersons;
+            medicalRecords = mappedMedicalRecords;
+            firestations = mappedFireStations;
+            medicalRecordIdsByName = mappedMedicalRecordIds;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Truncated snapshot: " + snapshot, e);
+        }
+        rebuildPrefixIndex(lastNamePrefixIndex, lastNames, persons.lastNameColumn());
+        rebuildPrefixIndex(addressPrefixIndex, persons.addresses(), persons.addressColumn());
+        changes.recordReload();
+        logger.info("Snapshot mapped: {} persons and {} medical records.", persons.liveCount(), medicalRecords.rowCount());
+    }
+
+    /**
+     * Retrieves every person, materialized from the columns.
+     *
+     * @return A new list of {@link Person} objects.
+     */
+    public synchronized List<Person> getPersons() {
+        logger.info("Retrieving list of all persons.");
+        List<Person> all = new ArrayList<>(persons.liveCount());
+        for (int id = 0; id < persons.rowCount(); id++) {
+            if (persons.isLive(id)) {
+                all.add(persons.materialize(id));
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Retrieves every fire station mapping, materialized from the columns.
+     *
+     * @return A new list of {@link FireStation} objects.
+     */
+    public synchronized List<FireStation> getFireStations() {
+        logger.info("Retrieving list of all fire stations.");
+        return firestations.materialize();
+    }
+
+    /**
+     * Retrieves every medical record, materialized from the columns.
+     *
+     * @return A new list of {@link MedicalRecord} objects.
+     */
+    public synchronized List<MedicalRecord> getMedicalRecords() {
+        logger.info("Retrieving list of all medical records.");
+        List<MedicalRecord> all = new ArrayList<>();
+        for (int id = 0; id < medicalRecords.rowCount(); id++) {
+            if (medicalRecords.isLive(id)) {
+                all.add(medicalRecords.materialize(id));
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Retrieves the persons living at an address covered by a fire station, by scanning the address column.
+     *
+     * @param stationNumber The fire station number.
+     * @return A list of {@link Person} objects covered by the specified fire station.
+     */
+    public synchronized List<Person> getPersonsByStationNumber(int stationNumber) {
+        logger.info("Retrieving persons for fire station number: {}", stationNumber);
+        BitSet addresses = new BitSet();
+        for (int row = 0; row < firestations.rowCount(); row++) {
+            if (firestations.station(row) == stationNumber) {
+                setCode(addresses, firestations.address(row));
+            }
+        }
+        return scan(persons.addressColumn(), addresses);
+    }
+
+    /**
+     * Retrieves the medical records of a list of persons, by scanning the name columns.
+     *
+     * @param persons The list of {@link Person} objects.
+     * @return A list of {@link MedicalRecord} objects corresponding to the given persons.
+     */
+    public synchronized List<MedicalRecord> getMedicalRecordsByPersons(List<Person> persons) {
+        logger.info("Retrieving medical records for given persons.");
+        if (persons == null || persons.isEmpty()) {
+            logger.warn("The list of persons is null or empty. No medical records will be searched.");
+            return Collections.emptyList();
+        }
+        Set<Long> names = new HashSet<>();
+        for (Person person : persons) {
+            long name = nameKey(firstNames.find(person.getFirstName()), lastNames.find(person.getLastName()));
+            if (name != NO_NAME) {
+                names.add(name);
+            }
+        }
+        List<MedicalRecord> records = new ArrayList<>();
+        for (int id = 0; id < medicalRecords.rowCount(); id++) {
+            if (medicalRecords.isLive(id) && names.contains(nameKey(medicalRecords.firstNameColumn().get(id),
+                    medicalRecords.lastNameColumn().get(id)))) {
+                records.add(medicalRecords.materialize(id));
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Retrieves the birthdates of the medical records of a list of persons, read from the epoch day
+     * column without creating the records.
+     *
+     * @param persons The list of {@link Person} objects.
+     * @return One epoch day per medical record of the persons, {@link AgeKernel#UNKNOWN_BIRTHDATE} if the
+     *         birthdate is missing or invalid.
+     */
+    public synchronized int[] getBirthEpochDaysByPersons(List<Person> persons) {
+        if (persons == null || persons.isEmpty()) {
+            return new int[0];
+        }
+        Set<Long> names = new HashSet<>();
+        int[] births = new int[persons.size()];
+        int count = 0;
+        for (Person person : persons) {
+            int firstName = firstNames.find(person.getFirstName());
+            int lastName = lastNames.find(person.getLastName());
+            long name = nameKey(firstName, lastName);
+            if (name == NO_NAME || !names.add(name)) {
+                continue;
+            }
+            int id = medicalRecordIdsByName.get(firstName, lastName);
+            if (id != IntPairMap.MISSING && medicalRecords.isLive(id)) {
+                int birth = medicalRecords.birthEpochDay(id);
+                births[count++] = birth == MedicalRecordTable.NO_BIRTHDATE ? AgeKernel.UNKNOWN_BIRTHDATE : birth;
+            }
+        }
+        return Arrays.copyOf(births, count);
+    }
+
+    /**
+     * Retrieves the persons living at an address, by scanning the address column.
+     *
+     * @param address The address to search for.
+     * @return A list of {@link Person} objects living at the specified address.
+     */
+    public synchronized List<Person> getPersonsByAddress(String address) {
+        logger.info("Retrieving persons living at address: {}", address);
+        if (address == null || address.isEmpty()) {
+            logger.warn("The address is null or empty. No persons will be searched.");
+            return Collections.emptyList();
+        }
+        return scan(persons.addressColumn(), persons.addresses().find(address));
+    }
+
+    /**
+     * Retrieves the fire station number serving a specific address.
+     *
+     * @param address The address to search for.
+     * @return The station number serving the address, or -1 if not found.
+     */
+    public synchronized int getStationByAddress(String address) {
+        logger.info("Retrieving station number for address: {}", address);
+        if (address == null || address.isEmpty()) {
+            logger.warn("The address is null or empty. No station will be searched.");
+            return -1;
+        }
+        int code = persons.addresses().find(address);
+        for (int row = 0; row < firestations.rowCount(); row++) {
+            if (code != CodeDictionary.NULL && firestations.address(row) == code) {
+                return firestations.station(row);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves the persons with a specific last name, by scanning the last name column.
+     *
+     * @param lastName The last name to search for.
+     * @return A list of {@link Person} objects with the specified last name.
+     */
+    public synchronized List<Person> getPersonsByLastName(String lastName) {
+        logger.info("Retrieving persons with last name: {}", lastName);
+        if (lastName == null || lastName.isEmpty()) {
+            logger.warn("The last name is null or empty. No persons will be searched.");
+            return Collections.emptyList();
+        }
+        return scan(persons.lastNameColumn(), lastNames.find(lastName));
+    }
+
+    /**
+     * Retrieves the persons whose last name sounds like the given last name.
+     * <p>
+     * The Soundex codes are computed over the distinct last names of the dictionary, then the last name
+     * column is scanned once. Persons with the closest spelling come first.
+     *
+     * @param lastName The last name to search for, possibly misspelled.
+     * @return A ranked list of {@link Person} objects, or an empty list if no last name sounds alike.
+     */
+    public synchronized List<Person> getPersonsByPhoneticLastName(String lastName) {
+        logger.info("Retrieving persons with a last name sounding like: {}", lastName);
+        if (lastName == null || lastName.trim().isEmpty()) {
+            logger.warn("The last name is null or empty. No persons will be searched.");
+            return Collections.emptyList();
+        }
+        String code = Soundex.encode(lastName);
+        String query = TextNormalizer.normalize(lastName);
+        List<Integer> candidates = new ArrayList<>();
+        for (int candidate = 0; candidate < lastNames.size(); candidate++) {
+            if (Soundex.encode(lastNames.decode(candidate)).equals(code)) {
+                candidates.add(candidate);
+            }
+        }
+        candidates.sort(Comparator.<Integer>comparingInt(candidate ->
+                        PhoneticIndex.distance(query, TextNormalizer.normalize(lastNames.decode(candidate))))
+                .thenComparing(lastNames::decode));
+        Map<Integer, List<Person>> byLastName = new HashMap<>();
+        candidates.forEach(candidate -> byLastName.put(candidate, new ArrayList<>()));
+        IntColumn column = persons.lastNameColumn();
+        for (int id = 0; id < persons.rowCount(); id++) {
+            List<Person> group = byLastName.get(column.get(id));
+            if (group != null && persons.isLive(id)) {
+                group.add(persons.materialize(id));
+            }
+        }
+        List<Person> ranked = new ArrayList<>();
+        candidates.forEach(candidate -> ranked.addAll(byLastName.get(candidate)));
+        return ranked;
+    }
+
+    /**
+     * Retrieves a set of addresses served by a specific fire station number.
+     *
+     * @param stationNumber The fire station number.
+     * @return A set of addresses served by the specified fire station.
+     */
+    public synchronized Set<String> getAddressesByStationNumber(int stationNumber) {
+        logger.info("Retrieving addresses for fire station number: {}", stationNumber);
+        if (stationNumber == 0) {
+            logger.warn("No station exists with this number.");
+            return Collections.emptySet();
+        }
+        Set<String> addresses = new HashSet<>();
+        for (int row = 0; row < firestations.rowCount(); row++) {
+            if (firestations.station(row) == stationNumber) {
+                addresses.add(persons.addresses().decode(firestations.address(row)));
+            }
+        }
+        if (addresses.isEmpty()) {
+            logger.warn("No addresses found for station number: {}", stationNumber);
+            return Collections.emptySet();
+        }
+        return addresses;
+    }
+
+    /**
+     * Appends a new person to the columns.
+     *
+     * @param person The {@link Person} to add; the object is not retained.
+     */
+    public synchronized void addPerson(Person person) {
+        logger.info("Adding person: {} {}", person.getFirstName(), person.getLastName());
+        changes.recordPerson(null, persons.materialize(appendPerson(person)));
+    }
+
+    /**
+     * Updates the contact details of the first person with the same first and last name.
+     *
+     * @param updatedPerson The person holding the new details.
+     * @return true if a matching person was found and updated, false otherwise.
+     */
+    public synchronized boolean updatePerson(Person updatedPerson) {
+        logger.info("Updating person: {} {}", updatedPerson.getFirstName(), updatedPerson.getLastName());
+        for (int id : personIds(updatedPerson.getFirstName(), updatedPerson.getLastName())) {
+            Person before = persons.materialize(id);
+            addressPrefixIndex.remove(before.getAddress());
+            persons.updateContact(id, updatedPerson);
+            addressPrefixIndex.add(updatedPerson.getAddress());
+            changes.recordPerson(before, persons.materialize(id));
+            return true;
+        }
+        logger.warn("No person to update: {} {}", updatedPerson.getFirstName(), updatedPerson.getLastName());
+        return false;
+    }
+
+    /**
+     * Deletes every person with the given first and last name.
+     *
+     * @param firstName The first name of the person to delete.
+     * @param lastName  The last name of the person to delete.
+     * @return true if at least one person was deleted, false otherwise.
+     */
+    public synchronized boolean deletePerson(String firstName, String lastName) {
+        logger.info("Deleting person: {} {}", firstName, lastName);
+        List<Integer> ids = personIds(firstName, lastName);
+        for (int id : ids) {
+            Person before = persons.materialize(id);
+            persons.delete(id);
+            lastNamePrefixIndex.remove(lastName);
+            addressPrefixIndex.remove(before.getAddress());
+            changes.recordPerson(before, null);
+        }
+        return !ids.isEmpty();
+    }
+
+    /**
+     * Retrieves the distinct email addresses of the persons living in a city, by scanning the city column.
+     * <p>
+     * The city is matched on its normalized form against the distinct cities of the dictionary first.
+     *
+     * @param city The city to search for.
+     * @return A list of distinct email addresses, or an empty list if none are found.
+     */
+    public synchronized List<String> getEmailsByCity(String city) {
+        logger.info("Retrieving emails for city: {}", city);
+        if (city == null || city.trim().isEmpty()) {
+            logger.warn("The city is null or empty. No emails will be searched.");
+            return Collections.emptyList();
+        }
+        String normalized = TextNormalizer.normalize(city);
+        BitSet cities = new BitSet();
+        for (int code = 0; code < persons.cities().size(); code++) {
+            if (TextNormalizer.normalize(persons.cities().decode(code)).equals(normalized)) {
+                cities.set(code);
+            }
+        }
+        Set<Integer> emails = new LinkedHashSet<>();
+        IntColumn cityColumn = persons.cityColumn();
+        IntColumn emailColumn = persons.emailColumn();
+        for (int id = 0; id < persons.rowCount(); id++) {
+            int code = cityColumn.get(id);
+            if (code != CodeDictionary.NULL && cities.get(code) && persons.isLive(id)
+                    && emailColumn.get(id) != CodeDictionary.NULL) {
+                emails.add(emailColumn.get(id));
+            }
+        }
+        return emails.stream().map(persons.emails()::decode).collect(Collectors.toList());
+    }
+
+    /**
+     * Retrieves the last names starting with the given prefix.
+     *
+     * @param prefix The beginning of the last name.
+     * @param limit  The maximum number of last names to return.
+     * @return A list of distinct last names in alphabetical order, or an empty list if none match.
+     */
+    public List<String> getLastNamesByPrefix(String prefix, int limit) {
+        logger.info("Retrieving last names starting with: {}", prefix);
+        return lastNamePrefixIndex.complete(prefix, limit);
+    }
+
+    /**
+     * Retrieves the addresses starting with the given prefix.
+     *
+     * @param prefix The beginning of the address.
+     * @param limit  The maximum number of addresses to return.
+     * @return A list of distinct addresses in alphabetical order, or an empty list if none match.
+     */
+    public List<String> getAddressesByPrefix(String prefix, int limit) {
+        logger.info("Retrieving addresses starting with: {}", prefix);
+        return addressPrefixIndex.complete(prefix, limit);
+    }
+
+    /**
+     * Retrieves the persons with the given first and last name, by scanning the name columns.
+     *
+     * @param firstName The first name of the person.
+     * @param lastName  The last name of the person.
+     * @return A list of matching {@link Person} objects, or an empty list if none is found.
+     */
+    public synchronized List<Person> getPersonsByName(String firstName, String lastName) {
+        logger.info("Retrieving persons named: {} {}", firstName, lastName);
+        return personIds(firstName, lastName).stream().map(persons::materialize).collect(Collectors.toList());
+    }
+
+    /**
+     * Appends a new medical record to the columns.
+     *
+     * @param medicalRecord The {@link MedicalRecord} to add; the object is not retained.
+     */
+    public synchronized void addMedicalRecord(MedicalRecord medicalRecord) {
+        logger.info("Adding medical record: {} {}", medicalRecord.getFirstName(), medicalRecord.getLastName());
+        changes.recordMedicalRecord(null, medicalRecords.materialize(appendMedicalRecord(medicalRecord)));
+    }
+
+    /**
+     * Updates the first medical record with the same first and last name.
+     *
+     * @param updatedMedicalRecord The medical record holding the new details.
+     * @return true if a matching medical record was found and updated, false otherwise.
+     */
+    public synchronized boolean updateMedicalRecord(MedicalRecord updatedMedicalRecord) {
+        logger.info("Updating medical record: {} {}", updatedMedicalRecord.getFirstName(), updatedMedicalRecord.getLastName());
+        for (int id : medicalRecordIds(updatedMedicalRecord.getFirstName(), updatedMedicalRecord.getLastName())) {
+            MedicalRecord before = medicalRecords.materialize(id);
+            medicalRecords.update(id, updatedMedicalRecord);
+            changes.recordMedicalRecord(before, medicalRecords.materialize(id));
+            return true;
+        }
+        logger.warn("No medical record to update: {} {}", updatedMedicalRecord.getFirstName(), updatedMedicalRecord.getLastName());
+        return false;
+    }
+
+    /**
+     * Deletes every medical record with the given first and last name.
+     *
+     * @param firstName The first name of the person whose medical record is deleted.
+     * @param lastName  The last name of the person whose medical record is deleted.
+     * @return true if at least one medical record was deleted, false otherwise.
+     */
+    public synchronized boolean deleteMedicalRecord(String firstName, String lastName) {
+        logger.info("Deleting medical record: {} {}", firstName, lastName);
+        List<Integer> ids = medicalRecordIds(firstName, lastName);
+        for (int id : ids) {
+            MedicalRecord before = medicalRecords.materialize(id);
+            medicalRecords.delete(id);
+            changes.recordMedicalRecord(before, null);
+        }
+        if (!ids.isEmpty()) {
+            medicalRecordIdsByName.remove(firstNames.find(firstName), lastNames.find(lastName));
+        }
+        return !ids.isEmpty();
+    }
+
+    /**
+     * Retrieves the medical records listing a medication, whatever its dosage.
+     *
+     * @param medication The drug name, e.g. "aznol"; a dosage, case and accents are ignored.
+     * @return A list of matching {@link MedicalRecord} objects, or an empty list if none is found.
+     */
+    public synchronized List<MedicalRecord> getMedicalRecordsByMedication(String medication) {
+        logger.info("Retrieving medical records with medication: {}", medication);
+        if (medication == null || medication.trim().isEmpty()) {
+            logger.warn("The medication is null or empty. No medical records will be searched.");
+            return Collections.emptyList();
+        }
+        BitSet codes = termCodes(medicalRecords.medications(), medication);
+        List<MedicalRecord> records = new ArrayList<>();
+        for (int id = 0; id < medicalRecords.rowCount(); id++) {
+            if (medicalRecords.isLive(id) && medicalRecords.hasMedication(id, codes)) {
+                records.add(medicalRecords.materialize(id));
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Retrieves the medical records listing an allergy.
+     *
+     * @param allergy The allergy, e.g. "peanut"; case and accents are ignored.
+     * @return A list of matching {@link MedicalRecord} objects, or an empty list if none is found.
+     */
+    public synchronized List<MedicalRecord> getMedicalRecordsByAllergy(String allergy) {
+        logger.info("Retrieving medical records with allergy: {}", allergy);
+        if (allergy == null || allergy.trim().isEmpty()) {
+            logger.warn("The allergy is null or empty. No medical records will be searched.");
+            return Collections.emptyList();
+        }
+        BitSet codes = termCodes(medicalRecords.allergies(), allergy);
+        List<MedicalRecord> records = new ArrayList<>();
+        for (int id = 0; id < medicalRecords.rowCount(); id++) {
+            if (medicalRecords.isLive(id) && medicalRecords.hasAllergy(id, codes)) {
+                records.add(medicalRecords.materialize(id));
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Retrieves the medical records with the given first and last name, by scanning the name columns.
+     *
+     * @param firstName The first name of the person.
+     * @param lastName  The last name of the person.
+     * @return A list of matching {@link MedicalRecord} objects, or an empty list if none is found.
+     */
+    public synchronized List<MedicalRecord> getMedicalRecordsByName(String firstName, String lastName) {
+        logger.info("Retrieving medical records named: {} {}", firstName, lastName);
+        return medicalRecordIds(firstName, lastName).stream().map(medicalRecords::materialize).collect(Collectors.toList());
+    }
+
+    /**
+     * Adds a new fire station mapping.
+     *
+     * @param fireStation The {@link FireStation} mapping to add.
+     */
+    public synchronized void addFireStation(FireStation fireStation) {
+        logger.info("Adding fire station mapping: {} -> {}", fireStation.getAddress(), fireStation.getStation());
+        firestations.add(fireStation);
+        changes.recordFireStation(null, ChangeEvent.snapshot(fireStation));
+    }
+
+    /**
+     * Changes the station number of the first mapping with the same address.
+     *
+     * @param updatedFireStation The mapping holding the address and the new station number.
+     * @return true if a mapping was found and updated, false otherwise.
+     */
+    public synchronized boolean updateFireStation(FireStation updatedFireStation) {
+        logger.info("Updating fire station mapping: {} -> {}", updatedFireStation.getAddress(), updatedFireStation.getStation());
+        List<FireStation> mappings = fireStationsOf(updatedFireStation.getAddress());
+        if (firestations.update(updatedFireStation)) {
+            changes.recordFireStation(mappings.get(0), ChangeEvent.snapshot(updatedFireStation));
+            return true;
+        }
+        logger.warn("No fire station mapping to update for address: {}", updatedFireStation.getAddress());
+        return false;
+    }
+
+    /**
+     * Deletes every fire station mapping of an address.
+     *
+     * @param address The address whose mappings are deleted.
+     * @return true if at least one mapping was deleted, false otherwise.
+     */
+    public synchronized boolean deleteFireStation(String address) {
+        logger.info("Deleting fire station mappings for address: {}", address);
+        List<FireStation> mappings = fireStationsOf(address);
+        if (firestations.delete(address)) {
+            mappings.forEach(mapping -> changes.recordFireStation(mapping, null));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Retrieves the persons matching every criterion of a combined query, in one pass over the columns.
+     * <p>
+     * The coverage is turned into a set of address codes, the cities and last names into sets of codes,
+     * the age bounds into a range of birth epoch days, and each medication or allergy into a set of codes;
+     * each person is then joined with their medical record through the name codes. The plan is always
+     * this scan, see {@link #explainPersons(ResidentQuery)}.
+     *
+     * @param query The criteria of the search.
+     * @return A list of matching {@link Person} objects, in insertion order.
+     */
+    public synchronized List<Person> findPersons(ResidentQuery query) {
+        logger.info("Retrieving persons for stations {}, addresses {}, cities {}, last names {}, ages {}-{}, medications {} and allergies {}",
+                query.getStations(), query.getAddresses(), query.getCities(), query.getLastNames(),
+                query.getMinAge(), query.getMaxAge(), query.getMedications(), query.getAllergies());
+        BitSet coverage = null;
+        if (!query.getStations().isEmpty() || !query.getAddresses().isEmpty()) {
+            coverage = new BitSet();
+            for (int row = 0; row < firestations.rowCount(); row++) {
+                if (query.getStations().contains(firestations.station(row))) {
+                    setCode(coverage, firestations.address(row));
+                }
+            }
+            for (String address : query.getAddresses()) {
+                setCode(coverage, persons.addresses().find(address));
+            }
+        }
+        BitSet cities = null;
+        if (!query.getCities().isEmpty()) {
+            Set<String> normalized = query.getCities().stream().map(TextNormalizer::normalize).collect(Collectors.toSet());
+            cities = new BitSet();
+            for (int code = 0; code < persons.cities().size(); code++) {
+                if (normalized.contains(TextNormalizer.normalize(persons.cities().decode(code)))) {
+                    cities.set(code);
+                }
+            }
+        }
+        BitSet lastNameCodes = null;
+        if (!query.getLastNames().isEmpty()) {
+            lastNameCodes = new BitSet();
+            for (String lastName : query.getLastNames()) {
+                setCode(lastNameCodes, lastNames.find(lastName));
+            }
+        }
+        boolean filterAge = query.getMinAge() != null || query.getMaxAge() != null;
+        LocalDate today = LocalDate.now();
+        long latestBirth = query.getMinAge() == null ? Long.MAX_VALUE : today.minusYears(query.getMinAge()).toEpochDay();
+        long earliestBirth = query.getMaxAge() == null ? Long.MIN_VALUE : today.minusYears(query.getMaxAge() + 1L).toEpochDay() + 1;
+        List<BitSet> medications = query.getMedications().stream()
+                .map(medication -> termCodes(medicalRecords.medications(), medication)).collect(Collectors.toList());
+        List<BitSet> allergies = query.getAllergies().stream()
+                .map(allergy -> termCodes(medicalRecords.allergies(), allergy)).collect(Collectors.toList());
+        boolean needsRecord = filterAge || !medications.isEmpty() || !allergies.isEmpty();
+
+        List<Person> matches = new ArrayList<>();
+        IntColumn addressColumn = persons.addressColumn();
+        for (int id = 0; id < persons.rowCount(); id++) {
+            if (!persons.isLive(id)) {
+                continue;
+            }
+            if (coverage != null) {
+                int address = addressColumn.get(id);
+                if (address == CodeDictionary.NULL || !coverage.get(address)) {
+                    continue;
+                }
+            }
+            if (cities != null && !hasCode(cities, persons.cityColumn().get(id))) {
+                continue;
+            }
+            if (lastNameCodes != null && !hasCode(lastNameCodes, persons.lastNameColumn().get(id))) {
+                continue;
+            }
+            if (needsRecord) {
+                int record = medicalRecordIdsByName.get(persons.firstNameColumn().get(id), persons.lastNameColumn().get(id));
+                if (record == IntPairMap.MISSING) {
+                    continue;
+                }
+                int birth = medicalRecords.birthEpochDay(record);
+                if (filterAge && (birth == MedicalRecordTable.NO_BIRTHDATE || birth > latestBirth || birth < earliestBirth)) {
+                    continue;
+                }
+                if (medications.stream().anyMatch(codes -> !medicalRecords.hasMedication(record, codes))
+                        || allergies.stream().anyMatch(codes -> !medicalRecords.hasAllergy(record, codes))) {
+                    continue;
+                }
+            }
+            matches.add(persons.materialize(id));
+        }
+        return matches;
+    }
+
+    /**
+     * Describes how {@link #findPersons(ResidentQuery)} evaluates a query: one scan of the person columns,
+     * testing the predicates read from the person columns before those needing the medical record.
+     * The column store keeps no statistics, so the row counts are upper bounds.
+     *
+     * @param query The criteria of the search.
+     * @return The plan of the scan.
+     */
+    public synchronized QueryPlan explainPersons(ResidentQuery query) {
+        long rows = persons.liveCount();
+        List<QueryPlan.Step> steps = new ArrayList<>();
+        steps.add(QueryPlan.step(QueryPlan.Access.FULL_SCAN, "person columns", rows, 0));
+        List<String> filters = new ArrayList<>();
+        if (!query.getStations().isEmpty() || !query.getAddresses().isEmpty()) {
+            filters.add("address code in stations " + query.getStations() + " or addresses " + query.getAddresses());
+        }
+        if (!query.getCities().isEmpty()) {
+            filters.add("city code in " + query.getCities());
+        }
+        if (!query.getLastNames().isEmpty()) {
+            filters.add("lastName code in " + query.getLastNames());
+        }
+        if (query.getMinAge() != null || query.getMaxAge() != null) {
+            filters.add("birth epoch day for ages [" + query.getMinAge() + ", " + query.getMaxAge() + "]");
+        }
+        query.getMedications().forEach(medication -> filters.add("medication code of " + MedicalTermIndex.term(medication)));
+        query.getAllergies().forEach(allergy -> filters.add("allergy code of " + MedicalTermIndex.term(allergy)));
+        for (String filter : filters) {
+            steps.add(QueryPlan.step(QueryPlan.Access.FILTER, filter, rows, rows));
+        }
+        return new QueryPlan("column store", rows, steps);
+    }
+
+    /**
+     * Gets the residency of the medical record lists; the column-wise store has no tiers.
+     *
+     * @return null, the lists are stored in the columns.
+     */
+    public MedicalRecordResidency getMedicalRecordResidency() {
+        return null;
+    }
+
+    /**
+     * Materializes the mappings of an address, before they change.
+     */
+    private List<FireStation> fireStationsOf(String address) {
+        List<FireStation> mappings = new ArrayList<>();
+        for (FireStation fireStation : firestations.materialize()) {
+            if (fireStation.getAddress().equals(address)) {
+                mappings.add(fireStation);
+            }
+        }
+        return mappings;
+    }
+
+    /**
+     * Rebuilds a prefix index from the number of live persons using each code of a column.
+     */
+    private void rebuildPrefixIndex(PrefixIndex index, CodeDictionary dictionary, IntColumn column) {
+        int[] occurrences = new int[dictionary.size()];
+        for (int id = 0; id < persons.rowCount(); id++) {
+            int code = column.get(id);
+            if (code != CodeDictionary.NULL && persons.isLive(id)) {
+                occurrences[code]++;
+            }
+        }
+        index.rebuild(Collections.emptyList());
+        for (int code = 0; code < occurrences.length; code++) {
+            index.add(dictionary.decode(code), occurrences[code]);
+        }
+    }
+
+    private int appendPerson(Person person) {
+        int id = persons.add(person);
+        lastNamePrefixIndex.add(person.getLastName());
+        addressPrefixIndex.add(person.getAddress());
+        return id;
+    }
+
+    private int appendMedicalRecord(MedicalRecord medicalRecord) {
+        int id = medicalRecords.add(medicalRecord);
+        medicalRecordIdsByName.put(medicalRecords.firstNameColumn().get(id), medicalRecords.lastNameColumn().get(id), id);
+        return id;
+    }
+
+    /**
+     * Packs a first and last name code into one key, or {@link #NO_NAME} if one of them is unknown.
+     */
+    private static long nameKey(int firstName, int lastName) {
+        if (firstName == CodeDictionary.NULL || lastName == CodeDictionary.NULL) {
+            return NO_NAME;
+        }
+        return ((long) firstName << 32) | lastName;
+    }
+
+    private List<Integer> personIds(String firstName, String lastName) {
+        return ids(persons.rowCount(), persons::isLive, persons.firstNameColumn(), persons.lastNameColumn(),
+                firstNames.find(firstName), lastNames.find(lastName));
+    }
+
+    private List<Integer> medicalRecordIds(String firstName, String lastName) {
+        return ids(medicalRecords.rowCount(), medicalRecords::isLive, medicalRecords.firstNameColumn(),
+                medicalRecords.lastNameColumn(), firstNames.find(firstName), lastNames.find(lastName));
+    }
+
+    private static List<Integer> ids(int rowCount, IntPredicate live, IntColumn firstNameColumn,
+                                     IntColumn lastNameColumn, int firstName, int lastName) {
+        if (firstName == CodeDictionary.NULL || lastName == CodeDictionary.NULL) {
+            return Collections.emptyList();
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 0; id < rowCount; id++) {
+            if (lastNameColumn.get(id) == lastName && firstNameColumn.get(id) == firstName && live.test(id)) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private List<Person> scan(IntColumn column, int code) {
+        if (code == CodeDictionary.NULL) {
+            return Collections.emptyList();
+        }
+        List<Person> matches = new ArrayList<>();
+        for (int id = 0; id < persons.rowCount(); id++) {
+            if (column.get(id) == code && persons.isLive(id)) {
+                matches.add(persons.materialize(id));
+            }
+        }
+        return matches;
+    }
+
+    private List<Person> scan(IntColumn column, BitSet codes) {
+        List<Person> matches = new ArrayList<>();
+        if (codes.isEmpty()) {
+            return matches;
+        }
+        for (int id = 0; id < persons.rowCount(); id++) {
+            int code = column.get(id);
+            if (code != CodeDictionary.NULL && codes.get(code) && persons.isLive(id)) {
+                matches.add(persons.materialize(id));
+            }
+        }
+        return matches;
+    }
+
+    private static boolean hasCode(BitSet codes, int code) {
+        return code != CodeDictionary.NULL && codes.get(code);
+    }
+
+    private static void setCode(BitSet codes, int code) {
+        if (code != CodeDictionary.NULL) {
+            codes.set(code);
+        }
+    }
+
+    /**
+     * Collects the codes of the dictionary entries whose medical term matches the searched term.
+     */
+    private static BitSet termCodes(CodeDictionary dictionary, String searched) {
+        String term = MedicalTermIndex.term(searched);
+        BitSet codes = new BitSet();
+        for (int code = 0; code < dictionary.size(); code++) {
+            if (MedicalTermIndex.term(dictionary.decode(code)).equals(term)) {
+                codes.set(code);
+            }
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,159 @@
+package com.safetyname.alerts.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service watching the data files, {@code data.filepathRead} or those of {@code data.files}, and bringing the data up
+ * to date whenever one of them is replaced, enabled with {@code data.reload.watch=true}.
+ * <p>
+ * The directories of the files are watched with a {@link WatchService}. A copy usually notifies several
+ * modifications, so a file is only read {@code data.reload.delayMillis} after the last one; the data service then
+ * applies the differences with its current data, see {@link AbstractDataService#reloadDataFile(String)}, on the
+ * reloader thread. The saves of the application itself are recognized and not read again.
+ */
+@Service
+@ConditionalOnProperty(name = "data.reload.watch", havingValue = "true")
+public class DataFileWatcher {
+
+    private static final Logger logger = LogManager.getLogger(DataFileWatcher.class);
+
+    private final AbstractDataService dataService;
+    private final long delayMillis;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    private final Map<Path, ScheduledFuture<?>> pendingReloads = new HashMap<>();
+    private Set<Path> dataFiles;
+    private WatchService watchService;
+    private ScheduledExecutorService reloader;
+
+    /**
+     * Constructor for DataFileWatcher.
+     *
+     * @param dataService The data service reading the data files.
+     * @param delayMillis The time without notification after which a file is read, from the
+     *                    {@code data.reload.delayMillis} property.
+     */
+    @Autowired
+    public DataFileWatcher(AbstractDataService dataService, @Value("${data.reload.delayMillis:500}") long delayMillis) {
+        this.dataService = dataService;
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * Starts watching the directories of the data files.
+     *
+     * @throws IOException If a directory cannot be watched.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        dataFiles = new LinkedHashSet<>();
+        for (Path file : dataService.getDataFiles()) {
+            dataFiles.add(file.toAbsolutePath().normalize());
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        for (Path directory : dataFiles.stream().map(Path::getParent).distinct().toList()) {
+            directories.put(directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY), directory);
+        }
+        reloader = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "data-file-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Thread watcher = new Thread(this::watch, "data-file-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        logger.info("Watching the data files {}", dataFiles);
+    }
+
+    /**
+     * Stops watching the data files.
+     *
+     * @throws IOException If the watch service cannot be closed.
+     */
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path directory = directories.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // An overflow loses the names of the changed files: the data files may be among them
+                        dataFiles.stream().filter(file -> file.getParent().equals(directory))
+                                .forEach(this::scheduleReload);
+                    } else if (dataFiles.contains(directory.resolve((Path) event.context()))) {
+                        scheduleReload(directory.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset()) {
+                    logger.warn("The directory {} of data files can no longer be watched", directory);
+                    directories.remove(key);
+                    if (directories.isEmpty()) {
+                        return;
+                    }
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // Shut down
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void scheduleReload(Path file) {
+        ScheduledFuture<?> pendingReload = pendingReloads.get(file);
+        if (pendingReload != null) {
+            pendingReload.cancel(false);
+        }
+        pendingReloads.put(file, reloader.schedule(() -> reload(file), delayMillis, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Brings the data up to date with a data file.
+     *
+     * @param file One of the data files.
+     * @return The differences applied, or null if the file was not read.
+     */
+    DatasetDiff reload(Path file) {
+        try {
+            return dataService.reloadDataFile(file.toString());
+        } catch (RuntimeException e) {
+            logger.error("Failed to apply the data file {}", file, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.dto.LoadStatus;
+import jakarta.annotation.PostConstruct;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service loading the data file at startup and telling whether the application is alive and ready to serve the data.
+ * <p>
+ * By default the data file is read while the context starts. With {@code data.load.background=true}, it is read on
+ * a background thread once the context has started: the server then answers at once, the health endpoints report
+ * the progress of the load, and the data endpoints answer 503 until it is done, see
+ * {@link com.safetyname.alerts.controller.ReadinessInterceptor}.
+ * <p>
+ * The application is ready once a read of the data file succeeded; a failed read leaves it alive but not ready,
+ * until the file is read again. Only an error of the virtual machine during the load, such as running out of
+ * memory, makes it not alive, since a restart is then needed.
+ */
+@Service
+public class DataLoadService implements IDataLoadService {
+
+    private static final Logger logger = LogManager.getLogger(DataLoadService.class);
+
+    private final AbstractDataService dataService;
+    private final boolean background;
+    private final int retryAfterSeconds;
+    private volatile boolean loaded;
+    private volatile boolean live = true;
+
+    /**
+     * Constructor for DataLoadService.
+     *
+     * @param dataService       The data service reading the data file.
+     * @param background        Whether the data file is read after the context started, from the
+     *                          {@code data.load.background} property.
+     * @param retryAfterSeconds The delay suggested to the clients refused before the data is loaded, from the
+     *                          {@code data.load.retryAfterSeconds} property.
+     */
+    @Autowired
+    public DataLoadService(AbstractDataService dataService, @Value("${data.load.background:false}") boolean background,
+                           @Value("${data.load.retryAfterSeconds:5}") int retryAfterSeconds) {
+        this.dataService = dataService;
+        this.background = background;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Reads the data file while the context starts, unless it is read in the background.
+     */
+    @PostConstruct
+    public void loadOnStartup() {
+        if (!background) {
+            load();
+        }
+    }
+
+    /**
+     * Starts reading the data file in the background once the context has started, if configured so.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void loadInBackground() {
+        if (background) {
+            Thread loader = new Thread(this::load, "data-loader");
+            loader.setDaemon(true);
+            loader.start();
+            logger.info("Loading the data in the background");
+        }
+    }
+
+    /**
+     * Reads the data file.
+     */
+    void load() {
+        LoadProgress progress = dataService.getLoadProgress();
+        try {
+            if (dataService.readJsonFile()) {
+                loaded = true;
+                logger.info("Data loaded in {} ms", progress.getStatus(true).getElapsedMillis());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to load the data", e);
+            progress.failed(e.toString());
+        } catch (VirtualMachineError e) {
+            live = false;
+            progress.failed(e.toString());
+            throw e;
+        }
+    }
+
+    /**
+     * Tells whether the application works, even if the data is not loaded yet.
+     *
+     * @return false if loading the data broke the virtual machine.
+     */
+    @Override
+    public boolean isLive() {
+        return live;
+    }
+
+    /**
+     * Tells whether the data was loaded, so that the data endpoints can answer.
+     *
+     * @return true once a read of the data file succeeded.
+     */
+    @Override
+    public boolean isReady() {
+        if (!loaded && dataService.getLoadProgress().getPhase() == LoadProgress.Phase.READY) {
+            // Read again by another caller, for instance after a failure
+            loaded = true;
+        }
+        return loaded;
+    }
+
+    /**
+     * Gets the progress of the last read of the data file.
+     *
+     * @return The load status, with the readiness of the application.
+     */
+    @Override
+    public LoadStatus getStatus() {
+        return dataService.getLoadProgress().getStatus(isReady());
+    }
+
+    /**
+     * Gets the delay after which a client refused before the data is loaded should try again.
+     *
+     * @return The delay in seconds, sent in the {@code Retry-After} header.
+     */
+    @Override
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
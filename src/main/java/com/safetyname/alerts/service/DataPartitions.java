@@ -0,0 +1,279 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.store.Dataset;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * The data files of a dataset split in partitions, typically one export per district, and the partition owning
+ * each entity.
+ * <p>
+ * The partitions are merged into one dataset: a person or a medical record belongs to the first partition holding
+ * its names, a fire station mapping to the first one holding its address. The same key in several partitions is
+ * a conflict, unless they hold the same details, in which case the entities are kept once. A partition can then
+ * be replaced on its own: only the entities it owns are compared with its new content, see
+ * {@link #ownedBy(Dataset, int, Dataset)}. The entities added through the API belong to no partition, until one
+ * holds their key.
+ */
+class DataPartitions {
+
+    private final List<Path> files;
+    private final String[] states;
+    private final Map<String, Integer> personOwners = new HashMap<>();
+    private final Map<String, Integer> fireStationOwners = new HashMap<>();
+    private final Map<String, Integer> medicalRecordOwners = new HashMap<>();
+
+    /**
+     * Creates the partitions of a list of files, owning no entity yet.
+     *
+     * @param files The data files, one per partition.
+     */
+    DataPartitions(List<Path> files) {
+        this.files = new ArrayList<>();
+        for (Path file : files) {
+            this.files.add(file.toAbsolutePath().normalize());
+        }
+        this.states = new String[files.size()];
+    }
+
+    /**
+     * Finds the data files of a comma-separated list of paths, each of which can use a glob pattern in its file
+     * name, such as {@code data/districts/*.json}.
+     *
+     * @param spec The list of paths and patterns.
+     * @return The distinct matching files, sorted by name within each pattern, in the order of the list.
+     * @throws IOException if a directory cannot be listed, or a path or a pattern matches no file.
+     */
+    static List<Path> resolve(String spec) throws IOException {
+        Set<Path> files = new LinkedHashSet<>();
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            Path path = Paths.get(entry.trim());
+            String name = path.getFileName().toString();
+            if (!name.matches(".*[*?\\[{].*")) {
+                if (!Files.isRegularFile(path)) {
+                    throw new IOException("No data file " + path);
+                }
+                files.add(path);
+                continue;
+            }
+            Path directory = path.getParent() == null ? Paths.get(".") : path.getParent();
+            Set<Path> matches = new TreeSet<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, name)) {
+                for (Path file : stream) {
+                    if (Files.isRegularFile(file)) {
+                        matches.add(file);
+                    }
+                }
+            }
+            if (matches.isEmpty()) {
+                throw new IOException("No data file matches " + path);
+            }
+            files.addAll(matches);
+        }
+        if (files.isEmpty()) {
+            throw new IOException("No data file in '" + spec + "'");
+        }
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * Gets the data files.
+     *
+     * @return The absolute paths of the files, in the order of the partitions.
+     */
+    List<Path> getFiles() {
+        return files;
+    }
+
+    /**
+     * Finds the partition of a data file.
+     *
+     * @param file A data file.
+     * @return The index of its partition, or -1 if it is not one of the data files.
+     */
+    int indexOf(Path file) {
+        return files.indexOf(file.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Gets the state of a data file when it was last read, as computed by the data service.
+     *
+     * @param partition The index of the partition.
+     * @return The state, or null if the file was not read.
+     */
+    String getState(int partition) {
+        return states[partition];
+    }
+
+    /**
+     * Records the state of a data file that was read.
+     *
+     * @param partition The index of the partition.
+     * @param state     The state of its file.
+     */
+    void setState(int partition, String state) {
+        states[partition] = state;
+    }
+
+    /**
+     * Merges the content of every partition, and records the partition owning each entity.
+     *
+     * @param parts     The content of each data file, in the order of the partitions.
+     * @param conflicts Receives a description of each key held by several partitions with different details.
+     * @return The merged dataset; a conflicting key keeps the entities of its first partition.
+     */
+    Dataset merge(List<Dataset> parts, List<String> conflicts) {
+        List<List<Person>> persons = new ArrayList<>();
+        List<List<FireStation>> fireStations = new ArrayList<>();
+        List<List<MedicalRecord>> medicalRecords = new ArrayList<>();
+        for (Dataset part : parts) {
+            persons.add(part.getPersons());
+            fireStations.add(part.getFireStations());
+            medicalRecords.add(part.getMedicalRecords());
+        }
+        return new Dataset(
+                merge("person", persons, DatasetDiff::keyOf, DatasetDiff::samePerson, personOwners, conflicts),
+                merge("fire station", fireStations, DatasetDiff::keyOf, DatasetDiff::sameFireStation,
+                        fireStationOwners, conflicts),
+                merge("medical record", medicalRecords, DatasetDiff::keyOf, DatasetDiff::sameMedicalRecord,
+                        medicalRecordOwners, conflicts));
+    }
+
+    /**
+     * Gets the current entities of a partition, to compare with its new content.
+     * <p>
+     * The entities of the keys owned by the partition are returned, as well as those of the keys of the new content
+     * that no partition owns, added through the API, so that they are replaced rather than duplicated.
+     *
+     * @param current   The current data of the service.
+     * @param partition The index of the partition.
+     * @param next      The new content of the partition.
+     * @return The entities of the current data belonging to the partition.
+     */
+    Dataset ownedBy(Dataset current, int partition, Dataset next) {
+        return new Dataset(
+                ownedBy(current.getPersons(), next.getPersons(), DatasetDiff::keyOf, personOwners, partition),
+                ownedBy(current.getFireStations(), next.getFireStations(), DatasetDiff::keyOf, fireStationOwners,
+                        partition),
+                ownedBy(current.getMedicalRecords(), next.getMedicalRecords(), DatasetDiff::keyOf,
+                        medicalRecordOwners, partition));
+    }
+
+    /**
+     * Removes from the new content of a partition the keys owned by other partitions, which keep their entities.
+     *
+     * @param current   The current data of the service.
+     * @param partition The index of the partition.
+     * @param next      The new content of the partition.
+     * @param conflicts Receives a description of each key owned by another partition with different details.
+     * @return The content the partition can own.
+     */
+    Dataset withoutOtherPartitions(Dataset current, int partition, Dataset next, List<String> conflicts) {
+        return new Dataset(
+                withoutOthers("person", current.getPersons(), next.getPersons(), DatasetDiff::keyOf,
+                        DatasetDiff::samePerson, personOwners, partition, conflicts),
+                withoutOthers("fire station", current.getFireStations(), next.getFireStations(), DatasetDiff::keyOf,
+                        DatasetDiff::sameFireStation, fireStationOwners, partition, conflicts),
+                withoutOthers("medical record", current.getMedicalRecords(), next.getMedicalRecords(),
+                        DatasetDiff::keyOf, DatasetDiff::sameMedicalRecord, medicalRecordOwners, partition,
+                        conflicts));
+    }
+
+    /**
+     * Makes a partition the owner of the keys of its new content, and only of those.
+     *
+     * @param partition The index of the partition.
+     * @param next      The content now owned by the partition.
+     */
+    void assign(int partition, Dataset next) {
+        assign(next.getPersons(), DatasetDiff::keyOf, personOwners, partition);
+        assign(next.getFireStations(), DatasetDiff::keyOf, fireStationOwners, partition);
+        assign(next.getMedicalRecords(), DatasetDiff::keyOf, medicalRecordOwners, partition);
+    }
+
+    private <T> List<T> merge(String kind, List<List<T>> parts, Function<T, String> key, BiPredicate<T, T> same,
+                              Map<String, Integer> owners, List<String> conflicts) {
+        owners.clear();
+        Map<String, List<T>> merged = new LinkedHashMap<>();
+        for (int partition = 0; partition < parts.size(); partition++) {
+            for (Map.Entry<String, List<T>> group : DatasetDiff.group(parts.get(partition), key).entrySet()) {
+                Integer owner = owners.putIfAbsent(group.getKey(), partition);
+                if (owner == null) {
+                    merged.put(group.getKey(), group.getValue());
+                } else if (!DatasetDiff.same(merged.get(group.getKey()), group.getValue(), same)) {
+                    conflicts.add(conflict(kind, group.getKey(), owner, partition));
+                }
+            }
+        }
+        List<T> entities = new ArrayList<>();
+        merged.values().forEach(entities::addAll);
+        return entities;
+    }
+
+    private static <T> List<T> ownedBy(List<T> current, List<T> next, Function<T, String> key,
+                                       Map<String, Integer> owners, int partition) {
+        Set<String> nextKeys = DatasetDiff.group(next, key).keySet();
+        List<T> owned = new ArrayList<>();
+        for (T entity : current) {
+            String entityKey = key.apply(entity);
+            Integer owner = owners.get(entityKey);
+            if (owner != null ? owner == partition : nextKeys.contains(entityKey)) {
+                owned.add(entity);
+            }
+        }
+        return owned;
+    }
+
+    private <T> List<T> withoutOthers(String kind, List<T> current, List<T> next, Function<T, String> key,
+                                      BiPredicate<T, T> same, Map<String, Integer> owners, int partition,
+                                      List<String> conflicts) {
+        Map<String, List<T>> groups = DatasetDiff.group(next, key);
+        if (groups.keySet().stream().allMatch(k -> owners.getOrDefault(k, partition) == partition)) {
+            return next;
+        }
+        Map<String, List<T>> live = DatasetDiff.group(current, key);
+        List<T> kept = new ArrayList<>();
+        for (Map.Entry<String, List<T>> group : groups.entrySet()) {
+            Integer owner = owners.get(group.getKey());
+            if (owner == null || owner == partition) {
+                kept.addAll(group.getValue());
+            } else if (!DatasetDiff.same(live.getOrDefault(group.getKey(), List.of()), group.getValue(), same)) {
+                conflicts.add(conflict(kind, group.getKey(), owner, partition));
+            }
+        }
+        return kept;
+    }
+
+    private static <T> void assign(List<T> next, Function<T, String> key, Map<String, Integer> owners,
+                                   int partition) {
+        owners.values().removeIf(owner -> owner == partition);
+        for (T entity : next) {
+            owners.put(key.apply(entity), partition);
+        }
+    }
+
+    private String conflict(String kind, String key, int owner, int partition) {
+        return kind + " " + key.replace('\n', ' ') + " in " + files.get(owner).getFileName() + " and "
+                + files.get(partition).getFileName();
+    }
+}
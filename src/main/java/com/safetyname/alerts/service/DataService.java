@@ -1,20 +1,37 @@
 package com.safetyname.alerts.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetyname.alerts.dto.MedicalRecordResidency;
 import com.safetyname.alerts.entity.FireStation;
 import com.safetyname.alerts.entity.MedicalRecord;
 import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.index.CityEmailIndex;
+import com.safetyname.alerts.index.MedicalTermIndex;
+import com.safetyname.alerts.index.NameIndex;
+import com.safetyname.alerts.index.PhoneticIndex;
+import com.safetyname.alerts.index.PostingIndex;
+import com.safetyname.alerts.index.PrefixIndex;
+import com.safetyname.alerts.index.QueryPlan;
+import com.safetyname.alerts.index.ResidentQuery;
+import com.safetyname.alerts.index.StringDictionary;
+import com.safetyname.alerts.store.AgeKernel;
+import com.safetyname.alerts.store.Dataset;
+import com.safetyname.alerts.store.MedicalRecordTier;
 
-import jakarta.annotation.PostConstruct;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 
@@ -22,28 +39,54 @@ import java.util.stream.Collectors;
 /**
  * Service class for managing data related to persons, fire stations, and medical records.
  * <p>
- * This class provides methods to read data from a JSON file, save data to a file,
- * and retrieve information based on various criteria.
+ * This class keeps the data read from the data file in lists of entities, with in-memory
+ * indexes, and retrieves information based on various criteria.
  * <p>
- * The methods {@link #saveData()} and {@link #readJsonFile()} are overloaded to accept
- * a file path as a parameter for test purposes, allowing different file paths to be used
- * during testing to avoid impacting the actual application data.
+ * This is the default, object-per-row implementation; {@link ColumnarDataService} is used instead
+ * with {@code data.store=columnar}, and {@link OffHeapDataService} with {@code data.store=offheap}.
+ * <p>
+ * With {@code data.medicalRecords.tiered=true}, the medications and allergies of the medical records are moved
+ * to a memory-mapped segment file in {@code data.medicalRecords.directory} (the temporary directory by default),
+ * and only those of the {@code data.medicalRecords.hotCapacity} most recently read records stay on the heap.
+ * <p>
+ * The lists and indexes are guarded by a read-write lock: the queries share the read lock, while the changes of
+ * one entity, the loads and the application of a reloaded data file, which the {@link DataFileWatcher} runs on its
+ * own thread, take the write lock. The lists of entities handed out are copies.
  */
 @Service
-public class DataService implements IDataService {
+@ConditionalOnProperty(name = "data.store", havingValue = "object", matchIfMissing = true)
+public class DataService extends AbstractDataService {
 
     private static final Logger logger = LogManager.getLogger(DataService.class);
 
-    private List<Person> persons;
-    private List<FireStation> firestations;
-    private List<MedicalRecord> medicalRecords;
-    private final ObjectMapper mapper = new ObjectMapper();
+    private List<Person> persons = new ArrayList<>();
+    private List<FireStation> firestations = new ArrayList<>();
+    private List<MedicalRecord> medicalRecords = new ArrayList<>();
+    private final CityEmailIndex cityEmailIndex = new CityEmailIndex();
+    private final PrefixIndex lastNamePrefixIndex = new PrefixIndex();
+    private final PrefixIndex addressPrefixIndex = new PrefixIndex();
+    private final PhoneticIndex phoneticIndex = new PhoneticIndex();
+    private final NameIndex<Person> nameIndex = NameIndex.persons();
+    private final NameIndex<MedicalRecord> medicalRecordNameIndex = NameIndex.medicalRecords();
+    private final MedicalTermIndex medicationIndex = MedicalTermIndex.medications();
+    private final MedicalTermIndex allergyIndex = MedicalTermIndex.allergies();
+    private final PostingIndex postingIndex = new PostingIndex();
+    private final StringDictionary addressDictionary = new StringDictionary("address");
+    private final StringDictionary cityDictionary = new StringDictionary("city");
+    private final StringDictionary lastNameDictionary = new StringDictionary("lastName");
+    private final StringDictionary medicationDictionary = new StringDictionary("medication");
+    private final StringDictionary allergyDictionary = new StringDictionary("allergy");
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private MedicalRecordTier medicalRecordTier;
+
+    @Value("${data.medicalRecords.tiered:false}")
+    private boolean tieredMedicalRecords;
 
-    @Value("${data.filepathRead}")
-    private String filePathRead;
+    @Value("${data.medicalRecords.hotCapacity:10000}")
+    private int hotMedicalRecords;
 
-    @Value("${data.filepathWrite}")
-    private String filePathWrite;
+    @Value("${data.medicalRecords.directory:}")
+    private String medicalRecordDirectory;
 
 
     /**
@@ -53,129 +96,326 @@ public class DataService implements IDataService {
     }
 
     /**
-     * Reads the default JSON file specified in the application properties.
+     * Replaces the current data with the entities of a dataset, then rebuilds the indexes.
      *
-     * @return true if the data was successfully read, false otherwise.
+     * @param dataset The data to load; its lists are kept.
+     * @throws UncheckedIOException if the medical records are tiered and their segment file cannot be created.
      */
-    @PostConstruct
-    public boolean readJsonFile(){
-        return readJsonFile(filePathRead);
+    public void load(Dataset dataset) {
+        lock.writeLock().lock();
+        try {
+            this.persons = new ArrayList<>(dataset.getPersons());
+            this.firestations = new ArrayList<>(dataset.getFireStations());
+            this.medicalRecords = new ArrayList<>(dataset.getMedicalRecords());
+            encodeStrings();
+            try {
+                tierMedicalRecords();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to move the medical record lists to a segment", e);
+            }
+            rebuildIndexes();
+            if (medicalRecordTier != null) {
+                medicalRecordTier.resetCounters();
+            }
+            changes.recordReload();
+            logger.info("Data successfully read and processed.");
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
-     * Overloaded method to read data from a specified JSON file.
-     * <p>
-     * This method is primarily used for testing purposes, allowing a custom file path to be provided.
+     * Gets a copy of the current lists of entities.
      *
-     * @param filePathRead The path of the JSON file to read from.
-     * @return true if the data was successfully read and processed, false otherwise.
+     * @return The persons, fire station mappings and medical records held by this service.
      */
-    public boolean readJsonFile(String filePathRead) {
-
-        logger.info("Reading JSON file from: {}", filePathRead);
+    public Dataset getDataset() {
+        lock.readLock().lock();
         try {
-            Map<String, Object> data = mapper.readValue(new File(filePathRead),
-                    new TypeReference<Map<String, Object>>() {
-                    });
+            return new Dataset(new ArrayList<>(persons), new ArrayList<>(firestations),
+                    new ArrayList<>(medicalRecords));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
 
-            this.persons = mapper.convertValue(data.get("persons"), new TypeReference<List<Person>>() {
-            });
-            this.firestations = mapper.convertValue(data.get("firestations"), new TypeReference<List<FireStation>>() {
-            });
-            this.medicalRecords = mapper.convertValue(data.get("medicalrecords"), new TypeReference<List<MedicalRecord>>() {
-            });
-            logger.info("Data successfully read and processed.");
-            return true;
+    /**
+     * Replaces the repeated strings of every loaded entity with the canonical instances of the dictionaries.
+     * <p>
+     * The dictionaries are cleared first, so values that are no longer used by the new data are released.
+     */
+    private void encodeStrings() {
+        List<StringDictionary> dictionaries = Arrays.asList(addressDictionary, cityDictionary, lastNameDictionary,
+                medicationDictionary, allergyDictionary);
+        dictionaries.forEach(StringDictionary::clear);
+        if (persons != null) {
+            persons.forEach(this::encodePerson);
+        }
+        if (medicalRecords != null) {
+            medicalRecords.forEach(this::encodeMedicalRecord);
+        }
+        if (firestations != null) {
+            firestations.forEach(fireStation -> fireStation.setAddress(addressDictionary.encode(fireStation.getAddress())));
+        }
+        for (StringDictionary dictionary : dictionaries) {
+            logger.debug("Dictionary {}: {} distinct values, {} duplicates shared, about {} bytes saved.",
+                    dictionary.getName(), dictionary.size(), dictionary.getHits(), dictionary.getSavedBytes());
+        }
+        logger.info("Dictionary encoding saved about {} KB of duplicated strings.",
+                dictionaries.stream().mapToLong(StringDictionary::getSavedBytes).sum() / 1024);
+    }
 
-        } catch (IOException e) {
-            logger.error("Failed to read data from file: {}", filePathRead, e);
-            return false;
+    /**
+     * Moves the medications and allergies of the loaded medical records to a new segment, when tiering is enabled.
+     * <p>
+     * The previous segment file is deleted; its mapping stays readable by the records still referenced elsewhere.
+     *
+     * @throws IOException if the segment file cannot be created.
+     */
+    private void tierMedicalRecords() throws IOException {
+        if (!tieredMedicalRecords) {
+            return;
+        }
+        Path directory = medicalRecordDirectory == null || medicalRecordDirectory.isBlank()
+                ? Paths.get(System.getProperty("java.io.tmpdir")) : Paths.get(medicalRecordDirectory);
+        Files.createDirectories(directory);
+        MedicalRecordTier previous = medicalRecordTier;
+        medicalRecordTier = new MedicalRecordTier(Files.createTempFile(directory, "medical-records-", ".segment"),
+                hotMedicalRecords, medicationDictionary::encode, allergyDictionary::encode);
+        if (medicalRecords != null) {
+            medicalRecords.replaceAll(this::tier);
+        }
+        if (previous != null) {
+            previous.close();
         }
+        logger.info("Medical record lists moved to a {} KB segment, {} records kept in memory at most.",
+                medicalRecordTier.getSegmentBytes() / 1024, hotMedicalRecords);
     }
 
     /**
-     * Saves the current data to the default JSON file specified in the application properties.
+     * Runs a change of the whole data holding the write lock as well, so that no query reads it half applied.
      *
-     * @return true if the data was successfully saved, false otherwise.
+     * @param update The change to run.
+     * @param <T>    The type of its result.
+     * @return The result of the change.
      */
-    public boolean saveData(){
-        return saveData(filePathWrite);
+    @Override
+    protected <T> T exclusively(Supplier<T> update) {
+        return super.exclusively(() -> {
+            lock.writeLock().lock();
+            try {
+                return update.get();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
     }
 
     /**
-     * Overloaded method to save the current data to a specified JSON file.
-     * <p>
-     * This method is primarily used for testing purposes, allowing a custom file path to be provided.
+     * Applies the differences with a reloaded data file, then compacts the segment of the medical record lists if
+     * the updates and deletions left dead entries in it.
      *
-     * @param filePath The path to the file where data should be saved.
-     * @return true if the data was successfully saved, false otherwise.
+     * @param diff The differences to apply.
      */
-    public boolean saveData(String filePath) {
-        logger.info("Saving data to: {}", filePath);
-        try {
-            Map<String, Object> data = new HashMap<>();
-            data.put("persons", persons);
-            data.put("firestations", firestations);
-            data.put("medicalrecords", medicalRecords);
-            mapper.writeValue(new File(filePath), data);
-            logger.info("Data successfully saved.");
-            return true;
-        } catch (IOException e) {
-            logger.error("Failed to save data to file: {}", filePath, e);
-            return false;
+    @Override
+    protected void applyDiff(DatasetDiff diff) {
+        super.applyDiff(diff);
+        MedicalRecordTier tier = medicalRecordTier;
+        if (tier != null && tier.getDeadBytes() > 0) {
+            long before = tier.getSegmentBytes();
+            tier.compact();
+            logger.info("Compacted the medical record segment from {} KB to {} KB.", before / 1024,
+                    tier.getSegmentBytes() / 1024);
         }
     }
 
+    /**
+     * Moves the lists of a medical record to the tier, when tiering is enabled.
+     *
+     * @param medicalRecord The medical record to store.
+     * @return The record to keep in the list of medical records.
+     */
+    private MedicalRecord tier(MedicalRecord medicalRecord) {
+        return medicalRecordTier == null ? medicalRecord : new TieredMedicalRecord(medicalRecord, medicalRecordTier);
+    }
+
+    /**
+     * Replaces the last name, address and city of a person with their canonical instances.
+     *
+     * @param person The person to encode.
+     */
+    private void encodePerson(Person person) {
+        person.setLastName(lastNameDictionary.encode(person.getLastName()));
+        person.setAddress(addressDictionary.encode(person.getAddress()));
+        person.setCity(cityDictionary.encode(person.getCity()));
+    }
+
+    /**
+     * Replaces the last name, medications and allergies of a medical record with their canonical instances.
+     *
+     * @param medicalRecord The medical record to encode.
+     */
+    private void encodeMedicalRecord(MedicalRecord medicalRecord) {
+        medicalRecord.setLastName(lastNameDictionary.encode(medicalRecord.getLastName()));
+        medicalRecord.setMedications(encodeAll(medicationDictionary, medicalRecord.getMedications()));
+        medicalRecord.setAllergies(encodeAll(allergyDictionary, medicalRecord.getAllergies()));
+    }
+
+    /**
+     * Encodes every value of a list with a dictionary.
+     *
+     * @param dictionary The dictionary to use.
+     * @param values     The values to encode, possibly null.
+     * @return A new mutable list of canonical instances, or null if the values are null.
+     */
+    private static List<String> encodeAll(StringDictionary dictionary, List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        List<String> encoded = new ArrayList<>(values.size());
+        for (String value : values) {
+            encoded.add(dictionary.encode(value));
+        }
+        return encoded;
+    }
+
+    /**
+     * Rebuilds every in-memory index from the current lists of entities.
+     */
+    private void rebuildIndexes() {
+        logger.debug("Rebuilding in-memory indexes.");
+        List<Person> indexedPersons = persons == null ? Collections.emptyList() : persons;
+        cityEmailIndex.rebuild(indexedPersons);
+        lastNamePrefixIndex.rebuild(indexedPersons.stream().map(Person::getLastName).collect(Collectors.toList()));
+        addressPrefixIndex.rebuild(indexedPersons.stream().map(Person::getAddress).collect(Collectors.toList()));
+        phoneticIndex.rebuild(indexedPersons);
+        nameIndex.rebuild(indexedPersons);
+        List<MedicalRecord> indexedRecords = medicalRecords == null ? Collections.emptyList() : medicalRecords;
+        medicationIndex.rebuild(indexedRecords);
+        allergyIndex.rebuild(indexedRecords);
+        medicalRecordNameIndex.rebuild(indexedRecords);
+        postingIndex.rebuild(indexedPersons, firestations, indexedRecords);
+    }
+
+    /**
+     * Registers a person in every in-memory index.
+     *
+     * @param person The person to index.
+     */
+    private void indexPerson(Person person) {
+        cityEmailIndex.add(person);
+        lastNamePrefixIndex.add(person.getLastName());
+        addressPrefixIndex.add(person.getAddress());
+        phoneticIndex.add(person);
+        nameIndex.add(person);
+        postingIndex.addPerson(person);
+    }
+
+    /**
+     * Removes a person from every in-memory index.
+     *
+     * @param person The person to remove from the indexes.
+     */
+    private void unindexPerson(Person person) {
+        cityEmailIndex.remove(person);
+        lastNamePrefixIndex.remove(person.getLastName());
+        addressPrefixIndex.remove(person.getAddress());
+        phoneticIndex.remove(person);
+        nameIndex.remove(person);
+        postingIndex.removePerson(person);
+    }
+
+    /**
+     * Registers a medical record in every in-memory index.
+     *
+     * @param medicalRecord The medical record to index.
+     */
+    private void indexMedicalRecord(MedicalRecord medicalRecord) {
+        medicationIndex.add(medicalRecord);
+        allergyIndex.add(medicalRecord);
+        medicalRecordNameIndex.add(medicalRecord);
+        postingIndex.addMedicalRecord(medicalRecord);
+    }
+
+    /**
+     * Removes a medical record from every in-memory index.
+     *
+     * @param medicalRecord The medical record to remove from the indexes.
+     */
+    private void unindexMedicalRecord(MedicalRecord medicalRecord) {
+        medicationIndex.remove(medicalRecord);
+        allergyIndex.remove(medicalRecord);
+        medicalRecordNameIndex.remove(medicalRecord);
+        postingIndex.removeMedicalRecord(medicalRecord);
+    }
+
     /**
      * Retrieves the list of all persons.
      *
-     * @return A list of {@link Person} objects.
+     * @return A copy of the list of {@link Person} objects.
      */
     public List<Person> getPersons() {
         logger.info("Retrieving list of all persons.");
-        return persons;
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(persons);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
      * Retrieves the list of all fire stations.
      *
-     * @return A list of {@link FireStation} objects.
+     * @return A copy of the list of {@link FireStation} objects.
      */
     public List<FireStation> getFireStations() {
         logger.info("Retrieving list of all fire stations.");
-        return firestations;
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(firestations);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
      * Retrieves the list of all medical records.
      *
-     * @return A list of {@link MedicalRecord} objects.
+     * @return A copy of the list of {@link MedicalRecord} objects.
      */
     public List<MedicalRecord> getMedicalRecords() {
         logger.info("Retrieving list of all medical records.");
-        return medicalRecords;
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(medicalRecords);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
      * Retrieves a list of persons covered by a specific fire station number.
+     * <p>
+     * The persons are read from the station posting list, in the order of the list of persons.
      *
      * @param stationNumber The fire station number.
      * @return A list of {@link Person} objects covered by the specified fire station.
      */
     public List<Person> getPersonsByStationNumber(int stationNumber) {
         logger.info("Retrieving persons for fire station number: {}", stationNumber);
-        List<FireStation> fireStations = getFireStations();
-        List<String> addresses = fireStations.stream()
-                .filter(fs -> fs.getStation() == stationNumber)
-                .map(FireStation::getAddress)
-                .collect(Collectors.toList());
-        return getPersons().stream()
-                .filter(person -> addresses.contains(person.getAddress()))
-                .collect(Collectors.toList());
+        lock.readLock().lock();
+        try {
+            return postingIndex.findByStation(stationNumber);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
      * Retrieves medical records for a list of persons.
+     * <p>
+     * The names of the persons are hashed first, so the records are read once, in their list order.
      *
      * @param persons The list of {@link Person} objects.
      * @return A list of {@link MedicalRecord} objects corresponding to the given persons.
@@ -186,14 +426,41 @@ public class DataService implements IDataService {
             logger.warn("The list of persons is null or empty. No medical records will be searched.");
             return Collections.emptyList();
         }
-        List<MedicalRecord> medicalRecords = getMedicalRecords();
-        return medicalRecords.stream().filter(record -> persons.stream()
-                .anyMatch(person -> person.getFirstName().equals(record.getFirstName()) &&
-                        person.getLastName().equals(record.getLastName()))).collect(Collectors.toList());
+        Set<String> names = persons.stream()
+                .map(person -> NameIndex.key(person.getFirstName(), person.getLastName()))
+                .collect(Collectors.toSet());
+        lock.readLock().lock();
+        try {
+            return medicalRecords.stream()
+                    .filter(record -> names.contains(NameIndex.key(record.getFirstName(), record.getLastName())))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the birthdates of the medical records of a list of persons, as epoch days.
+     *
+     * @param persons The list of {@link Person} objects.
+     * @return One epoch day per medical record of the persons, {@link AgeKernel#UNKNOWN_BIRTHDATE} if the
+     *         birthdate is invalid.
+     */
+    public int[] getBirthEpochDaysByPersons(List<Person> persons) {
+        lock.readLock().lock();
+        try {
+            return getMedicalRecordsByPersons(persons).stream()
+                    .mapToInt(record -> CalculateAgeService.birthEpochDay(record.getBirthdate()))
+                    .toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
      * Retrieves a list of persons living at a specific address.
+     * <p>
+     * The persons are read from the address posting list, in the order of the list of persons.
      *
      * @param address The address to search for.
      * @return A list of {@link Person} objects living at the specified address.
@@ -204,9 +471,12 @@ public class DataService implements IDataService {
             logger.warn("The address is null or empty. No persons will be searched.");
             return Collections.emptyList();
         }
-        return getPersons().stream()
-                .filter(person -> person.getAddress().equals(address))
-                .collect(Collectors.toList());
+        lock.readLock().lock();
+        try {
+            return postingIndex.findByAddress(address);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -221,12 +491,16 @@ public class DataService implements IDataService {
             logger.warn("The address is null or empty. No station will be searched.");
             return -1;
         }
-        List<FireStation> fireStations = getFireStations();
-        return fireStations.stream()
-                .filter(fireStation -> fireStation.getAddress().equals(address))
-                .map(FireStation::getStation)
-                .findFirst()
-                .orElse(-1);
+        lock.readLock().lock();
+        try {
+            return firestations.stream()
+                    .filter(fireStation -> fireStation.getAddress().equals(address))
+                    .map(FireStation::getStation)
+                    .findFirst()
+                    .orElse(-1);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -241,9 +515,37 @@ public class DataService implements IDataService {
             logger.warn("The last name is null or empty. No persons will be searched.");
             return Collections.emptyList();
         }
-        return getPersons().stream()
-                .filter(person -> person.getLastName().equals(lastName))
-                .collect(Collectors.toList());
+        lock.readLock().lock();
+        try {
+            return persons.stream()
+                    .filter(person -> person.getLastName().equals(lastName))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the persons whose last name sounds like the given last name.
+     * <p>
+     * The lookup goes through a Soundex index, so misspellings such as "Boyde" for "Boyd" still match.
+     * Persons with the closest spelling come first.
+     *
+     * @param lastName The last name to search for, possibly misspelled.
+     * @return A ranked list of {@link Person} objects, or an empty list if no last name sounds alike.
+     */
+    public List<Person> getPersonsByPhoneticLastName(String lastName) {
+        logger.info("Retrieving persons with a last name sounding like: {}", lastName);
+        if (lastName == null || lastName.trim().isEmpty()) {
+            logger.warn("The last name is null or empty. No persons will be searched.");
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            return phoneticIndex.find(lastName);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -258,18 +560,478 @@ public class DataService implements IDataService {
             logger.warn("No station exists with this number.");
             return Collections.emptySet();
         }
-        List<FireStation> fireStations = getFireStations();
-        long test= fireStations.stream()
-                .filter(fireStation -> fireStation.getStation()==stationNumber)
-                .count();
-                if (test==0)
-        {
-            logger.warn("No addresses found for station number: {}", stationNumber);
-            return Collections.emptySet();
+        lock.readLock().lock();
+        try {
+            List<FireStation> fireStations = firestations;
+            long test= fireStations.stream()
+                    .filter(fireStation -> fireStation.getStation()==stationNumber)
+                    .count();
+            if (test==0)
+            {
+                logger.warn("No addresses found for station number: {}", stationNumber);
+                return Collections.emptySet();
+            }
+            return fireStations.stream()
+                    .filter(fireStation -> fireStation.getStation() == stationNumber)
+                    .map(FireStation::getAddress)
+                    .collect(Collectors.toSet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a new person, shares its repeated strings through the dictionaries and registers it in the in-memory indexes.
+     *
+     * @param person The {@link Person} to add.
+     */
+    public void addPerson(Person person) {
+        logger.info("Adding person: {} {}", person.getFirstName(), person.getLastName());
+        lock.writeLock().lock();
+        try {
+            encodePerson(person);
+            persons.add(person);
+            indexPerson(person);
+            changes.recordPerson(null, ChangeEvent.snapshot(person));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Updates the contact details of the person with the same first and last name.
+     * <p>
+     * The address, city, zip, phone and email are copied from the given person and
+     * the in-memory indexes are updated accordingly.
+     *
+     * @param updatedPerson The person holding the new details.
+     * @return true if a matching person was found and updated, false otherwise.
+     */
+    public boolean updatePerson(Person updatedPerson) {
+        logger.info("Updating person: {} {}", updatedPerson.getFirstName(), updatedPerson.getLastName());
+        lock.writeLock().lock();
+        try {
+            for (Person person : persons) {
+                if (person.getFirstName().equals(updatedPerson.getFirstName()) &&
+                        person.getLastName().equals(updatedPerson.getLastName())) {
+                    Person before = ChangeEvent.snapshot(person);
+                    unindexPerson(person);
+                    person.setAddress(addressDictionary.encode(updatedPerson.getAddress()));
+                    person.setCity(cityDictionary.encode(updatedPerson.getCity()));
+                    person.setZip(updatedPerson.getZip());
+                    person.setPhone(updatedPerson.getPhone());
+                    person.setEmail(updatedPerson.getEmail());
+                    indexPerson(person);
+                    changes.recordPerson(before, ChangeEvent.snapshot(person));
+                    return true;
+                }
+            }
+            logger.warn("No person to update: {} {}", updatedPerson.getFirstName(), updatedPerson.getLastName());
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes every person with the given first and last name and removes them from the in-memory indexes.
+     *
+     * @param firstName The first name of the person to delete.
+     * @param lastName  The last name of the person to delete.
+     * @return true if at least one person was deleted, false otherwise.
+     */
+    public boolean deletePerson(String firstName, String lastName) {
+        logger.info("Deleting person: {} {}", firstName, lastName);
+        lock.writeLock().lock();
+        try {
+            boolean removed = false;
+            Iterator<Person> iterator = persons.iterator();
+            while (iterator.hasNext()) {
+                Person person = iterator.next();
+                if (person.getFirstName().equals(firstName) && person.getLastName().equals(lastName)) {
+                    iterator.remove();
+                    unindexPerson(person);
+                    postingIndex.releasePerson(person);
+                    changes.recordPerson(person, null);
+                    removed = true;
+                }
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the distinct email addresses of the persons living in a city.
+     * <p>
+     * The city is matched on its normalized form (case, accents and whitespace are ignored)
+     * through an index, without scanning the list of persons.
+     *
+     * @param city The city to search for.
+     * @return A list of distinct email addresses, or an empty list if none are found.
+     */
+    public List<String> getEmailsByCity(String city) {
+        logger.info("Retrieving emails for city: {}", city);
+        if (city == null || city.trim().isEmpty()) {
+            logger.warn("The city is null or empty. No emails will be searched.");
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            return cityEmailIndex.getEmails(city);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the last names starting with the given prefix.
+     * <p>
+     * The prefix is matched regardless of case, accents and whitespace through a sorted index.
+     *
+     * @param prefix The beginning of the last name.
+     * @param limit  The maximum number of last names to return.
+     * @return A list of distinct last names in alphabetical order, or an empty list if none match.
+     */
+    public List<String> getLastNamesByPrefix(String prefix, int limit) {
+        logger.info("Retrieving last names starting with: {}", prefix);
+        lock.readLock().lock();
+        try {
+            return lastNamePrefixIndex.complete(prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the addresses starting with the given prefix.
+     * <p>
+     * The prefix is matched regardless of case, accents and whitespace through a sorted index.
+     *
+     * @param prefix The beginning of the address.
+     * @param limit  The maximum number of addresses to return.
+     * @return A list of distinct addresses in alphabetical order, or an empty list if none match.
+     */
+    public List<String> getAddressesByPrefix(String prefix, int limit) {
+        logger.info("Retrieving addresses starting with: {}", prefix);
+        lock.readLock().lock();
+        try {
+            return addressPrefixIndex.complete(prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the persons with the given first and last name through the name index.
+     *
+     * @param firstName The first name of the person.
+     * @param lastName  The last name of the person.
+     * @return A list of matching {@link Person} objects, or an empty list if none is found.
+     */
+    public List<Person> getPersonsByName(String firstName, String lastName) {
+        logger.info("Retrieving persons named: {} {}", firstName, lastName);
+        lock.readLock().lock();
+        try {
+            return nameIndex.find(firstName, lastName);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a new medical record, shares its repeated strings through the dictionaries and registers it in the in-memory indexes.
+     *
+     * @param medicalRecord The {@link MedicalRecord} to add.
+     */
+    public void addMedicalRecord(MedicalRecord medicalRecord) {
+        logger.info("Adding medical record: {} {}", medicalRecord.getFirstName(), medicalRecord.getLastName());
+        lock.writeLock().lock();
+        try {
+            encodeMedicalRecord(medicalRecord);
+            MedicalRecord stored = tier(medicalRecord);
+            medicalRecords.add(stored);
+            indexMedicalRecord(stored);
+            changes.recordMedicalRecord(null, ChangeEvent.snapshot(stored));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Updates the medical record with the same first and last name.
+     * <p>
+     * The birthdate, medications and allergies are copied from the given record and
+     * the in-memory indexes are updated accordingly.
+     *
+     * @param updatedMedicalRecord The medical record holding the new details.
+     * @return true if a matching medical record was found and updated, false otherwise.
+     */
+    public boolean updateMedicalRecord(MedicalRecord updatedMedicalRecord) {
+        logger.info("Updating medical record: {} {}", updatedMedicalRecord.getFirstName(), updatedMedicalRecord.getLastName());
+        lock.writeLock().lock();
+        try {
+            for (MedicalRecord medicalRecord : medicalRecords) {
+                if (medicalRecord.getFirstName().equals(updatedMedicalRecord.getFirstName()) &&
+                        medicalRecord.getLastName().equals(updatedMedicalRecord.getLastName())) {
+                    MedicalRecord before = ChangeEvent.snapshot(medicalRecord);
+                    unindexMedicalRecord(medicalRecord);
+                    medicalRecord.setBirthdate(updatedMedicalRecord.getBirthdate());
+                    List<String> medications = encodeAll(medicationDictionary, updatedMedicalRecord.getMedications());
+                    List<String> allergies = encodeAll(allergyDictionary, updatedMedicalRecord.getAllergies());
+                    if (medicalRecord instanceof TieredMedicalRecord) {
+                        ((TieredMedicalRecord) medicalRecord).replace(medications, allergies);
+                    } else {
+                        medicalRecord.setMedications(medications);
+                        medicalRecord.setAllergies(allergies);
+                    }
+                    indexMedicalRecord(medicalRecord);
+                    changes.recordMedicalRecord(before, ChangeEvent.snapshot(medicalRecord));
+                    return true;
+                }
+            }
+            logger.warn("No medical record to update: {} {}", updatedMedicalRecord.getFirstName(), updatedMedicalRecord.getLastName());
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes every medical record with the given first and last name and removes them from the in-memory indexes.
+     *
+     * @param firstName The first name of the person whose medical record is deleted.
+     * @param lastName  The last name of the person whose medical record is deleted.
+     * @return true if at least one medical record was deleted, false otherwise.
+     */
+    public boolean deleteMedicalRecord(String firstName, String lastName) {
+        logger.info("Deleting medical record: {} {}", firstName, lastName);
+        lock.writeLock().lock();
+        try {
+            boolean removed = false;
+            Iterator<MedicalRecord> iterator = medicalRecords.iterator();
+            while (iterator.hasNext()) {
+                MedicalRecord medicalRecord = iterator.next();
+                if (medicalRecord.getFirstName().equals(firstName) && medicalRecord.getLastName().equals(lastName)) {
+                    MedicalRecord before = ChangeEvent.snapshot(medicalRecord);
+                    iterator.remove();
+                    unindexMedicalRecord(medicalRecord);
+                    if (medicalRecord instanceof TieredMedicalRecord) {
+                        ((TieredMedicalRecord) medicalRecord).release();
+                    }
+                    changes.recordMedicalRecord(before, null);
+                    removed = true;
+                }
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the medical records listing a medication, whatever its dosage.
+     *
+     * @param medication The drug name, e.g. "aznol"; a dosage, case and accents are ignored.
+     * @return A list of matching {@link MedicalRecord} objects, or an empty list if none is found.
+     */
+    public List<MedicalRecord> getMedicalRecordsByMedication(String medication) {
+        logger.info("Retrieving medical records with medication: {}", medication);
+        if (medication == null || medication.trim().isEmpty()) {
+            logger.warn("The medication is null or empty. No medical records will be searched.");
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            return medicationIndex.find(medication);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the medical records listing an allergy.
+     *
+     * @param allergy The allergy, e.g. "peanut"; case and accents are ignored.
+     * @return A list of matching {@link MedicalRecord} objects, or an empty list if none is found.
+     */
+    public List<MedicalRecord> getMedicalRecordsByAllergy(String allergy) {
+        logger.info("Retrieving medical records with allergy: {}", allergy);
+        if (allergy == null || allergy.trim().isEmpty()) {
+            logger.warn("The allergy is null or empty. No medical records will be searched.");
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            return allergyIndex.find(allergy);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the medical records with the given first and last name through the name index.
+     *
+     * @param firstName The first name of the person.
+     * @param lastName  The last name of the person.
+     * @return A list of matching {@link MedicalRecord} objects, or an empty list if none is found.
+     */
+    public List<MedicalRecord> getMedicalRecordsByName(String firstName, String lastName) {
+        logger.info("Retrieving medical records named: {} {}", firstName, lastName);
+        lock.readLock().lock();
+        try {
+            return medicalRecordNameIndex.find(firstName, lastName);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a new fire station mapping and adds the residents of its address to the station posting list.
+     *
+     * @param fireStation The {@link FireStation} mapping to add.
+     */
+    public void addFireStation(FireStation fireStation) {
+        logger.info("Adding fire station mapping: {} -> {}", fireStation.getAddress(), fireStation.getStation());
+        lock.writeLock().lock();
+        try {
+            fireStation.setAddress(addressDictionary.encode(fireStation.getAddress()));
+            firestations.add(fireStation);
+            postingIndex.addFireStation(fireStation);
+            changes.recordFireStation(null, ChangeEvent.snapshot(fireStation));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Changes the station number of the first mapping with the same address.
+     *
+     * @param updatedFireStation The mapping holding the address and the new station number.
+     * @return true if a mapping was found and updated, false otherwise.
+     */
+    public boolean updateFireStation(FireStation updatedFireStation) {
+        logger.info("Updating fire station mapping: {} -> {}", updatedFireStation.getAddress(), updatedFireStation.getStation());
+        lock.writeLock().lock();
+        try {
+            for (FireStation fireStation : firestations) {
+                if (fireStation.getAddress().equals(updatedFireStation.getAddress())) {
+                    FireStation before = ChangeEvent.snapshot(fireStation);
+                    postingIndex.removeFireStation(before);
+                    fireStation.setStation(updatedFireStation.getStation());
+                    postingIndex.addFireStation(fireStation);
+                    changes.recordFireStation(before, ChangeEvent.snapshot(fireStation));
+                    return true;
+                }
+            }
+            logger.warn("No fire station mapping to update for address: {}", updatedFireStation.getAddress());
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes every fire station mapping of an address and removes its residents from the station posting lists.
+     *
+     * @param address The address whose mappings are deleted.
+     * @return true if at least one mapping was deleted, false otherwise.
+     */
+    public boolean deleteFireStation(String address) {
+        logger.info("Deleting fire station mappings for address: {}", address);
+        lock.writeLock().lock();
+        try {
+            List<FireStation> removed = new ArrayList<>();
+            firestations.removeIf(fireStation -> fireStation.getAddress().equals(address) && removed.add(fireStation));
+            if (removed.isEmpty()) {
+                return false;
+            }
+            for (FireStation fireStation : removed) {
+                postingIndex.removeFireStation(fireStation);
+                changes.recordFireStation(fireStation, null);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the persons matching every criterion of a combined query.
+     * <p>
+     * The query is answered with unions and intersections of the bitmap posting lists
+     * (stations, addresses, birth years, medications and allergies), without scanning the persons.
+     *
+     * @param query The criteria of the search.
+     * @return A list of matching {@link Person} objects, in the order of the list of persons.
+     */
+    public List<Person> findPersons(ResidentQuery query) {
+        logger.info("Retrieving persons for stations {}, addresses {}, cities {}, last names {}, ages {}-{}, medications {} and allergies {}",
+                query.getStations(), query.getAddresses(), query.getCities(), query.getLastNames(),
+                query.getMinAge(), query.getMaxAge(), query.getMedications(), query.getAllergies());
+        lock.readLock().lock();
+        try {
+            if (!logger.isDebugEnabled()) {
+                return postingIndex.find(query, LocalDate.now());
+            }
+            // The plan is only valid until the index changes: a deletion in between would leave its filters
+            // reading released IDs
+            synchronized (postingIndex) {
+                QueryPlan plan = postingIndex.plan(query, LocalDate.now());
+                logger.debug("Query plan: {}", String.join(" | ", plan.explain()));
+                return postingIndex.execute(plan);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Describes how {@link #findPersons(ResidentQuery)} would evaluate a query, without running it.
+     *
+     * @param query The criteria of the search.
+     * @return The plan chosen from the cardinality of the posting lists.
+     */
+    public QueryPlan explainPersons(ResidentQuery query) {
+        lock.readLock().lock();
+        try {
+            return postingIndex.plan(query, LocalDate.now());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sets the tiering of the medical record lists, as the {@code data.medicalRecords.*} properties do; it applies
+     * from the next load.
+     *
+     * @param tiered      Whether the lists are moved to a segment file.
+     * @param hotCapacity The maximum number of records whose lists stay on the heap.
+     * @param directory   The directory of the segment file; if blank, the temporary directory.
+     */
+    void setMedicalRecordTiering(boolean tiered, int hotCapacity, String directory) {
+        this.tieredMedicalRecords = tiered;
+        this.hotMedicalRecords = hotCapacity;
+        this.medicalRecordDirectory = directory;
+    }
+
+    /**
+     * Gets the residency of the medications and allergies of the medical records between memory and disk.
+     *
+     * @return The counters of the tier, or null if tiering is disabled.
+     */
+    public MedicalRecordResidency getMedicalRecordResidency() {
+        lock.readLock().lock();
+        try {
+            MedicalRecordTier tier = medicalRecordTier;
+            if (tier == null) {
+                return null;
+            }
+            return new MedicalRecordResidency(medicalRecords.size(), tier.getHotCapacity(), tier.getHotCount(),
+                    tier.getColdCount(), tier.getSegmentBytes(), tier.getHits(), tier.getMisses(), tier.getEvictions());
+        } finally {
+            lock.readLock().unlock();
         }
-        return fireStations.stream()
-                .filter(fireStation -> fireStation.getStation() == stationNumber)
-                .map(FireStation::getAddress)
-                .collect(Collectors.toSet());
     }
 }
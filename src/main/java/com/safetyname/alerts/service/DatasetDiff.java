@@ -0,0 +1,232 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.store.Dataset;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * The differences between the data of a data service and a new dataset, as changes of single entities.
+ * <p>
+ * Persons and medical records are matched on their first and last names, fire station mappings on their address.
+ * An entity only in the new dataset is added, one only in the current data is deleted, and one whose other
+ * details differ is updated; a name or an address held by several entities on either side has all of its
+ * entities deleted and added again. Applying the differences goes through the add, update and delete methods of
+ * the data service, so its indexes are maintained entity by entity and every change is recorded in its
+ * {@link ChangeLog}, instead of the whole dataset being reloaded.
+ * <strong>Note:</strong> This class uses Lombok annotations to automatically generate getters.
+ * Make sure Lombok is properly configured in your development environment.
+ */
+@Getter
+public class DatasetDiff {
+
+    /**
+     * The changes of the entities sharing one key.
+     *
+     * @param <T> The type of the entities.
+     */
+    @Getter
+    public static final class Change<T> {
+        private final String key;
+        private final List<T> before;
+        private final List<T> after;
+
+        private Change(String key, List<T> before, List<T> after) {
+            this.key = key;
+            this.before = before;
+            this.after = after;
+        }
+
+        private boolean isUpdate() {
+            return before.size() == 1 && after.size() == 1;
+        }
+    }
+
+    private final List<Change<Person>> persons;
+    private final List<Change<FireStation>> fireStations;
+    private final List<Change<MedicalRecord>> medicalRecords;
+
+    private DatasetDiff(List<Change<Person>> persons, List<Change<FireStation>> fireStations,
+                        List<Change<MedicalRecord>> medicalRecords) {
+        this.persons = persons;
+        this.fireStations = fireStations;
+        this.medicalRecords = medicalRecords;
+    }
+
+    /**
+     * Computes the differences between two datasets.
+     *
+     * @param current The current data.
+     * @param next    The data to reach.
+     * @return The changes turning the current data into the next one.
+     */
+    public static DatasetDiff between(Dataset current, Dataset next) {
+        return new DatasetDiff(
+                diff(current.getPersons(), next.getPersons(), DatasetDiff::keyOf, DatasetDiff::samePerson),
+                diff(current.getFireStations(), next.getFireStations(), DatasetDiff::keyOf,
+                        DatasetDiff::sameFireStation),
+                diff(current.getMedicalRecords(), next.getMedicalRecords(), DatasetDiff::keyOf,
+                        DatasetDiff::sameMedicalRecord));
+    }
+
+    /**
+     * Gets the number of keys whose entities changed.
+     *
+     * @return The number of changed persons, fire station addresses and medical records.
+     */
+    public int size() {
+        return persons.size() + fireStations.size() + medicalRecords.size();
+    }
+
+    /**
+     * Tells whether the datasets hold the same data.
+     *
+     * @return true if there is no change.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Applies the changes to a data service, entity by entity.
+     *
+     * @param store The data service holding the current data of the diff.
+     */
+    public void applyTo(IDataService store) {
+        for (Change<Person> change : persons) {
+            if (change.isUpdate()) {
+                store.updatePerson(change.getAfter().get(0));
+                continue;
+            }
+            if (!change.getBefore().isEmpty()) {
+                Person person = change.getBefore().get(0);
+                store.deletePerson(person.getFirstName(), person.getLastName());
+            }
+            change.getAfter().forEach(store::addPerson);
+        }
+        for (Change<FireStation> change : fireStations) {
+            if (change.isUpdate()) {
+                store.updateFireStation(change.getAfter().get(0));
+                continue;
+            }
+            if (!change.getBefore().isEmpty()) {
+                store.deleteFireStation(change.getKey());
+            }
+            change.getAfter().forEach(store::addFireStation);
+        }
+        for (Change<MedicalRecord> change : medicalRecords) {
+            if (change.isUpdate()) {
+                store.updateMedicalRecord(change.getAfter().get(0));
+                continue;
+            }
+            if (!change.getBefore().isEmpty()) {
+                MedicalRecord medicalRecord = change.getBefore().get(0);
+                store.deleteMedicalRecord(medicalRecord.getFirstName(), medicalRecord.getLastName());
+            }
+            change.getAfter().forEach(store::addMedicalRecord);
+        }
+    }
+
+    private static <T> List<Change<T>> diff(List<T> current, List<T> next, Function<T, String> key,
+                                            BiPredicate<T, T> same) {
+        Map<String, List<T>> before = group(current, key);
+        Map<String, List<T>> after = group(next, key);
+        List<Change<T>> changes = new ArrayList<>();
+        for (Map.Entry<String, List<T>> entry : before.entrySet()) {
+            List<T> nextEntities = after.getOrDefault(entry.getKey(), List.of());
+            if (!same(entry.getValue(), nextEntities, same)) {
+                changes.add(new Change<>(entry.getKey(), entry.getValue(), nextEntities));
+            }
+        }
+        for (Map.Entry<String, List<T>> entry : after.entrySet()) {
+            if (!before.containsKey(entry.getKey())) {
+                changes.add(new Change<>(entry.getKey(), List.of(), entry.getValue()));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Groups entities by key, in the order of their first entity.
+     */
+    static <T> Map<String, List<T>> group(List<T> entities, Function<T, String> key) {
+        Map<String, List<T>> groups = new LinkedHashMap<>();
+        for (T entity : entities) {
+            groups.computeIfAbsent(key.apply(entity), k -> new ArrayList<>(1)).add(entity);
+        }
+        return groups;
+    }
+
+    /**
+     * Tells whether two lists of entities sharing a key hold the same details, in the same order.
+     */
+    static <T> boolean same(List<T> before, List<T> after, BiPredicate<T, T> same) {
+        if (before.size() != after.size()) {
+            return false;
+        }
+        for (int i = 0; i < before.size(); i++) {
+            if (!same.test(before.get(i), after.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the key matching a person between two datasets: its first and last names.
+     */
+    static String keyOf(Person person) {
+        return person.getFirstName() + "\n" + person.getLastName();
+    }
+
+    /**
+     * Gets the key matching a medical record between two datasets: its first and last names.
+     */
+    static String keyOf(MedicalRecord medicalRecord) {
+        return medicalRecord.getFirstName() + "\n" + medicalRecord.getLastName();
+    }
+
+    /**
+     * Gets the key matching a fire station mapping between two datasets: its address.
+     */
+    static String keyOf(FireStation fireStation) {
+        return fireStation.getAddress();
+    }
+
+    /**
+     * Tells whether two persons with the same names have the same contact details.
+     */
+    static boolean samePerson(Person before, Person after) {
+        return Objects.equals(before.getAddress(), after.getAddress())
+                && Objects.equals(before.getCity(), after.getCity())
+                && before.getZip() == after.getZip()
+                && Objects.equals(before.getPhone(), after.getPhone())
+                && Objects.equals(before.getEmail(), after.getEmail());
+    }
+
+    /**
+     * Tells whether two mappings of the same address have the same station.
+     */
+    static boolean sameFireStation(FireStation before, FireStation after) {
+        return before.getStation() == after.getStation();
+    }
+
+    /**
+     * Tells whether two medical records with the same names have the same birthdate, medications and allergies.
+     */
+    static boolean sameMedicalRecord(MedicalRecord before, MedicalRecord after) {
+        // The getters, rather than equals, read the lists of tiered records
+        return Objects.equals(before.getBirthdate(), after.getBirthdate())
+                && Objects.equals(before.getMedications(), after.getMedications())
+                && Objects.equals(before.getAllergies(), after.getAllergies());
+    }
+}
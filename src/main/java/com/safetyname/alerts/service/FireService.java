@@ -5,6 +5,9 @@ import com.safetyname.alerts.dto.FireInfo;
 import com.safetyname.alerts.dto.FireResponse;
 import com.safetyname.alerts.entity.MedicalRecord;
 import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.index.ResidentQuery;
+import com.safetyname.alerts.json.FieldSet;
+import com.safetyname.alerts.json.SharedResponse;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +15,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -25,6 +29,7 @@ public class FireService implements IFireService {
 
     private static final Logger logger = LogManager.getLogger(FireController.class);
     private  IDataService dataService;
+    private final ResponseCache<Map.Entry<FieldSet, String>, SharedResponse<FireResponse>> responses = new ResponseCache<>();
 
     /**
      * Constructor for FireService.
@@ -46,10 +51,43 @@ public class FireService implements IFireService {
      * @return A {@link FireResponse} object containing a list of persons' health information and the fire station number.
      */
     public FireResponse  getFireService( String address){
+        return getFireResponse(address).getBody();
+    }
+
+    /**
+     * Retrieves fire-related information for residents at a specified address, with its serialized JSON.
+     * <p>
+     * Responses are cached per address, with their JSON bytes, until the data changes. Identical requests
+     * arriving while a response is computed share that computation.
+     *
+     * @param address The address to retrieve fire information for.
+     * @return The shared response, whose body is the {@link FireResponse} of the address.
+     */
+    public SharedResponse<FireResponse> getFireResponse(String address) {
+        return getFireResponse(address, FieldSet.ALL);
+    }
+
+    /**
+     * Retrieves fire-related information for residents at a specified address, limited to some fields of the residents.
+     * <p>
+     * Responses are cached per field set. The medical records are still read, since only the residents having
+     * one are listed, but the ages are only computed when requested.
+     *
+     * @param address The address to retrieve fire information for.
+     * @param fields  The fields of {@link FireInfo} requested by the caller.
+     * @return The shared response, whose body is the {@link FireResponse} of the address.
+     */
+    public SharedResponse<FireResponse> getFireResponse(String address, FieldSet fields) {
+        long version = dataService.getVersion();
+        return responses.get(version, Map.entry(fields, address),
+                () -> new SharedResponse<>(computeFireService(address, fields), fields));
+    }
+
+    private FireResponse computeFireService(String address, FieldSet fields) {
         logger.info("Request received for address: {}", address);
 
         // Retrieve persons living at the specified address
-        List<Person> persons = dataService.getPersonsByAddress(address);
+        List<Person> persons = dataService.findPersons(ResidentQuery.ofAddress(address));
 
         // Retrieve medical records for the persons
         List<MedicalRecord> medicalRecords = dataService.getMedicalRecordsByPersons(persons);
@@ -58,6 +96,7 @@ public class FireService implements IFireService {
         int station = dataService.getStationByAddress(address);
 
         // Build the information related to persons and their health status
+        boolean withAge = fields.includes("age");
         List<FireInfo> fireInfos = persons.stream()
                 .flatMap(person -> medicalRecords.stream()
                         .filter(record -> record.getFirstName().equals(person.getFirstName()) &&
@@ -65,7 +104,7 @@ public class FireService implements IFireService {
                         .map(record -> new FireInfo(
                                 person.getLastName(),
                                 person.getPhone(),
-                                CalculateAgeService.calculateAge(record.getBirthdate()),
+                                withAge ? CalculateAgeService.calculateAge(record.getBirthdate()) : -1,
                                 record.getMedications(),
                                 record.getAllergies()
                         )))
@@ -1,14 +1,20 @@
 package com.safetyname.alerts.service;
 
+import com.safetyname.alerts.dto.AgeBucket;
+import com.safetyname.alerts.dto.AgeHistogramResponse;
 import com.safetyname.alerts.dto.FirestationResponse;
 import com.safetyname.alerts.dto.PersonInfo;
-import com.safetyname.alerts.entity.MedicalRecord;
 import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.index.ResidentQuery;
+import com.safetyname.alerts.json.SharedResponse;
+import com.safetyname.alerts.store.AgeKernel;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import org.springframework.stereotype.Service;
 
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,11 +23,16 @@ import java.util.stream.Collectors;
  * <p>
  * This service is responsible for retrieving information about people covered
  * by a specific fire station and calculating the number of adults and children.
+ * The ages are counted on the birthdates as epoch days, with the {@link AgeKernel} selected at startup.
  */
 @Service
 public class FireStationService implements IFireStationService {
 
+    private static final int ADULT_AGE = 18;
+    private static final AgeKernel ageKernel = AgeKernel.select();
+
     private final IDataService dataService;
+    private final ResponseCache<Integer, SharedResponse<FirestationResponse>> responses = new ResponseCache<>();
 
     /**
      * Constructor for FireStationService.
@@ -44,23 +55,38 @@ public class FireStationService implements IFireStationService {
      *         or null if no persons or medical records are found.
      */
     public FirestationResponse getFireStationService(int stationNumber) {
-        List<Person> personsCovered = dataService.getPersonsByStationNumber(stationNumber);
+        return getFireStationResponse(stationNumber).getBody();
+    }
+
+    /**
+     * Retrieves information about persons covered by a specific fire station, with its serialized JSON.
+     * <p>
+     * Responses are cached per station, with their JSON bytes, until the data changes or the day changes,
+     * since the adult count depends on the current date.
+     *
+     * @param stationNumber The fire station number for which to retrieve the information.
+     * @return The shared response, whose body is the {@link FirestationResponse} or null if no persons
+     *         or medical records are found.
+     */
+    public SharedResponse<FirestationResponse> getFireStationResponse(int stationNumber) {
+        long version = dataService.getVersion();
+        return responses.get(version, stationNumber, () -> new SharedResponse<>(computeFireStationService(stationNumber)));
+    }
+
+    private FirestationResponse computeFireStationService(int stationNumber) {
+        List<Person> personsCovered = dataService.findPersons(ResidentQuery.ofStations(List.of(stationNumber)));
         if (personsCovered == null || personsCovered.isEmpty()) {
             return null; // A gérer dans le contrôleur
         }
 
-        List<MedicalRecord> medicalRecords = dataService.getMedicalRecordsByPersons(personsCovered);
-        if (medicalRecords == null || medicalRecords.isEmpty()) {
+        int[] births = dataService.getBirthEpochDaysByPersons(personsCovered);
+        if (births == null || births.length == 0) {
             return null; // A gérer dans le contrôleur
         }
 
-        long adultCount = medicalRecords.stream()
-                .filter(medicalRecord -> CalculateAgeService.calculateAge(medicalRecord.getBirthdate()) >= 18)
-                .count();
-
-        long childCount = medicalRecords.stream()
-                .filter(medicalRecord -> CalculateAgeService.calculateAge(medicalRecord.getBirthdate()) < 18)
-                .count();
+        int[] thresholds = {latestBirthForAge(LocalDate.now(), ADULT_AGE)};
+        long adultCount = ageKernel.countAtMost(births, births.length, thresholds)[0];
+        long childCount = births.length - adultCount;
 
         List<PersonInfo> personInfoList = personsCovered.stream()
                 .map(person -> new PersonInfo(person.getFirstName(), person.getLastName(), person.getAddress(), person.getPhone()))
@@ -68,5 +94,51 @@ public class FireStationService implements IFireStationService {
 
         return new FirestationResponse(personInfoList, adultCount, childCount);
     }
-}
 
+    /**
+     * Computes the age histogram of the persons covered by a specific fire station.
+     * <p>
+     * The buckets start at 0 and at each bound; a person is counted in the bucket of their age. All the
+     * counts come from one pass over the birthdates of the medical records.
+     *
+     * @param stationNumber The fire station number for which to compute the histogram.
+     * @param bounds        The first age of each bucket but the first, strictly ascending and positive.
+     * @return An {@link AgeHistogramResponse} holding one bucket more than the bounds,
+     *         or null if no persons or medical records are found.
+     */
+    public AgeHistogramResponse getAgeHistogram(int stationNumber, List<Integer> bounds) {
+        List<Person> personsCovered = dataService.findPersons(ResidentQuery.ofStations(List.of(stationNumber)));
+        if (personsCovered == null || personsCovered.isEmpty()) {
+            return null;
+        }
+        int[] births = dataService.getBirthEpochDaysByPersons(personsCovered);
+        if (births == null || births.length == 0) {
+            return null;
+        }
+
+        // thresholds[k]: latest birthdate of a person aged at least the k-th lower bound (0 first)
+        LocalDate today = LocalDate.now();
+        int[] thresholds = new int[bounds.size() + 1];
+        thresholds[0] = latestBirthForAge(today, 0);
+        for (int k = 0; k < bounds.size(); k++) {
+            thresholds[k + 1] = latestBirthForAge(today, bounds.get(k));
+        }
+        int[] atLeast = ageKernel.countAtMost(births, births.length, thresholds);
+
+        List<AgeBucket> buckets = new ArrayList<>(thresholds.length);
+        for (int k = 0; k < thresholds.length; k++) {
+            int minAge = k == 0 ? 0 : bounds.get(k - 1);
+            boolean last = k == thresholds.length - 1;
+            buckets.add(new AgeBucket(minAge, last ? null : bounds.get(k) - 1,
+                    last ? atLeast[k] : atLeast[k] - atLeast[k + 1]));
+        }
+        return new AgeHistogramResponse(stationNumber, buckets, births.length - atLeast[0]);
+    }
+
+    /**
+     * Gets the latest birthdate, as an epoch day, of a person who is at least the given age today.
+     */
+    private static int latestBirthForAge(LocalDate today, int age) {
+        return (int) today.minusYears(age).toEpochDay();
+    }
+}
@@ -4,6 +4,10 @@ import com.safetyname.alerts.controller.FloodController;
 import com.safetyname.alerts.dto.FloodResponse;
 import com.safetyname.alerts.entity.MedicalRecord;
 import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.index.ResidentQuery;
+import com.safetyname.alerts.json.FieldSet;
+import com.safetyname.alerts.json.JsonBytes;
+import com.safetyname.alerts.json.SharedResponse;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -25,7 +29,12 @@ public class FloodService implements IFloodService {
 
     private static final Logger logger = LogManager.getLogger(FloodController.class);
 
+    // Fields read from the medical records; without them, households are built from the persons alone
+    private static final String[] MEDICAL_FIELDS = {"age", "medications", "allergies"};
+
     private IDataService dataService;
+    private final ResponseCache<Map.Entry<FieldSet, List<Integer>>, SharedResponse<Map<String, List<FloodResponse>>>> responses = new ResponseCache<>();
+    private final ResponseCache<Map.Entry<FieldSet, String>, SharedResponse<List<FloodResponse>>> households = new ResponseCache<>();
 
     /**
      * Constructor for FloodService that initializes the data service.
@@ -47,32 +56,86 @@ public class FloodService implements IFloodService {
      * @return A map where the keys are addresses and the values are lists of FloodResponse objects. Returns an empty map if no data is found.
      */
     public Map<String, List<FloodResponse>> getFloodService(List<Integer> stationNumbers) {
+        return getFloodResponse(stationNumbers).getBody();
+    }
+
+    /**
+     * Retrieves the households covered by the specified fire stations, with their serialized JSON.
+     * <p>
+     * Responses are cached per list of stations and households per address, both with their JSON bytes,
+     * until the data changes; a response assembled from cached households references their bytes instead
+     * of serializing them again. Identical requests arriving while a response is computed share that
+     * computation.
+     *
+     * @param stationNumbers A list of fire station numbers to check for covered households.
+     * @return The shared response, whose body is an unmodifiable map of addresses to FloodResponse objects.
+     */
+    public SharedResponse<Map<String, List<FloodResponse>>> getFloodResponse(List<Integer> stationNumbers) {
+        return getFloodResponse(stationNumbers, FieldSet.ALL);
+    }
+
+    /**
+     * Retrieves the households covered by the specified fire stations, limited to some fields of the residents.
+     * <p>
+     * Responses and households are cached per field set. When no age, medications or allergies are requested,
+     * the medical records are not read at all.
+     *
+     * @param stationNumbers A list of fire station numbers to check for covered households.
+     * @param fields         The fields of {@link FloodResponse} requested by the caller.
+     * @return The shared response, whose body is an unmodifiable map of addresses to FloodResponse objects.
+     */
+    public SharedResponse<Map<String, List<FloodResponse>>> getFloodResponse(List<Integer> stationNumbers, FieldSet fields) {
+        long version = dataService.getVersion();
+        return responses.get(version, Map.entry(fields, new ArrayList<>(stationNumbers)),
+                () -> computeFloodResponse(version, stationNumbers, fields));
+    }
+
+    private SharedResponse<Map<String, List<FloodResponse>>> computeFloodResponse(long version, List<Integer> stationNumbers,
+                                                                                 FieldSet fields) {
 
         logger.info("Request received for fire stations: {}", stationNumbers);
 
 
-        // 1. Retrieve the addresses served by the specified fire stations
-        Set<String> addresses = stationNumbers.stream()
-                .flatMap(stationNumber -> dataService.getAddressesByStationNumber(stationNumber).stream())
-                .collect(Collectors.toSet());
+        // 1. Retrieve the individuals living at the addresses served by the specified fire stations
+        List<Person> persons = dataService.findPersons(ResidentQuery.ofStations(stationNumbers));
 
-        if (addresses.isEmpty()) {
-            logger.warn("No addresses found for fire stations: {}", stationNumbers);
-            return Collections.emptyMap();
+        if (persons.isEmpty()) {
+            logger.warn("No people found for fire stations: {}", stationNumbers);
+            return new SharedResponse<>(Collections.emptyMap(), fields);
         }
 
-        // 2. Retrieve the individuals living at these addresses
-        List<Person> persons = addresses.stream()
-                .flatMap(address -> dataService.getPersonsByAddress(address).stream())
-                .collect(Collectors.toList());
+        // 2. Group the individuals by address
+        Map<String, List<Person>> personsByAddress = new HashMap<>();
+        for (Person person : persons) {
+            personsByAddress.computeIfAbsent(person.getAddress(), k -> new ArrayList<>()).add(person);
+        }
 
-        if (persons.isEmpty()) {
-            logger.warn("No people found at addresses: {}", addresses);
-            return Collections.emptyMap();
+        // 3. Get each household from the cache, or build it from the medical records of its residents
+        Map<String, SharedResponse<List<FloodResponse>>> householdsByAddress = new HashMap<>();
+        for (Map.Entry<String, List<Person>> entry : personsByAddress.entrySet()) {
+            householdsByAddress.put(entry.getKey(),
+                    households.get(version, Map.entry(fields, entry.getKey()), () -> computeHousehold(entry.getValue(), fields)));
         }
 
-        // 3. Retrieve the medical records for these individuals
-        List<MedicalRecord> medicalRecords = dataService.getMedicalRecordsByPersons(persons);
+        Map<String, List<FloodResponse>> body = new HashMap<>();
+        householdsByAddress.forEach((address, household) -> body.put(address, household.getBody()));
+        return new SharedResponse<>(Collections.unmodifiableMap(body), fields, mapper -> {
+            List<byte[]> names = new ArrayList<>(body.size());
+            List<JsonBytes> values = new ArrayList<>(body.size());
+            for (String address : body.keySet()) {
+                names.add(SharedResponse.serialize(mapper, address));
+                values.add(householdsByAddress.get(address).getJson(mapper));
+            }
+            return JsonBytes.object(names, values);
+        });
+    }
+
+    private SharedResponse<List<FloodResponse>> computeHousehold(List<Person> residents, FieldSet fields) {
+
+        // Retrieve the medical records for these individuals, unless no medical field is requested
+        List<MedicalRecord> medicalRecords = fields.includesAny(MEDICAL_FIELDS)
+                ? dataService.getMedicalRecordsByPersons(residents)
+                : Collections.emptyList();
 
         // Create a Map for the medical records using "FirstName LastName" as the key
         Map<String, MedicalRecord> medicalRecordMap = new HashMap<>();
@@ -81,12 +144,8 @@ public class FloodService implements IFloodService {
             medicalRecordMap.put(key, record);
         }
 
-        // Create a Map to group households by address
-        Map<String, List<FloodResponse>> householdsByAddress = new HashMap<>();
-
-        // Iterate through all individuals
-        for (Person person : persons) {
-            String address = person.getAddress();
+        List<FloodResponse> household = new ArrayList<>(residents.size());
+        for (Person person : residents) {
             String key = (person.getFirstName() + " " + person.getLastName()).trim().toLowerCase();
 
             // Retrieve the corresponding medical record
@@ -98,18 +157,16 @@ public class FloodService implements IFloodService {
             List<String> allergies = Collections.emptyList();
 
             if (medicalRecord != null) {
-                age = CalculateAgeService.calculateAge(medicalRecord.getBirthdate());
+                if (fields.includes("age")) {
+                    age = CalculateAgeService.calculateAge(medicalRecord.getBirthdate());
+                }
                 medications = medicalRecord.getMedications();
                 allergies = medicalRecord.getAllergies();
             }
 
             // Create the FloodResponse for the person
-            FloodResponse response = new FloodResponse(person.getFirstName(), person.getLastName(), person.getPhone(), age, medications, allergies);
-
-            // Add the FloodResponse to the corresponding list in the Map
-            householdsByAddress.computeIfAbsent(address, k -> new ArrayList<>()).add(response);
+            household.add(new FloodResponse(person.getFirstName(), person.getLastName(), person.getPhone(), age, medications, allergies));
         }
-
-        return householdsByAddress;
+        return new SharedResponse<>(Collections.unmodifiableList(household), fields);
     }
 }
@@ -0,0 +1,30 @@
+package com.safetyname.alerts.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Change persistence rewriting the whole data file on every save, selected by default or with
+ * {@code data.persistence=full}. The data file alone holds the data, so there is nothing to recover.
+ */
+@Component
+@ConditionalOnProperty(name = "data.persistence", havingValue = "full", matchIfMissing = true)
+public class FullFilePersistence implements ChangePersistence {
+
+    @Override
+    public void recover(IDataService store, Path dataFile) {
+        // The data file is complete
+    }
+
+    @Override
+    public void discard(IDataService store, Path dataFile) {
+        // No change is saved outside of the data file
+    }
+
+    @Override
+    public boolean persist(IDataService store, Path dataFile) {
+        return store.saveData(dataFile.toString());
+    }
+}
@@ -0,0 +1,7 @@
+package com.safetyname.alerts.service;
+
+import java.util.List;
+
+public interface IAutocompleteService {
+    List<String> getSuggestions(String field, String prefix, int limit);
+}
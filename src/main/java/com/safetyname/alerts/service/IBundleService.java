@@ -0,0 +1,7 @@
+package com.safetyname.alerts.service;
+
+public interface IBundleService {
+    StationBundle getBundle(int stationNumber);
+
+    StationBundle getBundle(int stationNumber, String id);
+}
@@ -0,0 +1,7 @@
+package com.safetyname.alerts.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface IChangeStreamService {
+    void subscribe(SseEmitter emitter, String since);
+}
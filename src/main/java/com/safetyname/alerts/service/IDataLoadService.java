@@ -0,0 +1,10 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.dto.LoadStatus;
+
+public interface IDataLoadService {
+    boolean isLive();
+    boolean isReady();
+    LoadStatus getStatus();
+    int getRetryAfterSeconds();
+}
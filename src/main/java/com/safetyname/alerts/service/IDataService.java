@@ -1,8 +1,11 @@
 package com.safetyname.alerts.service;
 
+import com.safetyname.alerts.dto.MedicalRecordResidency;
 import com.safetyname.alerts.entity.FireStation;
 import com.safetyname.alerts.entity.MedicalRecord;
 import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.index.QueryPlan;
+import com.safetyname.alerts.index.ResidentQuery;
 
 import java.util.List;
 import java.util.Set;
@@ -17,8 +20,31 @@ public interface IDataService {
      List<MedicalRecord> getMedicalRecords();
      List<Person> getPersonsByStationNumber(int stationNumber);
      List<MedicalRecord> getMedicalRecordsByPersons(List<Person> persons);
+     int[] getBirthEpochDaysByPersons(List<Person> persons);
      List<Person> getPersonsByAddress(String address);
      int getStationByAddress(String address);
      List<Person> getPersonsByLastName(String lastName);
+     List<Person> getPersonsByPhoneticLastName(String lastName);
      Set<String> getAddressesByStationNumber(int stationNumber);
+     void addPerson(Person person);
+     boolean updatePerson(Person updatedPerson);
+     boolean deletePerson(String firstName, String lastName);
+     List<String> getEmailsByCity(String city);
+     List<String> getLastNamesByPrefix(String prefix, int limit);
+     List<String> getAddressesByPrefix(String prefix, int limit);
+     List<Person> getPersonsByName(String firstName, String lastName);
+     void addMedicalRecord(MedicalRecord medicalRecord);
+     boolean updateMedicalRecord(MedicalRecord updatedMedicalRecord);
+     boolean deleteMedicalRecord(String firstName, String lastName);
+     List<MedicalRecord> getMedicalRecordsByMedication(String medication);
+     List<MedicalRecord> getMedicalRecordsByAllergy(String allergy);
+     List<MedicalRecord> getMedicalRecordsByName(String firstName, String lastName);
+     void addFireStation(FireStation fireStation);
+     boolean updateFireStation(FireStation updatedFireStation);
+     boolean deleteFireStation(String address);
+     List<Person> findPersons(ResidentQuery query);
+     QueryPlan explainPersons(ResidentQuery query);
+     long getVersion();
+     ChangeLog getChangeLog();
+     MedicalRecordResidency getMedicalRecordResidency();
 }
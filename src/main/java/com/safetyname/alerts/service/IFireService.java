@@ -1,7 +1,13 @@
 package com.safetyname.alerts.service;
 
 import com.safetyname.alerts.dto.FireResponse;
+import com.safetyname.alerts.json.FieldSet;
+import com.safetyname.alerts.json.SharedResponse;
 
 public interface IFireService {
     FireResponse getFireService(String address);
+
+    SharedResponse<FireResponse> getFireResponse(String address);
+
+    SharedResponse<FireResponse> getFireResponse(String address, FieldSet fields);
 }
@@ -1,8 +1,16 @@
 package com.safetyname.alerts.service;
 
+import com.safetyname.alerts.dto.AgeHistogramResponse;
 import com.safetyname.alerts.dto.FirestationResponse;
+import com.safetyname.alerts.json.SharedResponse;
+
+import java.util.List;
 
 public interface IFireStationService {
 
     FirestationResponse getFireStationService(int stationNumber);
+
+    SharedResponse<FirestationResponse> getFireStationResponse(int stationNumber);
+
+    AgeHistogramResponse getAgeHistogram(int stationNumber, List<Integer> bounds);
 }
@@ -1,6 +1,8 @@
 package com.safetyname.alerts.service;
 
 import com.safetyname.alerts.dto.FloodResponse;
+import com.safetyname.alerts.json.FieldSet;
+import com.safetyname.alerts.json.SharedResponse;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
@@ -8,4 +10,8 @@ import java.util.Map;
 
 public interface IFloodService {
     Map<String, List<FloodResponse>> getFloodService( List<Integer> stationNumbers);
+
+    SharedResponse<Map<String, List<FloodResponse>>> getFloodResponse(List<Integer> stationNumbers);
+
+    SharedResponse<Map<String, List<FloodResponse>>> getFloodResponse(List<Integer> stationNumbers, FieldSet fields);
 }
@@ -0,0 +1,10 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.dto.MedicalAlertResponse;
+
+import java.util.List;
+
+public interface IMedicalAlertService {
+    List<MedicalAlertResponse> getPersonsByMedication(String medication, List<Integer> stationNumbers, List<String> addresses);
+    List<MedicalAlertResponse> getPersonsByAllergy(String allergy, List<Integer> stationNumbers, List<String> addresses);
+}
@@ -1,10 +1,14 @@
 package com.safetyname.alerts.service;
 
 import com.safetyname.alerts.dto.PersonInfoLastNameResponse;
+import com.safetyname.alerts.json.FieldSet;
 
 import java.util.List;
 
 public interface IPersonInfoLastNameService {
     List<PersonInfoLastNameResponse> getPersonInfoLastNameService(String lastName);
+    List<PersonInfoLastNameResponse> getPersonInfoPhoneticLastNameService(String lastName);
+    List<PersonInfoLastNameResponse> getPersonInfoLastNameService(String lastName, FieldSet fields);
+    List<PersonInfoLastNameResponse> getPersonInfoPhoneticLastNameService(String lastName, FieldSet fields);
 
 }
@@ -0,0 +1,13 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.dto.MedicalAlertResponse;
+import com.safetyname.alerts.index.QueryPlan;
+import com.safetyname.alerts.index.ResidentQuery;
+
+import java.util.List;
+
+public interface IResidentService {
+    List<MedicalAlertResponse> findResidents(ResidentQuery query);
+
+    QueryPlan explain(ResidentQuery query);
+}
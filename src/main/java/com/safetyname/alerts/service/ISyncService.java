@@ -0,0 +1,9 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.dto.SyncResponse;
+
+import java.util.List;
+
+public interface ISyncService {
+    SyncResponse getChanges(List<Integer> stationNumbers, String since);
+}
@@ -0,0 +1,262 @@
+package com.safetyname.alerts.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Change persistence appending the changes to a journal next to the data file, selected with
+ * {@code data.persistence=journal}.
+ * <p>
+ * The data file is the base of the journal {@code <data file>.journal}: each save appends the changes recorded
+ * by the {@link ChangeLog} since the previous save, one JSON line per change, and syncs the journal to disk,
+ * instead of rewriting the whole file. Reading the data file replays its journal. Once the journal holds
+ * {@code data.journal.compactionThreshold} changes, or when the changes since the previous save are no longer
+ * all in the change log, the data file is rewritten, atomically, and the journal deleted.
+ * <p>
+ * Replaying a change is idempotent: an added entity that already exists is updated, and a deleted one that is
+ * missing is skipped, so a journal surviving a compaction interrupted before its deletion does no harm.
+ * A journal follows the data service that last read or saved a data file, one per application.
+ */
+@Component
+@ConditionalOnProperty(name = "data.persistence", havingValue = "journal")
+public class JournalPersistence implements ChangePersistence {
+
+    private static final Logger logger = LogManager.getLogger(JournalPersistence.class);
+
+    /**
+     * Extension added to the data file to name its journal.
+     */
+    public static final String JOURNAL_SUFFIX = ".journal";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final int compactionThreshold;
+    private Path base;
+    private long savedVersion;
+    private int journalEntries;
+
+    /**
+     * Constructor for JournalPersistence.
+     *
+     * @param compactionThreshold The number of journaled changes after which the data file is rewritten, from the
+     *                            {@code data.journal.compactionThreshold} property.
+     */
+    @Autowired
+    public JournalPersistence(@Value("${data.journal.compactionThreshold:1000}") int compactionThreshold) {
+        if (compactionThreshold < 1) {
+            throw new IllegalArgumentException("The compaction threshold must be positive, got " + compactionThreshold);
+        }
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Replays the journal of the data file, if any.
+     *
+     * @param store    The data service, which just read the data file.
+     * @param dataFile The data file that was read.
+     */
+    @Override
+    public synchronized void recover(IDataService store, Path dataFile) {
+        Path journal = journalOf(dataFile);
+        int replayed = 0;
+        boolean complete = true;
+        if (Files.exists(journal)) {
+            try (BufferedReader in = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    replay(store, (ObjectNode) mapper.readTree(line));
+                    replayed++;
+                }
+            } catch (IOException | RuntimeException e) {
+                // A line cut by a crash is the last one: the changes before it are kept, and the next save
+                // rewrites the data file rather than appending after that line
+                logger.error("Failed to replay the journal {} after {} changes", journal, replayed, e);
+                complete = false;
+            }
+            logger.info("Replayed {} changes from {}", replayed, journal);
+        }
+        base = complete ? dataFile.toAbsolutePath() : null;
+        savedVersion = store.getVersion();
+        journalEntries = replayed;
+    }
+
+    /**
+     * Deletes the journal of the data file, whose changes were made to the previous version of the file, and makes
+     * the new file the base of the next changes.
+     *
+     * @param store    The data service, which holds the data of the new file.
+     * @param dataFile The data file that was replaced.
+     */
+    @Override
+    public synchronized void discard(IDataService store, Path dataFile) {
+        Path journal = journalOf(dataFile);
+        try {
+            if (Files.deleteIfExists(journal)) {
+                logger.info("Discarded the journal {} of the replaced data file", journal);
+            }
+            base = dataFile.toAbsolutePath();
+        } catch (IOException e) {
+            // The journal would be replayed over the new file: rewrite the file at the next save instead
+            logger.error("Failed to delete the journal: {}", journal, e);
+            base = null;
+        }
+        savedVersion = store.getVersion();
+        journalEntries = 0;
+    }
+
+    /**
+     * Appends the changes since the previous save to the journal of the data file, or rewrites the data file.
+     *
+     * @param store    The data service.
+     * @param dataFile The data file to save to.
+     * @return true if the changes were successfully saved, false otherwise.
+     */
+    @Override
+    public synchronized boolean persist(IDataService store, Path dataFile) {
+        if (dataFile.toAbsolutePath().equals(base) && store.getVersion() == savedVersion) {
+            return true;
+        }
+        List<ChangeEvent> events = store.getChangeLog().getEventsSince(savedVersion);
+        if (events == null || !dataFile.toAbsolutePath().equals(base)
+                || journalEntries + events.size() > compactionThreshold
+                || events.stream().anyMatch(event -> event.getOperation() == ChangeEvent.Operation.RELOADED)) {
+            return compact(store, dataFile);
+        }
+        Path journal = journalOf(dataFile);
+        try (FileOutputStream file = new FileOutputStream(journal.toFile(), true);
+             Writer out = new OutputStreamWriter(file, StandardCharsets.UTF_8)) {
+            for (ChangeEvent event : events) {
+                ObjectNode line = mapper.createObjectNode();
+                line.put("version", event.getVersion());
+                line.put("entity", event.getEntity().name());
+                line.put("operation", event.getOperation().name());
+                line.set("before", mapper.valueToTree(event.getBefore()));
+                line.set("after", mapper.valueToTree(event.getAfter()));
+                out.write(mapper.writeValueAsString(line));
+                out.write('\n');
+            }
+            out.flush();
+            file.getFD().sync();
+        } catch (IOException e) {
+            logger.error("Failed to append to the journal: {}", journal, e);
+            return false;
+        }
+        journalEntries += events.size();
+        savedVersion = events.get(events.size() - 1).getVersion();
+        logger.info("Journaled {} changes to {} ({} since the last compaction)", events.size(), journal, journalEntries);
+        return true;
+    }
+
+    /**
+     * Rewrites the data file with the current data and deletes its journal.
+     *
+     * @param store    The data service.
+     * @param dataFile The data file to rewrite.
+     * @return true if the data file was successfully rewritten, false otherwise.
+     */
+    synchronized boolean compact(IDataService store, Path dataFile) {
+        long version = store.getVersion();
+        Path temporary = dataFile.resolveSibling(dataFile.getFileName() + ".tmp");
+        if (!store.saveData(temporary.toString())) {
+            return false;
+        }
+        try {
+            Files.move(temporary, dataFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(journalOf(dataFile));
+        } catch (IOException e) {
+            logger.error("Failed to compact the journal into: {}", dataFile, e);
+            return false;
+        }
+        base = dataFile.toAbsolutePath();
+        savedVersion = version;
+        journalEntries = 0;
+        logger.info("Compacted the journal into {} at version {}", dataFile, version);
+        return true;
+    }
+
+    /**
+     * Gets the number of changes in the journal of the data file.
+     *
+     * @return The changes appended since the data file was last rewritten.
+     */
+    public synchronized int getJournalEntries() {
+        return journalEntries;
+    }
+
+    /**
+     * Gets the journal of a data file.
+     *
+     * @param dataFile The data file.
+     * @return The path of its journal, which may not exist.
+     */
+    public static Path journalOf(Path dataFile) {
+        return dataFile.resolveSibling(dataFile.getFileName() + JOURNAL_SUFFIX);
+    }
+
+    private void replay(IDataService store, ObjectNode line) {
+        ChangeEvent.Entity entity = ChangeEvent.Entity.valueOf(line.get("entity").asText());
+        ChangeEvent.Operation operation = ChangeEvent.Operation.valueOf(line.get("operation").asText());
+        switch (entity) {
+            case PERSON:
+                if (operation == ChangeEvent.Operation.DELETED) {
+                    Person before = mapper.convertValue(line.get("before"), Person.class);
+                    store.deletePerson(before.getFirstName(), before.getLastName());
+                } else {
+                    Person after = mapper.convertValue(line.get("after"), Person.class);
+                    if (!store.updatePerson(after)) {
+                        store.addPerson(after);
+                    }
+                }
+                break;
+            case MEDICAL_RECORD:
+                if (operation == ChangeEvent.Operation.DELETED) {
+                    MedicalRecord before = mapper.convertValue(line.get("before"), MedicalRecord.class);
+                    store.deleteMedicalRecord(before.getFirstName(), before.getLastName());
+                } else {
+                    MedicalRecord after = mapper.convertValue(line.get("after"), MedicalRecord.class);
+                    if (!store.updateMedicalRecord(after)) {
+                        store.addMedicalRecord(after);
+                    }
+                }
+                break;
+            case FIRE_STATION:
+                if (operation == ChangeEvent.Operation.DELETED) {
+                    store.deleteFireStation(mapper.convertValue(line.get("before"), FireStation.class).getAddress());
+                } else if (operation == ChangeEvent.Operation.UPDATED) {
+                    store.updateFireStation(mapper.convertValue(line.get("after"), FireStation.class));
+                } else {
+                    FireStation after = mapper.convertValue(line.get("after"), FireStation.class);
+                    boolean exists = store.getFireStations().stream().anyMatch(fireStation ->
+                            fireStation.getAddress().equals(after.getAddress()) && fireStation.getStation() == after.getStation());
+                    if (!exists) {
+                        store.addFireStation(after);
+                    }
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unexpected change in the journal: " + entity + " " + operation);
+        }
+    }
+}
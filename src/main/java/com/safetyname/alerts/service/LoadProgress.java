@@ -0,0 +1,173 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.dto.LoadStatus;
+import com.safetyname.alerts.store.CountingInputStream;
+import com.safetyname.alerts.store.Dataset;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Progress of the last read of a data file by a data service, updated by the reading threads and read by any other.
+ * <p>
+ * A read goes through the {@link Phase phases} in order: the file is parsed while its bytes are counted, the
+ * dataset is loaded and indexed, and the changes saved after the file was written are recovered. The data files of
+ * partitions are parsed together, and their bytes counted as those of one file.
+ */
+public class LoadProgress {
+
+    /**
+     * The phase of a read.
+     */
+    public enum Phase {
+        /** No read started yet. */
+        PENDING,
+        /** The data file is being parsed. */
+        READING,
+        /** The parsed dataset is being loaded and indexed. */
+        INDEXING,
+        /** The changes saved after the data file was written are being applied. */
+        RECOVERING,
+        /** The data file was read. */
+        READY,
+        /** The data file could not be read. */
+        FAILED
+    }
+
+    private volatile Phase phase = Phase.PENDING;
+    private volatile String file;
+    private volatile long totalBytes;
+    private final List<CountingInputStream> inputs = new CopyOnWriteArrayList<>();
+    private volatile long persons;
+    private volatile long fireStations;
+    private volatile long medicalRecords;
+    private volatile long startNanos;
+    private volatile long endNanos;
+    private volatile String error;
+
+    /**
+     * Starts following the read of a data file.
+     *
+     * @param file The data file being read.
+     */
+    public void start(Path file) {
+        start(List.of(file));
+    }
+
+    /**
+     * Starts following the read of the data files of partitions, parsed together.
+     *
+     * @param files The data files being read.
+     */
+    public void start(List<Path> files) {
+        long size = 0;
+        for (Path file : files) {
+            try {
+                size += Files.size(file);
+            } catch (IOException e) {
+                // Counted as empty
+            }
+        }
+        this.file = files.stream().map(String::valueOf).collect(Collectors.joining(", "));
+        this.totalBytes = size;
+        this.inputs.clear();
+        this.persons = 0;
+        this.fireStations = 0;
+        this.medicalRecords = 0;
+        this.error = null;
+        this.startNanos = System.nanoTime();
+        this.endNanos = 0;
+        this.phase = Phase.READING;
+    }
+
+    /**
+     * Counts the bytes parsed from a data file; any thread can parse one.
+     *
+     * @param in The stream of the data file.
+     * @return The stream to parse.
+     */
+    public InputStream track(InputStream in) {
+        CountingInputStream counting = new CountingInputStream(in);
+        inputs.add(counting);
+        return counting;
+    }
+
+    /**
+     * Records that the data file was parsed and its dataset is being loaded.
+     *
+     * @param dataset The parsed dataset.
+     */
+    public void indexing(Dataset dataset) {
+        this.persons = dataset.getPersons().size();
+        this.fireStations = dataset.getFireStations().size();
+        this.medicalRecords = dataset.getMedicalRecords().size();
+        this.phase = Phase.INDEXING;
+    }
+
+    /**
+     * Records that the changes saved after the data file was written are being applied.
+     */
+    public void recovering() {
+        this.phase = Phase.RECOVERING;
+    }
+
+    /**
+     * Records the end of the read.
+     */
+    public void ready() {
+        this.endNanos = System.nanoTime();
+        this.phase = Phase.READY;
+    }
+
+    /**
+     * Records the failure of the read.
+     *
+     * @param error The reason of the failure.
+     */
+    public void failed(String error) {
+        this.error = error;
+        this.endNanos = System.nanoTime();
+        this.phase = Phase.FAILED;
+    }
+
+    /**
+     * Gets the phase of the last read.
+     *
+     * @return The current phase.
+     */
+    public Phase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Gets the progress of the last read.
+     *
+     * @param ready Whether the application serves the data.
+     * @return The status of the read.
+     */
+    public LoadStatus getStatus(boolean ready) {
+        Phase current = phase;
+        if (current == Phase.PENDING) {
+            return new LoadStatus(ready, current.name(), null, 0, 0, 0, 0, 0, 0, 0, null);
+        }
+        long total = totalBytes;
+        long read = total;
+        if (current == Phase.READING || current == Phase.FAILED) {
+            long count = 0;
+            for (CountingInputStream in : inputs) {
+                count += in.getCount();
+            }
+            read = Math.min(count, total);
+        }
+        int percent = total == 0 ? (current == Phase.READY ? 100 : 0) : (int) (read * 100 / total);
+        long end = endNanos;
+        long elapsedMillis = ((end != 0 ? end : System.nanoTime()) - startNanos) / 1_000_000;
+        return new LoadStatus(ready, current.name(), file, read, total, percent,
+                persons, fireStations, medicalRecords, elapsedMillis, error);
+    }
+}
@@ -0,0 +1,109 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.controller.MedicalAlertController;
+import com.safetyname.alerts.dto.MedicalAlertResponse;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Service responsible for finding residents by medication or allergy.
+ * <p>
+ * The medical records are looked up through the inverted indexes of the data layer, then joined
+ * with the persons by name and restricted to the addresses covered by the requested fire stations
+ * and/or the requested addresses.
+ */
+@Service
+public class MedicalAlertService implements IMedicalAlertService {
+
+    private static final Logger logger = LogManager.getLogger(MedicalAlertController.class);
+    private final IDataService dataService;
+
+    /**
+     * Constructor for MedicalAlertService.
+     *
+     * @param dataService The data service used to access persons, medical records and fire stations.
+     */
+    @Autowired
+    public MedicalAlertService(IDataService dataService) {
+        this.dataService = dataService;
+    }
+
+    /**
+     * Retrieves the residents taking a medication, whatever its dosage.
+     *
+     * @param medication     The drug name to search for.
+     * @param stationNumbers The fire stations whose coverage restricts the search, or null.
+     * @param addresses      The addresses restricting the search, or null.
+     * @return A list of {@link MedicalAlertResponse}, or an empty list if nobody matches.
+     */
+    public List<MedicalAlertResponse> getPersonsByMedication(String medication, List<Integer> stationNumbers, List<String> addresses) {
+        logger.info("Request received for medication {} in stations {} and addresses {}", medication, stationNumbers, addresses);
+        return buildResponses(dataService.getMedicalRecordsByMedication(medication), stationNumbers, addresses);
+    }
+
+    /**
+     * Retrieves the residents having an allergy.
+     *
+     * @param allergy        The allergy to search for.
+     * @param stationNumbers The fire stations whose coverage restricts the search, or null.
+     * @param addresses      The addresses restricting the search, or null.
+     * @return A list of {@link MedicalAlertResponse}, or an empty list if nobody matches.
+     */
+    public List<MedicalAlertResponse> getPersonsByAllergy(String allergy, List<Integer> stationNumbers, List<String> addresses) {
+        logger.info("Request received for allergy {} in stations {} and addresses {}", allergy, stationNumbers, addresses);
+        return buildResponses(dataService.getMedicalRecordsByAllergy(allergy), stationNumbers, addresses);
+    }
+
+    /**
+     * Joins the matching medical records with their persons and keeps those living in the coverage.
+     * <p>
+     * The coverage is the union of the addresses served by the given stations and of the given addresses.
+     * When neither stations nor addresses are given, every resident is covered.
+     */
+    private List<MedicalAlertResponse> buildResponses(List<MedicalRecord> medicalRecords, List<Integer> stationNumbers, List<String> addresses) {
+        if (medicalRecords == null || medicalRecords.isEmpty()) {
+            logger.warn("No medical records found for the requested term.");
+            return Collections.emptyList();
+        }
+
+        boolean restricted = (stationNumbers != null && !stationNumbers.isEmpty()) || (addresses != null && !addresses.isEmpty());
+        Set<String> coverage = new HashSet<>();
+        if (stationNumbers != null) {
+            stationNumbers.forEach(stationNumber -> coverage.addAll(dataService.getAddressesByStationNumber(stationNumber)));
+        }
+        if (addresses != null) {
+            coverage.addAll(addresses);
+        }
+
+        List<MedicalAlertResponse> responses = new ArrayList<>();
+        for (MedicalRecord record : medicalRecords) {
+            for (Person person : dataService.getPersonsByName(record.getFirstName(), record.getLastName())) {
+                if (restricted && !coverage.contains(person.getAddress())) {
+                    continue;
+                }
+                responses.add(new MedicalAlertResponse(
+                        person.getFirstName(),
+                        person.getLastName(),
+                        person.getAddress(),
+                        person.getPhone(),
+                        CalculateAgeService.calculateAge(record.getBirthdate()),
+                        record.getMedications(),
+                        record.getAllergies()
+                ));
+            }
+        }
+
+        logger.info("Found {} person(s) matching the requested term.", responses.size());
+        return responses;
+    }
+}
@@ -0,0 +1,105 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.store.ColumnStorage;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Column-wise implementation of {@link IDataService} keeping the dataset outside of the Java heap,
+ * selected with {@code data.store=offheap}.
+ * <p>
+ * Every column, dictionary and join table of the persons, fire station mappings and medical records is
+ * stored in direct buffers (see {@link ColumnStorage#OFF_HEAP}), so the number of objects the garbage
+ * collector has to trace does not depend on the size of the dataset. Only the entities returned by a
+ * query and the prefix indexes used for autocomplete, whose size depends on the number of distinct last
+ * names and addresses, live on the heap.
+ * <p>
+ * When {@code data.snapshot} names a file, the columns are also persisted there in their in-memory layout
+ * each time the JSON file is read or saved. At startup, if the snapshot was built from the current version
+ * of the JSON file, it is memory-mapped and queried in place instead of parsing the JSON file.
+ */
+@Service
+@ConditionalOnProperty(name = "data.store", havingValue = "offheap")
+public class OffHeapDataService extends ColumnarDataService {
+
+    private static final Logger logger = LogManager.getLogger(OffHeapDataService.class);
+
+    @Value("${data.snapshot:}")
+    private String snapshotPath;
+
+    /**
+     * Default constructor for OffHeapDataService.
+     */
+    public OffHeapDataService() {
+        super(ColumnStorage.OFF_HEAP);
+    }
+
+    /**
+     * Maps the snapshot of a data file if it is up to date, otherwise reads the data file and writes its snapshot.
+     *
+     * @param file The data file to read from.
+     * @return true if the data was successfully mapped or read, false otherwise.
+     */
+    @Override
+    protected boolean readDataFile(Path file) {
+        if (snapshotPath != null && !snapshotPath.isEmpty() && Files.exists(Path.of(snapshotPath))) {
+            try {
+                mapSnapshot(Path.of(snapshotPath), file);
+                return true;
+            } catch (IOException e) {
+                logger.warn("Snapshot not used, reading the data file instead: {}", e.getMessage());
+            }
+        }
+        boolean read = super.readDataFile(file);
+        if (read) {
+            snapshot(file.toString());
+        }
+        return read;
+    }
+
+    /**
+     * Saves the current data to a JSON file, then refreshes the snapshot.
+     *
+     * @param filePath The path to the file where data should be saved.
+     * @return true if the data was successfully saved, false otherwise.
+     */
+    @Override
+    public synchronized boolean saveData(String filePath) {
+        boolean saved = super.saveData(filePath);
+        if (saved) {
+            snapshot(filePath);
+        }
+        return saved;
+    }
+
+    /**
+     * Sets the snapshot file, or disables snapshots with null or an empty path.
+     *
+     * @param snapshotPath The path of the snapshot file.
+     */
+    public void setSnapshotPath(String snapshotPath) {
+        this.snapshotPath = snapshotPath;
+    }
+
+    /**
+     * Writes the snapshot of the data held in a JSON file, if snapshots are enabled.
+     * A failure is logged: the JSON file remains the reference.
+     */
+    private void snapshot(String source) {
+        if (snapshotPath == null || snapshotPath.isEmpty()) {
+            return;
+        }
+        try {
+            writeSnapshot(Path.of(snapshotPath), Path.of(source));
+        } catch (IOException e) {
+            logger.warn("Failed to write snapshot: {}", snapshotPath, e);
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.safetyname.alerts.controller.PersonInfoLastNameController;
 import com.safetyname.alerts.dto.PersonInfoLastNameResponse;
 import com.safetyname.alerts.entity.MedicalRecord;
 import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.index.ResidentQuery;
+import com.safetyname.alerts.json.FieldSet;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -48,6 +50,18 @@ public class PersonInfoLastNameService implements IPersonInfoLastNameService {
      *         or an empty list if no persons or medical records are found.
      */
     public List<PersonInfoLastNameResponse> getPersonInfoLastNameService(String lastName) {
+        return getPersonInfoLastNameService(lastName, FieldSet.ALL);
+    }
+
+    /**
+     * Retrieves information about persons with a given last name, limited to some fields.
+     *
+     * @param lastName The last name to search for.
+     * @param fields   The fields of {@link PersonInfoLastNameResponse} requested by the caller; ages are only
+     *                 computed when requested.
+     * @return A list of {@link PersonInfoLastNameResponse}, or an empty list if no persons or medical records are found.
+     */
+    public List<PersonInfoLastNameResponse> getPersonInfoLastNameService(String lastName, FieldSet fields) {
         logger.info("Received request to get person information for last name: {}", lastName);
 
         if (lastName == null || lastName.trim().isEmpty()) {
@@ -55,12 +69,66 @@ public class PersonInfoLastNameService implements IPersonInfoLastNameService {
             return Collections.emptyList();
         }
 
-        List<Person> persons = dataService.getPersonsByLastName(lastName);
+        List<Person> persons = dataService.findPersons(ResidentQuery.ofLastName(lastName));
         if (persons.isEmpty()) {
             logger.warn("No persons found for last name: {}", lastName);
             return Collections.emptyList();
         }
 
+        return buildResponses(persons, lastName, fields);
+    }
+
+    /**
+     * Retrieves detailed information about persons whose last name sounds like the given one.
+     * <p>
+     * This method looks up candidates through the phonetic index of the data layer, so that a name
+     * misspelled over the phone (for example "Boyde" for "Boyd") still finds the matching persons.
+     * Candidates are ranked with the closest spellings first.
+     *
+     * @param lastName The last name to search for, possibly misspelled.
+     * @return A ranked list of {@link PersonInfoLastNameResponse} containing the information about the persons,
+     *         or an empty list if no persons or medical records are found.
+     */
+    public List<PersonInfoLastNameResponse> getPersonInfoPhoneticLastNameService(String lastName) {
+        return getPersonInfoPhoneticLastNameService(lastName, FieldSet.ALL);
+    }
+
+    /**
+     * Retrieves information about persons whose last name sounds like the given one, limited to some fields.
+     *
+     * @param lastName The last name to search for, possibly misspelled.
+     * @param fields   The fields of {@link PersonInfoLastNameResponse} requested by the caller.
+     * @return A ranked list of {@link PersonInfoLastNameResponse}, or an empty list if no persons or medical records are found.
+     */
+    public List<PersonInfoLastNameResponse> getPersonInfoPhoneticLastNameService(String lastName, FieldSet fields) {
+        logger.info("Received request to get person information for last name sounding like: {}", lastName);
+
+        if (lastName == null || lastName.trim().isEmpty()) {
+            logger.error("Bad request in getPersonInfoPhoneticLastName - Last name is null or empty");
+            return Collections.emptyList();
+        }
+
+        List<Person> persons = dataService.getPersonsByPhoneticLastName(lastName);
+        if (persons.isEmpty()) {
+            logger.warn("No persons found for a last name sounding like: {}", lastName);
+            return Collections.emptyList();
+        }
+
+        return buildResponses(persons, lastName, fields);
+    }
+
+    /**
+     * Builds the responses for the given persons by joining them with their medical records.
+     * <p>
+     * Persons without a medical record are left out and the order of the persons is preserved.
+     * Ages, which parse the birthdates, are only computed when requested.
+     *
+     * @param persons  The persons to describe.
+     * @param lastName The last name that was requested, used for logging.
+     * @param fields   The requested fields.
+     * @return A list of {@link PersonInfoLastNameResponse}, or an empty list if no medical records are found.
+     */
+    private List<PersonInfoLastNameResponse> buildResponses(List<Person> persons, String lastName, FieldSet fields) {
         List<MedicalRecord> medicalRecords = dataService.getMedicalRecordsByPersons(persons);
         if (medicalRecords.isEmpty()) {
             logger.warn("No medical records found for persons with last name: {}", lastName);
@@ -75,6 +143,7 @@ public class PersonInfoLastNameService implements IPersonInfoLastNameService {
                 ));
 
         // Build the response by matching persons with their medical records
+        boolean withAge = fields.includes("age");
         List<PersonInfoLastNameResponse> responses = persons.stream()
                 .map(person -> {
                     String fullName = person.getFirstName() + " " + person.getLastName();
@@ -83,7 +152,7 @@ public class PersonInfoLastNameService implements IPersonInfoLastNameService {
                         return new PersonInfoLastNameResponse(
                                 person.getLastName(),
                                 person.getAddress(),
-                                CalculateAgeService.calculateAge(record.getBirthdate()),
+                                withAge ? CalculateAgeService.calculateAge(record.getBirthdate()) : -1,
                                 person.getEmail(),
                                 record.getMedications(),
                                 record.getAllergies()
@@ -0,0 +1,87 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.controller.ResidentController;
+import com.safetyname.alerts.dto.MedicalAlertResponse;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.index.QueryPlan;
+import com.safetyname.alerts.index.ResidentQuery;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Service responsible for combined searches over the residents.
+ * <p>
+ * The criteria (stations, addresses, cities, last names, age range, medications and allergies) are
+ * resolved by the data layer, which plans the access path; this service only joins the matching persons with their
+ * medical record to build the response.
+ */
+@Service
+public class ResidentService implements IResidentService {
+
+    private static final Logger logger = LogManager.getLogger(ResidentController.class);
+    private final IDataService dataService;
+
+    /**
+     * Constructor for ResidentService.
+     *
+     * @param dataService The data service used to search persons and read their medical records.
+     */
+    @Autowired
+    public ResidentService(IDataService dataService) {
+        this.dataService = dataService;
+    }
+
+    /**
+     * Retrieves the residents matching every criterion of the query.
+     * <p>
+     * Residents without a medical record are returned with an age of -1 and no medications or allergies.
+     *
+     * @param query The criteria of the search.
+     * @return A list of {@link MedicalAlertResponse}, or an empty list if nobody matches.
+     */
+    public List<MedicalAlertResponse> findResidents(ResidentQuery query) {
+        logger.info("Request received for a combined resident search.");
+
+        List<Person> persons = dataService.findPersons(query);
+        if (persons == null || persons.isEmpty()) {
+            logger.warn("No resident matches the search.");
+            return Collections.emptyList();
+        }
+
+        List<MedicalAlertResponse> responses = new ArrayList<>(persons.size());
+        for (Person person : persons) {
+            List<MedicalRecord> records = dataService.getMedicalRecordsByName(person.getFirstName(), person.getLastName());
+            MedicalRecord record = records.isEmpty() ? null : records.get(0);
+            responses.add(new MedicalAlertResponse(
+                    person.getFirstName(),
+                    person.getLastName(),
+                    person.getAddress(),
+                    person.getPhone(),
+                    record == null ? -1 : CalculateAgeService.calculateAge(record.getBirthdate()),
+                    record == null ? Collections.emptyList() : record.getMedications(),
+                    record == null ? Collections.emptyList() : record.getAllergies()
+            ));
+        }
+
+        logger.info("Found {} resident(s) matching the search.", responses.size());
+        return responses;
+    }
+
+    /**
+     * Describes the access path the data layer would follow for a search.
+     *
+     * @param query The criteria of the search.
+     * @return The plan chosen by the data layer.
+     */
+    public QueryPlan explain(ResidentQuery query) {
+        logger.info("Request received to explain a combined resident search.");
+        return dataService.explainPersons(query);
+    }
+}
@@ -0,0 +1,131 @@
+package com.safetyname.alerts.service;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Keeps computed responses, typically {@link SharedResponse} instances with their serialized JSON, for as
+ * long as the data they were computed from does not change.
+ * <p>
+ * Entries belong to a generation made of a data version, see {@link IDataService#getVersion()}, and of the
+ * current day, since responses holding ages change at midnight. The first lookup with a newer version or on
+ * a new day starts a new, empty generation, which drops every entry at once. Misses of the same key are
+ * coalesced with a {@link SingleFlight}. The number of entries of a generation is bounded; once full, new
+ * values are computed but not kept.
+ * <p>
+ * Callers read the data version before reading the data, so a value may be newer than its version, never older.
+ *
+ * @param <K> The type of the keys, such as an address or a list of station numbers.
+ * @param <V> The type of the values, never null.
+ */
+public class ResponseCache<K, V> {
+
+    /**
+     * Default number of entries kept per generation.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final int maxEntries;
+    private final AtomicReference<Generation<K, V>> current = new AtomicReference<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private static final class Generation<K, V> {
+        private final long version;
+        private final LocalDate day;
+        private final ConcurrentMap<K, V> entries = new ConcurrentHashMap<>();
+        private final SingleFlight<K, V> flights = new SingleFlight<>();
+
+        private Generation(long version, LocalDate day) {
+            this.version = version;
+            this.day = day;
+        }
+    }
+
+    /**
+     * Creates a cache keeping at most {@link #DEFAULT_MAX_ENTRIES} entries.
+     */
+    public ResponseCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxEntries The maximum number of entries kept per generation.
+     */
+    public ResponseCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Gets the value of a key at a data version, computing it on a miss.
+     *
+     * @param version     The data version, read before any data used by the computation.
+     * @param key         The key of the value.
+     * @param computation The computation of the value, returning a non-null value.
+     * @return The cached value, the value computed by a concurrent caller, or the value computed by this call.
+     */
+    public V get(long version, K key, Supplier<V> computation) {
+        Generation<K, V> generation = generation(version, LocalDate.now());
+        if (generation == null) {
+            // The data changed since the caller read its version: the value cannot be kept.
+            misses.increment();
+            return computation.get();
+        }
+        V cached = generation.entries.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        return generation.flights.execute(key, () -> {
+            V value = generation.entries.get(key);
+            if (value == null) {
+                value = computation.get();
+                if (generation.entries.size() < maxEntries) {
+                    generation.entries.put(key, value);
+                }
+            }
+            return value;
+        });
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return The number of hits since this cache was created.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that ran or awaited a computation.
+     *
+     * @return The number of misses since this cache was created.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private Generation<K, V> generation(long version, LocalDate day) {
+        while (true) {
+            Generation<K, V> generation = current.get();
+            if (generation != null && generation.version == version && generation.day.equals(day)) {
+                return generation;
+            }
+            if (generation != null && (generation.version > version || generation.day.isAfter(day))) {
+                return null;
+            }
+            Generation<K, V> fresh = new Generation<>(version, day);
+            if (current.compareAndSet(generation, fresh)) {
+                return fresh;
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.safetyname.alerts.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent computations of the same key into one.
+ * <p>
+ * The first caller of {@link #execute(Object, Supplier)} for a key runs the computation; the callers
+ * arriving with an equal key while it runs wait for it and receive the same value, or the same exception.
+ * The key is forgotten as soon as the computation completes, so nothing is cached: a caller arriving
+ * afterwards runs a new computation. Keys must therefore include everything the value depends on,
+ * such as the version of the data.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the computed values.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Runs a computation, unless one is already running for an equal key, in which case its result is awaited.
+     *
+     * @param key         The key identifying the computation.
+     * @param computation The computation, run at most once for all the concurrent callers with an equal key.
+     * @return The value computed by this caller or by the caller that was already running the computation.
+     */
+    public V execute(K key, Supplier<V> computation) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+        try {
+            V value = computation.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Gets the number of calls that received the value of a computation run by another caller.
+     *
+     * @return The number of coalesced calls since this instance was created.
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
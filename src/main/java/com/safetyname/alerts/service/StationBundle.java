@@ -0,0 +1,53 @@
+package com.safetyname.alerts.service;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * An offline bundle of one fire station, as built by the {@link BundleService}.
+ * <p>
+ * The bundle file is never modified: a change of the station data produces a new file with a new id, the hash
+ * of its content, so a download can be resumed against the same id with byte ranges.
+ * <strong>Note:</strong> This class uses Lombok annotations to automatically generate getters.
+ * Make sure Lombok is properly configured in your development environment.
+ */
+@Getter
+public class StationBundle {
+
+    private final int station;
+    private final String id;
+    private final long version;
+    private final Path path;
+    private final long size;
+    private final Instant lastModified;
+
+    /**
+     * Creates a bundle.
+     *
+     * @param station      The fire station number.
+     * @param id           The hash of the file content, identifying the bundle.
+     * @param version      The data version the bundle was built from.
+     * @param path         The bundle file.
+     * @param size         The size of the file, in bytes.
+     * @param lastModified When the bundle was built.
+     */
+    public StationBundle(int station, String id, long version, Path path, long size, Instant lastModified) {
+        this.station = station;
+        this.id = id;
+        this.version = version;
+        this.path = path;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Gets the name a downloaded bundle file is saved under.
+     *
+     * @return The file name, with the station number and the bundle id.
+     */
+    public String getFileName() {
+        return "station-" + station + "-" + id + BundleService.FILE_SUFFIX;
+    }
+}
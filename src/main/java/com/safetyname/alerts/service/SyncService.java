@@ -0,0 +1,246 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.dto.SyncResponse;
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Service computing the changes a replica of the data covered by some fire stations needs to catch up.
+ * <p>
+ * A replica holds the fire station mappings of its stations, the persons living at the covered addresses and
+ * their medical records, as of a data version. From the retained {@link ChangeEvent}s after that version, the
+ * service compacts the changes per entity: the replica receives the current state of every entity that changed
+ * or entered its coverage, and the last state it knows of every entity that was deleted or left its coverage;
+ * an entity added then deleted, or changed back, within the window is not sent at all. Coverage changes are
+ * taken into account: a mapping moving an address into the stations brings its residents and their medical
+ * records, one moving it out removes them.
+ * <p>
+ * Versions are handed over as change log positions, {@code <epoch>-<version>}, see {@link ChangeLog#positionOf(long)}:
+ * versions start again at 0 when the application restarts, and the epoch tells a replica of a previous run from
+ * one of this run. When the position is from another epoch, the version is no longer in the change log window,
+ * is ahead of it, or the dataset was reloaded since, the whole coverage is returned and replaces the replica. The current states are read after the events, so
+ * a response may hold states newer than its version; they are sent again by the next synchronization, which
+ * makes applying it idempotent.
+ */
+@Service
+public class SyncService implements ISyncService {
+
+    private static final Logger logger = LogManager.getLogger(SyncService.class);
+
+    private final IDataService dataService;
+
+    /**
+     * Constructor for SyncService that initializes the data service.
+     *
+     * @param dataService The data service whose change log and data are synchronized.
+     */
+    public SyncService(IDataService dataService) {
+        this.dataService = dataService;
+    }
+
+    /**
+     * Gets the changes of the data covered by fire stations since a version.
+     *
+     * @param stationNumbers The fire stations covered by the replica.
+     * @param since          The position of the replica, as returned in a previous response, or null if it has no
+     *                       data yet.
+     * @return The compacted changes after the version, or the whole coverage with {@code full} set.
+     * @throws IllegalArgumentException if {@code since} is not a change log position.
+     */
+    public SyncResponse getChanges(List<Integer> stationNumbers, String since) {
+        Set<Integer> stations = new LinkedHashSet<>(stationNumbers);
+        ChangeLog changeLog = dataService.getChangeLog();
+        Long version = since == null ? null : changeLog.versionAt(since);
+        List<ChangeEvent> events = version == null ? null : changeLog.getEventsSince(version);
+        if (events == null || events.stream().anyMatch(event -> event.getOperation() == ChangeEvent.Operation.RELOADED)) {
+            logger.info("Full synchronization of stations {} requested from version {}", stations, since);
+            return getSnapshot(stations);
+        }
+        logger.info("Synchronizing stations {} from version {} with {} event(s)", stations, since, events.size());
+        return new Delta(stations, changeLog.positionOf(version + events.size()), events).compute();
+    }
+
+    private SyncResponse getSnapshot(Set<Integer> stations) {
+        // Read first: states changed meanwhile are sent again by the next synchronization
+        ChangeLog changeLog = dataService.getChangeLog();
+        String version = changeLog.positionOf(changeLog.getVersion());
+        Set<Person> persons = new LinkedHashSet<>();
+        List<FireStation> fireStations = new ArrayList<>();
+        for (int station : stations) {
+            persons.addAll(dataService.getPersonsByStationNumber(station));
+            for (String address : dataService.getAddressesByStationNumber(station)) {
+                fireStations.add(new FireStation(address, station));
+            }
+        }
+        List<Person> personList = new ArrayList<>(persons);
+        return new SyncResponse(version, true, personList, dataService.getMedicalRecordsByPersons(personList),
+                fireStations, List.of(), List.of(), List.of());
+    }
+
+    /**
+     * Compaction of the events after a version, for one set of stations.
+     */
+    private final class Delta {
+        private final Set<Integer> stations;
+        private final String version;
+        private final List<ChangeEvent> events;
+        private final Map<Integer, Set<String>> addressesByStation = new HashMap<>();
+        // State of each changed entity as of the replica version: the "before" of its first event
+        private final Map<List<String>, Person> personsThen = new LinkedHashMap<>();
+        private final Map<List<String>, MedicalRecord> medicalRecordsThen = new LinkedHashMap<>();
+        private final Map<Map.Entry<String, Integer>, Boolean> mappingsThen = new LinkedHashMap<>();
+        // Coverage of each person considered, as of the replica version and now
+        private final Map<List<String>, boolean[]> coverage = new HashMap<>();
+
+        private Delta(Set<Integer> stations, String version, List<ChangeEvent> events) {
+            this.stations = stations;
+            this.version = version;
+            this.events = events;
+        }
+
+        private SyncResponse compute() {
+            for (ChangeEvent event : events) {
+                switch (event.getEntity()) {
+                    case PERSON:
+                        Person person = (Person) (event.getBefore() != null ? event.getBefore() : event.getAfter());
+                        putFirst(personsThen, nameKey(person.getFirstName(), person.getLastName()), (Person) event.getBefore());
+                        break;
+                    case MEDICAL_RECORD:
+                        MedicalRecord record = (MedicalRecord) (event.getBefore() != null ? event.getBefore() : event.getAfter());
+                        putFirst(medicalRecordsThen, nameKey(record.getFirstName(), record.getLastName()), (MedicalRecord) event.getBefore());
+                        break;
+                    case FIRE_STATION:
+                        if (event.getBefore() != null) {
+                            mappingsThen.putIfAbsent(mappingKey((FireStation) event.getBefore()), true);
+                        }
+                        if (event.getAfter() != null) {
+                            mappingsThen.putIfAbsent(mappingKey((FireStation) event.getAfter()), false);
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            for (int station : stations) {
+                addressesByStation.put(station, dataService.getAddressesByStationNumber(station));
+            }
+
+            List<FireStation> fireStations = new ArrayList<>();
+            List<FireStation> deletedFireStations = new ArrayList<>();
+            Set<String> movedAddresses = new LinkedHashSet<>();
+            mappingsThen.forEach((mapping, existedThen) -> {
+                if (!stations.contains(mapping.getValue())) {
+                    return;
+                }
+                boolean existsNow = existsNow(mapping);
+                if (existsNow && !existedThen) {
+                    fireStations.add(new FireStation(mapping.getKey(), mapping.getValue()));
+                } else if (existedThen && !existsNow) {
+                    deletedFireStations.add(new FireStation(mapping.getKey(), mapping.getValue()));
+                }
+                if (coveredThen(mapping.getKey()) != coveredNow(mapping.getKey())) {
+                    movedAddresses.add(mapping.getKey());
+                }
+            });
+
+            // Residents of the addresses entering or leaving the coverage, unchanged themselves
+            Map<List<String>, Person> candidates = new LinkedHashMap<>(personsThen);
+            for (String address : movedAddresses) {
+                for (Person person : dataService.getPersonsByAddress(address)) {
+                    candidates.putIfAbsent(nameKey(person.getFirstName(), person.getLastName()), person);
+                }
+            }
+            List<Person> persons = new ArrayList<>();
+            List<Person> deletedPersons = new ArrayList<>();
+            Set<List<String>> medicalCandidates = new LinkedHashSet<>(medicalRecordsThen.keySet());
+            candidates.forEach((name, then) -> {
+                Person now = first(dataService.getPersonsByName(name.get(0), name.get(1)));
+                boolean wasIn = then != null && coveredThen(then.getAddress());
+                boolean isIn = now != null && coveredNow(now.getAddress());
+                coverage.put(name, new boolean[]{wasIn, isIn});
+                if (isIn && (!wasIn || !now.equals(then))) {
+                    persons.add(now);
+                } else if (wasIn && !isIn) {
+                    deletedPersons.add(then);
+                }
+                if (wasIn != isIn) {
+                    medicalCandidates.add(name);
+                }
+            });
+
+            // A replica holds the medical records of its persons only
+            List<MedicalRecord> medicalRecords = new ArrayList<>();
+            List<MedicalRecord> deletedMedicalRecords = new ArrayList<>();
+            for (List<String> name : medicalCandidates) {
+                boolean[] covered = coverage.computeIfAbsent(name, this::currentCoverage);
+                MedicalRecord now = first(dataService.getMedicalRecordsByName(name.get(0), name.get(1)));
+                MedicalRecord then = medicalRecordsThen.containsKey(name) ? medicalRecordsThen.get(name) : now;
+                boolean hadThen = covered[0] && then != null;
+                boolean hasNow = covered[1] && now != null;
+                if (hasNow && (!hadThen || !now.equals(then))) {
+                    medicalRecords.add(now);
+                } else if (hadThen && !hasNow) {
+                    deletedMedicalRecords.add(then);
+                }
+            }
+
+            return new SyncResponse(version, false, persons, medicalRecords, fireStations,
+                    deletedPersons, deletedMedicalRecords, deletedFireStations);
+        }
+
+        private boolean[] currentCoverage(List<String> name) {
+            Person person = first(dataService.getPersonsByName(name.get(0), name.get(1)));
+            boolean covered = person != null && coveredNow(person.getAddress());
+            return new boolean[]{covered, covered};
+        }
+
+        private boolean existsNow(Map.Entry<String, Integer> mapping) {
+            Set<String> addresses = addressesByStation.get(mapping.getValue());
+            return addresses != null && addresses.contains(mapping.getKey());
+        }
+
+        private boolean coveredNow(String address) {
+            for (Set<String> addresses : addressesByStation.values()) {
+                if (addresses.contains(address)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean coveredThen(String address) {
+            for (int station : stations) {
+                Map.Entry<String, Integer> mapping = Map.entry(address, station);
+                Boolean existedThen = mappingsThen.get(mapping);
+                if (existedThen != null ? existedThen : existsNow(mapping)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static <K, V> void putFirst(Map<K, V> map, K key, V value) {
+        if (!map.containsKey(key)) {
+            map.put(key, value);
+        }
+    }
+
+    private static List<String> nameKey(String firstName, String lastName) {
+        return Arrays.asList(firstName, lastName);
+    }
+
+    private static Map.Entry<String, Integer> mappingKey(FireStation fireStation) {
+        return Map.entry(fireStation.getAddress(), fireStation.getStation());
+    }
+
+    private static <T> T first(List<T> values) {
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+}
@@ -0,0 +1,68 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.store.MedicalRecordTier;
+
+import java.util.List;
+
+/**
+ * Medical record of the object store whose medications and allergies live in a {@link MedicalRecordTier}.
+ * <p>
+ * The names and the birthdate stay in the object, which only keeps the id of its lists in the tier: reading them
+ * goes through the hot tier, and setting them appends both lists to the segment again, once for
+ * {@link #replace(List, List)}. The record serializes and compares like any {@link MedicalRecord}.
+ */
+class TieredMedicalRecord extends MedicalRecord {
+
+    private final MedicalRecordTier tier;
+    private final long lists;
+
+    /**
+     * Moves the lists of a record to a tier.
+     *
+     * @param medicalRecord The record to copy; it is not retained.
+     * @param tier          The tier holding the lists.
+     */
+    TieredMedicalRecord(MedicalRecord medicalRecord, MedicalRecordTier tier) {
+        super(medicalRecord.getFirstName(), medicalRecord.getLastName(), medicalRecord.getBirthdate(), null, null);
+        this.tier = tier;
+        this.lists = tier.store(medicalRecord.getMedications(), medicalRecord.getAllergies());
+    }
+
+    @Override
+    public List<String> getMedications() {
+        return tier.load(lists).getMedications();
+    }
+
+    @Override
+    public List<String> getAllergies() {
+        return tier.load(lists).getAllergies();
+    }
+
+    @Override
+    public void setMedications(List<String> medications) {
+        replace(medications, getAllergies());
+    }
+
+    @Override
+    public void setAllergies(List<String> allergies) {
+        replace(getMedications(), allergies);
+    }
+
+    /**
+     * Drops the lists from the hot tier, once the record is deleted.
+     */
+    void release() {
+        tier.release(lists);
+    }
+
+    /**
+     * Replaces both lists with a single entry of the segment.
+     *
+     * @param medications The new medications.
+     * @param allergies   The new allergies.
+     */
+    void replace(List<String> medications, List<String> allergies) {
+        tier.replace(lists, medications, allergies);
+    }
+}
@@ -0,0 +1,51 @@
+package com.safetyname.alerts.store;
+
+import org.apache.logging.log4j.LogManager;
+
+/**
+ * Compare-and-count over a contiguous array of birthdates stored as epoch days.
+ * <p>
+ * A person is at least {@code n} years old when they were born on or before the day {@code n} years
+ * before today, so adult counts and age histograms reduce to counting the values lower than or equal
+ * to a few thresholds. {@link #select()} returns the {@link VectorAgeKernel} when the
+ * {@code jdk.incubator.vector} module is present (JVM started with
+ * {@code --add-modules jdk.incubator.vector}) and the {@link ScalarAgeKernel} otherwise.
+ */
+public interface AgeKernel {
+
+    /**
+     * Epoch day used for a missing or invalid birthdate. It is later than any threshold, so such a
+     * person is never counted as older than an age.
+     */
+    int UNKNOWN_BIRTHDATE = Integer.MAX_VALUE;
+
+    /**
+     * Counts, for each threshold, the values lower than or equal to it, in one pass over the values.
+     *
+     * @param values     The epoch days.
+     * @param length     The number of values to read, from index 0.
+     * @param thresholds The thresholds, in any order.
+     * @return The count for each threshold, in the order of the thresholds.
+     */
+    int[] countAtMost(int[] values, int length, int[] thresholds);
+
+    /**
+     * Gets a short name of the implementation, for the logs.
+     *
+     * @return The name of the kernel.
+     */
+    String name();
+
+    /**
+     * Selects the fastest kernel available in this JVM.
+     *
+     * @return The vector kernel if the incubator module is present and the hardware has vector
+     *         registers, the scalar kernel otherwise.
+     */
+    static AgeKernel select() {
+        AgeKernel kernel = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent() && VectorAgeKernel.isAccelerated()
+                ? new VectorAgeKernel() : new ScalarAgeKernel();
+        LogManager.getLogger(AgeKernel.class).info("Age counting uses the {} kernel.", kernel.name());
+        return kernel;
+    }
+}
@@ -0,0 +1,52 @@
+package com.safetyname.alerts.store;
+
+/**
+ * Dictionary assigning a dense integer code to every distinct value of a column.
+ * <p>
+ * Columns store the codes instead of the strings, so equality tests during scans are integer
+ * comparisons and each distinct value is kept once. Codes are never reused, and the code
+ * {@link #NULL} stands for a missing value.
+ */
+public interface CodeDictionary {
+
+    /**
+     * Code of a null value.
+     */
+    int NULL = -1;
+
+    /**
+     * Returns the code of a value, registering the value if it is new.
+     *
+     * @param value The value to encode.
+     * @return The code of the value, or {@link #NULL} if the value is null.
+     */
+    int encode(String value);
+
+    /**
+     * Looks up the code of a value without registering it.
+     *
+     * @param value The value to look up.
+     * @return The code of the value, or {@link #NULL} if the value was never encoded.
+     */
+    int find(String value);
+
+    /**
+     * Decodes a code.
+     *
+     * @param code The code to decode.
+     * @return The value of the code, or null for {@link #NULL}.
+     */
+    String decode(int code);
+
+    /**
+     * Gets the number of distinct values registered.
+     *
+     * @return The number of codes, which are the integers from 0 to this size excluded.
+     */
+    int size();
+
+    /**
+     * Removes every value.
+     */
+    void clear();
+}
@@ -0,0 +1,52 @@
+package com.safetyname.alerts.store;
+
+/**
+ * Where the columns and dictionaries of the column-wise store keep their data.
+ */
+public enum ColumnStorage {
+
+    /**
+     * Primitive arrays and collections on the Java heap.
+     */
+    HEAP {
+        @Override
+        public IntColumn newIntColumn() {
+            return new HeapIntColumn();
+        }
+
+        @Override
+        public CodeDictionary newDictionary() {
+            return new HeapCodeDictionary();
+        }
+    },
+
+    /**
+     * Direct buffers outside of the Java heap: the garbage collector only tracks a few buffer objects
+     * per column, so its work does not grow with the number of rows.
+     */
+    OFF_HEAP {
+        @Override
+        public IntColumn newIntColumn() {
+            return new OffHeapIntColumn();
+        }
+
+        @Override
+        public CodeDictionary newDictionary() {
+            return new OffHeapCodeDictionary();
+        }
+    };
+
+    /**
+     * Creates an empty column.
+     *
+     * @return A new column backed by this storage.
+     */
+    public abstract IntColumn newIntColumn();
+
+    /**
+     * Creates an empty dictionary.
+     *
+     * @return A new dictionary backed by this storage.
+     */
+    public abstract CodeDictionary newDictionary();
+}
@@ -0,0 +1,61 @@
+package com.safetyname.alerts.store;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stream counting the bytes read from another one, so that other threads can follow the progress of a read.
+ */
+public class CountingInputStream extends FilterInputStream {
+
+    private volatile long count;
+
+    /**
+     * Creates a stream counting from zero.
+     *
+     * @param in The stream to read from.
+     */
+    public CountingInputStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int value = super.read();
+        if (value >= 0) {
+            count++;
+        }
+        return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        if (read > 0) {
+            count += read;
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count += skipped;
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Gets the number of bytes read or skipped so far.
+     *
+     * @return The count, which only the reading thread increments.
+     */
+    public long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,47 @@
+package com.safetyname.alerts.store;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Encoding of the data files read and written by the data services, selected with {@code data.format}.
+ * <p>
+ * A format only converts between a file and a {@link Dataset}: how the data is then stored and queried is up to
+ * the data service, and how its changes reach the disk is up to its change persistence.
+ */
+public interface DataFileFormat {
+
+    /**
+     * Reads a data file.
+     *
+     * @param file The file to read.
+     * @return The persons, fire station mappings and medical records of the file.
+     * @throws IOException if the file cannot be read or is not in this format.
+     */
+    default Dataset read(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads the content of a data file from a stream, for instance one counting the bytes read.
+     *
+     * @param in The stream to read, left open.
+     * @return The persons, fire station mappings and medical records of the content.
+     * @throws IOException if the stream cannot be read or is not in this format.
+     */
+    Dataset read(InputStream in) throws IOException;
+
+    /**
+     * Writes a data file, replacing it if it exists.
+     *
+     * @param dataset The data to write.
+     * @param file    The file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    void write(Dataset dataset, Path file) throws IOException;
+}
@@ -0,0 +1,36 @@
+package com.safetyname.alerts.store;
+
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The content of a data file: the persons, the fire station mappings and the medical records, as read by a
+ * {@link DataFileFormat} and loaded by a data service.
+ * <strong>Note:</strong> This class uses Lombok annotations to automatically generate getters.
+ * Make sure Lombok is properly configured in your development environment.
+ */
+@Getter
+public class Dataset {
+
+    private final List<Person> persons;
+    private final List<FireStation> fireStations;
+    private final List<MedicalRecord> medicalRecords;
+
+    /**
+     * Creates a dataset.
+     *
+     * @param persons        The persons; null for none.
+     * @param fireStations   The fire station mappings; null for none.
+     * @param medicalRecords The medical records; null for none.
+     */
+    public Dataset(List<Person> persons, List<FireStation> fireStations, List<MedicalRecord> medicalRecords) {
+        this.persons = persons == null ? Collections.emptyList() : persons;
+        this.fireStations = fireStations == null ? Collections.emptyList() : fireStations;
+        this.medicalRecords = medicalRecords == null ? Collections.emptyList() : medicalRecords;
+    }
+}
@@ -0,0 +1,162 @@
+package com.safetyname.alerts.store;
+
+import com.safetyname.alerts.entity.FireStation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Column-wise storage of the fire station mappings.
+ * <p>
+ * The address dictionary is shared with the {@link PersonTable}, so the coverage of a station is a set of
+ * address codes that can be compared directly with the address column of the persons. The mappings are
+ * few, so a deletion rewrites the columns instead of flagging rows.
+ */
+public class FireStationTable {
+
+    private final ColumnStorage storage;
+    private final CodeDictionary addresses;
+    private IntColumn address;
+    private IntColumn station;
+
+    /**
+     * Creates an empty table.
+     *
+     * @param storage   The storage of the columns.
+     * @param addresses The dictionary of addresses, shared with the {@link PersonTable}.
+     */
+    public FireStationTable(ColumnStorage storage, CodeDictionary addresses) {
+        this.storage = storage;
+        this.addresses = addresses;
+        this.address = storage.newIntColumn();
+        this.station = storage.newIntColumn();
+    }
+
+    /**
+     * Creates a table over the content of a mapped snapshot, without copying the columns.
+     *
+     * @param in        The snapshot, positioned on a table written by {@link #writeTo(SnapshotWriter)}.
+     * @param storage   The storage of the columns rewritten by a deletion.
+     * @param addresses The dictionary of addresses, shared with the {@link PersonTable}.
+     */
+    public FireStationTable(SnapshotReader in, ColumnStorage storage, CodeDictionary addresses) {
+        this.storage = storage;
+        this.addresses = addresses;
+        this.address = in.readColumn();
+        this.station = in.readColumn();
+    }
+
+    /**
+     * Writes the table to a snapshot; the shared address dictionary is written by the caller.
+     *
+     * @param out The snapshot being written.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public void writeTo(SnapshotWriter out) throws IOException {
+        out.writeColumn(address);
+        out.writeColumn(station);
+    }
+
+    /**
+     * Appends a mapping.
+     *
+     * @param fireStation The mapping to store; the object is not retained.
+     */
+    public void add(FireStation fireStation) {
+        address.add(addresses.encode(fireStation.getAddress()));
+        station.add(fireStation.getStation());
+    }
+
+    /**
+     * Changes the station number of the first mapping of an address.
+     *
+     * @param fireStation The mapping holding the address and the new station number.
+     * @return true if a mapping was found and updated, false otherwise.
+     */
+    public boolean update(FireStation fireStation) {
+        int code = addresses.find(fireStation.getAddress());
+        for (int row = 0; row < rowCount(); row++) {
+            if (code != CodeDictionary.NULL && address.get(row) == code) {
+                station.set(row, fireStation.getStation());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Deletes every mapping of an address.
+     *
+     * @param addressToDelete The address whose mappings are deleted.
+     * @return true if at least one mapping was deleted, false otherwise.
+     */
+    public boolean delete(String addressToDelete) {
+        int code = addresses.find(addressToDelete);
+        if (code == CodeDictionary.NULL) {
+            return false;
+        }
+        IntColumn keptAddress = storage.newIntColumn();
+        IntColumn keptStation = storage.newIntColumn();
+        for (int row = 0; row < rowCount(); row++) {
+            if (address.get(row) != code) {
+                keptAddress.add(address.get(row));
+                keptStation.add(station.get(row));
+            }
+        }
+        boolean removed = keptAddress.size() < rowCount();
+        address = keptAddress;
+        station = keptStation;
+        return removed;
+    }
+
+    /**
+     * Gets the number of mappings.
+     *
+     * @return The number of rows.
+     */
+    public int rowCount() {
+        return station.size();
+    }
+
+    /**
+     * Gets the address code of a mapping.
+     *
+     * @param row The row of the mapping.
+     * @return The code of the address in the shared dictionary.
+     */
+    public int address(int row) {
+        return address.get(row);
+    }
+
+    /**
+     * Gets the station number of a mapping.
+     *
+     * @param row The row of the mapping.
+     * @return The station number.
+     */
+    public int station(int row) {
+        return station.get(row);
+    }
+
+    /**
+     * Creates the {@link FireStation} objects of every mapping.
+     *
+     * @return A new list of detached mappings, in insertion order.
+     */
+    public List<FireStation> materialize() {
+        List<FireStation> fireStations = new ArrayList<>(rowCount());
+        for (int row = 0; row < rowCount(); row++) {
+            fireStations.add(new FireStation(addresses.decode(address.get(row)), station.get(row)));
+        }
+        return fireStations;
+    }
+
+    /**
+     * Removes every mapping.
+     */
+    public void clear() {
+        address.clear();
+        station.clear();
+    }
+}
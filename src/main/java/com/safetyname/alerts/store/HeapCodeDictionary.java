@@ -0,0 +1,53 @@
+package com.safetyname.alerts.store;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link CodeDictionary} keeping its values in a list and its codes in a hash map on the Java heap.
+ */
+public class HeapCodeDictionary implements CodeDictionary {
+
+    private final List<String> values = new ArrayList<>();
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    @Override
+    public int encode(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            values.add(value);
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    @Override
+    public int find(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        return codes.getOrDefault(value, NULL);
+    }
+
+    @Override
+    public String decode(int code) {
+        return code == NULL ? null : values.get(code);
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public void clear() {
+        values.clear();
+        codes.clear();
+    }
+}
@@ -0,0 +1,49 @@
+package com.safetyname.alerts.store;
+
+import java.util.Arrays;
+
+/**
+ * {@link IntColumn} stored in a growable {@code int[]} on the Java heap.
+ */
+public class HeapIntColumn implements IntColumn {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] values = new int[INITIAL_CAPACITY];
+    private int size;
+
+    @Override
+    public int add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[size] = value;
+        return size++;
+    }
+
+    @Override
+    public int get(int row) {
+        return values[row];
+    }
+
+    @Override
+    public void set(int row, int value) {
+        values[row] = value;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        values = new int[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    @Override
+    public void trim() {
+        values = Arrays.copyOf(values, Math.max(size, 1));
+    }
+}
@@ -0,0 +1,52 @@
+package com.safetyname.alerts.store;
+
+/**
+ * Growable column of primitive {@code int} values, indexed by row ID.
+ * <p>
+ * Values are stored contiguously, so scanning a column reads memory sequentially instead of following
+ * one reference per row. Implementations keep the values on the Java heap ({@link HeapIntColumn}) or
+ * outside of it ({@link OffHeapIntColumn}); see {@link ColumnStorage}.
+ */
+public interface IntColumn {
+
+    /**
+     * Appends a value at the end of the column.
+     *
+     * @param value The value to append.
+     * @return The row ID of the appended value.
+     */
+    int add(int value);
+
+    /**
+     * Reads the value of a row.
+     *
+     * @param row The row ID.
+     * @return The value stored for the row.
+     */
+    int get(int row);
+
+    /**
+     * Overwrites the value of a row.
+     *
+     * @param row   The row ID.
+     * @param value The new value.
+     */
+    void set(int row, int value);
+
+    /**
+     * Gets the number of rows in the column.
+     *
+     * @return The number of values appended since the last {@link #clear()}.
+     */
+    int size();
+
+    /**
+     * Removes every value and releases the storage.
+     */
+    void clear();
+
+    /**
+     * Shrinks the storage to the number of rows, typically once a bulk load is finished.
+     */
+    void trim();
+}
@@ -0,0 +1,199 @@
+package com.safetyname.alerts.store;
+
+import java.io.IOException;
+
+/**
+ * Hash map from a pair of non-negative {@code int} keys to a non-negative {@code int} value, stored in columns.
+ * <p>
+ * Used to join rows through a pair of dictionary codes (first name and last name) without creating one
+ * boxed entry per row. The table uses open addressing with linear probing and stays at most half full;
+ * each slot holds the two keys and {@code value + 1}, where 0 marks an empty slot and -1 a removed entry.
+ */
+public class IntPairMap {
+
+    /**
+     * Value returned for a missing pair.
+     */
+    public static final int MISSING = -1;
+
+    private static final int INITIAL_SLOTS = 16;
+    private static final int EMPTY = 0;
+    private static final int REMOVED = -1;
+
+    private final ColumnStorage storage;
+    private IntColumn firstKeys;
+    private IntColumn secondKeys;
+    private IntColumn entries;
+    private int slotCount;
+    private int size;
+    private int removed;
+
+    /**
+     * Creates an empty map.
+     *
+     * @param storage The storage of the columns.
+     */
+    public IntPairMap(ColumnStorage storage) {
+        this.storage = storage;
+        clear();
+    }
+
+    /**
+     * Creates a map over the content of a mapped snapshot, without copying the columns.
+     *
+     * @param in      The snapshot, positioned on a map written by {@link #writeTo(SnapshotWriter)}.
+     * @param storage The storage of the columns when the map is resized.
+     */
+    public IntPairMap(SnapshotReader in, ColumnStorage storage) {
+        this.storage = storage;
+        this.slotCount = in.readInt();
+        this.size = in.readInt();
+        this.removed = in.readInt();
+        this.firstKeys = in.readColumn();
+        this.secondKeys = in.readColumn();
+        this.entries = in.readColumn();
+    }
+
+    /**
+     * Writes the map to a snapshot.
+     *
+     * @param out The snapshot being written.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public void writeTo(SnapshotWriter out) throws IOException {
+        out.writeInt(slotCount);
+        out.writeInt(size);
+        out.writeInt(removed);
+        out.writeColumn(firstKeys);
+        out.writeColumn(secondKeys);
+        out.writeColumn(entries);
+    }
+
+    /**
+     * Associates a value with a pair of keys, replacing any previous value.
+     *
+     * @param first  The first key.
+     * @param second The second key.
+     * @param value  The value, non-negative.
+     */
+    public void put(int first, int second, int value) {
+        int slot = find(first, second);
+        if (slot >= 0) {
+            entries.set(slot, value + 1);
+            return;
+        }
+        int mask = slotCount - 1;
+        slot = hash(first, second) & mask;
+        while (entries.get(slot) > 0) {
+            slot = (slot + 1) & mask;
+        }
+        if (entries.get(slot) == REMOVED) {
+            removed--;
+        }
+        firstKeys.set(slot, first);
+        secondKeys.set(slot, second);
+        entries.set(slot, value + 1);
+        size++;
+        if (2 * (size + removed) > slotCount) {
+            resize(2 * size > slotCount / 2 ? slotCount * 2 : slotCount);
+        }
+    }
+
+    /**
+     * Gets the value associated with a pair of keys.
+     *
+     * @param first  The first key.
+     * @param second The second key.
+     * @return The value, or {@link #MISSING} if the pair is unknown.
+     */
+    public int get(int first, int second) {
+        int slot = find(first, second);
+        return slot < 0 ? MISSING : entries.get(slot) - 1;
+    }
+
+    /**
+     * Removes the value associated with a pair of keys.
+     *
+     * @param first  The first key.
+     * @param second The second key.
+     */
+    public void remove(int first, int second) {
+        int slot = find(first, second);
+        if (slot >= 0) {
+            entries.set(slot, REMOVED);
+            size--;
+            removed++;
+        }
+    }
+
+    /**
+     * Gets the number of pairs in the map.
+     *
+     * @return The number of pairs.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every pair.
+     */
+    public void clear() {
+        allocate(INITIAL_SLOTS);
+        size = 0;
+        removed = 0;
+    }
+
+    private int find(int first, int second) {
+        int mask = slotCount - 1;
+        for (int slot = hash(first, second) & mask; ; slot = (slot + 1) & mask) {
+            int entry = entries.get(slot);
+            if (entry == EMPTY) {
+                return -1;
+            }
+            if (entry != REMOVED && firstKeys.get(slot) == first && secondKeys.get(slot) == second) {
+                return slot;
+            }
+        }
+    }
+
+    private void resize(int newSlotCount) {
+        IntColumn oldFirstKeys = firstKeys;
+        IntColumn oldSecondKeys = secondKeys;
+        IntColumn oldEntries = entries;
+        int oldSlotCount = slotCount;
+        allocate(newSlotCount);
+        removed = 0;
+        int mask = slotCount - 1;
+        for (int old = 0; old < oldSlotCount; old++) {
+            int entry = oldEntries.get(old);
+            if (entry > 0) {
+                int slot = hash(oldFirstKeys.get(old), oldSecondKeys.get(old)) & mask;
+                while (entries.get(slot) != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                firstKeys.set(slot, oldFirstKeys.get(old));
+                secondKeys.set(slot, oldSecondKeys.get(old));
+                entries.set(slot, entry);
+            }
+        }
+    }
+
+    private void allocate(int count) {
+        slotCount = count;
+        firstKeys = storage.newIntColumn();
+        secondKeys = storage.newIntColumn();
+        entries = storage.newIntColumn();
+        for (int i = 0; i < count; i++) {
+            firstKeys.add(0);
+            secondKeys.add(0);
+            entries.add(EMPTY);
+        }
+    }
+
+    private static int hash(int first, int second) {
+        int hash = first * 31 + second;
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
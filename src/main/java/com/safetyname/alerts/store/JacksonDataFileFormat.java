@@ -0,0 +1,77 @@
+package com.safetyname.alerts.store;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The data file formats encoded with Jackson, with the {@code persons}, {@code firestations} and
+ * {@code medicalrecords} arrays of the original {@code data.json}.
+ */
+public enum JacksonDataFileFormat implements DataFileFormat {
+
+    /**
+     * The JSON text of the exports.
+     */
+    JSON(new ObjectMapper()),
+
+    /**
+     * Smile, the binary form of JSON: the same structure, smaller and faster to parse, with field names and
+     * repeated short strings written once and referenced afterwards.
+     */
+    SMILE(new SmileMapper());
+
+    private final ObjectMapper mapper;
+
+    JacksonDataFileFormat(ObjectMapper mapper) {
+        this.mapper = mapper.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+    }
+
+    /**
+     * Gets a format by name, as in the {@code data.format} property.
+     *
+     * @param name The name of the format, in any case.
+     * @return The format.
+     * @throws IllegalArgumentException if no format has this name.
+     */
+    public static JacksonDataFileFormat of(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public Dataset read(InputStream in) throws IOException {
+        Content content = mapper.readValue(in, Content.class);
+        return new Dataset(content.persons, content.firestations, content.medicalrecords);
+    }
+
+    @Override
+    public void write(Dataset dataset, Path file) throws IOException {
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("persons", dataset.getPersons());
+        content.put("firestations", dataset.getFireStations());
+        content.put("medicalrecords", dataset.getMedicalRecords());
+        mapper.writeValue(file.toFile(), content);
+    }
+
+    /**
+     * The top-level object of a data file, bound directly to the entity lists.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private static final class Content {
+        public List<Person> persons;
+        public List<FireStation> firestations;
+        public List<MedicalRecord> medicalrecords;
+    }
+}
@@ -0,0 +1,329 @@
+package com.safetyname.alerts.store;
+
+import com.safetyname.alerts.entity.MedicalRecord;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Column-wise storage of the medical records, one row per record identified by a dense integer ID.
+ * <p>
+ * Names and birthdates are dictionary-encoded, and the birthdate is also stored as an epoch day so that
+ * ages are computed without parsing. The medications (and allergies) of all rows are appended to one
+ * shared column of codes; each row points to its slice with an offset and a length. An update appends a
+ * new slice, the old one is reclaimed when the table is reloaded. Deleted rows are flagged, as in
+ * {@link PersonTable}.
+ */
+public class MedicalRecordTable {
+
+    /**
+     * Epoch day stored when the birthdate is missing or cannot be parsed.
+     */
+    public static final int NO_BIRTHDATE = Integer.MIN_VALUE;
+
+    private static final DateTimeFormatter BIRTHDATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+    private final CodeDictionary firstNames;
+    private final CodeDictionary lastNames;
+    private final CodeDictionary birthdates;
+    private final CodeDictionary medications;
+    private final CodeDictionary allergies;
+
+    private final IntColumn firstName;
+    private final IntColumn lastName;
+    private final IntColumn birthdate;
+    private final IntColumn birthEpochDay;
+    private final IntColumn medicationOffset;
+    private final IntColumn medicationLength;
+    private final IntColumn allergyOffset;
+    private final IntColumn allergyLength;
+    private final IntColumn medicationCodes;
+    private final IntColumn allergyCodes;
+    private final BitSet deleted;
+
+    /**
+     * Creates an empty table.
+     *
+     * @param storage    The storage of the columns and of the dictionaries owned by the table.
+     * @param firstNames The dictionary of first names, shared with the {@link PersonTable}.
+     * @param lastNames  The dictionary of last names, shared with the {@link PersonTable}.
+     */
+    public MedicalRecordTable(ColumnStorage storage, CodeDictionary firstNames, CodeDictionary lastNames) {
+        this.firstNames = firstNames;
+        this.lastNames = lastNames;
+        this.birthdates = storage.newDictionary();
+        this.medications = storage.newDictionary();
+        this.allergies = storage.newDictionary();
+        this.firstName = storage.newIntColumn();
+        this.lastName = storage.newIntColumn();
+        this.birthdate = storage.newIntColumn();
+        this.birthEpochDay = storage.newIntColumn();
+        this.medicationOffset = storage.newIntColumn();
+        this.medicationLength = storage.newIntColumn();
+        this.allergyOffset = storage.newIntColumn();
+        this.allergyLength = storage.newIntColumn();
+        this.medicationCodes = storage.newIntColumn();
+        this.allergyCodes = storage.newIntColumn();
+        this.deleted = new BitSet();
+    }
+
+    /**
+     * Creates a table over the content of a mapped snapshot, without copying the columns.
+     *
+     * @param in         The snapshot, positioned on a table written by {@link #writeTo(SnapshotWriter)}.
+     * @param firstNames The dictionary of first names, shared with the {@link PersonTable}.
+     * @param lastNames  The dictionary of last names, shared with the {@link PersonTable}.
+     */
+    public MedicalRecordTable(SnapshotReader in, CodeDictionary firstNames, CodeDictionary lastNames) {
+        this.firstNames = firstNames;
+        this.lastNames = lastNames;
+        this.birthdates = in.readDictionary();
+        this.medications = in.readDictionary();
+        this.allergies = in.readDictionary();
+        this.firstName = in.readColumn();
+        this.lastName = in.readColumn();
+        this.birthdate = in.readColumn();
+        this.birthEpochDay = in.readColumn();
+        this.medicationOffset = in.readColumn();
+        this.medicationLength = in.readColumn();
+        this.allergyOffset = in.readColumn();
+        this.allergyLength = in.readColumn();
+        this.medicationCodes = in.readColumn();
+        this.allergyCodes = in.readColumn();
+        this.deleted = in.readBits();
+    }
+
+    /**
+     * Writes the table to a snapshot; the shared name dictionaries are written by the caller.
+     *
+     * @param out The snapshot being written.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public void writeTo(SnapshotWriter out) throws IOException {
+        out.writeDictionary(birthdates);
+        out.writeDictionary(medications);
+        out.writeDictionary(allergies);
+        out.writeColumn(firstName);
+        out.writeColumn(lastName);
+        out.writeColumn(birthdate);
+        out.writeColumn(birthEpochDay);
+        out.writeColumn(medicationOffset);
+        out.writeColumn(medicationLength);
+        out.writeColumn(allergyOffset);
+        out.writeColumn(allergyLength);
+        out.writeColumn(medicationCodes);
+        out.writeColumn(allergyCodes);
+        out.writeBits(deleted);
+    }
+
+    /**
+     * Appends a medical record.
+     *
+     * @param medicalRecord The record to store; the object is not retained.
+     * @return The ID of the new row.
+     */
+    public int add(MedicalRecord medicalRecord) {
+        firstName.add(firstNames.encode(medicalRecord.getFirstName()));
+        lastName.add(lastNames.encode(medicalRecord.getLastName()));
+        birthdate.add(birthdates.encode(medicalRecord.getBirthdate()));
+        birthEpochDay.add(epochDay(medicalRecord.getBirthdate()));
+        medicationOffset.add(medicationCodes.size());
+        medicationLength.add(append(medicationCodes, medications, medicalRecord.getMedications()));
+        allergyOffset.add(allergyCodes.size());
+        return allergyLength.add(append(allergyCodes, allergies, medicalRecord.getAllergies()));
+    }
+
+    /**
+     * Overwrites the birthdate, medications and allergies of a row.
+     *
+     * @param id            The ID of the row.
+     * @param medicalRecord The record holding the new details.
+     */
+    public void update(int id, MedicalRecord medicalRecord) {
+        birthdate.set(id, birthdates.encode(medicalRecord.getBirthdate()));
+        birthEpochDay.set(id, epochDay(medicalRecord.getBirthdate()));
+        medicationOffset.set(id, medicationCodes.size());
+        medicationLength.set(id, append(medicationCodes, medications, medicalRecord.getMedications()));
+        allergyOffset.set(id, allergyCodes.size());
+        allergyLength.set(id, append(allergyCodes, allergies, medicalRecord.getAllergies()));
+    }
+
+    /**
+     * Flags a row as deleted.
+     *
+     * @param id The ID of the row.
+     */
+    public void delete(int id) {
+        deleted.set(id);
+    }
+
+    /**
+     * Tells whether a row holds a record that was not deleted.
+     *
+     * @param id The ID of the row.
+     * @return true if the row is live.
+     */
+    public boolean isLive(int id) {
+        return !deleted.get(id);
+    }
+
+    /**
+     * Gets the number of rows, including the deleted ones.
+     *
+     * @return The upper bound (excluded) of the IDs.
+     */
+    public int rowCount() {
+        return firstName.size();
+    }
+
+    /**
+     * Gets the birthdate of a row as an epoch day.
+     *
+     * @param id The ID of the row.
+     * @return The epoch day of the birthdate, or {@link #NO_BIRTHDATE}.
+     */
+    public int birthEpochDay(int id) {
+        return birthEpochDay.get(id);
+    }
+
+    /**
+     * Tells whether a row lists one of the given medication codes.
+     *
+     * @param id    The ID of the row.
+     * @param codes The codes of the {@link #medications()} dictionary to look for.
+     * @return true if at least one medication of the row is in the set.
+     */
+    public boolean hasMedication(int id, BitSet codes) {
+        return containsAny(medicationCodes, medicationOffset.get(id), medicationLength.get(id), codes);
+    }
+
+    /**
+     * Tells whether a row lists one of the given allergy codes.
+     *
+     * @param id    The ID of the row.
+     * @param codes The codes of the {@link #allergies()} dictionary to look for.
+     * @return true if at least one allergy of the row is in the set.
+     */
+    public boolean hasAllergy(int id, BitSet codes) {
+        return containsAny(allergyCodes, allergyOffset.get(id), allergyLength.get(id), codes);
+    }
+
+    /**
+     * Creates the {@link MedicalRecord} object of a row.
+     *
+     * @param id The ID of the row.
+     * @return A new, detached medical record holding the values of the row.
+     */
+    public MedicalRecord materialize(int id) {
+        return new MedicalRecord(firstNames.decode(firstName.get(id)), lastNames.decode(lastName.get(id)),
+                birthdates.decode(birthdate.get(id)),
+                decode(medicationCodes, medications, medicationOffset.get(id), medicationLength.get(id)),
+                decode(allergyCodes, allergies, allergyOffset.get(id), allergyLength.get(id)));
+    }
+
+    /**
+     * Removes every row and the values of the dictionaries owned by the table.
+     */
+    public void clear() {
+        for (IntColumn column : columns()) {
+            column.clear();
+        }
+        birthdates.clear();
+        medications.clear();
+        allergies.clear();
+        deleted.clear();
+    }
+
+    /**
+     * Shrinks the columns to the number of rows, once a bulk load is finished.
+     */
+    public void trim() {
+        for (IntColumn column : columns()) {
+            column.trim();
+        }
+    }
+
+    /**
+     * Gets the column of first name codes.
+     *
+     * @return The first name column.
+     */
+    public IntColumn firstNameColumn() {
+        return firstName;
+    }
+
+    /**
+     * Gets the column of last name codes.
+     *
+     * @return The last name column.
+     */
+    public IntColumn lastNameColumn() {
+        return lastName;
+    }
+
+    /**
+     * Gets the dictionary of the medication entries, dosage included.
+     *
+     * @return The medication dictionary.
+     */
+    public CodeDictionary medications() {
+        return medications;
+    }
+
+    /**
+     * Gets the dictionary of the allergies.
+     *
+     * @return The allergy dictionary.
+     */
+    public CodeDictionary allergies() {
+        return allergies;
+    }
+
+    private IntColumn[] columns() {
+        return new IntColumn[]{firstName, lastName, birthdate, birthEpochDay, medicationOffset, medicationLength,
+                allergyOffset, allergyLength, medicationCodes, allergyCodes};
+    }
+
+    private static int append(IntColumn codes, CodeDictionary dictionary, List<String> values) {
+        if (values == null) {
+            return 0;
+        }
+        for (String value : values) {
+            codes.add(dictionary.encode(value));
+        }
+        return values.size();
+    }
+
+    private static List<String> decode(IntColumn codes, CodeDictionary dictionary, int offset, int length) {
+        List<String> values = new ArrayList<>(length);
+        for (int i = offset; i < offset + length; i++) {
+            values.add(dictionary.decode(codes.get(i)));
+        }
+        return values;
+    }
+
+    private static boolean containsAny(IntColumn codes, int offset, int length, BitSet wanted) {
+        for (int i = offset; i < offset + length; i++) {
+            if (wanted.get(codes.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int epochDay(String birthdate) {
+        if (birthdate == null) {
+            return NO_BIRTHDATE;
+        }
+        try {
+            return (int) LocalDate.parse(birthdate, BIRTHDATE_FORMAT).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return NO_BIRTHDATE;
+        }
+    }
+}
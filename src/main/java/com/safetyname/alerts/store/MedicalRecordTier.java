@@ -0,0 +1,420 @@
+package com.safetyname.alerts.store;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Two-tier storage of the medications and allergies of medical records: the lists of every record are written
+ * to a {@link SegmentFile}, and those of the most recently read records are also kept on the heap.
+ * <p>
+ * The hot tier is a least-recently-used map bounded to a number of records; reading a record outside of it
+ * decodes its lists from the mapped segment and makes it hot, evicting the least recently read record. Decoded
+ * strings go through the canonicalization functions, typically the dictionaries of the data layer, so hot lists
+ * share their strings. The lists handed out are unmodifiable; changing them appends new ones to the segment.
+ * <p>
+ * A record is identified by an id that maps to the offset of its current entry, so that the segment can be
+ * compacted: once the entries replaced or released take more than {@link #DEFAULT_COMPACTION_BYTES} bytes, and
+ * more than the live ones, the live entries are copied to a new segment file and the previous one is deleted.
+ * A read started before the compaction finishes on the previous mapping.
+ */
+public class MedicalRecordTier implements AutoCloseable {
+
+    /**
+     * Default number of bytes of replaced and released entries from which the segment is compacted.
+     */
+    public static final long DEFAULT_COMPACTION_BYTES = 1 << 20;
+
+    private static final int NULL_LIST = -1;
+    private static final int NULL_VALUE = -1;
+
+    /**
+     * The medications and allergies of one record.
+     */
+    public static final class Lists {
+        private final List<String> medications;
+        private final List<String> allergies;
+
+        private Lists(List<String> medications, List<String> allergies) {
+            this.medications = medications;
+            this.allergies = allergies;
+        }
+
+        /**
+         * Gets the medications.
+         *
+         * @return The unmodifiable list of medications, or null.
+         */
+        public List<String> getMedications() {
+            return medications;
+        }
+
+        /**
+         * Gets the allergies.
+         *
+         * @return The unmodifiable list of allergies, or null.
+         */
+        public List<String> getAllergies() {
+            return allergies;
+        }
+    }
+
+    private final Path segmentPath;
+    private final int hotCapacity;
+    private final UnaryOperator<String> canonicalMedication;
+    private final UnaryOperator<String> canonicalAllergy;
+    private final Map<Long, Lists> hot;
+    private final Map<Long, Long> offsets = new HashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private SegmentFile segment;
+    private int generation;
+    private long nextId;
+    private long liveBytes;
+    private long deadBytes;
+    private long compactionBytes = DEFAULT_COMPACTION_BYTES;
+    private long compactions;
+
+    /**
+     * Creates an empty tier.
+     *
+     * @param segmentPath         The segment file, created or replaced.
+     * @param hotCapacity         The maximum number of records whose lists are kept on the heap; 0 keeps none.
+     * @param canonicalMedication Returns the shared instance of a decoded medication.
+     * @param canonicalAllergy    Returns the shared instance of a decoded allergy.
+     * @throws IOException if the segment file cannot be created.
+     */
+    public MedicalRecordTier(Path segmentPath, int hotCapacity, UnaryOperator<String> canonicalMedication,
+                             UnaryOperator<String> canonicalAllergy) throws IOException {
+        if (hotCapacity < 0) {
+            throw new IllegalArgumentException("The hot capacity must not be negative, got " + hotCapacity);
+        }
+        this.segmentPath = segmentPath;
+        this.segment = new SegmentFile(segmentPath);
+        this.hotCapacity = hotCapacity;
+        this.canonicalMedication = canonicalMedication;
+        this.canonicalAllergy = canonicalAllergy;
+        this.hot = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Lists> eldest) {
+                if (size() > MedicalRecordTier.this.hotCapacity) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Writes the lists of a record to the segment; they stay cold until read.
+     *
+     * @param medications The medications, possibly null.
+     * @param allergies   The allergies, possibly null.
+     * @return The id identifying the lists.
+     */
+    public long store(List<String> medications, List<String> allergies) {
+        byte[] entry = encode(medications, allergies);
+        synchronized (this) {
+            long id = nextId++;
+            offsets.put(id, append(entry));
+            return id;
+        }
+    }
+
+    /**
+     * Replaces the lists of a record with one entry appended to the segment, the previous one becoming dead.
+     *
+     * @param id          The id returned by {@link #store(List, List)}.
+     * @param medications The new medications, possibly null.
+     * @param allergies   The new allergies, possibly null.
+     */
+    public void replace(long id, List<String> medications, List<String> allergies) {
+        byte[] entry = encode(medications, allergies);
+        synchronized (this) {
+            Long previous = offsets.get(id);
+            if (previous == null) {
+                throw new IllegalArgumentException("No medical record lists with id " + id);
+            }
+            offsets.put(id, append(entry));
+            hot.remove(id);
+            discard(previous);
+        }
+    }
+
+    /**
+     * Reads the lists of a record, from the hot tier or from the segment.
+     *
+     * @param id The id returned by {@link #store(List, List)}.
+     * @return The lists of the record.
+     */
+    public Lists load(long id) {
+        SegmentFile source;
+        long offset;
+        synchronized (this) {
+            Lists lists = hot.get(id);
+            if (lists != null) {
+                hits.increment();
+                return lists;
+            }
+            Long current = offsets.get(id);
+            if (current == null) {
+                throw new IllegalArgumentException("No medical record lists with id " + id);
+            }
+            source = segment;
+            offset = current;
+        }
+        misses.increment();
+        Lists lists;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(source.read(offset)))) {
+            lists = new Lists(readList(in, canonicalMedication), readList(in, canonicalAllergy));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read medical record lists from the segment", e);
+        }
+        if (hotCapacity > 0) {
+            synchronized (this) {
+                // The entry may have been replaced or moved while it was decoded
+                if (source == segment && Long.valueOf(offset).equals(offsets.get(id))) {
+                    hot.put(id, lists);
+                }
+            }
+        }
+        return lists;
+    }
+
+    /**
+     * Forgets the lists of a record that was deleted, its entry becoming dead.
+     *
+     * @param id The id of the lists.
+     */
+    public synchronized void release(long id) {
+        Long offset = offsets.remove(id);
+        if (offset != null) {
+            hot.remove(id);
+            discard(offset);
+        }
+    }
+
+    /**
+     * Copies the live entries to a new segment file and deletes the previous one, reclaiming the bytes of the
+     * entries replaced or released. The ids and the hot tier are unchanged.
+     *
+     * @throws UncheckedIOException if the new segment file cannot be written.
+     */
+    public synchronized void compact() {
+        Path path = segmentPath.resolveSibling(segmentPath.getFileName() + (generation % 2 == 0 ? ".compacted" : ""));
+        SegmentFile previous = segment;
+        try {
+            SegmentFile compacted = new SegmentFile(path);
+            try {
+                for (Map.Entry<Long, Long> entry : offsets.entrySet()) {
+                    entry.setValue(compacted.append(previous.read(entry.getValue())));
+                }
+            } catch (IOException | RuntimeException e) {
+                compacted.close();
+                throw e;
+            }
+            segment = compacted;
+            generation++;
+            deadBytes = 0;
+            compactions++;
+            previous.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact the medical record segment", e);
+        }
+    }
+
+    /**
+     * Changes the number of bytes of replaced and released entries from which the segment is compacted, once they
+     * also outweigh the live entries.
+     *
+     * @param compactionBytes The number of dead bytes, at least 1.
+     */
+    public synchronized void setCompactionBytes(long compactionBytes) {
+        if (compactionBytes < 1) {
+            throw new IllegalArgumentException("The compaction threshold must be at least 1, got " + compactionBytes);
+        }
+        this.compactionBytes = compactionBytes;
+    }
+
+    /**
+     * Resets the hit, miss and eviction counters, for instance once a load has read every record.
+     */
+    public void resetCounters() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    /**
+     * Gets the maximum number of records kept on the heap.
+     *
+     * @return The capacity of the hot tier.
+     */
+    public int getHotCapacity() {
+        return hotCapacity;
+    }
+
+    /**
+     * Gets the number of records whose lists are on the heap.
+     *
+     * @return The size of the hot tier.
+     */
+    public synchronized int getHotCount() {
+        return hot.size();
+    }
+
+    /**
+     * Gets the number of records whose lists are only in the segment.
+     *
+     * @return The number of stored records outside of the hot tier.
+     */
+    public synchronized long getColdCount() {
+        return offsets.size() - hot.size();
+    }
+
+    /**
+     * Gets the size of the segment file.
+     *
+     * @return The number of bytes written to the segment, dead entries included.
+     */
+    public synchronized long getSegmentBytes() {
+        return segment.size();
+    }
+
+    /**
+     * Gets the number of bytes of the entries replaced or released since the segment was last compacted.
+     *
+     * @return The dead bytes of the segment.
+     */
+    public synchronized long getDeadBytes() {
+        return deadBytes;
+    }
+
+    /**
+     * Gets the number of times the segment was compacted.
+     *
+     * @return The compaction count.
+     */
+    public synchronized long getCompactions() {
+        return compactions;
+    }
+
+    /**
+     * Gets the number of reads served by the hot tier.
+     *
+     * @return The hit count.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of reads decoded from the segment.
+     *
+     * @return The miss count.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of records moved out of the hot tier to make room for others.
+     *
+     * @return The eviction count.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Discards the segment file.
+     *
+     * @throws IOException if the file cannot be closed or deleted.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        segment.close();
+    }
+
+    private long append(byte[] entry) {
+        try {
+            long offset = segment.append(entry);
+            liveBytes += SegmentFile.sizeOf(entry.length);
+            return offset;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write medical record lists to the segment", e);
+        }
+    }
+
+    private void discard(long offset) {
+        long size = SegmentFile.sizeOf(segment.length(offset));
+        liveBytes -= size;
+        deadBytes += size;
+        if (deadBytes >= compactionBytes && deadBytes > liveBytes) {
+            compact();
+        }
+    }
+
+    private static byte[] encode(List<String> medications, List<String> allergies) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeList(out, medications);
+            writeList(out, allergies);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode medical record lists", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeList(DataOutputStream out, List<String> values) throws IOException {
+        if (values == null) {
+            out.writeInt(NULL_LIST);
+            return;
+        }
+        out.writeInt(values.size());
+        for (String value : values) {
+            if (value == null) {
+                out.writeInt(NULL_VALUE);
+                continue;
+            }
+            // Not writeUTF: its length prefix is an unsigned short, limiting a value to 65,535 bytes
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static List<String> readList(DataInputStream in, UnaryOperator<String> canonical) throws IOException {
+        int size = in.readInt();
+        if (size == NULL_LIST) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int length = in.readInt();
+            if (length == NULL_VALUE) {
+                values.add(null);
+                continue;
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            values.add(canonical.apply(new String(bytes, StandardCharsets.UTF_8)));
+        }
+        return Collections.unmodifiableList(values);
+    }
+}
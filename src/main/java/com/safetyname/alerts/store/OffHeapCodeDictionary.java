@@ -0,0 +1,192 @@
+package com.safetyname.alerts.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link CodeDictionary} stored outside of the Java heap.
+ * <p>
+ * The values are appended as UTF-8 bytes to a direct {@link ByteBuffer}; an {@link OffHeapIntColumn}
+ * holds the start offset of each code and another one its hash. Lookups go through an open-addressing
+ * hash table (linear probing, at most half full) stored in a third off-heap column, whose slots hold
+ * {@code code + 1}, 0 marking an empty slot. Strings are only created on {@link #decode(int)}.
+ */
+public class OffHeapCodeDictionary implements CodeDictionary {
+
+    private static final int INITIAL_BYTES = 256;
+    private static final int INITIAL_SLOTS = 16;
+
+    private ByteBuffer bytes;
+    private int used;
+    private IntColumn offsets;
+    private IntColumn hashes;
+    private IntColumn slots;
+    private int slotCount;
+
+    /**
+     * Creates an empty dictionary.
+     */
+    public OffHeapCodeDictionary() {
+        clear();
+    }
+
+    /**
+     * Creates a dictionary over the content of a mapped snapshot, without copying it.
+     *
+     * @param in The snapshot, positioned on a dictionary written by {@link #writeTo(SnapshotWriter)}.
+     */
+    OffHeapCodeDictionary(SnapshotReader in) {
+        bytes = in.readBytes();
+        used = bytes.capacity();
+        offsets = in.readColumn();
+        hashes = in.readColumn();
+        slotCount = in.readInt();
+        slots = in.readColumn();
+    }
+
+    /**
+     * Writes the dictionary to a snapshot.
+     *
+     * @param out The snapshot being written.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    void writeTo(SnapshotWriter out) throws IOException {
+        out.writeBytes(bytes, used);
+        out.writeColumn(offsets);
+        out.writeColumn(hashes);
+        out.writeInt(slotCount);
+        out.writeColumn(slots);
+    }
+
+    @Override
+    public int encode(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(value);
+        int slot = probe(utf8, hash);
+        int entry = slots.get(slot);
+        if (entry != 0) {
+            return entry - 1;
+        }
+        int code = offsets.add(used);
+        hashes.add(hash);
+        append(utf8);
+        slots.set(slot, code + 1);
+        if (2 * size() > slotCount) {
+            rehash();
+        }
+        return code;
+    }
+
+    @Override
+    public int find(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        int entry = slots.get(probe(value.getBytes(StandardCharsets.UTF_8), hash(value)));
+        return entry - 1;
+    }
+
+    @Override
+    public String decode(int code) {
+        if (code == NULL) {
+            return null;
+        }
+        int start = offsets.get(code);
+        byte[] utf8 = new byte[end(code) - start];
+        bytes.get(start, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int size() {
+        return offsets.size();
+    }
+
+    @Override
+    public void clear() {
+        bytes = ByteBuffer.allocateDirect(INITIAL_BYTES);
+        used = 0;
+        offsets = new OffHeapIntColumn();
+        hashes = new OffHeapIntColumn();
+        slots = emptySlots(INITIAL_SLOTS);
+        slotCount = INITIAL_SLOTS;
+    }
+
+    /**
+     * Finds the slot holding the value, or the empty slot where it would be inserted.
+     */
+    private int probe(byte[] utf8, int hash) {
+        int mask = slotCount - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots.get(slot);
+            if (entry == 0) {
+                return slot;
+            }
+            int code = entry - 1;
+            if (hashes.get(code) == hash && equals(code, utf8)) {
+                return slot;
+            }
+        }
+    }
+
+    private boolean equals(int code, byte[] utf8) {
+        int start = offsets.get(code);
+        if (end(code) - start != utf8.length) {
+            return false;
+        }
+        for (int i = 0; i < utf8.length; i++) {
+            if (bytes.get(start + i) != utf8[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int end(int code) {
+        return code + 1 < size() ? offsets.get(code + 1) : used;
+    }
+
+    private void append(byte[] utf8) {
+        if (used + utf8.length > bytes.capacity()) {
+            long capacity = Math.max(Math.max(2L * bytes.capacity(), INITIAL_BYTES), (long) used + utf8.length);
+            if (capacity > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Off-heap dictionary is full: " + used + " bytes");
+            }
+            ByteBuffer grown = ByteBuffer.allocateDirect((int) capacity);
+            grown.put(0, bytes, 0, used);
+            bytes = grown;
+        }
+        bytes.put(used, utf8);
+        used += utf8.length;
+    }
+
+    private void rehash() {
+        slotCount *= 2;
+        slots = emptySlots(slotCount);
+        int mask = slotCount - 1;
+        for (int code = 0; code < size(); code++) {
+            int slot = hashes.get(code) & mask;
+            while (slots.get(slot) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots.set(slot, code + 1);
+        }
+    }
+
+    private static IntColumn emptySlots(int count) {
+        IntColumn column = new OffHeapIntColumn();
+        for (int i = 0; i < count; i++) {
+            column.add(0);
+        }
+        return column;
+    }
+
+    private static int hash(String value) {
+        int hash = value.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+}
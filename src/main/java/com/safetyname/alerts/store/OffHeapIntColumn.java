@@ -0,0 +1,94 @@
+package com.safetyname.alerts.store;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * {@link IntColumn} stored in a direct {@link ByteBuffer}, outside of the Java heap.
+ * <p>
+ * The garbage collector only sees the buffer object, whatever the number of rows. Row {@code i} is the
+ * 4 bytes at offset {@code 4 * i}, in native byte order; the layout holds no pointer, so the content can
+ * be written to a file and mapped back as is (see {@link SnapshotReader}). Growing allocates a buffer twice
+ * as large and copies the values; the old buffer is released when it is collected.
+ */
+public class OffHeapIntColumn implements IntColumn {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private ByteBuffer values;
+    private int size;
+
+    /**
+     * Creates an empty column.
+     */
+    public OffHeapIntColumn() {
+        this(allocate(INITIAL_CAPACITY), 0);
+    }
+
+    /**
+     * Creates a column over existing values, typically a slice of a mapped snapshot.
+     *
+     * @param values The buffer holding the values, in native byte order.
+     * @param size   The number of values in the buffer.
+     */
+    public OffHeapIntColumn(ByteBuffer values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    @Override
+    public int add(int value) {
+        if (size == capacity()) {
+            grow();
+        }
+        values.putInt(size * Integer.BYTES, value);
+        return size++;
+    }
+
+    @Override
+    public int get(int row) {
+        return values.getInt(row * Integer.BYTES);
+    }
+
+    @Override
+    public void set(int row, int value) {
+        values.putInt(row * Integer.BYTES, value);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        values = allocate(INITIAL_CAPACITY);
+        size = 0;
+    }
+
+    @Override
+    public void trim() {
+        resize(Math.max(size, 1));
+    }
+
+    private int capacity() {
+        return values.capacity() / Integer.BYTES;
+    }
+
+    private void grow() {
+        if (capacity() > Integer.MAX_VALUE / (2 * Integer.BYTES)) {
+            throw new IllegalStateException("Off-heap column is full: " + size + " rows");
+        }
+        resize(Math.max(INITIAL_CAPACITY, capacity() * 2));
+    }
+
+    private void resize(int capacity) {
+        ByteBuffer resized = allocate(capacity);
+        resized.put(0, values, 0, size * Integer.BYTES);
+        values = resized;
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,285 @@
+package com.safetyname.alerts.store;
+
+import com.safetyname.alerts.entity.Person;
+
+import java.io.IOException;
+import java.util.BitSet;
+
+/**
+ * Column-wise storage of the persons, one row per person identified by a dense integer ID.
+ * <p>
+ * Every string field is dictionary-encoded into an {@link IntColumn}; the zip code is stored as is.
+ * Deleted rows are flagged rather than compacted, so IDs stay stable and ascending IDs follow the
+ * insertion order. {@link Person} objects are only created by {@link #materialize(int)}.
+ * <p>
+ * The first and last name dictionaries are shared with the {@link MedicalRecordTable}, so joining a
+ * person with their medical record compares codes.
+ */
+public class PersonTable {
+
+    private final CodeDictionary firstNames;
+    private final CodeDictionary lastNames;
+    private final CodeDictionary addresses;
+    private final CodeDictionary cities;
+    private final CodeDictionary emails;
+    private final CodeDictionary phones;
+
+    private final IntColumn firstName;
+    private final IntColumn lastName;
+    private final IntColumn address;
+    private final IntColumn city;
+    private final IntColumn email;
+    private final IntColumn phone;
+    private final IntColumn zip;
+    private final BitSet deleted;
+    private int liveCount;
+
+    /**
+     * Creates an empty table.
+     *
+     * @param storage    The storage of the columns and of the dictionaries owned by the table.
+     * @param firstNames The dictionary of first names.
+     * @param lastNames  The dictionary of last names.
+     */
+    public PersonTable(ColumnStorage storage, CodeDictionary firstNames, CodeDictionary lastNames) {
+        this.firstNames = firstNames;
+        this.lastNames = lastNames;
+        this.addresses = storage.newDictionary();
+        this.cities = storage.newDictionary();
+        this.emails = storage.newDictionary();
+        this.phones = storage.newDictionary();
+        this.firstName = storage.newIntColumn();
+        this.lastName = storage.newIntColumn();
+        this.address = storage.newIntColumn();
+        this.city = storage.newIntColumn();
+        this.email = storage.newIntColumn();
+        this.phone = storage.newIntColumn();
+        this.zip = storage.newIntColumn();
+        this.deleted = new BitSet();
+    }
+
+    /**
+     * Creates a table over the content of a mapped snapshot, without copying the columns.
+     *
+     * @param in         The snapshot, positioned on a table written by {@link #writeTo(SnapshotWriter)}.
+     * @param firstNames The dictionary of first names.
+     * @param lastNames  The dictionary of last names.
+     */
+    public PersonTable(SnapshotReader in, CodeDictionary firstNames, CodeDictionary lastNames) {
+        this.firstNames = firstNames;
+        this.lastNames = lastNames;
+        this.addresses = in.readDictionary();
+        this.cities = in.readDictionary();
+        this.emails = in.readDictionary();
+        this.phones = in.readDictionary();
+        this.firstName = in.readColumn();
+        this.lastName = in.readColumn();
+        this.address = in.readColumn();
+        this.city = in.readColumn();
+        this.email = in.readColumn();
+        this.phone = in.readColumn();
+        this.zip = in.readColumn();
+        this.deleted = in.readBits();
+        this.liveCount = in.readInt();
+    }
+
+    /**
+     * Writes the table to a snapshot; the shared name dictionaries are written by the caller.
+     *
+     * @param out The snapshot being written.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public void writeTo(SnapshotWriter out) throws IOException {
+        out.writeDictionary(addresses);
+        out.writeDictionary(cities);
+        out.writeDictionary(emails);
+        out.writeDictionary(phones);
+        out.writeColumn(firstName);
+        out.writeColumn(lastName);
+        out.writeColumn(address);
+        out.writeColumn(city);
+        out.writeColumn(email);
+        out.writeColumn(phone);
+        out.writeColumn(zip);
+        out.writeBits(deleted);
+        out.writeInt(liveCount);
+    }
+
+    /**
+     * Appends a person.
+     *
+     * @param person The person to store; the object is not retained.
+     * @return The ID of the new row.
+     */
+    public int add(Person person) {
+        firstName.add(firstNames.encode(person.getFirstName()));
+        lastName.add(lastNames.encode(person.getLastName()));
+        address.add(addresses.encode(person.getAddress()));
+        city.add(cities.encode(person.getCity()));
+        email.add(emails.encode(person.getEmail()));
+        phone.add(phones.encode(person.getPhone()));
+        liveCount++;
+        return zip.add(person.getZip());
+    }
+
+    /**
+     * Overwrites the contact details (address, city, zip, phone and email) of a row.
+     *
+     * @param id     The ID of the row.
+     * @param person The person holding the new details.
+     */
+    public void updateContact(int id, Person person) {
+        address.set(id, addresses.encode(person.getAddress()));
+        city.set(id, cities.encode(person.getCity()));
+        zip.set(id, person.getZip());
+        phone.set(id, phones.encode(person.getPhone()));
+        email.set(id, emails.encode(person.getEmail()));
+    }
+
+    /**
+     * Flags a row as deleted.
+     *
+     * @param id The ID of the row.
+     */
+    public void delete(int id) {
+        if (!deleted.get(id)) {
+            deleted.set(id);
+            liveCount--;
+        }
+    }
+
+    /**
+     * Tells whether a row holds a person that was not deleted.
+     *
+     * @param id The ID of the row.
+     * @return true if the row is live.
+     */
+    public boolean isLive(int id) {
+        return !deleted.get(id);
+    }
+
+    /**
+     * Gets the number of rows, including the deleted ones.
+     *
+     * @return The upper bound (excluded) of the IDs.
+     */
+    public int rowCount() {
+        return zip.size();
+    }
+
+    /**
+     * Gets the number of persons that were not deleted.
+     *
+     * @return The number of live rows.
+     */
+    public int liveCount() {
+        return liveCount;
+    }
+
+    /**
+     * Creates the {@link Person} object of a row.
+     *
+     * @param id The ID of the row.
+     * @return A new, detached person holding the values of the row.
+     */
+    public Person materialize(int id) {
+        return new Person(firstNames.decode(firstName.get(id)), lastNames.decode(lastName.get(id)),
+                addresses.decode(address.get(id)), cities.decode(city.get(id)), emails.decode(email.get(id)),
+                zip.get(id), phones.decode(phone.get(id)));
+    }
+
+    /**
+     * Removes every row and the values of the dictionaries owned by the table.
+     */
+    public void clear() {
+        for (IntColumn column : new IntColumn[]{firstName, lastName, address, city, email, phone, zip}) {
+            column.clear();
+        }
+        for (CodeDictionary dictionary : new CodeDictionary[]{addresses, cities, emails, phones}) {
+            dictionary.clear();
+        }
+        deleted.clear();
+        liveCount = 0;
+    }
+
+    /**
+     * Shrinks the columns to the number of rows, once a bulk load is finished.
+     */
+    public void trim() {
+        for (IntColumn column : new IntColumn[]{firstName, lastName, address, city, email, phone, zip}) {
+            column.trim();
+        }
+    }
+
+    /**
+     * Gets the column of first name codes.
+     *
+     * @return The first name column.
+     */
+    public IntColumn firstNameColumn() {
+        return firstName;
+    }
+
+    /**
+     * Gets the column of last name codes.
+     *
+     * @return The last name column.
+     */
+    public IntColumn lastNameColumn() {
+        return lastName;
+    }
+
+    /**
+     * Gets the column of address codes.
+     *
+     * @return The address column.
+     */
+    public IntColumn addressColumn() {
+        return address;
+    }
+
+    /**
+     * Gets the column of city codes.
+     *
+     * @return The city column.
+     */
+    public IntColumn cityColumn() {
+        return city;
+    }
+
+    /**
+     * Gets the column of email codes.
+     *
+     * @return The email column.
+     */
+    public IntColumn emailColumn() {
+        return email;
+    }
+
+    /**
+     * Gets the dictionary of the addresses.
+     *
+     * @return The address dictionary.
+     */
+    public CodeDictionary addresses() {
+        return addresses;
+    }
+
+    /**
+     * Gets the dictionary of the cities.
+     *
+     * @return The city dictionary.
+     */
+    public CodeDictionary cities() {
+        return cities;
+    }
+
+    /**
+     * Gets the dictionary of the email addresses.
+     *
+     * @return The email dictionary.
+     */
+    public CodeDictionary emails() {
+        return emails;
+    }
+}
@@ -0,0 +1,26 @@
+package com.safetyname.alerts.store;
+
+/**
+ * {@link AgeKernel} reading one value at a time, used when the Vector API is not available.
+ */
+public class ScalarAgeKernel implements AgeKernel {
+
+    @Override
+    public int[] countAtMost(int[] values, int length, int[] thresholds) {
+        int[] counts = new int[thresholds.length];
+        for (int t = 0; t < thresholds.length; t++) {
+            int threshold = thresholds[t];
+            int count = 0;
+            for (int i = 0; i < length; i++) {
+                count += values[i] <= threshold ? 1 : 0;
+            }
+            counts[t] = count;
+        }
+        return counts;
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
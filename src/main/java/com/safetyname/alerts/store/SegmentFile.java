@@ -0,0 +1,130 @@
+package com.safetyname.alerts.store;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only file of byte entries, written and read through memory mappings.
+ * <p>
+ * The file is mapped in chunks of {@link #CHUNK_SIZE} bytes, a new chunk being mapped (and the file extended)
+ * when the previous one is full; an entry never spans two chunks. The pages of an entry are loaded from disk
+ * when it is read and can be dropped by the system under memory pressure, so the entries cost no heap. An entry
+ * is identified by its offset and never changes; replacing one means appending a new entry, the old bytes being
+ * reclaimed when the live entries are copied to another file and this one is discarded.
+ */
+public class SegmentFile implements AutoCloseable {
+
+    /**
+     * Size of one mapping.
+     */
+    public static final int CHUNK_SIZE = 1 << 24;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> chunks = new ArrayList<>();
+    private long size;
+
+    /**
+     * Creates an empty segment file, replacing any existing file.
+     *
+     * @param path The file to write.
+     * @throws IOException if the file cannot be created.
+     */
+    public SegmentFile(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Appends an entry.
+     *
+     * @param entry The bytes of the entry, at most {@code CHUNK_SIZE - 4}.
+     * @return The offset of the entry.
+     * @throws IOException if the file cannot be extended.
+     */
+    public synchronized long append(byte[] entry) throws IOException {
+        int length = Integer.BYTES + entry.length;
+        if (length > CHUNK_SIZE) {
+            throw new IllegalArgumentException("Entry larger than a chunk: " + entry.length + " bytes");
+        }
+        if (size % CHUNK_SIZE + length > CHUNK_SIZE || size == (long) chunks.size() * CHUNK_SIZE) {
+            // Start the next chunk, leaving the end of the current one unused
+            size = (long) chunks.size() * CHUNK_SIZE;
+            chunks.add(channel.map(FileChannel.MapMode.READ_WRITE, size, CHUNK_SIZE));
+        }
+        long offset = size;
+        MappedByteBuffer chunk = chunks.get(chunks.size() - 1);
+        int position = (int) (offset % CHUNK_SIZE);
+        chunk.putInt(position, entry.length);
+        chunk.put(position + Integer.BYTES, entry);
+        size += length;
+        return offset;
+    }
+
+    /**
+     * Reads an entry.
+     *
+     * @param offset The offset returned by {@link #append(byte[])}.
+     * @return A copy of the bytes of the entry.
+     */
+    public synchronized byte[] read(long offset) {
+        if (offset < 0 || offset >= size) {
+            throw new IllegalArgumentException("No entry at offset " + offset);
+        }
+        MappedByteBuffer chunk = chunks.get((int) (offset / CHUNK_SIZE));
+        int position = (int) (offset % CHUNK_SIZE);
+        byte[] entry = new byte[chunk.getInt(position)];
+        chunk.get(position + Integer.BYTES, entry);
+        return entry;
+    }
+
+    /**
+     * Gets the length of an entry.
+     *
+     * @param offset The offset returned by {@link #append(byte[])}.
+     * @return The number of bytes of the entry, without its length prefix.
+     */
+    public synchronized int length(long offset) {
+        if (offset < 0 || offset >= size) {
+            throw new IllegalArgumentException("No entry at offset " + offset);
+        }
+        return chunks.get((int) (offset / CHUNK_SIZE)).getInt((int) (offset % CHUNK_SIZE));
+    }
+
+    /**
+     * Gets the number of bytes an entry takes in a segment file.
+     *
+     * @param length The number of bytes of the entry.
+     * @return The bytes of the entry and of its length prefix.
+     */
+    public static long sizeOf(int length) {
+        return Integer.BYTES + (long) length;
+    }
+
+    /**
+     * Gets the number of bytes written, including the unused ends of the chunks.
+     *
+     * @return The end offset of the last entry.
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Closes and deletes the file. The mappings stay readable until they are garbage collected.
+     *
+     * @throws IOException if the file cannot be closed or deleted.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+}
@@ -0,0 +1,136 @@
+package com.safetyname.alerts.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * Maps a snapshot written by {@link SnapshotWriter} and hands out its columns in place.
+ * <p>
+ * The file is mapped privately: the pages are loaded lazily from the page cache, shared with other processes
+ * mapping the same file, and a write to a column only copies the touched page in this process (the
+ * file itself is never modified, but private mappings need it to be opened for writing). Columns
+ * that grow are moved to a new direct buffer. A snapshot is limited to 2 GB, the size of one mapping.
+ */
+public class SnapshotReader {
+
+    private final MappedByteBuffer mapped;
+    private int position;
+
+    /**
+     * Maps a snapshot and checks that it was built from the given JSON file.
+     *
+     * @param snapshot       The snapshot file.
+     * @param sourceSize     The current size of the JSON file.
+     * @param sourceModified The current modification time of the JSON file, in milliseconds.
+     * @throws IOException if the file cannot be mapped, is not a snapshot of this version and byte order,
+     *                     or was built from another version of the JSON file.
+     */
+    public SnapshotReader(Path snapshot, long sourceSize, long sourceModified) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot larger than 2 GB: " + snapshot);
+            }
+            mapped = channel.map(FileChannel.MapMode.PRIVATE, 0, channel.size());
+        }
+        mapped.order(ByteOrder.nativeOrder());
+        if (mapped.capacity() < 32 || readInt() != SnapshotWriter.MAGIC || readInt() != SnapshotWriter.VERSION) {
+            throw new IOException("Not a snapshot of this version: " + snapshot);
+        }
+        int littleEndian = readInt();
+        if (littleEndian != (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? 1 : 0)) {
+            throw new IOException("Snapshot written with another byte order: " + snapshot);
+        }
+        readInt();
+        if (readLong() != sourceSize || readLong() != sourceModified) {
+            throw new IOException("Snapshot out of date: " + snapshot);
+        }
+    }
+
+    /**
+     * Reads an {@code int}.
+     *
+     * @return The value read.
+     */
+    public int readInt() {
+        int value = mapped.getInt(position);
+        position += Integer.BYTES;
+        return value;
+    }
+
+    /**
+     * Reads a {@code long}.
+     *
+     * @return The value read.
+     */
+    public long readLong() {
+        long value = mapped.getLong(position);
+        position += Long.BYTES;
+        return value;
+    }
+
+    /**
+     * Reads a column written by {@link SnapshotWriter#writeColumn(IntColumn)}, without copying it.
+     *
+     * @return An off-heap column backed by the mapped file.
+     */
+    public IntColumn readColumn() {
+        int size = readInt();
+        align();
+        ByteBuffer values = slice(size * Integer.BYTES).order(ByteOrder.nativeOrder());
+        align();
+        return new OffHeapIntColumn(values, size);
+    }
+
+    /**
+     * Reads bytes written by {@link SnapshotWriter#writeBytes(ByteBuffer, int)}, without copying them.
+     *
+     * @return A buffer backed by the mapped file, whose capacity is the number of bytes.
+     */
+    public ByteBuffer readBytes() {
+        int length = readInt();
+        align();
+        ByteBuffer bytes = slice(length);
+        align();
+        return bytes;
+    }
+
+    /**
+     * Reads flags written by {@link SnapshotWriter#writeBits(BitSet)}, copying them to the heap.
+     *
+     * @return The flags.
+     */
+    public BitSet readBits() {
+        int length = readInt();
+        align();
+        long[] words = new long[length];
+        for (int i = 0; i < length; i++) {
+            words[i] = readLong();
+        }
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Reads a dictionary written by {@link SnapshotWriter#writeDictionary(CodeDictionary)}, without copying it.
+     *
+     * @return An off-heap dictionary backed by the mapped file.
+     */
+    public CodeDictionary readDictionary() {
+        return new OffHeapCodeDictionary(this);
+    }
+
+    private ByteBuffer slice(int length) {
+        ByteBuffer slice = mapped.slice(position, length);
+        position += length;
+        return slice;
+    }
+
+    private void align() {
+        position = (position + Long.BYTES - 1) & -Long.BYTES;
+    }
+}
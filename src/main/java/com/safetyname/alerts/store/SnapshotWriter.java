@@ -0,0 +1,196 @@
+package com.safetyname.alerts.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * Writes a snapshot of the column-wise store in a layout that {@link SnapshotReader} maps back without copying.
+ * <p>
+ * The file starts with a header identifying the format, the byte order and the JSON file the snapshot was
+ * built from (size and modification time). Columns and byte arrays are written raw, in native byte order,
+ * and aligned on 8 bytes, so that each of them can be used in place as a slice of the mapped file.
+ * <p>
+ * The snapshot is written to a temporary file and moved over the target by {@link #commit()}, so a process
+ * that has the previous snapshot mapped keeps a consistent view.
+ */
+public class SnapshotWriter implements Closeable {
+
+    static final int MAGIC = 0x534E414C;
+    static final int VERSION = 1;
+
+    private final Path target;
+    private final Path temporary;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.nativeOrder());
+    private long position;
+    private boolean committed;
+
+    /**
+     * Starts a snapshot.
+     *
+     * @param target         The snapshot file to write.
+     * @param sourceSize     The size of the JSON file holding the same data.
+     * @param sourceModified The modification time of the JSON file, in milliseconds.
+     * @throws IOException if the temporary file cannot be created.
+     */
+    public SnapshotWriter(Path target, long sourceSize, long sourceModified) throws IOException {
+        this.target = target.toAbsolutePath();
+        this.temporary = Files.createTempFile(this.target.getParent(), this.target.getFileName().toString(), ".tmp");
+        this.channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        writeInt(MAGIC);
+        writeInt(VERSION);
+        writeInt(ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? 1 : 0);
+        writeInt(0);
+        writeLong(sourceSize);
+        writeLong(sourceModified);
+    }
+
+    /**
+     * Writes an {@code int}.
+     *
+     * @param value The value to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void writeInt(int value) throws IOException {
+        reserve(Integer.BYTES);
+        buffer.putInt(value);
+        position += Integer.BYTES;
+    }
+
+    /**
+     * Writes a {@code long}.
+     *
+     * @param value The value to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void writeLong(long value) throws IOException {
+        reserve(Long.BYTES);
+        buffer.putLong(value);
+        position += Long.BYTES;
+    }
+
+    /**
+     * Writes the size of a column followed by its values.
+     *
+     * @param column The column to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void writeColumn(IntColumn column) throws IOException {
+        writeInt(column.size());
+        align();
+        for (int row = 0; row < column.size(); row++) {
+            writeInt(column.get(row));
+        }
+        align();
+    }
+
+    /**
+     * Writes the first bytes of a buffer, preceded by their number.
+     *
+     * @param bytes  The buffer to write from, read from index 0.
+     * @param length The number of bytes to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void writeBytes(ByteBuffer bytes, int length) throws IOException {
+        writeInt(length);
+        align();
+        flush();
+        ByteBuffer source = bytes.duplicate();
+        source.clear().limit(length);
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+        position += length;
+        align();
+    }
+
+    /**
+     * Writes a set of flags.
+     *
+     * @param bits The flags to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void writeBits(BitSet bits) throws IOException {
+        long[] words = bits.toLongArray();
+        writeInt(words.length);
+        align();
+        for (long word : words) {
+            writeLong(word);
+        }
+    }
+
+    /**
+     * Writes a dictionary in the layout of an {@link OffHeapCodeDictionary}, whatever its implementation.
+     *
+     * @param dictionary The dictionary to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void writeDictionary(CodeDictionary dictionary) throws IOException {
+        OffHeapCodeDictionary offHeap;
+        if (dictionary instanceof OffHeapCodeDictionary) {
+            offHeap = (OffHeapCodeDictionary) dictionary;
+        } else {
+            offHeap = new OffHeapCodeDictionary();
+            for (int code = 0; code < dictionary.size(); code++) {
+                offHeap.encode(dictionary.decode(code));
+            }
+        }
+        offHeap.writeTo(this);
+    }
+
+    /**
+     * Completes the snapshot and moves it over the target file.
+     *
+     * @throws IOException if the file cannot be written or moved.
+     */
+    public void commit() throws IOException {
+        flush();
+        channel.force(false);
+        channel.close();
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        committed = true;
+    }
+
+    /**
+     * Releases the file, deleting it if the snapshot was not committed.
+     *
+     * @throws IOException if the temporary file cannot be deleted.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            channel.close();
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void align() throws IOException {
+        while (position % Long.BYTES != 0) {
+            reserve(1);
+            buffer.put((byte) 0);
+            position++;
+        }
+    }
+
+    private void reserve(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,88 @@
+package com.safetyname.alerts.controller;
+
+import com.safetyname.alerts.service.IAutocompleteService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for {@link AutocompleteController}.
+ * <p>
+ * This class contains unit tests for the AutocompleteController endpoint, verifying
+ * successful suggestions, bad requests and prefixes matching nothing.
+ */
+@WebMvcTest(AutocompleteController.class)
+class AutocompleteControllerTest {
+
+    private static final Logger logger = LogManager.getLogger(AutocompleteControllerTest.class);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private IAutocompleteService autocompleteService;
+
+    /**
+     * Tests the successful retrieval of last name suggestions.
+     * <p>
+     * Expects a 200 OK status and the suggestions returned by the service.
+     *
+     * @throws Exception if an error occurs during the request.
+     */
+    @Test
+    void testGetSuggestionsSuccess() throws Exception {
+        logger.info("Testing successful retrieval of suggestions for prefix: Bo");
+        when(autocompleteService.getSuggestions("lastName", "Bo", 5)).thenReturn(List.of("Bowman", "Boyd"));
+
+        mockMvc.perform(get("/autocomplete").param("field", "lastName").param("prefix", "Bo").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("Bowman"))
+                .andExpect(jsonPath("$[1]").value("Boyd"));
+    }
+
+    /**
+     * Tests the handling of bad requests: empty prefix, unknown field and invalid limit.
+     * <p>
+     * Expects a 400 Bad Request status.
+     *
+     * @throws Exception if an error occurs during the request.
+     */
+    @Test
+    void testGetSuggestionsBadRequest() throws Exception {
+        logger.info("Testing bad request handling for autocomplete");
+
+        mockMvc.perform(get("/autocomplete").param("field", "lastName").param("prefix", " "))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/autocomplete").param("field", "city").param("prefix", "Cu"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/autocomplete").param("field", "address").param("prefix", "15").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Tests the scenario where no value starts with the prefix.
+     * <p>
+     * Expects a 404 Not Found status.
+     *
+     * @throws Exception if an error occurs during the request.
+     */
+    @Test
+    void testGetSuggestionsNotFound() throws Exception {
+        logger.info("Testing autocomplete with a prefix matching nothing");
+        when(autocompleteService.getSuggestions("address", "zz", 10)).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/autocomplete").param("field", "address").param("prefix", "zz"))
+                .andExpect(status().isNotFound());
+    }
+}
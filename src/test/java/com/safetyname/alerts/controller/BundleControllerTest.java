@@ -0,0 +1,87 @@
+package com.safetyname.alerts.controller;
+
+import com.safetyname.alerts.service.IBundleService;
+import com.safetyname.alerts.service.StationBundle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BundleController.class)
+class BundleControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private IBundleService bundleService;
+
+    @TempDir
+    Path directory;
+
+    private StationBundle bundle;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path path = Files.writeString(directory.resolve("station-3-0123456789abcdef.smile.gz"), "0123456789");
+        bundle = new StationBundle(3, "0123456789abcdef", 7, path, 10, Instant.parse("2026-10-19T08:00:00Z"));
+        when(bundleService.getBundle(3)).thenReturn(bundle);
+        when(bundleService.getBundle(3, "0123456789abcdef")).thenReturn(bundle);
+    }
+
+    /**
+     * Test the download of the current bundle of a station.
+     */
+    @Test
+    void testGetBundleSuccess() throws Exception {
+        mockMvc.perform(get("/bundles/3"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0123456789abcdef\""))
+                .andExpect(header().string(HttpHeaders.CONTENT_LOCATION, "/bundles/3/0123456789abcdef"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(content().string("0123456789"));
+    }
+
+    /**
+     * Test resuming a download with a byte range, and a client already holding the bundle.
+     */
+    @Test
+    void testGetBundleRangeAndNotModified() throws Exception {
+        mockMvc.perform(get("/bundles/3/0123456789abcdef").header(HttpHeaders.RANGE, "bytes=4-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 4-9/10"))
+                .andExpect(content().bytes("456789".getBytes(StandardCharsets.US_ASCII)));
+
+        mockMvc.perform(get("/bundles/3").header(HttpHeaders.IF_NONE_MATCH, "\"0123456789abcdef\""))
+                .andExpect(status().isNotModified());
+    }
+
+    /**
+     * Test the scenarios where the station has no bundle or the bundle was replaced.
+     * Expects a 404 Not Found status.
+     */
+    @Test
+    void testGetBundleNotFound() throws Exception {
+        mockMvc.perform(get("/bundles/5"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/bundles/3/fedcba9876543210"))
+                .andExpect(status().isNotFound());
+    }
+}
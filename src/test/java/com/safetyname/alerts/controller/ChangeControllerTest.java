@@ -0,0 +1,69 @@
+package com.safetyname.alerts.controller;
+
+import com.safetyname.alerts.service.IChangeStreamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ChangeController.class)
+class ChangeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private IChangeStreamService changeStreamService;
+
+    /**
+     * Test a stream without resume version.
+     * Expects an asynchronous stream receiving only the new events.
+     */
+    @Test
+    void testStreamChangesFromNow() throws Exception {
+        mockMvc.perform(get("/changes").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(changeStreamService).subscribe(any(SseEmitter.class), isNull());
+    }
+
+    /**
+     * Test resuming from the Last-Event-ID header, and the since parameter taking precedence over it.
+     */
+    @Test
+    void testStreamChangesResumesFromAPosition() throws Exception {
+        mockMvc.perform(get("/changes").header("Last-Event-ID", "42-7").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+        verify(changeStreamService).subscribe(any(SseEmitter.class), eq("42-7"));
+
+        mockMvc.perform(get("/changes").param("since", "42-3").header("Last-Event-ID", "42-7").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+        verify(changeStreamService).subscribe(any(SseEmitter.class), eq("42-3"));
+    }
+
+    /**
+     * Test the scenarios where the position is negative or malformed.
+     * Expects a 400 Bad Request status.
+     */
+    @Test
+    void testStreamChangesBadRequest() throws Exception {
+        mockMvc.perform(get("/changes").param("since", "-1").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/changes").header("Last-Event-ID", "42-x").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isBadRequest());
+
+        verify(changeStreamService, never()).subscribe(any(), any());
+    }
+}
@@ -1,8 +1,12 @@
 package com.safetyname.alerts.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetyname.alerts.dto.FireInfo;
 import com.safetyname.alerts.dto.FireResponse;
 import com.safetyname.alerts.service.IFireService;
+import com.safetyname.alerts.json.FieldSet;
+import com.safetyname.alerts.json.FireInfoSerializer;
+import com.safetyname.alerts.json.SharedResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,12 +16,14 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
 import java.util.Collections;
+import java.util.List;
 
 @WebMvcTest(FireController.class)
 class FireControllerTest {
@@ -45,7 +51,7 @@ class FireControllerTest {
     void testGetFireInfoSuccess() throws Exception {
         // Mock the service method to return a valid FireResponse
         FireResponse fireResponse = new FireResponse(Collections.emptyList(), 1);
-        when(fireService.getFireService(anyString())).thenReturn(fireResponse);
+        when(fireService.getFireResponse(anyString(), eq(FieldSet.ALL))).thenReturn(new SharedResponse<>(fireResponse));
 
         // Perform the GET request
         mockMvc.perform(get("/fire").param("address", "123 Main St")
@@ -63,7 +69,7 @@ class FireControllerTest {
     @Test
     void testGetFireInfoNotFound() throws Exception {
         // Mock the service method to return null when no data is found
-        when(fireService.getFireService(anyString())).thenReturn(null);
+        when(fireService.getFireResponse(anyString(), eq(FieldSet.ALL))).thenReturn(null);
 
         // Perform the GET request
         mockMvc.perform(get("/fire").param("address", "123 NonExistent St")
@@ -84,4 +90,41 @@ class FireControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
     }
+
+    /**
+     * Test the retrieval of some fields of the residents only.
+     * Expects the requested fields and the station number, and nothing else.
+     *
+     * @throws Exception if an error occurs during the request.
+     */
+    @Test
+    void testGetFireInfoWithFields() throws Exception {
+        FieldSet fields = FieldSet.parse("lastName,phone", FireInfoSerializer.FIELDS);
+        FireInfo info = new FireInfo("Boyd", "841-874-6512", -1, List.of("aznol:350mg"), List.of());
+        when(fireService.getFireResponse("1509 Culver St", fields))
+                .thenReturn(new SharedResponse<>(new FireResponse(List.of(info), 3), fields));
+
+        mockMvc.perform(get("/fire").param("address", "1509 Culver St").param("fields", "phone, lastName")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.station").value(3))
+                .andExpect(jsonPath("$.fireInfos[0].lastName").value("Boyd"))
+                .andExpect(jsonPath("$.fireInfos[0].phone").value("841-874-6512"))
+                .andExpect(jsonPath("$.fireInfos[0].age").doesNotExist())
+                .andExpect(jsonPath("$.fireInfos[0].medications").doesNotExist())
+                .andExpect(jsonPath("$.fireInfos[0].allergies").doesNotExist());
+    }
+
+    /**
+     * Test the scenario where an unknown field is requested.
+     * Expects a 400 Bad Request status.
+     *
+     * @throws Exception if an error occurs during the request.
+     */
+    @Test
+    void testGetFireInfoUnknownField() throws Exception {
+        mockMvc.perform(get("/fire").param("address", "1509 Culver St").param("fields", "station")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -1,6 +1,10 @@
 package com.safetyname.alerts.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.safetyname.alerts.dto.AgeBucket;
+import com.safetyname.alerts.dto.AgeHistogramResponse;
 import com.safetyname.alerts.dto.FirestationResponse;
 import com.safetyname.alerts.dto.PersonInfo;
 import com.safetyname.alerts.entity.FireStation;
@@ -9,6 +13,7 @@ import com.safetyname.alerts.entity.Person;
 import com.safetyname.alerts.service.DataService;
 import com.safetyname.alerts.service.IDataService;
 import com.safetyname.alerts.service.IFireStationService;
+import com.safetyname.alerts.json.SharedResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +27,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -244,7 +251,7 @@ class FirestationControllerTest {
 
         FirestationResponse firestationResponse = new FirestationResponse(personInfoList,1,1);
         // Simulate data returned by DataService for persons
-        when(fireStationService.getFireStationService(1)).thenReturn(firestationResponse);
+        when(fireStationService.getFireStationResponse(1)).thenReturn(new SharedResponse<>(firestationResponse));
 
 
         // Perform the GET request
@@ -304,4 +311,79 @@ class FirestationControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
+
+    /**
+     * Tests retrieving the age histogram of a fire station with the default bounds.
+     * <p>
+     * Expects a 200 OK status with one bucket per age range.
+     *
+     * @throws Exception if an error occurs during the request.
+     */
+    @Test
+    void testGetAgeHistogramSuccess() throws Exception {
+        logger.info("Testing retrieval of the age histogram of a fire station.");
+        AgeHistogramResponse histogram = new AgeHistogramResponse(1, Arrays.asList(
+                new AgeBucket(0, 17, 2), new AgeBucket(18, 64, 3), new AgeBucket(65, null, 1)), 0);
+        when(fireStationService.getAgeHistogram(1, List.of(18, 65))).thenReturn(histogram);
+
+        mockMvc.perform(get("/firestation/ages?stationNumber=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stationNumber").value(1))
+                .andExpect(jsonPath("$.buckets[0].maxAge").value(17))
+                .andExpect(jsonPath("$.buckets[1].count").value(3))
+                .andExpect(jsonPath("$.buckets[2].minAge").value(65))
+                .andExpect(jsonPath("$.unknownCount").value(0));
+    }
+
+    /**
+     * Tests retrieving the age histogram in CBOR.
+     * <p>
+     * Expects a 200 OK status and the histogram encoded in CBOR by the hand-written serializers.
+     *
+     * @throws Exception if an error occurs during the request.
+     */
+    @Test
+    void testGetAgeHistogramInCbor() throws Exception {
+        AgeHistogramResponse histogram = new AgeHistogramResponse(1, List.of(new AgeBucket(0, 17, 2), new AgeBucket(18, null, 4)), 1);
+        when(fireStationService.getAgeHistogram(1, List.of(18))).thenReturn(histogram);
+
+        byte[] cbor = mockMvc.perform(get("/firestation/ages?stationNumber=1&bounds=18").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode decoded = new CBORMapper().readTree(cbor);
+        assertEquals(4, decoded.path("buckets").path(1).path("count").asInt());
+        assertTrue(decoded.path("buckets").path(1).path("maxAge").isNull());
+        assertEquals(1, decoded.path("unknownCount").asInt());
+    }
+
+    /**
+     * Tests retrieving the age histogram with bounds that are not strictly ascending.
+     * <p>
+     * Expects a 400 Bad Request status.
+     *
+     * @throws Exception if an error occurs during the request.
+     */
+    @Test
+    void testGetAgeHistogramInvalidBounds() throws Exception {
+        logger.info("Testing retrieval of the age histogram with invalid bounds.");
+        mockMvc.perform(get("/firestation/ages?stationNumber=1&bounds=65,18"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/firestation/ages?stationNumber=1&bounds=0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Tests retrieving the age histogram of a fire station covering nobody.
+     * <p>
+     * Expects a 404 Not Found status.
+     *
+     * @throws Exception if an error occurs during the request.
+     */
+    @Test
+    void testGetAgeHistogramNotFound() throws Exception {
+        logger.info("Testing retrieval of the age histogram when no persons are found.");
+        mockMvc.perform(get("/firestation/ages?stationNumber=9&bounds=10,20"))
+                .andExpect(status().isNotFound());
+    }
 }
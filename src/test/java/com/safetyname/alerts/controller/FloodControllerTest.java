@@ -1,5 +1,9 @@
 package com.safetyname.alerts.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.safetyname.alerts.dto.FloodResponse;
 import com.safetyname.alerts.entity.MedicalRecord;
 import com.safetyname.alerts.entity.Person;
@@ -7,6 +11,8 @@ import com.safetyname.alerts.service.CalculateAgeService;
 import com.safetyname.alerts.service.DataService;
 import com.safetyname.alerts.service.IDataService;
 import com.safetyname.alerts.service.IFloodService;
+import com.safetyname.alerts.json.FieldSet;
+import com.safetyname.alerts.json.SharedResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -21,6 +27,7 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -85,7 +92,7 @@ class FloodControllerTest {
     void testGetHouseholdsByStationSuccess() throws Exception {
         logger.info("Testing successful retrieval of households by station numbers.");
         List<Integer> stations=Arrays.asList(1,2);
-        when(floodService.getFloodService(stations)).thenReturn(householdsByAddress);
+        when(floodService.getFloodResponse(stations, FieldSet.ALL)).thenReturn(new SharedResponse<>(householdsByAddress));
 
         mockMvc.perform(get("/flood/stations")
                         .param("stations", "1,2"))
@@ -97,6 +104,32 @@ class FloodControllerTest {
                 .andExpect(jsonPath("$.['456 Elm St'][0].lastName").value("Smith"));  // Check second address resident's lastName
     }
 
+    /**
+     * Tests that the households are encoded in CBOR or Smile when the client asks for it.
+     * <p>
+     * Expects the same document as the JSON response, in the requested encoding.
+     *
+     * @throws Exception if an error occurs during the request.
+     */
+    @Test
+    void testGetHouseholdsByStationBinaryEncodings() throws Exception {
+        when(floodService.getFloodResponse(Arrays.asList(1, 2), FieldSet.ALL)).thenReturn(new SharedResponse<>(householdsByAddress));
+        JsonNode expected = new ObjectMapper().readTree(mockMvc.perform(get("/flood/stations").param("stations", "1,2"))
+                .andReturn().getResponse().getContentAsByteArray());
+
+        byte[] cbor = mockMvc.perform(get("/flood/stations").param("stations", "1,2").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(expected, new CBORMapper().readTree(cbor));
+
+        byte[] smile = mockMvc.perform(get("/flood/stations").param("stations", "1,2").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(expected, new SmileMapper().readTree(smile));
+    }
+
     /**
      * Tests the handling of a bad request when no station numbers are provided.
      * <p>
@@ -0,0 +1,101 @@
+package com.safetyname.alerts.controller;
+
+import com.safetyname.alerts.dto.LoadStatus;
+import com.safetyname.alerts.service.IDataLoadService;
+import com.safetyname.alerts.service.ISyncService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests of the health endpoints, and of the refusal of the data endpoints by the {@link ReadinessInterceptor}
+ * until the data is loaded.
+ */
+@WebMvcTest({HealthController.class, SyncController.class})
+class HealthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private IDataLoadService dataLoadService;
+
+    @MockBean
+    private ISyncService syncService;
+
+    /**
+     * Test the health endpoints while the data file is being read.
+     * Expects the application alive but not ready, with the progress of the read.
+     */
+    @Test
+    void testHealthWhileLoading() throws Exception {
+        when(dataLoadService.isLive()).thenReturn(true);
+        when(dataLoadService.isReady()).thenReturn(false);
+        when(dataLoadService.getRetryAfterSeconds()).thenReturn(5);
+        when(dataLoadService.getStatus()).thenReturn(
+                new LoadStatus(false, "READING", "data.json", 512, 2048, 25, 0, 0, 0, 40, null));
+
+        mockMvc.perform(get("/health/liveness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.phase").value("READING"));
+        mockMvc.perform(get("/health/readiness"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"))
+                .andExpect(jsonPath("$.ready").value(false))
+                .andExpect(jsonPath("$.percent").value(25));
+    }
+
+    /**
+     * Test the health endpoints once the data is loaded.
+     */
+    @Test
+    void testHealthWhenReady() throws Exception {
+        when(dataLoadService.isLive()).thenReturn(true);
+        when(dataLoadService.isReady()).thenReturn(true);
+        when(dataLoadService.getStatus()).thenReturn(
+                new LoadStatus(true, "READY", "data.json", 2048, 2048, 100, 23, 13, 23, 120, null));
+
+        mockMvc.perform(get("/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Retry-After"))
+                .andExpect(jsonPath("$.persons").value(23));
+    }
+
+    /**
+     * Test the liveness endpoint after the virtual machine broke during the load.
+     * Expects a 503 Service Unavailable status.
+     */
+    @Test
+    void testLivenessWhenBroken() throws Exception {
+        when(dataLoadService.isLive()).thenReturn(false);
+        when(dataLoadService.getStatus()).thenReturn(
+                new LoadStatus(false, "FAILED", "data.json", 1024, 2048, 50, 0, 0, 0, 900, "java.lang.OutOfMemoryError"));
+
+        mockMvc.perform(get("/health/liveness"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error").value("java.lang.OutOfMemoryError"));
+    }
+
+    /**
+     * Test a data endpoint before the data is loaded.
+     * Expects a 503 Service Unavailable status with a Retry-After header, without calling the service.
+     */
+    @Test
+    void testDataEndpointRefusedUntilReady() throws Exception {
+        when(dataLoadService.isReady()).thenReturn(false);
+        when(dataLoadService.getRetryAfterSeconds()).thenReturn(5);
+
+        mockMvc.perform(get("/sync").param("stations", "1"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"));
+
+        verifyNoInteractions(syncService);
+    }
+}
@@ -0,0 +1,105 @@
+package com.safetyname.alerts.controller;
+
+import com.safetyname.alerts.dto.MedicalAlertResponse;
+import com.safetyname.alerts.service.IMedicalAlertService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for {@link MedicalAlertController}.
+ * <p>
+ * This class contains unit tests for the MedicalAlertController endpoints, verifying
+ * successful searches, bad requests and searches matching nobody.
+ */
+@WebMvcTest(MedicalAlertController.class)
+class MedicalAlertControllerTest {
+
+    private static final Logger logger = LogManager.getLogger(MedicalAlertControllerTest.class);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private IMedicalAlertService medicalAlertService;
+
+    /**
+     * Tests the successful search of residents by allergy within a station.
+     * <p>
+     * Expects a 200 OK status and the residents returned by the service.
+     *
+     * @throws Exception if an error occurs during the request.
+     */
+    @Test
+    void testGetPersonsByAllergySuccess() throws Exception {
+        logger.info("Testing successful search by allergy");
+        when(medicalAlertService.getPersonsByAllergy("penicillin", List.of(3), null)).thenReturn(List.of(
+                new MedicalAlertResponse("John", "Doe", "123 Main St", "123-456-7890", 40, List.of(), List.of("penicillin"))));
+
+        mockMvc.perform(get("/medicalAlert/allergy").param("name", "penicillin").param("stations", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].firstName").value("John"))
+                .andExpect(jsonPath("$[0].allergies[0]").value("penicillin"));
+    }
+
+    /**
+     * Tests the successful search of residents by medication at given addresses.
+     * <p>
+     * Expects a 200 OK status.
+     *
+     * @throws Exception if an error occurs during the request.
+     */
+    @Test
+    void testGetPersonsByMedicationSuccess() throws Exception {
+        logger.info("Testing successful search by medication");
+        when(medicalAlertService.getPersonsByMedication("insulin", null, List.of("123 Main St", "456 Elm St"))).thenReturn(List.of(
+                new MedicalAlertResponse("John", "Doe", "123 Main St", "123-456-7890", 40, List.of("insulin:10ui"), List.of())));
+
+        mockMvc.perform(get("/medicalAlert/medication").param("name", "insulin").param("addresses", "123 Main St", "456 Elm St"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].medications[0]").value("insulin:10ui"));
+    }
+
+    /**
+     * Tests the handling of an empty term.
+     * <p>
+     * Expects a 400 Bad Request status.
+     *
+     * @throws Exception if an error occurs during the request.
+     */
+    @Test
+    void testBadRequest() throws Exception {
+        mockMvc.perform(get("/medicalAlert/allergy").param("name", " "))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/medicalAlert/medication").param("name", ""))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Tests the scenario where nobody matches the term.
+     * <p>
+     * Expects a 404 Not Found status.
+     *
+     * @throws Exception if an error occurs during the request.
+     */
+    @Test
+    void testNotFound() throws Exception {
+        when(medicalAlertService.getPersonsByMedication(eq("aspirin"), any(), any())).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/medicalAlert/medication").param("name", "aspirin"))
+                .andExpect(status().isNotFound());
+    }
+}
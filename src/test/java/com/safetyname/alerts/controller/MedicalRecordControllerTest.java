@@ -1,6 +1,7 @@
 package com.safetyname.alerts.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetyname.alerts.dto.MedicalRecordResidency;
 import com.safetyname.alerts.entity.MedicalRecord;
 import com.safetyname.alerts.service.DataService;
 import com.safetyname.alerts.service.IDataService;
@@ -218,4 +219,24 @@ class MedicalRecordControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(content().string("Medical record not found"));
     }
+
+    /**
+     * Tests the residency counters of tiered medical records, and the 404 when the records are not tiered.
+     *
+     * @throws Exception if an error occurs during the request.
+     */
+    @Test
+    void testGetResidency() throws Exception {
+        when(dataService.getMedicalRecordResidency()).thenReturn(new MedicalRecordResidency(23, 10, 10, 13, 1024, 40, 23, 13));
+        mockMvc.perform(get("/medicalRecord/residency"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records").value(23))
+                .andExpect(jsonPath("$.hotRecords").value(10))
+                .andExpect(jsonPath("$.coldRecords").value(13))
+                .andExpect(jsonPath("$.evictions").value(13));
+
+        when(dataService.getMedicalRecordResidency()).thenReturn(null);
+        mockMvc.perform(get("/medicalRecord/residency"))
+                .andExpect(status().isNotFound());
+    }
 }
@@ -1,6 +1,7 @@
 package com.safetyname.alerts.controller;
 
 import com.safetyname.alerts.dto.PersonInfoLastNameResponse;
+import com.safetyname.alerts.json.FieldSet;
 import com.safetyname.alerts.service.IPersonInfoLastNameService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,7 +17,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.Collections;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -43,7 +46,7 @@ class PersonInfoLastNameControllerTest {
         );
 
         // Mock the service method to return the mock response
-        when(personInfoLastNameService.getPersonInfoLastNameService(anyString())).thenReturn(mockResponse);
+        when(personInfoLastNameService.getPersonInfoLastNameService(anyString(), eq(FieldSet.ALL))).thenReturn(mockResponse);
 
         // Perform the GET request and validate the response
         mockMvc.perform(get("/personInfolastName/Doe")
@@ -60,7 +63,7 @@ class PersonInfoLastNameControllerTest {
     @Test
     void testGetPersonInfolastNameNotFound() throws Exception {
         // Mock the service method to return an empty list
-        when(personInfoLastNameService.getPersonInfoLastNameService(anyString())).thenReturn(Collections.emptyList());
+        when(personInfoLastNameService.getPersonInfoLastNameService(anyString(), eq(FieldSet.ALL))).thenReturn(Collections.emptyList());
 
         // Perform the GET request and validate the response
         mockMvc.perform(get("/personInfolastName/NonExistentLastName")
@@ -79,4 +82,66 @@ class PersonInfoLastNameControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());  // Should be 404 since the path is incomplete
     }
+
+    /**
+     * Test the phonetic match mode.
+     * Expects the phonetic service method to be used and a 200 OK status.
+     */
+    @Test
+    void testGetPersonInfolastNamePhonetic() throws Exception {
+        List<PersonInfoLastNameResponse> mockResponse = List.of(
+                new PersonInfoLastNameResponse("Boyd",  "1509 Culver St", 40, "jaboyd@email.com", List.of(), List.of())
+        );
+
+        when(personInfoLastNameService.getPersonInfoPhoneticLastNameService(eq("Boyde"), eq(FieldSet.ALL))).thenReturn(mockResponse);
+
+        mockMvc.perform(get("/personInfolastName/Boyde").param("match", "phonetic")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].lastName").value("Boyd"));
+    }
+
+    /**
+     * Test the scenario where the match mode is unknown.
+     * Expects a 400 Bad Request status.
+     */
+    @Test
+    void testGetPersonInfolastNameUnknownMatchMode() throws Exception {
+        mockMvc.perform(get("/personInfolastName/Boyd").param("match", "fuzzy")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test the fields parameter.
+     * Expects the requested fields only and a 200 OK status.
+     */
+    @Test
+    void testGetPersonInfolastNameWithFields() throws Exception {
+        List<PersonInfoLastNameResponse> mockResponse = List.of(
+                new PersonInfoLastNameResponse("Boyd",  "1509 Culver St", -1, "jaboyd@email.com", List.of("med1"), List.of())
+        );
+
+        when(personInfoLastNameService.getPersonInfoLastNameService(eq("Boyd"), any(FieldSet.class))).thenReturn(mockResponse);
+
+        mockMvc.perform(get("/personInfolastName/Boyd").param("fields", "address,email")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].address").value("1509 Culver St"))
+                .andExpect(jsonPath("$[0].email").value("jaboyd@email.com"))
+                .andExpect(jsonPath("$[0].lastName").doesNotExist())
+                .andExpect(jsonPath("$[0].age").doesNotExist())
+                .andExpect(jsonPath("$[0].medications").doesNotExist());
+    }
+
+    /**
+     * Test the scenario where an unknown field is requested.
+     * Expects a 400 Bad Request status.
+     */
+    @Test
+    void testGetPersonInfolastNameUnknownField() throws Exception {
+        mockMvc.perform(get("/personInfolastName/Boyd").param("fields", "address,ssn")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
 }
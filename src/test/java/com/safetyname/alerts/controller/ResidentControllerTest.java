@@ -0,0 +1,118 @@
+package com.safetyname.alerts.controller;
+
+import com.safetyname.alerts.dto.MedicalAlertResponse;
+import com.safetyname.alerts.index.QueryPlan;
+import com.safetyname.alerts.index.ResidentQuery;
+import com.safetyname.alerts.service.IResidentService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for {@link ResidentController}.
+ * <p>
+ * This class contains unit tests for the ResidentController endpoint, verifying
+ * the mapping of the criteria, bad requests, searches matching nobody and the explain endpoint.
+ */
+@WebMvcTest(ResidentController.class)
+class ResidentControllerTest {
+
+    private static final Logger logger = LogManager.getLogger(ResidentControllerTest.class);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private IResidentService residentService;
+
+    /**
+     * Tests a successful combined search.
+     * <p>
+     * Expects the criteria to be passed to the service and a 200 OK status.
+     *
+     * @throws Exception if an error occurs during the request.
+     */
+    @Test
+    void testFindResidentsSuccess() throws Exception {
+        logger.info("Testing successful combined resident search");
+        when(residentService.findResidents(argThat((ResidentQuery query) ->
+                query.getStations().equals(Set.of(1, 3)) && query.getMaxAge() == 17
+                        && query.getAllergies().equals(Set.of("peanut")))))
+                .thenReturn(List.of(new MedicalAlertResponse("Tenley", "Boyd", "1509 Culver St", "841-874-6512", 12, List.of(), List.of("peanut"))));
+
+        mockMvc.perform(get("/residents").param("stations", "1,3").param("maxAge", "17").param("allergies", "peanut"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].firstName").value("Tenley"));
+    }
+
+    /**
+     * Tests the handling of a search without criterion or with an invalid age range.
+     * <p>
+     * Expects a 400 Bad Request status.
+     *
+     * @throws Exception if an error occurs during the request.
+     */
+    @Test
+    void testFindResidentsBadRequest() throws Exception {
+        mockMvc.perform(get("/residents"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/residents").param("minAge", "18").param("maxAge", "10"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Tests the scenario where nobody matches.
+     * <p>
+     * Expects a 404 Not Found status.
+     *
+     * @throws Exception if an error occurs during the request.
+     */
+    @Test
+    void testFindResidentsNotFound() throws Exception {
+        when(residentService.findResidents(any())).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/residents").param("medications", "insulin"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Tests explaining a search on cities and last names.
+     * <p>
+     * Expects the steps of the plan returned by the service and a 200 OK status.
+     *
+     * @throws Exception if an error occurs during the request.
+     */
+    @Test
+    void testExplainResidents() throws Exception {
+        logger.info("Testing the explanation of a combined resident search");
+        QueryPlan plan = new QueryPlan("posting index", 23, List.of(
+                QueryPlan.step(QueryPlan.Access.INDEX_LOOKUP, "lastName in [Boyd]", 6, 0.3),
+                QueryPlan.step(QueryPlan.Access.FILTER, "city in [Culver]", 6, 6)));
+        when(residentService.explain(argThat((ResidentQuery query) ->
+                query.getCities().equals(Set.of("Culver")) && query.getLastNames().equals(Set.of("Boyd")))))
+                .thenReturn(plan);
+
+        mockMvc.perform(get("/residents/explain").param("cities", "Culver").param("lastNames", "Boyd"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(23))
+                .andExpect(jsonPath("$.steps[0].access").value("INDEX_LOOKUP"))
+                .andExpect(jsonPath("$.steps[1].predicate").value("city in [Culver]"));
+
+        mockMvc.perform(get("/residents/explain"))
+                .andExpect(status().isBadRequest());
+    }
+}
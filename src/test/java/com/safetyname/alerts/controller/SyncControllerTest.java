@@ -0,0 +1,86 @@
+package com.safetyname.alerts.controller;
+
+import com.safetyname.alerts.dto.SyncResponse;
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.service.ISyncService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(SyncController.class)
+class SyncControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ISyncService syncService;
+
+    /**
+     * Test a delta synchronization.
+     * Expects the changes and the version reached.
+     */
+    @Test
+    void testGetChangesSuccess() throws Exception {
+        Person person = new Person("John", "Boyd", "1509 Culver St", "Culver", "jaboyd@email.com", 97451, "841-874-6512");
+        MedicalRecord medicalRecord = new MedicalRecord("Jacob", "Boyd", "03/06/1989", List.of(), List.of());
+        when(syncService.getChanges(List.of(1, 3), "42-12")).thenReturn(new SyncResponse("42-14", false, List.of(person), List.of(),
+                List.of(new FireStation("1509 Culver St", 3)), List.of(), List.of(medicalRecord), List.of()));
+
+        mockMvc.perform(get("/sync").param("stations", "1,3").param("since", "42-12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value("42-14"))
+                .andExpect(jsonPath("$.full").value(false))
+                .andExpect(jsonPath("$.persons[0].firstName").value("John"))
+                .andExpect(jsonPath("$.fireStations[0].station").value(3))
+                .andExpect(jsonPath("$.deletedMedicalRecords[0].firstName").value("Jacob"))
+                .andExpect(jsonPath("$.deletedPersons").isEmpty());
+    }
+
+    /**
+     * Test a first synchronization, without version.
+     */
+    @Test
+    void testGetChangesWithoutVersion() throws Exception {
+        when(syncService.getChanges(List.of(2), null)).thenReturn(new SyncResponse("42-3", true, List.of(), List.of(),
+                List.of(), List.of(), List.of(), List.of()));
+
+        mockMvc.perform(get("/sync").param("stations", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.full").value(true));
+
+        verify(syncService).getChanges(eq(List.of(2)), isNull());
+    }
+
+    /**
+     * Test the scenarios where the stations are missing or the version is malformed.
+     * Expects a 400 Bad Request status.
+     */
+    @Test
+    void testGetChangesBadRequest() throws Exception {
+        mockMvc.perform(get("/sync").param("stations", ""))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/sync").param("stations", "1").param("since", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/sync").param("stations", "1").param("since", "42-x"))
+                .andExpect(status().isBadRequest());
+
+        verify(syncService, never()).getChanges(any(), any());
+    }
+}
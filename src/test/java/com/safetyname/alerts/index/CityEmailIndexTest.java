@@ -0,0 +1,73 @@
+package com.safetyname.alerts.index;
+
+import com.safetyname.alerts.entity.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link CityEmailIndex}.
+ * <p>
+ * Verifies that emails are grouped by normalized city, de-duplicated,
+ * and kept consistent when persons are added or removed.
+ */
+class CityEmailIndexTest {
+
+    private CityEmailIndex index;
+    private Person john;
+    private Person jane;
+    private Person bob;
+
+    @BeforeEach
+    void setUp() {
+        john = new Person("John", "Doe", "123 Main St", "Chalon-sur-Saône", "doe@example.com", 71100, "123-456-7890");
+        jane = new Person("Jane", "Doe", "123 Main St", "Chalon-sur-Saône", "doe@example.com", 71100, "987-654-3210");
+        bob = new Person("Bob", "Smith", "789 Pine St", "Culver", "bob@example.com", 97451, "555-555-5555");
+        index = new CityEmailIndex();
+        index.rebuild(Arrays.asList(john, jane, bob));
+    }
+
+    /**
+     * Tests that the city is matched regardless of case, accents and whitespace.
+     */
+    @Test
+    void testGetEmailsWithNormalizedCity() {
+        List<String> emails = index.getEmails("  CHALON-SUR-SAONE ");
+
+        assertEquals(List.of("doe@example.com"), emails);
+    }
+
+    /**
+     * Tests that a shared email remains indexed until its last resident is removed.
+     */
+    @Test
+    void testRemoveKeepsSharedEmail() {
+        index.remove(john);
+        assertEquals(List.of("doe@example.com"), index.getEmails("Chalon-sur-Saône"));
+
+        index.remove(jane);
+        assertTrue(index.getEmails("Chalon-sur-Saône").isEmpty());
+    }
+
+    /**
+     * Tests that an added person is immediately visible in the index.
+     */
+    @Test
+    void testAdd() {
+        index.add(new Person("Alice", "Smith", "789 Pine St", "culver", "alice@example.com", 97451, "555-555-5556"));
+
+        assertEquals(List.of("bob@example.com", "alice@example.com"), index.getEmails("Culver"));
+    }
+
+    /**
+     * Tests that an unknown city returns an empty list.
+     */
+    @Test
+    void testGetEmailsUnknownCity() {
+        assertTrue(index.getEmails("Springfield").isEmpty());
+    }
+}
@@ -0,0 +1,99 @@
+package com.safetyname.alerts.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link CompressedBitmap}.
+ * <p>
+ * Verifies the bitmap against {@link BitSet} on sparse and dense chunks, including the conversions
+ * between the sorted array and the bitset representations.
+ */
+class CompressedBitmapTest {
+
+    /**
+     * Tests adding, removing and looking up values.
+     */
+    @Test
+    void testAddRemoveContains() {
+        CompressedBitmap bitmap = CompressedBitmap.of(3, 70000, 1);
+
+        assertTrue(bitmap.contains(70000));
+        assertFalse(bitmap.add(3));
+        assertArrayEquals(new int[]{1, 3, 70000}, bitmap.toArray());
+
+        assertTrue(bitmap.remove(70000));
+        assertFalse(bitmap.remove(70000));
+        assertEquals(2, bitmap.cardinality());
+    }
+
+    /**
+     * Tests that a chunk switches to a bitset above the array threshold and back below it.
+     */
+    @Test
+    void testDenseChunkConversions() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int i = 0; i < 10000; i++) {
+            bitmap.add(i * 2);
+        }
+        assertEquals(10000, bitmap.cardinality());
+        for (int i = 0; i < 9000; i++) {
+            bitmap.remove(i * 2);
+        }
+        assertEquals(1000, bitmap.cardinality());
+        assertTrue(bitmap.contains(19998));
+        assertFalse(bitmap.contains(0));
+    }
+
+    /**
+     * Tests intersections and unions against {@link BitSet} on random sparse and dense data.
+     */
+    @Test
+    void testAndOrAgainstBitSet() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            BitSet expectedA = new BitSet();
+            BitSet expectedB = new BitSet();
+            CompressedBitmap a = new CompressedBitmap();
+            CompressedBitmap b = new CompressedBitmap();
+            int countA = random.nextInt(20000);
+            int countB = random.nextInt(20000);
+            for (int i = 0; i < countA; i++) {
+                int value = random.nextInt(round % 2 == 0 ? 200000 : 30000);
+                a.add(value);
+                expectedA.set(value);
+            }
+            for (int i = 0; i < countB; i++) {
+                int value = random.nextInt(200000);
+                b.add(value);
+                expectedB.set(value);
+            }
+
+            BitSet expectedAnd = (BitSet) expectedA.clone();
+            expectedAnd.and(expectedB);
+            BitSet expectedOr = (BitSet) expectedA.clone();
+            expectedOr.or(expectedB);
+
+            assertArrayEquals(expectedAnd.stream().toArray(), CompressedBitmap.and(a, b).toArray());
+            assertArrayEquals(expectedOr.stream().toArray(), CompressedBitmap.or(a, b).toArray());
+            assertArrayEquals(expectedA.stream().toArray(), a.toArray());
+        }
+    }
+
+    /**
+     * Tests that a copy is independent of the original bitmap.
+     */
+    @Test
+    void testCopy() {
+        CompressedBitmap bitmap = CompressedBitmap.of(1, 2, 3);
+        CompressedBitmap copy = bitmap.copy();
+        copy.add(4);
+
+        assertEquals(3, bitmap.cardinality());
+        assertEquals(4, copy.cardinality());
+    }
+}
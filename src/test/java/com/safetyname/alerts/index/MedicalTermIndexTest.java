@@ -0,0 +1,82 @@
+package com.safetyname.alerts.index;
+
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link MedicalTermIndex} and {@link NameIndex}.
+ * <p>
+ * Verifies the extraction of terms, the lookups and the incremental maintenance of the indexes.
+ */
+class MedicalTermIndexTest {
+
+    private MedicalTermIndex medicationIndex;
+    private MedicalTermIndex allergyIndex;
+    private MedicalRecord john;
+    private MedicalRecord sophia;
+
+    @BeforeEach
+    void setUp() {
+        john = new MedicalRecord("John", "Boyd", "03/06/1984",
+                Arrays.asList("aznol:350mg", "hydrapermazol:100mg"), Arrays.asList("nillacilan"));
+        sophia = new MedicalRecord("Sophia", "Zemicks", "03/06/1988",
+                Arrays.asList("Aznol:60mg", "aznol:200mg"), Arrays.asList("peanut", "shellfish"));
+        medicationIndex = MedicalTermIndex.medications();
+        allergyIndex = MedicalTermIndex.allergies();
+        medicationIndex.rebuild(Arrays.asList(john, sophia));
+        allergyIndex.rebuild(Arrays.asList(john, sophia));
+    }
+
+    /**
+     * Tests that the dosage, case and surrounding whitespace are dropped from terms.
+     */
+    @Test
+    void testTerm() {
+        assertEquals("hydrapermazol", MedicalTermIndex.term(" Hydrapermazol:100mg"));
+        assertEquals("peanut", MedicalTermIndex.term("Peanut"));
+        assertEquals("", MedicalTermIndex.term(null));
+    }
+
+    /**
+     * Tests that a drug is found whatever its dosage, and that each record is listed once per term.
+     */
+    @Test
+    void testFindMedication() {
+        assertEquals(List.of(john, sophia), medicationIndex.find("AZNOL"));
+        assertEquals(List.of(john), medicationIndex.find("hydrapermazol:999mg"));
+        assertTrue(medicationIndex.find("insulin").isEmpty());
+    }
+
+    /**
+     * Tests that a removed record is no longer found.
+     */
+    @Test
+    void testRemove() {
+        allergyIndex.remove(sophia);
+
+        assertTrue(allergyIndex.find("peanut").isEmpty());
+        assertEquals(List.of(john), allergyIndex.find("nillacilan"));
+    }
+
+    /**
+     * Tests the lookup of persons by full name.
+     */
+    @Test
+    void testNameIndex() {
+        NameIndex<Person> nameIndex = NameIndex.persons();
+        Person person = new Person(
+                "John", "Boyd", "1509 Culver St", "Culver", "jaboyd@email.com", 97451, "841-874-6512");
+        nameIndex.add(person);
+
+        assertEquals(List.of(person), nameIndex.find("John", "Boyd"));
+        nameIndex.remove(person);
+        assertTrue(nameIndex.find("John", "Boyd").isEmpty());
+    }
+}
@@ -0,0 +1,76 @@
+package com.safetyname.alerts.index;
+
+import com.safetyname.alerts.entity.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PhoneticIndex} and {@link Soundex}.
+ * <p>
+ * Verifies the Soundex codes, the ranking of candidates and the incremental maintenance of the index.
+ */
+class PhoneticIndexTest {
+
+    private PhoneticIndex index;
+    private Person johnBoyd;
+    private Person jacobBoyd;
+    private Person annBoyde;
+
+    @BeforeEach
+    void setUp() {
+        johnBoyd = new Person("John", "Boyd", "1509 Culver St", "Culver", "jaboyd@email.com", 97451, "841-874-6512");
+        jacobBoyd = new Person("Jacob", "Boyd", "1509 Culver St", "Culver", "drk@email.com", 97451, "841-874-6513");
+        annBoyde = new Person("Ann", "Boyde", "29 15th St", "Culver", "ann@email.com", 97451, "841-874-6514");
+        index = new PhoneticIndex();
+        index.rebuild(Arrays.asList(johnBoyd, annBoyde, jacobBoyd,
+                new Person("Tony", "Cooper", "112 Steppes Pl", "Culver", "tcoop@ymail.com", 97451, "841-874-6874")));
+    }
+
+    /**
+     * Tests well-known Soundex codes.
+     */
+    @Test
+    void testSoundexEncode() {
+        assertEquals("B300", Soundex.encode("Boyd"));
+        assertEquals("B300", Soundex.encode("Boyde"));
+        assertEquals("R163", Soundex.encode("Robert"));
+        assertEquals("R163", Soundex.encode("Rupert"));
+        assertEquals("A261", Soundex.encode("Ashcraft"));
+        assertEquals("T522", Soundex.encode("Tymczak"));
+        assertEquals("P236", Soundex.encode("Pfister"));
+        assertEquals("", Soundex.encode(" "));
+    }
+
+    /**
+     * Tests that a misspelled name finds the persons whose last name sounds alike, closest spelling first.
+     */
+    @Test
+    void testFindRanksClosestSpellingFirst() {
+        assertEquals(List.of(annBoyde, johnBoyd, jacobBoyd), index.find("boyde"));
+        assertEquals(List.of(johnBoyd, jacobBoyd, annBoyde), index.find("Boyd"));
+    }
+
+    /**
+     * Tests that a removed person is no longer returned.
+     */
+    @Test
+    void testRemove() {
+        index.remove(annBoyde);
+        index.remove(johnBoyd);
+
+        assertEquals(List.of(jacobBoyd), index.find("Boyde"));
+    }
+
+    /**
+     * Tests that a name sounding like no indexed name returns an empty list.
+     */
+    @Test
+    void testFindNoMatch() {
+        assertTrue(index.find("Zemicks").isEmpty());
+    }
+}
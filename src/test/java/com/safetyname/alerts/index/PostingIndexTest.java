@@ -0,0 +1,201 @@
+package com.safetyname.alerts.index;
+
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PostingIndex}.
+ * <p>
+ * Verifies the combined queries over stations, addresses, cities, last names, ages and medical attributes,
+ * the plans chosen for them, and the maintenance of the posting lists when entities change.
+ */
+class PostingIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 15);
+
+    private PostingIndex index;
+    private Person john;
+    private Person tenley;
+    private Person tony;
+    private List<FireStation> firestations;
+
+    @BeforeEach
+    void setUp() {
+        john = new Person("John", "Boyd", "1509 Culver St", "Culver", "jaboyd@email.com", 97451, "841-874-6512");
+        tenley = new Person("Tenley", "Boyd", "1509 Culver St", "Culver", "tenz@email.com", 97451, "841-874-6512");
+        tony = new Person("Tony", "Cooper", "112 Steppes Pl", "Culver", "tcoop@ymail.com", 97451, "841-874-6874");
+        firestations = new ArrayList<>(Arrays.asList(new FireStation("1509 Culver St", 3), new FireStation("112 Steppes Pl", 4)));
+        List<MedicalRecord> records = Arrays.asList(
+                new MedicalRecord("John", "Boyd", "03/06/1984", List.of("aznol:350mg"), List.of("nillacilan")),
+                new MedicalRecord("Tenley", "Boyd", "06/16/2006", List.of(), List.of("peanut")),
+                new MedicalRecord("Tony", "Cooper", "03/06/1994", List.of("aznol:60mg"), List.of("peanut")));
+        index = new PostingIndex();
+        index.rebuild(Arrays.asList(john, tenley, tony), firestations, records);
+    }
+
+    /**
+     * Tests the lookups by station and by address.
+     */
+    @Test
+    void testFindByStationAndAddress() {
+        assertEquals(List.of(john, tenley), index.findByStation(3));
+        assertEquals(List.of(tony), index.findByAddress("112 Steppes Pl"));
+        assertTrue(index.findByStation(9).isEmpty());
+    }
+
+    /**
+     * Tests a query combining coverage, age and allergy, with the exact age checked on the boundary year.
+     */
+    @Test
+    void testFindCombined() {
+        ResidentQuery minorsAllergicToPeanut = new ResidentQuery();
+        minorsAllergicToPeanut.getStations().addAll(List.of(3, 4));
+        minorsAllergicToPeanut.setMaxAge(17);
+        minorsAllergicToPeanut.getAllergies().add("Peanut");
+
+        // Tenley turns 18 the day after TODAY.
+        assertEquals(List.of(tenley), index.find(minorsAllergicToPeanut, TODAY));
+        assertTrue(index.find(minorsAllergicToPeanut, TODAY.plusDays(1)).isEmpty());
+
+        ResidentQuery onAznol = new ResidentQuery();
+        onAznol.getMedications().add("aznol");
+        onAznol.setMinAge(18);
+        assertEquals(List.of(john, tony), index.find(onAznol, TODAY));
+    }
+
+    /**
+     * Tests that an empty query returns every person and an unknown term returns nobody.
+     */
+    @Test
+    void testFindWithoutCriteriaOrUnknownTerm() {
+        assertEquals(List.of(john, tenley, tony), index.find(new ResidentQuery(), TODAY));
+
+        ResidentQuery unknown = new ResidentQuery();
+        unknown.getAllergies().add("penicillin");
+        assertTrue(index.find(unknown, TODAY).isEmpty());
+    }
+
+    /**
+     * Tests that moving, deleting persons and changing mappings or records update the posting lists.
+     */
+    @Test
+    void testMutations() {
+        index.removePerson(tony);
+        tony.setAddress("1509 Culver St");
+        index.addPerson(tony);
+        assertEquals(List.of(john, tenley, tony), index.findByStation(3));
+
+        index.releasePerson(john);
+        assertEquals(List.of(tenley, tony), index.findByAddress("1509 Culver St"));
+
+        firestations.get(0).setStation(2);
+        index.rebuildStations(firestations);
+        assertTrue(index.findByStation(3).isEmpty());
+        assertEquals(List.of(tenley, tony), index.findByStation(2));
+
+        MedicalRecord tonyRecord = new MedicalRecord("Tony", "Cooper", "03/06/1994", List.of(), List.of());
+        index.addMedicalRecord(tonyRecord);
+        ResidentQuery onAznol = new ResidentQuery();
+        onAznol.getMedications().add("aznol");
+        assertTrue(index.find(onAznol, TODAY).isEmpty());
+    }
+
+    /**
+     * Tests that adding and removing single mappings maintains the station posting lists, an address keeping
+     * its residents in a station while another mapping still points to it.
+     */
+    @Test
+    void testIncrementalMappings() {
+        FireStation second = new FireStation("1509 Culver St", 3);
+        index.addFireStation(second);
+        index.addFireStation(new FireStation("1509 Culver St", 1));
+        assertEquals(List.of(john, tenley), index.findByStation(1));
+
+        index.removeFireStation(firestations.get(0));
+        assertEquals(List.of(john, tenley), index.findByStation(3));
+        index.removeFireStation(second);
+        assertTrue(index.findByStation(3).isEmpty());
+        assertEquals(List.of(john, tenley), index.findByStation(1));
+
+        index.removeFireStation(new FireStation("112 Steppes Pl", 9));
+        assertEquals(List.of(tony), index.findByStation(4));
+        index.removeFireStation(new FireStation("112 Steppes Pl", 4));
+        assertTrue(index.findByStation(4).isEmpty());
+        ResidentQuery station4 = new ResidentQuery();
+        station4.getStations().add(4);
+        assertTrue(index.find(station4, TODAY).isEmpty());
+    }
+
+    /**
+     * Tests the city (normalized) and last name (exact) criteria.
+     */
+    @Test
+    void testFindByCityAndLastName() {
+        ResidentQuery boydsOfCulver = new ResidentQuery();
+        boydsOfCulver.getCities().add(" CULVER ");
+        boydsOfCulver.getLastNames().add("Boyd");
+        assertEquals(List.of(john, tenley), index.find(boydsOfCulver, TODAY));
+
+        assertTrue(index.find(ResidentQuery.ofLastName("boyd"), TODAY).isEmpty());
+    }
+
+    /**
+     * Tests that the plan reads the most selective posting list first, intersects a small posting list
+     * and filters the candidates on a large one.
+     */
+    @Test
+    void testPlanFollowsCardinalities() {
+        List<Person> persons = new ArrayList<>();
+        List<MedicalRecord> records = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            persons.add(new Person("First" + i, i == 7 ? "Zemicks" : "Boyd", "1509 Culver St", "Culver",
+                    "p" + i + "@email.com", 97451, "841-874-0000"));
+            records.add(new MedicalRecord("First" + i, persons.get(i).getLastName(), "03/06/1984",
+                    i % 100 == 7 ? List.of("aznol:350mg") : List.of(), List.of()));
+        }
+        index.rebuild(persons, firestations, records);
+
+        ResidentQuery query = new ResidentQuery();
+        query.getCities().add("Culver");
+        query.getMedications().add("aznol");
+        query.getLastNames().add("Zemicks");
+        QueryPlan plan = index.plan(query, TODAY);
+
+        assertEquals(3, plan.getSteps().size());
+        assertEquals(QueryPlan.Access.INDEX_LOOKUP, plan.getSteps().get(0).getAccess());
+        assertEquals("lastName in [Zemicks]", plan.getSteps().get(0).getPredicate());
+        assertEquals(1, plan.getSteps().get(0).getEstimatedRows());
+        assertEquals(QueryPlan.Access.BITMAP_AND, plan.getSteps().get(1).getAccess());
+        assertEquals("medication aznol", plan.getSteps().get(1).getPredicate());
+        assertEquals(QueryPlan.Access.FILTER, plan.getSteps().get(2).getAccess());
+        assertEquals("city in [Culver]", plan.getSteps().get(2).getPredicate());
+        assertEquals(List.of(persons.get(7)), index.execute(plan));
+
+        List<String> explain = plan.explain();
+        assertEquals(4, explain.size());
+        assertTrue(explain.get(0).startsWith("posting index plan over 500 resident(s)"));
+        assertTrue(explain.get(1).startsWith("1. INDEX_LOOKUP lastName in [Zemicks] (rows=1"));
+    }
+
+    /**
+     * Tests that a query without criteria is a full scan.
+     */
+    @Test
+    void testPlanWithoutCriteriaIsFullScan() {
+        QueryPlan plan = index.plan(new ResidentQuery(), TODAY);
+
+        assertEquals(1, plan.getSteps().size());
+        assertEquals(QueryPlan.Access.FULL_SCAN, plan.getSteps().get(0).getAccess());
+        assertEquals(3, plan.getSteps().get(0).getEstimatedRows());
+    }
+}
@@ -0,0 +1,64 @@
+package com.safetyname.alerts.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PrefixIndex}.
+ * <p>
+ * Verifies prefix matching, ordering, limits and reference counting of indexed values.
+ */
+class PrefixIndexTest {
+
+    private PrefixIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PrefixIndex();
+        index.rebuild(Arrays.asList("Boyd", "Boyd", "Bowman", "Cooper", "Böhm", "Carman"));
+    }
+
+    /**
+     * Tests that matching values are returned once, in alphabetical order and regardless of case or accents.
+     */
+    @Test
+    void testCompleteReturnsSortedDistinctValues() {
+        assertEquals(List.of("Böhm", "Bowman", "Boyd"), index.complete("bo", 10));
+        assertEquals(List.of("Böhm"), index.complete("BOH", 10));
+    }
+
+    /**
+     * Tests that the number of suggestions is limited.
+     */
+    @Test
+    void testCompleteWithLimit() {
+        assertEquals(List.of("Böhm", "Bowman"), index.complete("Bo", 2));
+        assertTrue(index.complete("Bo", 0).isEmpty());
+    }
+
+    /**
+     * Tests that a value stays indexed until all of its occurrences are removed.
+     */
+    @Test
+    void testRemove() {
+        index.remove("Boyd");
+        assertEquals(List.of("Boyd"), index.complete("Boy", 10));
+
+        index.remove("Boyd");
+        assertTrue(index.complete("Boy", 10).isEmpty());
+    }
+
+    /**
+     * Tests that an empty prefix or a prefix matching nothing returns an empty list.
+     */
+    @Test
+    void testCompleteNoMatch() {
+        assertTrue(index.complete(" ", 10).isEmpty());
+        assertTrue(index.complete("Z", 10).isEmpty());
+    }
+}
@@ -0,0 +1,63 @@
+package com.safetyname.alerts.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link StringDictionary}.
+ * <p>
+ * Verifies that equal values share one instance and that the statistics count the duplicates.
+ */
+class StringDictionaryTest {
+
+    private StringDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new StringDictionary("address");
+    }
+
+    /**
+     * Tests that equal values are encoded to the first registered instance.
+     */
+    @Test
+    void testEncodeSharesInstances() {
+        String first = new String("1509 Culver St");
+        String second = new String("1509 Culver St");
+
+        assertSame(first, dictionary.encode(first));
+        assertSame(first, dictionary.encode(second));
+        assertSame(first, dictionary.encode(first));
+        assertNull(dictionary.encode(null));
+
+        assertEquals(1, dictionary.size());
+        assertEquals(1, dictionary.getHits());
+        assertEquals(StringDictionary.estimateSize(second), dictionary.getSavedBytes());
+    }
+
+    /**
+     * Tests the size estimate of Latin-1 and UTF-16 strings.
+     */
+    @Test
+    void testEstimateSize() {
+        assertEquals(24 + 32, StringDictionary.estimateSize("1509 Culver St"));
+        assertEquals(24 + 24, StringDictionary.estimateSize("Łódź"));
+    }
+
+    /**
+     * Tests that clearing releases the values and resets the statistics.
+     */
+    @Test
+    void testClear() {
+        dictionary.encode("Culver");
+        dictionary.encode(new String("Culver"));
+
+        dictionary.clear();
+
+        assertEquals(0, dictionary.size());
+        assertEquals(0, dictionary.getHits());
+        assertEquals(0, dictionary.getSavedBytes());
+    }
+}
@@ -0,0 +1,134 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetyname.alerts.dto.AgeBucket;
+import com.safetyname.alerts.dto.AgeHistogramResponse;
+import com.safetyname.alerts.dto.ChildResponse;
+import com.safetyname.alerts.dto.FireInfo;
+import com.safetyname.alerts.dto.FireResponse;
+import com.safetyname.alerts.dto.FirestationResponse;
+import com.safetyname.alerts.dto.FloodResponse;
+import com.safetyname.alerts.dto.LoadStatus;
+import com.safetyname.alerts.dto.MedicalAlertResponse;
+import com.safetyname.alerts.dto.PersonInfo;
+import com.safetyname.alerts.dto.PersonInfoLastNameResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contract test of the hand-written serializers: every response DTO has one, each one writes exactly the pinned
+ * fields, and the output is the same as the reflective bean serialization unless a {@link FieldSet} narrows it.
+ */
+class AlertsJsonModuleTest {
+
+    private static final List<String> MEDICATIONS = List.of("aznol:350mg", "hydrapermazol:100mg");
+    private static final List<String> ALLERGIES = List.of("nillacilan");
+
+    private final ObjectMapper reflective = new ObjectMapper();
+    private final ObjectMapper handWritten = new ObjectMapper().registerModule(new AlertsJsonModule());
+
+    @Test
+    void testEveryResponseDtoHasAHandWrittenSerializer() throws Exception {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter((reader, factory) -> true);
+        for (BeanDefinition definition : scanner.findCandidateComponents("com.safetyname.alerts.dto")) {
+            Class<?> dto = Class.forName(definition.getBeanClassName());
+            JsonSerializer<Object> serializer = handWritten.getSerializerProviderInstance().findValueSerializer(dto);
+            assertEquals(AlertsJsonModule.class.getPackage(), serializer.getClass().getPackage(), dto.getName());
+        }
+    }
+
+    @Test
+    void testFloodResponseFields() throws Exception {
+        // The first name is not part of the flood alert
+        assertContract(new FloodResponse("John", "Boyd", "841-874-6512", 40, MEDICATIONS, ALLERGIES),
+                "lastName", "phone", "age", "medications", "allergies");
+    }
+
+    @Test
+    void testFireResponseFields() throws Exception {
+        FireInfo info = new FireInfo("Boyd", "841-874-6512", 40, MEDICATIONS, null);
+        assertContract(info, "lastName", "phone", "age", "medications", "allergies");
+        assertContract(new FireResponse(Arrays.asList(info, null), 3), "fireInfos", "station");
+    }
+
+    @Test
+    void testChildResponseFields() throws Exception {
+        assertContract(new ChildResponse("Tenley", "Boyd", 12, List.of("John Boyd", "Jacob Boyd")),
+                "firstName", "age", "family", "lastName");
+    }
+
+    @Test
+    void testPersonInfoLastNameResponseFields() throws Exception {
+        assertContract(new PersonInfoLastNameResponse("Boyd", "1509 Culver St", 40, "jaboyd@email.com", MEDICATIONS, ALLERGIES),
+                "lastName", "address", "age", "email", "medications", "allergies");
+    }
+
+    @Test
+    void testFirestationResponseFields() throws Exception {
+        PersonInfo person = new PersonInfo("John", "Boyd", "1509 Culver St", null);
+        assertContract(person, "firstName", "lastName", "address", "phone");
+        assertContract(new FirestationResponse(List.of(person), 1, 0), "persons", "adultCount", "childCount");
+        assertContract(new FirestationResponse(null, 0, 0), "persons", "adultCount", "childCount");
+    }
+
+    @Test
+    void testMedicalAlertResponseFields() throws Exception {
+        assertContract(new MedicalAlertResponse("John", "Boyd", "1509 Culver St", "841-874-6512", 40, MEDICATIONS, List.of()),
+                "firstName", "lastName", "address", "phone", "age", "medications", "allergies");
+    }
+
+    @Test
+    void testAgeHistogramResponseFields() throws Exception {
+        AgeBucket open = new AgeBucket(65, null, 2);
+        assertContract(open, "minAge", "maxAge", "count");
+        assertContract(new AgeHistogramResponse(3, List.of(new AgeBucket(0, 17, 4), open), 1),
+                "stationNumber", "buckets", "unknownCount");
+    }
+
+    @Test
+    void testLoadStatusFields() throws Exception {
+        assertContract(new LoadStatus(false, "READING", "data.json", 512, 2048, 25, 0, 0, 0, 40, null),
+                "ready", "phase", "file", "bytesRead", "totalBytes", "percent", "persons", "fireStations",
+                "medicalRecords", "elapsedMillis", "error");
+    }
+
+    @Test
+    void testFieldSetsSelectFieldsInTheDtoOrder() throws Exception {
+        FireInfo info = new FireInfo("Boyd", "841-874-6512", 40, MEDICATIONS, ALLERGIES);
+        assertEquals(FireInfoSerializer.FIELDS, fieldNames(handWritten.writeValueAsString(info)));
+        assertEquals(FloodResponseSerializer.FIELDS,
+                fieldNames(handWritten.writeValueAsString(new FloodResponse("John", "Boyd", "841-874-6512", 40, MEDICATIONS, ALLERGIES))));
+        assertEquals(PersonInfoLastNameResponseSerializer.FIELDS, fieldNames(handWritten.writeValueAsString(
+                new PersonInfoLastNameResponse("Boyd", "1509 Culver St", 40, "jaboyd@email.com", MEDICATIONS, ALLERGIES))));
+
+        FieldSet fields = FieldSet.parse("allergies, phone", FireInfoSerializer.FIELDS);
+        String json = new String(SharedResponse.serialize(handWritten, new FireResponse(List.of(info), 3), fields));
+        assertEquals("{\"fireInfos\":[{\"phone\":\"841-874-6512\",\"allergies\":[\"nillacilan\"]}],\"station\":3}", json);
+
+        assertSame(FieldSet.ALL, FieldSet.parse(null, FireInfoSerializer.FIELDS));
+        assertSame(FieldSet.ALL, FieldSet.parse(String.join(",", FireInfoSerializer.FIELDS), FireInfoSerializer.FIELDS));
+        assertThrows(IllegalArgumentException.class, () -> FieldSet.parse("phone,email", FireInfoSerializer.FIELDS));
+        assertThrows(IllegalArgumentException.class, () -> FieldSet.parse(" , ", FireInfoSerializer.FIELDS));
+    }
+
+    private List<String> fieldNames(String json) throws Exception {
+        List<String> names = new ArrayList<>();
+        handWritten.readTree(json).fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private void assertContract(Object dto, String... fields) throws Exception {
+        String json = handWritten.writeValueAsString(dto);
+        assertEquals(reflective.writeValueAsString(dto), json);
+        assertEquals(List.of(fields), fieldNames(json));
+    }
+}
@@ -0,0 +1,129 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.safetyname.alerts.dto.FirestationResponse;
+import com.safetyname.alerts.dto.FloodResponse;
+import com.safetyname.alerts.dto.PersonInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares JSON, CBOR and Smile on the payloads of {@code /flood/stations} and {@code /firestation}: encoding
+ * on the server, with the serializers of {@link AlertsJsonModule}, and decoding into a tree, as a terminal would.
+ * <p>
+ * The payload sizes are printed before the benchmarks run. Run after {@code mvn test-compile} with the test
+ * classpath, for example from the IDE, or:
+ * {@code java -cp target/test-classes:target/classes:<dependencies> com.safetyname.alerts.json.EncodingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmark {
+
+    private static final int HOUSEHOLDS = 300;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper mapper;
+    private Map<String, List<FloodResponse>> flood;
+    private FirestationResponse firestation;
+    private byte[] encodedFlood;
+    private byte[] encodedFirestation;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = mapper(format);
+        flood = flood();
+        firestation = firestation();
+        encodedFlood = mapper.writeValueAsBytes(flood);
+        encodedFirestation = mapper.writeValueAsBytes(firestation);
+    }
+
+    @Benchmark
+    public byte[] encodeFlood() throws IOException {
+        return mapper.writeValueAsBytes(flood);
+    }
+
+    @Benchmark
+    public JsonNode decodeFlood() throws IOException {
+        return mapper.readTree(encodedFlood);
+    }
+
+    @Benchmark
+    public byte[] encodeFirestation() throws IOException {
+        return mapper.writeValueAsBytes(firestation);
+    }
+
+    @Benchmark
+    public JsonNode decodeFirestation() throws IOException {
+        return mapper.readTree(encodedFirestation);
+    }
+
+    private static ObjectMapper mapper(String format) {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        return new ObjectMapper(factory).registerModule(new AlertsJsonModule());
+    }
+
+    private static Map<String, List<FloodResponse>> flood() {
+        Map<String, List<FloodResponse>> flood = new HashMap<>();
+        for (int h = 0; h < HOUSEHOLDS; h++) {
+            List<FloodResponse> household = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                household.add(new FloodResponse("First" + r, "Last" + h, "841-874-" + (1000 + r), 20 + r * 10,
+                        List.of("aznol:350mg", "hydrapermazol:100mg"), List.of("nillacilan")));
+            }
+            flood.put(h + " Culver St", household);
+        }
+        return flood;
+    }
+
+    private static FirestationResponse firestation() {
+        List<PersonInfo> persons = new ArrayList<>();
+        for (int h = 0; h < HOUSEHOLDS; h++) {
+            for (int r = 0; r < 3; r++) {
+                persons.add(new PersonInfo("First" + r, "Last" + h, h + " Culver St", "841-874-" + (1000 + r)));
+            }
+        }
+        return new FirestationResponse(persons, persons.size() / 2, persons.size() - persons.size() / 2);
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        for (String format : new String[]{"json", "cbor", "smile"}) {
+            ObjectMapper mapper = mapper(format);
+            System.out.printf("%-5s flood: %d bytes, firestation: %d bytes%n", format,
+                    mapper.writeValueAsBytes(flood()).length, mapper.writeValueAsBytes(firestation()).length);
+        }
+        new Runner(new OptionsBuilder().include(EncodingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,92 @@
+package com.safetyname.alerts.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetyname.alerts.dto.FirestationResponse;
+import com.safetyname.alerts.dto.FloodResponse;
+import com.safetyname.alerts.dto.PersonInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective bean serialization of Jackson with the serializers of {@link AlertsJsonModule},
+ * on a flood response (households of three residents) and on a fire station response.
+ * <p>
+ * Run after {@code mvn test-compile} with the test classpath, for example from the IDE, or:
+ * {@code java -cp target/test-classes:target/classes:<dependencies> com.safetyname.alerts.json.SerializerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+    @Param({"10", "1000"})
+    private int households;
+
+    private final ObjectMapper reflective = new ObjectMapper();
+    private final ObjectMapper handWritten = new ObjectMapper().registerModule(new AlertsJsonModule());
+    private Map<String, List<FloodResponse>> flood;
+    private FirestationResponse firestation;
+
+    @Setup
+    public void setUp() {
+        flood = new HashMap<>();
+        List<PersonInfo> persons = new ArrayList<>();
+        for (int h = 0; h < households; h++) {
+            String address = h + " Culver St";
+            List<FloodResponse> household = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                household.add(new FloodResponse("First" + r, "Last" + h, "841-874-" + (1000 + r), 20 + r * 10,
+                        List.of("aznol:350mg", "hydrapermazol:100mg"), List.of("nillacilan")));
+                persons.add(new PersonInfo("First" + r, "Last" + h, address, "841-874-" + (1000 + r)));
+            }
+            flood.put(address, household);
+        }
+        firestation = new FirestationResponse(persons, persons.size() / 2, persons.size() - persons.size() / 2);
+    }
+
+    @Benchmark
+    public byte[] floodReflective() throws JsonProcessingException {
+        return reflective.writeValueAsBytes(flood);
+    }
+
+    @Benchmark
+    public byte[] floodHandWritten() throws JsonProcessingException {
+        return handWritten.writeValueAsBytes(flood);
+    }
+
+    @Benchmark
+    public byte[] firestationReflective() throws JsonProcessingException {
+        return reflective.writeValueAsBytes(firestation);
+    }
+
+    @Benchmark
+    public byte[] firestationHandWritten() throws JsonProcessingException {
+        return handWritten.writeValueAsBytes(firestation);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SerializerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,64 @@
+package com.safetyname.alerts.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AutocompleteServiceTest {
+
+    @Mock
+    private IDataService dataService;
+
+    @InjectMocks
+    private AutocompleteService autocompleteService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    /**
+     * Test that last name suggestions come from the last name prefix index.
+     */
+    @Test
+    void testGetSuggestionsLastName() {
+        when(dataService.getLastNamesByPrefix("Bo", 10)).thenReturn(List.of("Boyd"));
+
+        List<String> suggestions = autocompleteService.getSuggestions("lastName", "Bo", 10);
+
+        assertEquals(List.of("Boyd"), suggestions);
+    }
+
+    /**
+     * Test that address suggestions come from the address prefix index and that the limit is capped.
+     */
+    @Test
+    void testGetSuggestionsAddressWithCappedLimit() {
+        when(dataService.getAddressesByPrefix("15", AutocompleteService.MAX_LIMIT)).thenReturn(List.of("1509 Culver St"));
+
+        List<String> suggestions = autocompleteService.getSuggestions("address", "15", 5000);
+
+        assertEquals(List.of("1509 Culver St"), suggestions);
+    }
+
+    /**
+     * Test that an unknown field or an empty prefix returns an empty list without querying the data layer.
+     */
+    @Test
+    void testGetSuggestionsBadRequest() {
+        assertTrue(autocompleteService.getSuggestions("city", "Cu", 10).isEmpty());
+        assertTrue(autocompleteService.getSuggestions("lastName", " ", 10).isEmpty());
+
+        verify(dataService, never()).getLastNamesByPrefix(anyString(), anyInt());
+        verify(dataService, never()).getAddressesByPrefix(anyString(), anyInt());
+    }
+}
@@ -0,0 +1,114 @@
+package com.safetyname.alerts.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.safetyname.alerts.entity.Person;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link BundleService}.
+ * <p>
+ * The bundles are built in the background from a {@link DataService} loaded from the test data file,
+ * in a temporary directory.
+ */
+class BundleServiceTest {
+
+    private static final String DATA_FILE = "src/test/resources/data.json";
+
+    @TempDir
+    Path directory;
+
+    private DataService dataService;
+    private BundleService bundleService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataService = new DataService();
+        assertTrue(dataService.readJsonFile(DATA_FILE));
+        bundleService = new BundleService(dataService, new FloodService(dataService), directory.toString());
+        bundleService.start();
+        awaitUntil(() -> List.of(1, 2, 3, 4).stream().allMatch(station -> bundleService.getBundle(station) != null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bundleService.shutdown();
+    }
+
+    @Test
+    void testBundleHoldsTheHouseholdsOfTheStation() throws IOException {
+        StationBundle bundle = bundleService.getBundle(2);
+
+        JsonNode content = read(bundle);
+        assertEquals(2, content.get("station").asInt());
+        assertEquals(dataService.getVersion(), content.get("version").asLong());
+        JsonNode households = content.get("households");
+        assertEquals(dataService.getPersonsByStationNumber(2).size(),
+                households.get("29 15th St").size() + households.get("892 Downing Ct").size()
+                        + households.get("951 LoneTree Rd").size());
+        JsonNode resident = households.get("29 15th St").get(0);
+        assertEquals("Marrack", resident.get("lastName").asText());
+        assertTrue(resident.has("age"));
+        assertTrue(resident.has("medications"));
+        assertEquals(Files.size(bundle.getPath()), bundle.getSize());
+        assertNull(bundleService.getBundle(5));
+    }
+
+    @Test
+    void testOnlyTheStationsOfAChangeAreBuiltAgain() {
+        Map<Integer, String> ids = new HashMap<>();
+        List.of(1, 2, 3, 4).forEach(station -> ids.put(station, bundleService.getBundle(station).getId()));
+        StationBundle previous = bundleService.getBundle(2);
+
+        dataService.updatePerson(new Person("Jonanathan", "Marrack", "29 15th St", "Culver", "jm@email.com", 97451, "841-874-0000"));
+        awaitUntil(() -> !bundleService.getBundle(2).getId().equals(ids.get(2)));
+
+        List.of(1, 3, 4).forEach(station -> assertEquals(ids.get(station), bundleService.getBundle(station).getId()));
+        assertSame(previous, bundleService.getBundle(2, previous.getId()));
+        assertTrue(Files.exists(previous.getPath()));
+        assertNull(bundleService.getBundle(2, "unknown"));
+    }
+
+    @Test
+    void testStationWithoutAddressesHasNoBundle() {
+        dataService.deleteFireStation("489 Manchester St");
+        dataService.deleteFireStation("112 Steppes Pl");
+
+        awaitUntil(() -> bundleService.getBundle(4) == null);
+        assertNotNull(bundleService.getBundle(3));
+    }
+
+    private static JsonNode read(StationBundle bundle) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(bundle.getPath()))) {
+            return new SmileMapper().readTree(in);
+        }
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the bundles");
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+}
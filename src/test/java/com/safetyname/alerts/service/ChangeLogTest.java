@@ -0,0 +1,112 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.Person;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeLogTest {
+
+    private final ChangeLog changeLog = new ChangeLog(3);
+
+    private static Person person(String address) {
+        return new Person("John", "Boyd", address, "Culver", "jaboyd@email.com", 97451, "841-874-6512");
+    }
+
+    @Test
+    void testEveryEventAdvancesTheVersion() {
+        assertEquals(0, changeLog.getVersion());
+
+        ChangeEvent reload = changeLog.recordReload();
+        ChangeEvent added = changeLog.recordPerson(null, person("1509 Culver St"));
+        ChangeEvent updated = changeLog.recordPerson(person("1509 Culver St"), person("29 15th St"));
+        ChangeEvent deleted = changeLog.recordFireStation(new FireStation("29 15th St", 2), null);
+
+        assertEquals(4, changeLog.getVersion());
+        assertEquals(List.of(1L, 2L, 3L, 4L),
+                List.of(reload.getVersion(), added.getVersion(), updated.getVersion(), deleted.getVersion()));
+        assertEquals(ChangeEvent.Operation.RELOADED, reload.getOperation());
+        assertEquals(ChangeEvent.Operation.ADDED, added.getOperation());
+        assertEquals(ChangeEvent.Operation.UPDATED, updated.getOperation());
+        assertEquals("John Boyd", updated.getKey());
+        assertEquals(ChangeEvent.Operation.DELETED, deleted.getOperation());
+        assertEquals(ChangeEvent.Entity.FIRE_STATION, deleted.getEntity());
+        assertEquals("29 15th St", deleted.getKey());
+    }
+
+    @Test
+    void testEventsSinceAVersionWithinTheWindow() {
+        for (int i = 0; i < 5; i++) {
+            changeLog.recordPerson(null, person(i + " Culver St"));
+        }
+
+        assertEquals(List.of(4L, 5L), versions(changeLog.getEventsSince(3)));
+        assertEquals(List.of(3L, 4L, 5L), versions(changeLog.getEventsSince(2)));
+        assertEquals(List.of(), changeLog.getEventsSince(5));
+
+        // Version 2 was dropped from the window, version 6 does not exist yet
+        assertNull(changeLog.getEventsSince(1));
+        assertNull(changeLog.getEventsSince(6));
+    }
+
+    @Test
+    void testSubscribeReplaysTheBacklogThenNotifiesNewEvents() {
+        changeLog.recordReload();
+        changeLog.recordPerson(null, person("1509 Culver St"));
+        List<ChangeEvent> received = new ArrayList<>();
+
+        List<ChangeEvent> backlog = changeLog.subscribe(1, received::add);
+        changeLog.recordPerson(person("1509 Culver St"), null);
+
+        assertEquals(List.of(2L), versions(backlog));
+        assertEquals(List.of(3L), versions(received));
+    }
+
+    @Test
+    void testSubscribeTooFarBehindStartsWithAReload() {
+        for (int i = 0; i < 5; i++) {
+            changeLog.recordPerson(null, person(i + " Culver St"));
+        }
+
+        List<ChangeEvent> backlog = changeLog.subscribe(0, event -> { });
+
+        assertEquals(1, backlog.size());
+        assertEquals(ChangeEvent.Operation.RELOADED, backlog.get(0).getOperation());
+        assertEquals(5, backlog.get(0).getVersion());
+    }
+
+    @Test
+    void testPositionsAreTiedToTheEpoch() {
+        String position = changeLog.positionOf(2);
+
+        assertEquals(changeLog.getEpoch() + "-2", position);
+        assertEquals(2L, changeLog.versionAt(position));
+        assertNull(changeLog.versionAt("2"));
+        assertNull(new ChangeLog(3).versionAt(position));
+        assertThrows(IllegalArgumentException.class, () -> changeLog.versionAt("-2"));
+        assertFalse(ChangeLog.isPosition("1-2-3"));
+    }
+
+    @Test
+    void testUnsubscribedListenerIsNotNotified() {
+        List<ChangeEvent> received = new ArrayList<>();
+        Consumer<ChangeEvent> listener = received::add;
+        changeLog.subscribe(listener);
+        changeLog.recordReload();
+        changeLog.unsubscribe(listener);
+        changeLog.recordReload();
+
+        assertEquals(List.of(1L), versions(received));
+    }
+
+    private static List<Long> versions(List<ChangeEvent> events) {
+        List<Long> versions = new ArrayList<>();
+        events.forEach(event -> versions.add(event.getVersion()));
+        return versions;
+    }
+}
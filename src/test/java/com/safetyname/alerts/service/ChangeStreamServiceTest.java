@@ -0,0 +1,128 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.entity.Person;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class ChangeStreamServiceTest {
+
+    @Mock
+    private IDataService dataService;
+
+    private final ChangeLog changeLog = new ChangeLog(3);
+    private ChangeStreamService changeStreamService;
+
+    /**
+     * Emitter keeping the change events it is asked to send.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<ChangeEvent> sent = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            builder.build().forEach(part -> {
+                if (part.getData() instanceof ChangeEvent) {
+                    sent.add((ChangeEvent) part.getData());
+                }
+            });
+        }
+
+        private List<Long> takeVersions(int count) throws InterruptedException {
+            List<Long> versions = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                ChangeEvent event = sent.poll(5, TimeUnit.SECONDS);
+                assertNotNull(event, "Expected " + count + " events, got " + versions);
+                versions.add(event.getVersion());
+            }
+            return versions;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(dataService.getChangeLog()).thenReturn(changeLog);
+        changeStreamService = new ChangeStreamService(dataService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        changeStreamService.shutdown();
+    }
+
+    private void addPerson(String firstName) {
+        changeLog.recordPerson(null, new Person(firstName, "Boyd", "1509 Culver St", "Culver", "jaboyd@email.com", 97451, "841-874-6512"));
+    }
+
+    @Test
+    void testResumeSendsTheMissedEventsThenTheNewOnes() throws Exception {
+        changeLog.recordReload();
+        addPerson("John");
+        addPerson("Jacob");
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        changeStreamService.subscribe(emitter, changeLog.positionOf(1));
+        addPerson("Tenley");
+
+        assertEquals(List.of(2L, 3L, 4L), emitter.takeVersions(3));
+    }
+
+    @Test
+    void testWithoutVersionOnlyNewEventsAreSent() throws Exception {
+        changeLog.recordReload();
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        changeStreamService.subscribe(emitter, null);
+        addPerson("John");
+
+        assertEquals(List.of(2L), emitter.takeVersions(1));
+        assertTrue(emitter.sent.isEmpty());
+    }
+
+    @Test
+    void testResumeOutsideTheWindowStartsWithAReload() throws Exception {
+        for (String firstName : List.of("John", "Jacob", "Tenley", "Roger", "Felicia")) {
+            addPerson(firstName);
+        }
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        changeStreamService.subscribe(emitter, changeLog.positionOf(1));
+
+        ChangeEvent reload = emitter.sent.poll(5, TimeUnit.SECONDS);
+        assertNotNull(reload);
+        assertEquals(ChangeEvent.Operation.RELOADED, reload.getOperation());
+        assertEquals(5, reload.getVersion());
+    }
+
+    @Test
+    void testResumeFromAnotherRunStartsWithAReload() throws Exception {
+        changeLog.recordReload();
+        addPerson("John");
+        String previousRun = new ChangeLog().positionOf(1);
+
+        for (String position : List.of(previousRun, "1")) {
+            RecordingEmitter emitter = new RecordingEmitter();
+            changeStreamService.subscribe(emitter, position);
+
+            ChangeEvent reload = emitter.sent.poll(5, TimeUnit.SECONDS);
+            assertNotNull(reload);
+            assertEquals(ChangeEvent.Operation.RELOADED, reload.getOperation());
+            assertEquals(2, reload.getVersion());
+            assertNull(emitter.sent.poll(100, TimeUnit.MILLISECONDS));
+        }
+    }
+}
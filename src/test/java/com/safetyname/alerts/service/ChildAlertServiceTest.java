@@ -13,6 +13,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.when;
 
 class ChildAlertServiceTest {
@@ -49,7 +50,7 @@ class ChildAlertServiceTest {
     @Test
     void testGetChildrenByAddressWithChildrenFound() {
         // Mock the behavior of dataService for the address "123 Main St"
-        when(dataService.getPersonsByAddress("123 Main St")).thenReturn(persons);
+        when(dataService.findPersons(argThat(query -> query.getAddresses().contains("123 Main St")))).thenReturn(persons);
         when(dataService.getMedicalRecordsByPersons(persons)).thenReturn(medicalRecords);
 
         // Call the service method
@@ -67,7 +68,7 @@ class ChildAlertServiceTest {
     @Test
     void testGetChildrenByAddressWithNoChildren() {
         // Mock the behavior of dataService for the address "123 Main St"
-        when(dataService.getPersonsByAddress("123 Main St")).thenReturn(persons);
+        when(dataService.findPersons(argThat(query -> query.getAddresses().contains("123 Main St")))).thenReturn(persons);
         when(dataService.getMedicalRecordsByPersons(persons)).thenReturn(noMedicalRecords);
 
         // Call the service method
@@ -80,7 +81,7 @@ class ChildAlertServiceTest {
     @Test
     void testGetChildrenByAddressWithNoPersonsFound() {
         // Mock the behavior of dataService for the address "123 Main St" with no persons
-        when(dataService.getPersonsByAddress("123 Main St")).thenReturn(Collections.emptyList());
+        when(dataService.findPersons(argThat(query -> query.getAddresses().contains("123 Main St")))).thenReturn(Collections.emptyList());
 
         // Call the service method
         List<ChildResponse> children = childAlertService.getChildrenByAddress("123 Main St");
@@ -0,0 +1,172 @@
+package com.safetyname.alerts.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.index.ResidentQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link ColumnarDataService}.
+ * <p>
+ * The column-wise implementation must answer every query exactly like {@link DataService},
+ * so both are loaded from the test data file and compared, before and after mutations.
+ */
+class ColumnarDataServiceTest {
+
+    private static final String DATA_FILE = "src/test/resources/data.json";
+
+    private DataService objectStore;
+    private ColumnarDataService columnarStore;
+
+    @BeforeEach
+    void setUp() {
+        objectStore = new DataService();
+        columnarStore = createStore();
+        assertTrue(objectStore.readJsonFile(DATA_FILE));
+        assertTrue(columnarStore.readJsonFile(DATA_FILE));
+    }
+
+    /**
+     * Creates the column-wise store under test.
+     *
+     * @return A new, empty store.
+     */
+    protected ColumnarDataService createStore() {
+        return new ColumnarDataService();
+    }
+
+    /**
+     * Tests that the lookups return the same entities in the same order as the object store.
+     */
+    @Test
+    void testQueriesMatchObjectStore() {
+        assertEquals(objectStore.getPersons(), columnarStore.getPersons());
+        assertEquals(objectStore.getMedicalRecords(), columnarStore.getMedicalRecords());
+        for (int station = 0; station <= 5; station++) {
+            assertEquals(objectStore.getPersonsByStationNumber(station), columnarStore.getPersonsByStationNumber(station));
+            assertEquals(objectStore.getAddressesByStationNumber(station), columnarStore.getAddressesByStationNumber(station));
+        }
+        for (String address : List.of("1509 Culver St", "112 Steppes Pl", "unknown", "")) {
+            assertEquals(objectStore.getPersonsByAddress(address), columnarStore.getPersonsByAddress(address));
+            assertEquals(objectStore.getStationByAddress(address), columnarStore.getStationByAddress(address));
+        }
+        for (String lastName : List.of("Boyd", "Boyde", "Zemicks", "Nobody", "")) {
+            assertEquals(objectStore.getPersonsByLastName(lastName), columnarStore.getPersonsByLastName(lastName));
+            assertEquals(objectStore.getPersonsByPhoneticLastName(lastName), columnarStore.getPersonsByPhoneticLastName(lastName));
+        }
+        assertEquals(objectStore.getEmailsByCity(" culver "), columnarStore.getEmailsByCity(" culver "));
+        assertEquals(objectStore.getLastNamesByPrefix("b", 10), columnarStore.getLastNamesByPrefix("b", 10));
+        assertEquals(objectStore.getAddressesByPrefix("1", 10), columnarStore.getAddressesByPrefix("1", 10));
+        assertEquals(objectStore.getPersonsByName("John", "Boyd"), columnarStore.getPersonsByName("John", "Boyd"));
+        assertEquals(objectStore.getMedicalRecordsByName("John", "Boyd"), columnarStore.getMedicalRecordsByName("John", "Boyd"));
+        assertEquals(objectStore.getMedicalRecordsByMedication("Aznol"), columnarStore.getMedicalRecordsByMedication("Aznol"));
+        assertEquals(objectStore.getMedicalRecordsByAllergy("peanut"), columnarStore.getMedicalRecordsByAllergy("peanut"));
+        List<Person> boyds = objectStore.getPersonsByLastName("Boyd");
+        assertEquals(objectStore.getMedicalRecordsByPersons(boyds), columnarStore.getMedicalRecordsByPersons(boyds));
+        assertArrayEquals(objectStore.getBirthEpochDaysByPersons(boyds), columnarStore.getBirthEpochDaysByPersons(boyds));
+    }
+
+    /**
+     * Tests that combined searches match the posting lists of the object store.
+     */
+    @Test
+    void testFindPersonsMatchesObjectStore() {
+        ResidentQuery minors = new ResidentQuery();
+        minors.getStations().add(3);
+        minors.setMaxAge(18);
+        ResidentQuery adultsOnAznol = new ResidentQuery();
+        adultsOnAznol.setMinAge(19);
+        adultsOnAznol.getMedications().add("aznol");
+        ResidentQuery allergic = new ResidentQuery();
+        allergic.getAddresses().add("1509 Culver St");
+        allergic.getAllergies().add("nillacilan");
+
+        ResidentQuery boydsOfCulver = new ResidentQuery();
+        boydsOfCulver.getCities().add("culver");
+        boydsOfCulver.getLastNames().add("Boyd");
+
+        for (ResidentQuery query : List.of(minors, adultsOnAznol, allergic, boydsOfCulver, new ResidentQuery())) {
+            assertEquals(objectStore.findPersons(query), columnarStore.findPersons(query));
+        }
+        assertFalse(columnarStore.findPersons(minors).isEmpty());
+        assertEquals(6, columnarStore.findPersons(boydsOfCulver).size());
+    }
+
+    /**
+     * Tests that mutations are applied to the columns like they are to the object store.
+     */
+    @Test
+    void testMutationsMatchObjectStore() {
+        for (IDataService store : List.of(objectStore, columnarStore)) {
+            long loaded = store.getVersion();
+            store.addPerson(new Person("Jane", "Boyd", "29 15th St", "Culver", "jane@email.com", 97451, "841-874-0000"));
+            assertTrue(store.updatePerson(new Person("John", "Boyd", "112 Steppes Pl", "Culver", "new@email.com", 97451, "841-874-1111")));
+            assertTrue(store.deletePerson("Tenley", "Boyd"));
+            assertFalse(store.deletePerson("Tenley", "Boyd"));
+            store.addMedicalRecord(new MedicalRecord("Jane", "Boyd", "01/01/2000", List.of("aznol:60mg"), List.of()));
+            assertTrue(store.updateMedicalRecord(new MedicalRecord("John", "Boyd", "03/06/1984", List.of(), List.of("peanut"))));
+            assertTrue(store.deleteMedicalRecord("Roger", "Boyd"));
+            assertTrue(store.updateFireStation(new FireStation("29 15th St", 4)));
+            // Seven changes; the failed deletion does not change the data
+            assertEquals(loaded + 7, store.getVersion());
+        }
+
+        // Both stores record the same events, with the same states before and after each change
+        ObjectMapper mapper = new ObjectMapper();
+        List<ChangeEvent> objectEvents = objectStore.getChangeLog().getEventsSince(objectStore.getVersion() - 7);
+        List<ChangeEvent> columnarEvents = columnarStore.getChangeLog().getEventsSince(columnarStore.getVersion() - 7);
+        for (int i = 0; i < 7; i++) {
+            ChangeEvent expected = objectEvents.get(i);
+            ChangeEvent actual = columnarEvents.get(i);
+            assertEquals(expected.getEntity(), actual.getEntity());
+            assertEquals(expected.getOperation(), actual.getOperation());
+            assertEquals(expected.getKey(), actual.getKey());
+            // Fire station mappings have no equals
+            assertEquals(mapper.valueToTree(expected.getBefore()), mapper.valueToTree(actual.getBefore()));
+            assertEquals(mapper.valueToTree(expected.getAfter()), mapper.valueToTree(actual.getAfter()));
+        }
+        assertEquals(4, ((FireStation) columnarEvents.get(6).getAfter()).getStation());
+
+        assertEquals(objectStore.getPersons(), columnarStore.getPersons());
+        assertEquals(objectStore.getMedicalRecords(), columnarStore.getMedicalRecords());
+        assertEquals(objectStore.getPersonsByStationNumber(4), columnarStore.getPersonsByStationNumber(4));
+        // The object store indexes list an updated entity last, the columns keep the insertion order.
+        assertEquals(new HashSet<>(objectStore.getEmailsByCity("Culver")), new HashSet<>(columnarStore.getEmailsByCity("Culver")));
+        assertEquals(new HashSet<>(objectStore.getMedicalRecordsByAllergy("peanut")), new HashSet<>(columnarStore.getMedicalRecordsByAllergy("peanut")));
+        assertEquals(new HashSet<>(objectStore.getMedicalRecordsByMedication("aznol")), new HashSet<>(columnarStore.getMedicalRecordsByMedication("aznol")));
+        ResidentQuery onAznol = new ResidentQuery();
+        onAznol.getMedications().add("aznol");
+        assertEquals(objectStore.findPersons(onAznol), columnarStore.findPersons(onAznol));
+        assertEquals(objectStore.getPersonsByName("Jane", "Boyd"), columnarStore.getPersonsByName("Jane", "Boyd"));
+        assertEquals(objectStore.getAddressesByPrefix("1", 10), columnarStore.getAddressesByPrefix("1", 10));
+    }
+
+    /**
+     * Tests that saved data can be read back by the object store.
+     */
+    @Test
+    void testSaveDataRoundTrip() throws IOException {
+        File file = Files.createTempFile("columnar", ".json").toFile();
+        file.deleteOnExit();
+        columnarStore.deletePerson("John", "Boyd");
+
+        assertTrue(columnarStore.saveData(file.getPath()));
+        DataService reloaded = new DataService();
+        assertTrue(reloaded.readJsonFile(file.getPath()));
+
+        assertEquals(columnarStore.getPersons(), reloaded.getPersons());
+        assertEquals(columnarStore.getFireStations().size(), reloaded.getFireStations().size());
+        assertEquals(columnarStore.getMedicalRecords(), reloaded.getMedicalRecords());
+    }
+}
@@ -1,5 +1,4 @@
 package com.safetyname.alerts.service;
-import com.safetyname.alerts.entity.Person;
 import com.safetyname.alerts.service.CommunityEmailService;
 import com.safetyname.alerts.service.IDataService;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,18 +22,9 @@ class CommunityEmailServiceTest {
     @InjectMocks
     private CommunityEmailService communityEmailService;
 
-    private List<Person> persons;
-
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-
-        // Initialize test data
-        persons = Arrays.asList(
-                new Person("John", "Doe", "123 Main St", "Springfield", "john@example.com", 71100, "123-456-7890"),
-                new Person("Jane", "Doe", "456 Elm St", "Springfield", "jane@example.com", 71100, "987-654-3210"),
-                new Person("Bob", "Smith", "789 Pine St", "AnotherCity", "bob@example.com", 71100, "555-555-5555")
-        );
     }
 
     /**
@@ -42,8 +32,8 @@ class CommunityEmailServiceTest {
      */
     @Test
     void testGetEmailsByCitySuccess() {
-        // Mock the dataService to return the list of persons
-        when(dataService.getPersons()).thenReturn(persons);
+        // Mock the dataService to return the emails indexed for the city
+        when(dataService.getEmailsByCity("Springfield")).thenReturn(Arrays.asList("john@example.com", "jane@example.com"));
 
         // Call the service method
         List<String> emails = communityEmailService.getEmailByCity("Springfield");
@@ -60,8 +50,8 @@ class CommunityEmailServiceTest {
      */
     @Test
     void testGetEmailsByCityNoEmailsFound() {
-        // Mock the dataService to return the list of persons
-        when(dataService.getPersons()).thenReturn(persons);
+        // Mock the dataService to return no email for the city
+        when(dataService.getEmailsByCity("NonExistentCity")).thenReturn(Collections.emptyList());
 
         // Call the service method with a city where no persons are found
         List<String> emails = communityEmailService.getEmailByCity("NonExistentCity");
@@ -71,12 +61,12 @@ class CommunityEmailServiceTest {
     }
 
     /**
-     * Test the scenario where no persons are found at all (empty list).
+     * Test the scenario where the data layer returns no result at all.
      */
     @Test
     void testGetEmailsByCityNoPersonsFound() {
-        // Mock the dataService to return an empty list of persons
-        when(dataService.getPersons()).thenReturn(Collections.emptyList());
+        // Mock the dataService to return null as when no index is available
+        when(dataService.getEmailsByCity("Springfield")).thenReturn(null);
 
         // Call the service method
         List<String> emails = communityEmailService.getEmailByCity("Springfield");
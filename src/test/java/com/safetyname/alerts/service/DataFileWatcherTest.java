@@ -0,0 +1,110 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.entity.Person;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link DataFileWatcher}, watching a copy of the test data file.
+ */
+class DataFileWatcherTest {
+
+    private static final String DATA_FILE = "src/test/resources/data.json";
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @TempDir
+    Path directory;
+
+    private Path dataFile;
+    private DataService dataService;
+    private DataFileWatcher watcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataFile = Files.copy(Path.of(DATA_FILE), directory.resolve("data.json"));
+        dataService = new DataService();
+        assertTrue(dataService.readJsonFile(dataFile.toString()));
+        watcher = new DataFileWatcher(dataService, 50);
+        watcher.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        watcher.shutdown();
+    }
+
+    /**
+     * Tests that a data file replaced by another process is applied without a reload of the whole data.
+     */
+    @Test
+    void testReplacedFileIsApplied() throws Exception {
+        DataService export = new DataService();
+        assertTrue(export.readJsonFile(dataFile.toString()));
+        export.deletePerson("Tenley", "Boyd");
+        export.addPerson(new Person("Jane", "Boyd", "29 15th St", "Culver", "jane@email.com", 97451, "841-874-0000"));
+        Path exported = directory.resolve("export.json");
+        assertTrue(export.saveData(exported.toString()));
+        long version = dataService.getVersion();
+
+        Files.move(exported, dataFile, StandardCopyOption.REPLACE_EXISTING);
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (dataService.getVersion() < version + 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(version + 2, dataService.getVersion());
+        assertTrue(dataService.getPersonsByName("Tenley", "Boyd").isEmpty());
+        assertEquals(1, dataService.getPersonsByName("Jane", "Boyd").size());
+    }
+
+    /**
+     * Tests that the data files of partitions are all watched, each one applied on its own.
+     */
+    @Test
+    void testReplacedDistrictIsApplied() throws Exception {
+        watcher.shutdown();
+        Path districts = Files.createDirectory(directory.resolve("districts"));
+        Files.copy(dataFile, districts.resolve("district-1.json"));
+        Path district = districts.resolve("district-2.json");
+        Files.writeString(district, "{\"persons\": [], \"firestations\": [], \"medicalrecords\": []}");
+        dataService = new DataService();
+        assertTrue(dataService.readDataFiles(districts.resolve("district-*.json").toString()));
+        watcher = new DataFileWatcher(dataService, 50);
+        watcher.start();
+        long version = dataService.getVersion();
+
+        Files.writeString(district, "{\"persons\": [{\"firstName\": \"Jane\", \"lastName\": \"Doe\", "
+                + "\"address\": \"29 15th St\", \"city\": \"Culver\", \"zip\": 97451, "
+                + "\"phone\": \"841-874-0000\", \"email\": \"jane@email.com\"}], "
+                + "\"firestations\": [], \"medicalrecords\": []}");
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (dataService.getVersion() < version + 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(version + 1, dataService.getVersion());
+        assertEquals(1, dataService.getPersonsByName("Jane", "Doe").size());
+        assertEquals(1, dataService.getPersonsByName("Tenley", "Boyd").size());
+    }
+
+    /**
+     * Tests that a save of the data service itself is not read again.
+     */
+    @Test
+    void testOwnSaveIsIgnored() throws Exception {
+        dataService.deletePerson("Tenley", "Boyd");
+        assertTrue(dataService.saveData(dataFile.toString()));
+
+        Thread.sleep(500);
+        assertNull(watcher.reload(dataFile));
+    }
+}
@@ -0,0 +1,142 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.dto.LoadStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for {@link DataLoadService} and the {@link LoadProgress} it reports.
+ */
+class DataLoadServiceTest {
+
+    private static final String DATA_FILE = "src/test/resources/data.json";
+
+    private AbstractDataService dataService;
+    private LoadProgress progress;
+
+    @BeforeEach
+    void setUp() {
+        dataService = mock(AbstractDataService.class);
+        progress = new LoadProgress();
+        when(dataService.getLoadProgress()).thenReturn(progress);
+    }
+
+    /**
+     * Tests that the data is read while the context starts by default, and not again once started.
+     */
+    @Test
+    void testLoadOnStartup() {
+        when(dataService.readJsonFile()).thenAnswer(invocation -> {
+            progress.start(Path.of(DATA_FILE));
+            progress.ready();
+            return true;
+        });
+        DataLoadService loadService = new DataLoadService(dataService, false, 5);
+
+        loadService.loadOnStartup();
+        loadService.loadInBackground();
+
+        verify(dataService, times(1)).readJsonFile();
+        assertTrue(loadService.isReady());
+        assertTrue(loadService.isLive());
+        assertEquals("READY", loadService.getStatus().getPhase());
+    }
+
+    /**
+     * Tests that the background load waits for the context to start, and that the service is not ready until
+     * the data is read.
+     */
+    @Test
+    void testLoadInBackground() throws Exception {
+        when(dataService.readJsonFile()).thenAnswer(invocation -> {
+            progress.start(Path.of(DATA_FILE));
+            progress.ready();
+            return true;
+        });
+        DataLoadService loadService = new DataLoadService(dataService, true, 7);
+
+        loadService.loadOnStartup();
+        verify(dataService, never()).readJsonFile();
+        assertFalse(loadService.isReady());
+        assertEquals("PENDING", loadService.getStatus().getPhase());
+        assertEquals(7, loadService.getRetryAfterSeconds());
+
+        loadService.loadInBackground();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!loadService.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(loadService.isReady());
+    }
+
+    /**
+     * Tests that a failed read leaves the service alive but not ready, until a later read succeeds.
+     */
+    @Test
+    void testFailedLoad() {
+        when(dataService.readJsonFile()).thenAnswer(invocation -> {
+            progress.start(Path.of("missing.json"));
+            progress.failed("java.nio.file.NoSuchFileException: missing.json");
+            return false;
+        });
+        DataLoadService loadService = new DataLoadService(dataService, false, 5);
+
+        loadService.loadOnStartup();
+
+        assertFalse(loadService.isReady());
+        assertTrue(loadService.isLive());
+        LoadStatus status = loadService.getStatus();
+        assertEquals("FAILED", status.getPhase());
+        assertEquals("java.nio.file.NoSuchFileException: missing.json", status.getError());
+
+        progress.start(Path.of(DATA_FILE));
+        progress.ready();
+        assertTrue(loadService.isReady());
+    }
+
+    /**
+     * Tests that running out of memory while loading makes the service not alive.
+     */
+    @Test
+    void testOutOfMemory() {
+        when(dataService.readJsonFile()).thenThrow(new OutOfMemoryError("Java heap space"));
+        DataLoadService loadService = new DataLoadService(dataService, false, 5);
+
+        assertThrows(OutOfMemoryError.class, loadService::loadOnStartup);
+
+        assertFalse(loadService.isLive());
+        assertFalse(loadService.isReady());
+        assertEquals("FAILED", loadService.getStatus().getPhase());
+    }
+
+    /**
+     * Tests the progress reported by a data service reading the test data file.
+     */
+    @Test
+    void testProgressOfARead() throws Exception {
+        DataService store = new DataService();
+        assertEquals("PENDING", store.getLoadProgress().getStatus(false).getPhase());
+
+        assertTrue(store.readJsonFile(DATA_FILE));
+
+        LoadStatus status = store.getLoadProgress().getStatus(true);
+        assertEquals("READY", status.getPhase());
+        assertEquals(Files.size(Path.of(DATA_FILE)), status.getTotalBytes());
+        assertEquals(status.getTotalBytes(), status.getBytesRead());
+        assertEquals(100, status.getPercent());
+        assertEquals(store.getPersons().size(), status.getPersons());
+        assertEquals(store.getMedicalRecords().size(), status.getMedicalRecords());
+        assertEquals(store.getFireStations().size(), status.getFireStations());
+        assertNull(status.getError());
+
+        assertFalse(store.readJsonFile("src/test/resources/missing.json"));
+        assertEquals("FAILED", store.getLoadProgress().getPhase().name());
+        assertNotNull(store.getLoadProgress().getStatus(false).getError());
+    }
+}
@@ -0,0 +1,239 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.dto.LoadStatus;
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.store.Dataset;
+import com.safetyname.alerts.store.JacksonDataFileFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link DataPartitions} and {@link AbstractDataService#readDataFiles(String)}, with the object store
+ * and the column-wise store.
+ * <p>
+ * The test data file is split in three district files, each entity going to one of them according to its key.
+ */
+class DataPartitionsTest {
+
+    private static final String DATA_FILE = "src/test/resources/data.json";
+    private static final int DISTRICTS = 3;
+
+    @TempDir
+    Path directory;
+
+    private Dataset data;
+    private List<Dataset> districts;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        data = JacksonDataFileFormat.JSON.read(Path.of(DATA_FILE));
+        districts = new ArrayList<>();
+        for (int district = 0; district < DISTRICTS; district++) {
+            districts.add(new Dataset(new ArrayList<>(), new ArrayList<>(), new ArrayList<>()));
+        }
+        data.getPersons().forEach(person -> districts.get(districtOf(DatasetDiff.keyOf(person))).getPersons()
+                .add(person));
+        data.getFireStations().forEach(fireStation -> districts.get(districtOf(DatasetDiff.keyOf(fireStation)))
+                .getFireStations().add(fireStation));
+        data.getMedicalRecords().forEach(medicalRecord -> districts.get(districtOf(DatasetDiff.keyOf(medicalRecord)))
+                .getMedicalRecords().add(medicalRecord));
+        for (int district = 0; district < DISTRICTS; district++) {
+            writeDistrict(district);
+        }
+    }
+
+    /**
+     * Tests that the district files, parsed in parallel, give the data of the whole file, and that the load
+     * progress covers all of them.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"object", "columnar"})
+    void testDistrictsMergeToTheWholeData(String kind) throws IOException {
+        AbstractDataService store = store(kind);
+        store.setPartitionParallelism(2);
+
+        assertTrue(store.readDataFiles(directory.resolve("district-*.json").toString()));
+
+        assertSameData(data, store.getDataset());
+        assertEquals(DISTRICTS, store.getDataFiles().size());
+        LoadStatus status = store.getLoadProgress().getStatus(true);
+        assertEquals("READY", status.getPhase());
+        assertEquals(totalSize(), status.getTotalBytes());
+        assertEquals(100, status.getPercent());
+        assertTrue(status.getFile().contains("district-2.json"));
+        assertEquals(data.getPersons().size(), status.getPersons());
+    }
+
+    /**
+     * Tests that an entity found with the same details in two files is kept once.
+     */
+    @Test
+    void testIdenticalDuplicatesAreKeptOnce() throws IOException {
+        Person person = districts.get(0).getPersons().get(0);
+        districts.get(1).getPersons().add(person);
+        writeDistrict(1);
+        AbstractDataService store = store("object");
+
+        assertTrue(store.readDataFiles(directory.resolve("district-*.json").toString()));
+
+        assertEquals(1, store.getPersonsByName(person.getFirstName(), person.getLastName()).size());
+        assertEquals(data.getPersons().size(), store.getPersons().size());
+    }
+
+    /**
+     * Tests that an entity found with different details in two files fails the read by default.
+     */
+    @Test
+    void testConflictFailsTheRead() throws IOException {
+        addConflictingPerson();
+        AbstractDataService store = store("object");
+
+        assertFalse(store.readDataFiles(directory.resolve("district-*.json").toString()));
+
+        LoadStatus status = store.getLoadProgress().getStatus(false);
+        assertEquals("FAILED", status.getPhase());
+        assertTrue(status.getError().contains("district-0.json and district-1.json"));
+        assertTrue(store.getPersons().isEmpty());
+    }
+
+    /**
+     * Tests that a conflict keeps the entities of the first file when configured so.
+     */
+    @Test
+    void testConflictKeepsTheFirstFile() throws IOException {
+        Person person = addConflictingPerson();
+        AbstractDataService store = store("object");
+        store.setPartitionConflicts("first");
+
+        assertTrue(store.readDataFiles(directory.resolve("district-*.json").toString()));
+
+        List<Person> persons = store.getPersonsByName(person.getFirstName(), person.getLastName());
+        assertEquals(1, persons.size());
+        assertEquals(person.getEmail(), persons.get(0).getEmail());
+    }
+
+    /**
+     * Tests that replacing one district file applies its differences only, leaving the other districts, the keys
+     * they own and the persons added through the API as they are.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"object", "columnar"})
+    void testDistrictReloadOnlyChangesItsEntities(String kind) throws IOException {
+        AbstractDataService store = store(kind);
+        assertTrue(store.readDataFiles(directory.resolve("district-*.json").toString()));
+        Person added = new Person("Api", "Added", "1509 Culver St", "Culver", "api@email.com", 97451, "841-874-0001");
+        store.addPerson(added);
+        Dataset district = districts.get(1);
+        Person removed = district.getPersons().remove(0);
+        Person changed = district.getPersons().get(0);
+        district.getPersons().set(0, new Person(changed.getFirstName(), changed.getLastName(), changed.getAddress(),
+                changed.getCity(), "changed@email.com", changed.getZip(), changed.getPhone()));
+        Person other = districts.get(0).getPersons().get(0);
+        district.getPersons().add(new Person(other.getFirstName(), other.getLastName(), "elsewhere", "Culver",
+                "other@email.com", 97451, "841-874-0002"));
+        writeDistrict(1);
+        long version = store.getVersion();
+
+        DatasetDiff diff = store.reloadDataFile(directory.resolve("district-1.json").toString());
+
+        assertNotNull(diff);
+        assertEquals(2, diff.getPersons().size());
+        assertTrue(diff.getFireStations().isEmpty());
+        assertTrue(diff.getMedicalRecords().isEmpty());
+        assertEquals(version + 2, store.getVersion());
+        assertTrue(store.getPersonsByName(removed.getFirstName(), removed.getLastName()).isEmpty());
+        assertEquals("changed@email.com",
+                store.getPersonsByName(changed.getFirstName(), changed.getLastName()).get(0).getEmail());
+        assertEquals(other, store.getPersonsByName(other.getFirstName(), other.getLastName()).get(0));
+        assertEquals(1, store.getPersonsByName("Api", "Added").size());
+        assertNull(store.reloadDataFile(directory.resolve("district-1.json").toString()));
+    }
+
+    /**
+     * Tests that only the data files are reloaded once the data comes from partitions.
+     */
+    @Test
+    void testOtherFileIsNotReloaded() throws IOException {
+        AbstractDataService store = store("object");
+        assertTrue(store.readDataFiles(directory.resolve("district-*.json").toString()));
+        Path other = Files.copy(Path.of(DATA_FILE), directory.resolve("data.json"));
+
+        assertNull(store.reloadDataFile(other.toString()));
+    }
+
+    /**
+     * Tests the resolution of lists of files and patterns.
+     */
+    @Test
+    void testResolve() throws IOException {
+        Path first = directory.resolve("district-0.json");
+
+        List<Path> files = DataPartitions.resolve(first + ", " + directory.resolve("district-?.json"));
+
+        assertEquals(List.of(first, directory.resolve("district-1.json"), directory.resolve("district-2.json")), files);
+        assertThrows(IOException.class, () -> DataPartitions.resolve(directory.resolve("region-*.json").toString()));
+        assertThrows(IOException.class, () -> DataPartitions.resolve(directory.resolve("missing.json").toString()));
+    }
+
+    private Person addConflictingPerson() throws IOException {
+        Person person = districts.get(0).getPersons().get(0);
+        districts.get(1).getPersons().add(new Person(person.getFirstName(), person.getLastName(), person.getAddress(),
+                person.getCity(), "conflict@email.com", person.getZip(), person.getPhone()));
+        writeDistrict(1);
+        return person;
+    }
+
+    private void writeDistrict(int district) throws IOException {
+        Path file = directory.resolve("district-" + district + ".json");
+        JacksonDataFileFormat.JSON.write(districts.get(district), file);
+        // A rewritten file must not look like the one the stores read
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 60_000L * district));
+    }
+
+    private long totalSize() throws IOException {
+        long size = 0;
+        for (int district = 0; district < DISTRICTS; district++) {
+            size += Files.size(directory.resolve("district-" + district + ".json"));
+        }
+        return size;
+    }
+
+    private static int districtOf(String key) {
+        return Math.floorMod(key.hashCode(), DISTRICTS);
+    }
+
+    private static AbstractDataService store(String kind) {
+        return kind.equals("columnar") ? new ColumnarDataService() : new DataService();
+    }
+
+    private static void assertSameData(Dataset expected, Dataset actual) {
+        assertEquals(count(expected.getPersons()), count(actual.getPersons()));
+        assertEquals(count(expected.getMedicalRecords()), count(actual.getMedicalRecords()));
+        assertEquals(count(stations(expected.getFireStations())), count(stations(actual.getFireStations())));
+    }
+
+    private static List<String> stations(List<FireStation> fireStations) {
+        return fireStations.stream().map(fireStation -> fireStation.getAddress() + "=" + fireStation.getStation())
+                .collect(Collectors.toList());
+    }
+
+    private static <T> Map<T, Long> count(List<T> entities) {
+        return entities.stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+    }
+}
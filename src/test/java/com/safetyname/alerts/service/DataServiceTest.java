@@ -3,6 +3,7 @@ package com.safetyname.alerts.service;
 import com.safetyname.alerts.entity.FireStation;
 import com.safetyname.alerts.entity.MedicalRecord;
 import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.index.ResidentQuery;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -340,5 +341,193 @@ class DataServiceTest {
         assertEquals(0,addressList.size());
     }
 
+    /**
+     * Tests the getEmailsByCity method successfully.
+     * Expects the distinct emails of the city, matched regardless of case and whitespace.
+     */
+    @Test
+    void testGetEmailsByCity_successfully() {
+        List<String> emails = dataService.getEmailsByCity("  CULVER ");
+
+        assertEquals(15, emails.size());
+        assertTrue(emails.contains("jaboyd@email.com"));
+    }
+
+    /**
+     * Tests the getEmailsByCity method with no content.
+     * Expects to retrieve an empty list when the city is empty.
+     */
+    @Test
+    void testGetEmailsByCity_noContent() {
+        assertTrue(dataService.getEmailsByCity("").isEmpty());
+    }
+
+    /**
+     * Tests that the city index follows the addition, update and deletion of a person.
+     */
+    @Test
+    void testPersonMutationsUpdateCityIndex() {
+        Person newPerson = new Person("John", "Doe", "123 Main St", "Springfield", "john@example.com", 71100, "123-456-7890");
+
+        dataService.addPerson(newPerson);
+        assertEquals(List.of("john@example.com"), dataService.getEmailsByCity("springfield"));
+
+        Person movedPerson = new Person("John", "Doe", "123 Main St", "Shelbyville", "john@example.com", 71100, "123-456-7890");
+        assertTrue(dataService.updatePerson(movedPerson));
+        assertTrue(dataService.getEmailsByCity("Springfield").isEmpty());
+        assertEquals(List.of("john@example.com"), dataService.getEmailsByCity("Shelbyville"));
+
+        assertTrue(dataService.deletePerson("John", "Doe"));
+        assertTrue(dataService.getEmailsByCity("Shelbyville").isEmpty());
+        assertFalse(dataService.deletePerson("John", "Doe"));
+    }
+
+    /**
+     * Tests the getLastNamesByPrefix and getAddressesByPrefix methods.
+     * Expects the distinct matching values, kept in sync with person mutations.
+     */
+    @Test
+    void testGetByPrefix() {
+        assertEquals(List.of("Boyd"), dataService.getLastNamesByPrefix("bo", 10));
+        assertEquals(List.of("1509 Culver St"), dataService.getAddressesByPrefix("1509", 10));
+
+        dataService.addPerson(new Person("John", "Bowman", "1510 Culver St", "Culver", "john@example.com", 97451, "123-456-7890"));
+        assertEquals(List.of("Bowman", "Boyd"), dataService.getLastNamesByPrefix("bo", 10));
+        assertEquals(List.of("1509 Culver St", "1510 Culver St"), dataService.getAddressesByPrefix("15", 10));
+
+        dataService.deletePerson("John", "Bowman");
+        assertEquals(List.of("Boyd"), dataService.getLastNamesByPrefix("bo", 10));
+    }
+
+    /**
+     * Tests the getPersonsByPhoneticLastName method.
+     * Expects a misspelled last name to find the persons whose last name sounds alike.
+     */
+    @Test
+    void testGetPersonsByPhoneticLastName() {
+        List<Person> persons = dataService.getPersonsByPhoneticLastName("Boyde");
+        assertEquals(6, persons.size());
+        assertTrue(persons.stream().allMatch(person -> person.getLastName().equals("Boyd")));
+
+        assertTrue(dataService.getPersonsByPhoneticLastName("").isEmpty());
+    }
+
+    /**
+     * Tests the getMedicalRecordsByMedication and getMedicalRecordsByAllergy methods.
+     * Expects the records mentioning the term, whatever the dosage or the case.
+     */
+    @Test
+    void testGetMedicalRecordsByTerm() {
+        assertEquals(4, dataService.getMedicalRecordsByMedication("Hydrapermazol").size());
+        assertEquals(3, dataService.getMedicalRecordsByAllergy("nillacilan").size());
+        assertTrue(dataService.getMedicalRecordsByAllergy("").isEmpty());
+        assertEquals(1, dataService.getPersonsByName("John", "Boyd").size());
+    }
+
+    /**
+     * Tests that the medical indexes follow the addition, update and deletion of a medical record.
+     */
+    @Test
+    void testMedicalRecordMutationsUpdateIndexes() {
+        dataService.addMedicalRecord(new MedicalRecord("John", "Doe", "01/01/1985", List.of("insulin:10ui"), List.of()));
+        assertEquals(1, dataService.getMedicalRecordsByMedication("insulin").size());
+
+        assertTrue(dataService.updateMedicalRecord(new MedicalRecord("John", "Doe", "01/01/1985", List.of(), List.of("penicillin"))));
+        assertTrue(dataService.getMedicalRecordsByMedication("insulin").isEmpty());
+        assertEquals(1, dataService.getMedicalRecordsByAllergy("penicillin").size());
+
+        assertTrue(dataService.deleteMedicalRecord("John", "Doe"));
+        assertTrue(dataService.getMedicalRecordsByAllergy("penicillin").isEmpty());
+    }
+
+    /**
+     * Tests the findPersons method with a combined query.
+     * Expects the persons of station 3 allergic to nillacilan.
+     */
+    @Test
+    void testFindPersons() {
+        ResidentQuery query = new ResidentQuery();
+        query.getStations().add(3);
+        query.getAllergies().add("nillacilan");
+
+        List<Person> persons = dataService.findPersons(query);
+
+        assertEquals(2, persons.size());
+        assertEquals("John", persons.get(0).getFirstName());
+        assertEquals("Allison", persons.get(1).getFirstName());
+    }
+
+    /**
+     * Tests that the station posting lists follow the fire station mutations.
+     */
+    @Test
+    void testFireStationMutationsUpdateStationPostings() {
+        assertEquals(11, dataService.getPersonsByStationNumber(3).size());
+
+        assertTrue(dataService.updateFireStation(new FireStation("1509 Culver St", 9)));
+        assertEquals(6, dataService.getPersonsByStationNumber(3).size());
+        assertEquals(5, dataService.getPersonsByStationNumber(9).size());
+
+        assertTrue(dataService.deleteFireStation("1509 Culver St"));
+        assertTrue(dataService.getPersonsByStationNumber(9).isEmpty());
+
+        dataService.addFireStation(new FireStation("1509 Culver St", 3));
+        assertEquals(11, dataService.getPersonsByStationNumber(3).size());
+    }
+
+    /**
+     * Tests that repeated strings are shared after loading and after a mutation.
+     * Expects the Boyd family and the fire station mapping of 1509 Culver St to reference the same instances.
+     */
+    @Test
+    void testRepeatedStringsAreShared() {
+        List<Person> boyds = dataService.getPersonsByAddress("1509 Culver St");
+        assertSame(boyds.get(0).getAddress(), boyds.get(1).getAddress());
+        assertSame(boyds.get(0).getLastName(), boyds.get(1).getLastName());
+        assertSame(boyds.get(0).getCity(), dataService.getPersons().get(22).getCity());
+        FireStation mapping = dataService.getFireStations().stream()
+                .filter(fireStation -> fireStation.getAddress().equals("1509 Culver St")).findFirst().orElseThrow();
+        assertSame(boyds.get(0).getAddress(), mapping.getAddress());
+
+        Person newcomer = new Person("Jane", new String("Boyd"), new String("1509 Culver St"), new String("Culver"),
+                "jane@email.com", 97451, "841-874-0000");
+        dataService.addPerson(newcomer);
+        assertSame(boyds.get(0).getAddress(), newcomer.getAddress());
+        assertSame(boyds.get(0).getLastName(), newcomer.getLastName());
+
+        MedicalRecord record = new MedicalRecord("Jane", "Boyd", "01/01/2000",
+                List.of(new String("aznol:350mg")), List.of(new String("nillacilan")));
+        dataService.addMedicalRecord(record);
+        MedicalRecord john = dataService.getMedicalRecordsByName("John", "Boyd").get(0);
+        assertSame(john.getMedications().get(0), record.getMedications().get(0));
+        assertSame(john.getAllergies().get(0), record.getAllergies().get(0));
+    }
+
+    /**
+     * Tests that the data version changes with every load and every change, and only then.
+     */
+    @Test
+    void testVersionChangesWithTheData() {
+        long loaded = dataService.getVersion();
+        dataService.getPersonsByStationNumber(3);
+        assertEquals(loaded, dataService.getVersion());
 
+        assertFalse(dataService.deletePerson("Nobody", "Here"));
+        assertEquals(loaded, dataService.getVersion());
+
+        assertTrue(dataService.updateFireStation(new FireStation("1509 Culver St", 3)));
+        assertEquals(loaded + 1, dataService.getVersion());
+
+        dataService.readJsonFile();
+        assertEquals(loaded + 2, dataService.getVersion());
+
+        // Each version is the event of one change
+        List<ChangeEvent> events = dataService.getChangeLog().getEventsSince(loaded);
+        assertEquals(2, events.size());
+        assertEquals(ChangeEvent.Entity.FIRE_STATION, events.get(0).getEntity());
+        assertEquals(ChangeEvent.Operation.UPDATED, events.get(0).getOperation());
+        assertEquals("1509 Culver St", events.get(0).getKey());
+        assertEquals(3, ((FireStation) events.get(0).getAfter()).getStation());
+        assertEquals(ChangeEvent.Operation.RELOADED, events.get(1).getOperation());
+    }
 }
@@ -0,0 +1,314 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link DatasetDiff} and {@link AbstractDataService#reloadDataFile(String)}, with the object store
+ * and the column-wise store.
+ * <p>
+ * Each test reads a copy of the test data file, replaces it with a version changed by another store, and checks
+ * that reloading it applies only the changed entities.
+ */
+class DatasetDiffTest {
+
+    private static final String DATA_FILE = "src/test/resources/data.json";
+
+    @TempDir
+    Path directory;
+
+    private Path dataFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataFile = Files.copy(Path.of(DATA_FILE), directory.resolve("data.json"));
+    }
+
+    /**
+     * Tests that reloading a changed file applies one change event per changed entity, without a reload event,
+     * and leaves the store with the data of the file and up-to-date indexes.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"object", "columnar"})
+    void testReloadAppliesChangedEntities(String kind) throws IOException {
+        AbstractDataService store = read(kind, new FullFilePersistence());
+        AbstractDataService next = read(kind, new FullFilePersistence());
+        mutate(next);
+        replaceDataFile(next);
+        long version = store.getVersion();
+
+        DatasetDiff diff = store.reloadDataFile(dataFile.toString());
+
+        assertNotNull(diff);
+        assertEquals(3, diff.getPersons().size());
+        assertEquals(1, diff.getFireStations().size());
+        assertEquals(3, diff.getMedicalRecords().size());
+        List<ChangeEvent> events = store.getChangeLog().getEventsSince(version);
+        assertEquals(7, events.size());
+        assertTrue(events.stream().noneMatch(event -> event.getOperation() == ChangeEvent.Operation.RELOADED));
+        assertSameData(next, store);
+        assertEquals(4, store.getStationByAddress("29 15th St"));
+        assertTrue(store.getPersonsByName("Tenley", "Boyd").isEmpty());
+        assertEquals("new@email.com", store.getPersonsByName("John", "Boyd").get(0).getEmail());
+        assertTrue(store.getEmailsByCity("Culver").contains("jane@email.com"));
+        assertTrue(store.getPersonsByStationNumber(4).stream().anyMatch(person -> person.getFirstName().equals("Jane")));
+        assertEquals(1, store.getMedicalRecordsByAllergy("peanut").stream()
+                .filter(medicalRecord -> medicalRecord.getFirstName().equals("John")).count());
+    }
+
+    /**
+     * Tests that the same data gives an empty diff and changes nothing.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"object", "columnar"})
+    void testSameDataHasNoChange(String kind) {
+        AbstractDataService store = read(kind, new FullFilePersistence());
+        AbstractDataService copy = read(kind, new FullFilePersistence());
+        long version = store.getVersion();
+
+        DatasetDiff diff = DatasetDiff.between(store.getDataset(), copy.getDataset());
+        diff.applyTo(store);
+
+        assertTrue(diff.isEmpty());
+        assertEquals(version, store.getVersion());
+    }
+
+    /**
+     * Tests that a file last read or written by the store is not read again.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"object", "columnar"})
+    void testOwnFileIsNotReloaded(String kind) {
+        AbstractDataService store = read(kind, new FullFilePersistence());
+        assertNull(store.reloadDataFile(dataFile.toString()));
+
+        store.deletePerson("Tenley", "Boyd");
+        assertTrue(store.saveData(dataFile.toString()));
+        assertNull(store.reloadDataFile(dataFile.toString()));
+    }
+
+    /**
+     * Tests that entities sharing a key are deleted and added again as a whole.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"object", "columnar"})
+    void testDuplicateKeysAreReplaced(String kind) throws IOException {
+        AbstractDataService store = read(kind, new FullFilePersistence());
+        AbstractDataService next = read(kind, new FullFilePersistence());
+        next.addFireStation(new FireStation("29 15th St", 4));
+        replaceDataFile(next);
+
+        DatasetDiff diff = store.reloadDataFile(dataFile.toString());
+
+        assertEquals(1, diff.size());
+        assertEquals(List.of(2, 4), diff.getFireStations().get(0).getAfter().stream()
+                .map(FireStation::getStation).collect(Collectors.toList()));
+        assertEquals(stations(next), stations(store));
+    }
+
+    /**
+     * Tests that the journal of the replaced file is deleted, so that its changes are not replayed over the new
+     * file, and that the next changes are journaled over the new file.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"object", "columnar"})
+    void testReloadDiscardsJournal(String kind) throws IOException {
+        JournalPersistence persistence = new JournalPersistence(10);
+        AbstractDataService store = read(kind, persistence);
+        store.deletePerson("Felicia", "Boyd");
+        assertTrue(persistence.persist(store, dataFile));
+        assertTrue(Files.exists(JournalPersistence.journalOf(dataFile)));
+        AbstractDataService next = read(kind, new FullFilePersistence());
+        mutate(next);
+        replaceDataFile(next);
+
+        assertNotNull(store.reloadDataFile(dataFile.toString()));
+        assertFalse(Files.exists(JournalPersistence.journalOf(dataFile)));
+        store.deletePerson("Jacob", "Boyd");
+        assertTrue(persistence.persist(store, dataFile));
+
+        assertEquals(1, Files.readAllLines(JournalPersistence.journalOf(dataFile)).size());
+        AbstractDataService reloaded = read(kind, new JournalPersistence(10));
+        assertSameData(store, reloaded);
+        assertEquals(1, reloaded.getPersonsByName("Felicia", "Boyd").size());
+    }
+
+    /**
+     * Tests that queries running on other threads while the data file is reloaded, as the {@link DataFileWatcher}
+     * does, never fail and see the data before or after each reload, never part of it.
+     */
+    @Test
+    void testQueriesDuringReloads() throws Exception {
+        AbstractDataService store = read("object", new FullFilePersistence());
+        Path before = Files.copy(dataFile, directory.resolve("before.json"));
+        AbstractDataService next = read("object", new FullFilePersistence());
+        mutate(next);
+        Path after = directory.resolve("after.json");
+        assertTrue(next.saveData(after.toString()));
+
+        AtomicBoolean reloading = new AtomicBoolean(true);
+        AtomicInteger reads = new AtomicInteger();
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        List<Future<?>> tasks = new ArrayList<>();
+        try {
+            for (int reader = 0; reader < 4; reader++) {
+                tasks.add(readers.submit(() -> {
+                    while (reloading.get()) {
+                        // The reload adds Jane Boyd and deletes Tenley Boyd: one of them only is there
+                        List<Person> persons = store.getPersons();
+                        assertNotEquals(contains(persons, "Jane"), contains(persons, "Tenley"));
+                        assertEquals(persons.size(), store.getDataset().getPersons().size());
+                        store.getMedicalRecordsByPersons(persons);
+                        store.getPersonsByAddress("29 15th St");
+                        store.getAddressesByStationNumber(4);
+                        store.getMedicalRecordsByAllergy("peanut");
+                        reads.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            while (reads.get() == 0) {
+                Thread.sleep(1);
+            }
+            for (int reload = 1; reload <= 20; reload++) {
+                Files.copy(reload % 2 == 1 ? after : before, dataFile, StandardCopyOption.REPLACE_EXISTING);
+                Files.setLastModifiedTime(dataFile, FileTime.fromMillis(System.currentTimeMillis() + 60_000L * reload));
+                assertNotNull(store.reloadDataFile(dataFile.toString()));
+            }
+        } finally {
+            reloading.set(false);
+            readers.shutdown();
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        assertSameData(read("object", new FullFilePersistence()), store);
+    }
+
+    /**
+     * Tests that a save compacting the journal while the data file is reloaded, as the {@link DataFileWatcher} does,
+     * does not deadlock: both take the lock of the service before the one of the persistence.
+     */
+    @Test
+    void testSavesDuringReloadsDoNotDeadlock() throws Exception {
+        // Every save compacts, since the journal is based on the data file read, not on the file written
+        JournalPersistence persistence = new JournalPersistence(1);
+        AbstractDataService store = read("object", persistence);
+        ReflectionTestUtils.setField(store, "filePathWrite", directory.resolve("saved.json").toString());
+        Path before = Files.copy(dataFile, directory.resolve("before.json"));
+        AbstractDataService next = read("object", new FullFilePersistence());
+        mutate(next);
+        Path after = directory.resolve("after.json");
+        assertTrue(next.saveData(after.toString()));
+
+        AtomicBoolean reloading = new AtomicBoolean(true);
+        ExecutorService threads = Executors.newFixedThreadPool(2, task -> {
+            Thread thread = new Thread(task);
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Future<Integer> saves = threads.submit(() -> {
+                int saved = 0;
+                while (reloading.get()) {
+                    store.addPerson(new Person("Saved", "Boyd" + saved, "29 15th St", "Culver", "saved@email.com",
+                            97451, "841-874-0000"));
+                    assertTrue(store.saveData());
+                    saved++;
+                }
+                return saved;
+            });
+            Future<?> reloads = threads.submit(() -> {
+                try {
+                    for (int reload = 1; reload <= 20; reload++) {
+                        Files.copy(reload % 2 == 1 ? after : before, dataFile, StandardCopyOption.REPLACE_EXISTING);
+                        Files.setLastModifiedTime(dataFile,
+                                FileTime.fromMillis(System.currentTimeMillis() + 60_000L * reload));
+                        assertNotNull(store.reloadDataFile(dataFile.toString()));
+                    }
+                } finally {
+                    reloading.set(false);
+                }
+                return null;
+            });
+
+            reloads.get(30, TimeUnit.SECONDS);
+            assertTrue(saves.get(30, TimeUnit.SECONDS) > 0);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private static boolean contains(List<Person> persons, String boydFirstName) {
+        return persons.stream().anyMatch(person -> person.getFirstName().equals(boydFirstName)
+                && person.getLastName().equals("Boyd"));
+    }
+
+    private AbstractDataService read(String kind, ChangePersistence persistence) {
+        AbstractDataService store = kind.equals("columnar") ? new ColumnarDataService() : new DataService();
+        store.setChangePersistence(persistence);
+        assertTrue(store.readJsonFile(dataFile.toString()));
+        return store;
+    }
+
+    private void replaceDataFile(IDataService store) throws IOException {
+        Path replacement = directory.resolve("export.json");
+        assertTrue(store.saveData(replacement.toString()));
+        Files.move(replacement, dataFile, StandardCopyOption.REPLACE_EXISTING);
+        // The replaced file must not look like the one the stores read
+        Files.setLastModifiedTime(dataFile, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+    }
+
+    private static void mutate(IDataService store) {
+        store.addPerson(new Person("Jane", "Boyd", "29 15th St", "Culver", "jane@email.com", 97451, "841-874-0000"));
+        store.updatePerson(new Person("John", "Boyd", "112 Steppes Pl", "Culver", "new@email.com", 97451, "841-874-1111"));
+        store.deletePerson("Tenley", "Boyd");
+        store.addMedicalRecord(new MedicalRecord("Jane", "Boyd", "01/01/2000", List.of("aznol:60mg"), List.of()));
+        store.updateMedicalRecord(new MedicalRecord("John", "Boyd", "03/06/1984", List.of(), List.of("peanut")));
+        store.deleteMedicalRecord("Roger", "Boyd");
+        store.updateFireStation(new FireStation("29 15th St", 4));
+    }
+
+    private static void assertSameData(IDataService expected, IDataService actual) {
+        // Entities deleted and added again move to the end of the lists
+        assertEquals(count(expected.getPersons()), count(actual.getPersons()));
+        assertEquals(count(expected.getMedicalRecords()), count(actual.getMedicalRecords()));
+        assertEquals(stations(expected), stations(actual));
+    }
+
+    private static <T> Map<T, Long> count(List<T> entities) {
+        return entities.stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+    }
+
+    private static Map<String, Long> stations(IDataService store) {
+        return count(store.getFireStations().stream()
+                .map(fireStation -> fireStation.getAddress() + "=" + fireStation.getStation())
+                .collect(Collectors.toList()));
+    }
+}
@@ -15,6 +15,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.when;
 
 class FireServiceTest {
@@ -54,7 +55,7 @@ class FireServiceTest {
         int fireStation = 1;
 
         // Mock the dataService methods
-        when(dataService.getPersonsByAddress(address)).thenReturn(persons);
+        when(dataService.findPersons(argThat(query -> query.getAddresses().contains(address)))).thenReturn(persons);
         when(dataService.getMedicalRecordsByPersons(persons)).thenReturn(medicalRecords);
         when(dataService.getStationByAddress(address)).thenReturn(fireStation);
 
@@ -93,7 +94,7 @@ class FireServiceTest {
         int fireStation = 1;
 
         // Mock the dataService methods to return empty lists
-        when(dataService.getPersonsByAddress(address)).thenReturn(Collections.emptyList());
+        when(dataService.findPersons(argThat(query -> query.getAddresses().contains(address)))).thenReturn(Collections.emptyList());
         when(dataService.getStationByAddress(address)).thenReturn(fireStation);
 
         // Call the service method
@@ -115,7 +116,7 @@ class FireServiceTest {
         int fireStation = 1;
 
         // Mock the dataService methods
-        when(dataService.getPersonsByAddress(address)).thenReturn(persons);
+        when(dataService.findPersons(argThat(query -> query.getAddresses().contains(address)))).thenReturn(persons);
         when(dataService.getMedicalRecordsByPersons(persons)).thenReturn(Collections.emptyList());
         when(dataService.getStationByAddress(address)).thenReturn(fireStation);
 
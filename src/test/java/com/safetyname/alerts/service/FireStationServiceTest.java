@@ -1,9 +1,10 @@
 package com.safetyname.alerts.service;
 
+import com.safetyname.alerts.dto.AgeHistogramResponse;
 import com.safetyname.alerts.dto.FirestationResponse;
 import com.safetyname.alerts.dto.PersonInfo;
-import com.safetyname.alerts.entity.MedicalRecord;
 import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.store.AgeKernel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,11 +13,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.when;
 
 class FireStationServiceTest {
@@ -42,14 +45,11 @@ class FireStationServiceTest {
                 new Person("John", "Doe", "123 Main St", "City1", "john@example.com", 71100, "123-456-7890"),
                 new Person("Jane", "Smith", "456 Oak St", "City2", "jane@example.com", 71100, "987-654-3210")
         );
-        when(dataService.getPersonsByStationNumber(1)).thenReturn(personsCovered);
+        when(dataService.findPersons(argThat(query -> query.getStations().contains(1)))).thenReturn(personsCovered);
 
-        // Simulate medical records associated with the persons
-        List<MedicalRecord> medicalRecords = Arrays.asList(
-                new MedicalRecord("John", "Doe", "01/01/1980", Arrays.asList("med1"), Arrays.asList("allergy1")),
-                new MedicalRecord("Jane", "Smith", "01/01/2015", Arrays.asList("med2"), Arrays.asList("allergy2"))
-        );
-        when(dataService.getMedicalRecordsByPersons(personsCovered)).thenReturn(medicalRecords);
+        // Simulate the birthdates of the medical records associated with the persons
+        int[] births = {birth(1980, 1, 1), birth(2015, 1, 1)};
+        when(dataService.getBirthEpochDaysByPersons(personsCovered)).thenReturn(births);
 
         // Call the service method
         FirestationResponse response = fireStationService.getFireStationService(1);
@@ -79,7 +79,7 @@ class FireStationServiceTest {
     void testGetPersonsCoveredByFirestationNoPersonsFound() {
         logger.info("Testing retrieval of persons when no one is found for the fire station.");
         // Simulate no persons found for the fire station
-        when(dataService.getPersonsByStationNumber(1)).thenReturn(Collections.emptyList());
+        when(dataService.findPersons(argThat(query -> query.getStations().contains(1)))).thenReturn(Collections.emptyList());
 
         // Call the service method
         FirestationResponse response = fireStationService.getFireStationService(1);
@@ -95,10 +95,10 @@ class FireStationServiceTest {
         List<Person> personsCovered = Arrays.asList(
                 new Person("John", "Doe", "123 Main St", "City1", "john@example.com", 71100, "123-456-7890")
         );
-        when(dataService.getPersonsByStationNumber(1)).thenReturn(personsCovered);
+        when(dataService.findPersons(argThat(query -> query.getStations().contains(1)))).thenReturn(personsCovered);
 
         // Simulate no medical records found
-        when(dataService.getMedicalRecordsByPersons(personsCovered)).thenReturn(Collections.emptyList());
+        when(dataService.getBirthEpochDaysByPersons(personsCovered)).thenReturn(new int[0]);
 
         // Call the service method
         FirestationResponse response = fireStationService.getFireStationService(1);
@@ -106,4 +106,50 @@ class FireStationServiceTest {
         // Verify the response is null since no medical records are found
         assertNull(response);
     }
+
+    @Test
+    void testGetAgeHistogram() {
+        logger.info("Testing the age histogram of a fire station.");
+        List<Person> personsCovered = Arrays.asList(
+                new Person("John", "Doe", "123 Main St", "City1", "john@example.com", 71100, "123-456-7890")
+        );
+        when(dataService.findPersons(argThat(query -> query.getStations().contains(1)))).thenReturn(personsCovered);
+        LocalDate today = LocalDate.now();
+        int[] births = {
+                (int) today.minusYears(5).toEpochDay(),
+                (int) today.minusYears(18).toEpochDay(),
+                (int) today.minusYears(18).plusDays(1).toEpochDay(),
+                (int) today.minusYears(40).toEpochDay(),
+                (int) today.minusYears(90).toEpochDay(),
+                AgeKernel.UNKNOWN_BIRTHDATE
+        };
+        when(dataService.getBirthEpochDaysByPersons(personsCovered)).thenReturn(births);
+
+        AgeHistogramResponse response = fireStationService.getAgeHistogram(1, List.of(18, 65));
+
+        assertNotNull(response);
+        assertEquals(3, response.getBuckets().size());
+        assertEquals(0, response.getBuckets().get(0).getMinAge());
+        assertEquals(17, response.getBuckets().get(0).getMaxAge());
+        assertEquals(2, response.getBuckets().get(0).getCount());
+        assertEquals(18, response.getBuckets().get(1).getMinAge());
+        assertEquals(64, response.getBuckets().get(1).getMaxAge());
+        assertEquals(2, response.getBuckets().get(1).getCount());
+        assertEquals(65, response.getBuckets().get(2).getMinAge());
+        assertNull(response.getBuckets().get(2).getMaxAge());
+        assertEquals(1, response.getBuckets().get(2).getCount());
+        assertEquals(1, response.getUnknownCount());
+    }
+
+    @Test
+    void testGetAgeHistogramNoPersonsFound() {
+        logger.info("Testing the age histogram when no one is found for the fire station.");
+        when(dataService.findPersons(argThat(query -> query.getStations().contains(1)))).thenReturn(Collections.emptyList());
+
+        assertNull(fireStationService.getAgeHistogram(1, List.of(18)));
+    }
+
+    private static int birth(int year, int month, int day) {
+        return (int) LocalDate.of(year, month, day).toEpochDay();
+    }
 }
@@ -3,6 +3,14 @@ package com.safetyname.alerts.service;
 import com.safetyname.alerts.entity.MedicalRecord;
 import com.safetyname.alerts.entity.Person;
 import com.safetyname.alerts.dto.FloodResponse;
+import com.safetyname.alerts.index.ResidentQuery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetyname.alerts.json.AlertsJsonModule;
+import com.safetyname.alerts.json.FieldSet;
+import com.safetyname.alerts.json.FloodResponseSerializer;
+import com.safetyname.alerts.json.JsonBytes;
+import com.safetyname.alerts.json.SharedResponse;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,8 +19,11 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.MockedStatic;
 
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 class FloodServiceTest {
@@ -47,10 +58,7 @@ class FloodServiceTest {
     @Test
     void testGetHouseholdsByStationSuccess() {
         // Mock methods of DataService
-        when(dataService.getAddressesByStationNumber(1)).thenReturn(Collections.singleton("123 Main St"));
-        when(dataService.getAddressesByStationNumber(2)).thenReturn(Collections.singleton("456 Elm St"));
-        when(dataService.getPersonsByAddress("123 Main St")).thenReturn(Arrays.asList(personList.get(0), personList.get(1)));
-        when(dataService.getPersonsByAddress("456 Elm St")).thenReturn(Collections.singletonList(personList.get(2)));
+        when(dataService.findPersons(argThat(query -> query.getStations().equals(Set.of(1, 2))))).thenReturn(personList);
         when(dataService.getMedicalRecordsByPersons(anyList())).thenReturn(medicalRecords);
 
         // Mock CalculateAgeService
@@ -84,8 +92,8 @@ class FloodServiceTest {
     }
     @Test
     void testNoAddressesFoundForStation() {
-        // Mock DataService to return empty sets for station numbers
-        when(dataService.getAddressesByStationNumber(1)).thenReturn(Collections.emptySet());
+        // Mock DataService to return nobody for the station numbers
+        when(dataService.findPersons(argThat(query -> query.getStations().equals(Set.of(1))))).thenReturn(Collections.emptyList());
 
         // Call the service method
         Map<String, List<FloodResponse>> households = floodService.getFloodService(Arrays.asList(1));
@@ -96,9 +104,8 @@ class FloodServiceTest {
 
     @Test
     void testNoPersonsFoundAtAddress() {
-        // Mock DataService to return addresses but no persons
-        when(dataService.getAddressesByStationNumber(1)).thenReturn(Collections.singleton("123 Main St"));
-        when(dataService.getPersonsByAddress("123 Main St")).thenReturn(Collections.emptyList());
+        // Mock DataService to return no persons
+        when(dataService.findPersons(argThat(query -> query.getStations().equals(Set.of(1))))).thenReturn(Collections.emptyList());
 
         // Call the service method
         Map<String, List<FloodResponse>> households = floodService.getFloodService(Arrays.asList(1));
@@ -110,8 +117,7 @@ class FloodServiceTest {
     @Test
     void testNoMedicalRecordsFoundForPersons() {
         // Mock DataService to return persons but no medical records
-        when(dataService.getAddressesByStationNumber(1)).thenReturn(Collections.singleton("123 Main St"));
-        when(dataService.getPersonsByAddress("123 Main St")).thenReturn(Arrays.asList(personList.get(0)));
+        when(dataService.findPersons(argThat(query -> query.getStations().equals(Set.of(1))))).thenReturn(Arrays.asList(personList.get(0)));
         when(dataService.getMedicalRecordsByPersons(anyList())).thenReturn(Collections.emptyList());
 
         // Mock CalculateAgeService to return a default value
@@ -133,7 +139,7 @@ class FloodServiceTest {
     @Test
     void testInvalidStationNumber() {
         // Mock DataService to return no addresses for an invalid station number
-        when(dataService.getAddressesByStationNumber(99)).thenReturn(Collections.emptySet());
+        when(dataService.findPersons(argThat(query -> query.getStations().equals(Set.of(99))))).thenReturn(Collections.emptyList());
 
         // Call the service method
         Map<String, List<FloodResponse>> households = floodService.getFloodService(Arrays.asList(99));
@@ -142,6 +148,94 @@ class FloodServiceTest {
         assertTrue(households.isEmpty());
     }
 
+    @Test
+    void testConcurrentIdenticalRequestsShareOneComputation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(dataService.findPersons(any())).thenAnswer(invocation -> {
+            release.await();
+            return personList;
+        });
+        when(dataService.getMedicalRecordsByPersons(anyList())).thenReturn(medicalRecords);
+
+        List<SharedResponse<Map<String, List<FloodResponse>>>> responses = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> requests = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread request = new Thread(() -> responses.add(floodService.getFloodResponse(Arrays.asList(1, 2))));
+            requests.add(request);
+            request.start();
+        }
+        // Release the computation once every request waits, either for the data or for the computation
+        while (requests.stream().anyMatch(request -> request.getState() != Thread.State.WAITING)) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        for (Thread request : requests) {
+            request.join();
+        }
+
+        verify(dataService, times(1)).findPersons(any());
+        assertEquals(4, responses.size());
+        ObjectMapper mapper = new ObjectMapper();
+        JsonBytes json = responses.get(0).getJson(mapper);
+        for (SharedResponse<Map<String, List<FloodResponse>>> response : responses) {
+            assertSame(responses.get(0), response);
+            assertSame(json, response.getJson(mapper));
+        }
+    }
+
+    @Test
+    void testNewDataVersionIsNotShared() {
+        when(dataService.findPersons(any())).thenReturn(personList);
+        when(dataService.getMedicalRecordsByPersons(anyList())).thenReturn(medicalRecords);
+        when(dataService.getVersion()).thenReturn(1L, 2L);
 
+        SharedResponse<Map<String, List<FloodResponse>>> first = floodService.getFloodResponse(Arrays.asList(1));
+        SharedResponse<Map<String, List<FloodResponse>>> second = floodService.getFloodResponse(Arrays.asList(1));
 
+        assertNotSame(first, second);
+        verify(dataService, times(2)).findPersons(any());
+    }
+
+    @Test
+    void testResponsesAndHouseholdsAreCachedUntilTheDataChanges() {
+        when(dataService.findPersons(any())).thenAnswer(invocation ->
+                invocation.<ResidentQuery>getArgument(0).getStations().contains(2) ? personList : personList.subList(0, 2));
+        when(dataService.getMedicalRecordsByPersons(anyList())).thenReturn(medicalRecords);
+        ObjectMapper mapper = new ObjectMapper();
+
+        SharedResponse<Map<String, List<FloodResponse>>> first = floodService.getFloodResponse(Arrays.asList(1));
+        assertSame(first, floodService.getFloodResponse(Arrays.asList(1)));
+        verify(dataService, times(1)).findPersons(any());
+
+        // The household of 123 Main St is reused by the second list of stations
+        SharedResponse<Map<String, List<FloodResponse>>> both = floodService.getFloodResponse(Arrays.asList(1, 2));
+        assertSame(first.getBody().get("123 Main St"), both.getBody().get("123 Main St"));
+        verify(dataService, times(2)).getMedicalRecordsByPersons(anyList());
+
+        // The assembled JSON matches the Jackson serialization of the body
+        assertEquals(new String(SharedResponse.serialize(mapper, both.getBody())), both.getJson(mapper).toString());
+
+        when(dataService.getVersion()).thenReturn(1L);
+        assertNotSame(first, floodService.getFloodResponse(Arrays.asList(1)));
+    }
+
+    @Test
+    void testFieldsWithoutMedicalDataSkipTheMedicalRecords() throws Exception {
+        when(dataService.findPersons(any())).thenReturn(personList);
+        ObjectMapper mapper = new ObjectMapper().registerModule(new AlertsJsonModule());
+        FieldSet fields = FieldSet.parse("lastName,phone", FloodResponseSerializer.FIELDS);
+
+        SharedResponse<Map<String, List<FloodResponse>>> response = floodService.getFloodResponse(Arrays.asList(1, 2), fields);
+
+        verify(dataService, never()).getMedicalRecordsByPersons(anyList());
+        assertEquals(mapper.readTree("{\"123 Main St\":[{\"lastName\":\"Doe\",\"phone\":\"123-456-7890\"},"
+                        + "{\"lastName\":\"Doe\",\"phone\":\"987-654-3210\"}],"
+                        + "\"456 Elm St\":[{\"lastName\":\"Smith\",\"phone\":\"555-555-5555\"}]}"),
+                mapper.readTree(response.getJson(mapper).toByteArray()));
+
+        // Every field set has its own cached response; the full one reads the records of both households
+        assertNotSame(response, floodService.getFloodResponse(Arrays.asList(1, 2)));
+        assertSame(response, floodService.getFloodResponse(Arrays.asList(1, 2), FieldSet.parse("phone,lastName", FloodResponseSerializer.FIELDS)));
+        verify(dataService, times(2)).getMedicalRecordsByPersons(anyList());
+    }
 }
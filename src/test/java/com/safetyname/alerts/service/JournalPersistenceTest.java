@@ -0,0 +1,181 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link JournalPersistence}, with the object store and the column-wise store.
+ * <p>
+ * Each test works on a copy of the test data file, and checks that a new store reading it back, journal included,
+ * holds the same data as the store that saved it.
+ */
+class JournalPersistenceTest {
+
+    private static final String DATA_FILE = "src/test/resources/data.json";
+
+    @TempDir
+    Path directory;
+
+    private Path dataFile;
+    private Path journal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataFile = Files.copy(Path.of(DATA_FILE), directory.resolve("data.json"));
+        journal = JournalPersistence.journalOf(dataFile);
+    }
+
+    /**
+     * Tests that saving appends the changes to the journal, leaves the data file untouched, and that the journal
+     * is replayed on reading.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"object", "columnar"})
+    void testSaveAppendsToJournal(String kind) throws IOException {
+        JournalPersistence persistence = new JournalPersistence(10);
+        AbstractDataService store = read(kind, persistence);
+        byte[] original = Files.readAllBytes(dataFile);
+        mutate(store);
+        assertTrue(persistence.persist(store, dataFile));
+        assertTrue(persistence.persist(store, dataFile));
+
+        assertArrayEquals(original, Files.readAllBytes(dataFile));
+        assertEquals(7, Files.readAllLines(journal).size());
+        assertEquals(7, persistence.getJournalEntries());
+
+        JournalPersistence reloadedPersistence = new JournalPersistence(10);
+        AbstractDataService reloaded = read(kind, reloadedPersistence);
+        assertSameData(store, reloaded);
+        assertEquals(7, reloadedPersistence.getJournalEntries());
+        assertEquals(4, reloaded.getStationByAddress("29 15th St"));
+        assertTrue(reloaded.getPersonsByName("Tenley", "Boyd").isEmpty());
+    }
+
+    /**
+     * Tests that the data file is rewritten and the journal deleted once the journal reaches the threshold.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"object", "columnar"})
+    void testCompaction(String kind) {
+        JournalPersistence persistence = new JournalPersistence(10);
+        AbstractDataService store = read(kind, persistence);
+        mutate(store);
+        assertTrue(persistence.persist(store, dataFile));
+        for (int i = 0; i < 4; i++) {
+            store.updatePerson(new Person("John", "Boyd", "1509 Culver St", "Culver", "john" + i + "@email.com", 97451, "841-874-6512"));
+        }
+        assertTrue(persistence.persist(store, dataFile));
+
+        assertFalse(Files.exists(journal));
+        assertEquals(0, persistence.getJournalEntries());
+        DataService plain = new DataService();
+        assertTrue(plain.readJsonFile(dataFile.toString()));
+        assertSameData(store, plain);
+        assertEquals("john3@email.com", plain.getPersonsByName("John", "Boyd").get(0).getEmail());
+    }
+
+    /**
+     * Tests that a journal replayed over a data file already holding its changes leaves the data unchanged.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"object", "columnar"})
+    void testReplayIsIdempotent(String kind) throws IOException {
+        JournalPersistence persistence = new JournalPersistence(10);
+        AbstractDataService store = read(kind, persistence);
+        mutate(store);
+        assertTrue(persistence.persist(store, dataFile));
+        List<String> lines = Files.readAllLines(journal);
+        assertTrue(persistence.compact(store, dataFile));
+        Files.write(journal, lines);
+
+        assertSameData(store, read(kind, new JournalPersistence(10)));
+    }
+
+    /**
+     * Tests that a journal cut in the middle of a line keeps the changes before it, and that the next save
+     * rewrites the data file instead of appending to it.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"object", "columnar"})
+    void testTruncatedJournal(String kind) throws IOException {
+        JournalPersistence persistence = new JournalPersistence(10);
+        AbstractDataService store = read(kind, persistence);
+        store.addPerson(new Person("Jane", "Boyd", "29 15th St", "Culver", "jane@email.com", 97451, "841-874-0000"));
+        store.deletePerson("Tenley", "Boyd");
+        assertTrue(persistence.persist(store, dataFile));
+        String content = Files.readString(journal);
+        Files.writeString(journal, content.substring(0, content.length() - 20));
+
+        JournalPersistence reloadedPersistence = new JournalPersistence(10);
+        AbstractDataService reloaded = read(kind, reloadedPersistence);
+        assertEquals(1, reloaded.getPersonsByName("Jane", "Boyd").size());
+        assertEquals(1, reloaded.getPersonsByName("Tenley", "Boyd").size());
+
+        reloaded.deletePerson("Jane", "Boyd");
+        assertTrue(reloadedPersistence.persist(reloaded, dataFile));
+        assertFalse(Files.exists(journal));
+        assertSameData(reloaded, read(kind, new JournalPersistence(10)));
+    }
+
+    /**
+     * Tests that the changes of a store read from another file are first saved by rewriting the data file.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"object", "columnar"})
+    void testSaveAfterReadingAnotherFile(String kind) throws IOException {
+        JournalPersistence persistence = new JournalPersistence(10);
+        AbstractDataService store = read(kind, persistence);
+        Path copy = directory.resolve("copy.json");
+        store.deletePerson("Tenley", "Boyd");
+        assertTrue(persistence.persist(store, copy));
+
+        assertTrue(Files.exists(copy));
+        assertFalse(Files.exists(JournalPersistence.journalOf(copy)));
+        store.deletePerson("John", "Boyd");
+        assertTrue(persistence.persist(store, copy));
+        assertEquals(1, Files.readAllLines(JournalPersistence.journalOf(copy)).size());
+        assertFalse(Files.exists(journal));
+    }
+
+    private AbstractDataService read(String kind, ChangePersistence persistence) {
+        AbstractDataService store = kind.equals("columnar") ? new ColumnarDataService() : new DataService();
+        store.setChangePersistence(persistence);
+        assertTrue(store.readJsonFile(dataFile.toString()));
+        return store;
+    }
+
+    private static void mutate(IDataService store) {
+        store.addPerson(new Person("Jane", "Boyd", "29 15th St", "Culver", "jane@email.com", 97451, "841-874-0000"));
+        store.updatePerson(new Person("John", "Boyd", "112 Steppes Pl", "Culver", "new@email.com", 97451, "841-874-1111"));
+        store.deletePerson("Tenley", "Boyd");
+        store.addMedicalRecord(new MedicalRecord("Jane", "Boyd", "01/01/2000", List.of("aznol:60mg"), List.of()));
+        store.updateMedicalRecord(new MedicalRecord("John", "Boyd", "03/06/1984", List.of(), List.of("peanut")));
+        store.deleteMedicalRecord("Roger", "Boyd");
+        store.updateFireStation(new FireStation("29 15th St", 4));
+    }
+
+    private static void assertSameData(IDataService expected, IDataService actual) {
+        assertEquals(expected.getPersons(), actual.getPersons());
+        assertEquals(expected.getMedicalRecords(), actual.getMedicalRecords());
+        assertEquals(stations(expected), stations(actual));
+    }
+
+    private static List<String> stations(IDataService store) {
+        return store.getFireStations().stream()
+                .map(fireStation -> fireStation.getAddress() + "=" + fireStation.getStation())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,90 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.dto.MedicalAlertResponse;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class MedicalAlertServiceTest {
+
+    @Mock
+    private IDataService dataService;
+
+    @InjectMocks
+    private MedicalAlertService medicalAlertService;
+
+    private MedicalRecord johnRecord;
+    private MedicalRecord janeRecord;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        johnRecord = new MedicalRecord("John", "Doe", "01/01/1985", List.of("insulin:10ui"), List.of("penicillin"));
+        janeRecord = new MedicalRecord("Jane", "Roe", "01/01/1990", List.of(), List.of("penicillin"));
+        when(dataService.getPersonsByName("John", "Doe")).thenReturn(List.of(
+                new Person("John", "Doe", "123 Main St", "City", "john@example.com", 71100, "123-456-7890")));
+        when(dataService.getPersonsByName("Jane", "Roe")).thenReturn(List.of(
+                new Person("Jane", "Roe", "456 Elm St", "City", "jane@example.com", 71100, "987-654-3210")));
+    }
+
+    /**
+     * Test that without coverage restriction every matching resident is returned.
+     */
+    @Test
+    void testGetPersonsByAllergyWithoutCoverage() {
+        when(dataService.getMedicalRecordsByAllergy("penicillin")).thenReturn(List.of(johnRecord, janeRecord));
+
+        List<MedicalAlertResponse> responses = medicalAlertService.getPersonsByAllergy("penicillin", null, null);
+
+        assertEquals(2, responses.size());
+        assertEquals("John", responses.get(0).getFirstName());
+        assertEquals("456 Elm St", responses.get(1).getAddress());
+    }
+
+    /**
+     * Test that the results are restricted to the addresses covered by the requested station.
+     */
+    @Test
+    void testGetPersonsByAllergyWithStation() {
+        when(dataService.getMedicalRecordsByAllergy("penicillin")).thenReturn(List.of(johnRecord, janeRecord));
+        when(dataService.getAddressesByStationNumber(3)).thenReturn(Set.of("456 Elm St"));
+
+        List<MedicalAlertResponse> responses = medicalAlertService.getPersonsByAllergy("penicillin", List.of(3), null);
+
+        assertEquals(1, responses.size());
+        assertEquals("Jane", responses.get(0).getFirstName());
+    }
+
+    /**
+     * Test that the results are restricted to the requested addresses.
+     */
+    @Test
+    void testGetPersonsByMedicationWithAddresses() {
+        when(dataService.getMedicalRecordsByMedication("insulin")).thenReturn(List.of(johnRecord));
+
+        assertEquals(1, medicalAlertService.getPersonsByMedication("insulin", null, List.of("123 Main St")).size());
+        assertTrue(medicalAlertService.getPersonsByMedication("insulin", null, List.of("456 Elm St")).isEmpty());
+    }
+
+    /**
+     * Test that an unknown term returns an empty list.
+     */
+    @Test
+    void testGetPersonsByMedicationNotFound() {
+        when(dataService.getMedicalRecordsByMedication("aspirin")).thenReturn(Collections.emptyList());
+
+        assertTrue(medicalAlertService.getPersonsByMedication("aspirin", List.of(1), null).isEmpty());
+    }
+}
@@ -0,0 +1,118 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.Person;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link OffHeapDataService}.
+ * <p>
+ * Runs the parity tests of {@link ColumnarDataServiceTest} with the columns stored outside of the heap,
+ * and checks that the snapshot is mapped instead of the JSON file only while it is up to date.
+ */
+class OffHeapDataServiceTest extends ColumnarDataServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Override
+    protected ColumnarDataService createStore() {
+        return new OffHeapDataService();
+    }
+
+    /**
+     * Tests that a snapshot written on the first read is mapped on the next start, without parsing the JSON file.
+     */
+    @Test
+    void testSnapshotIsMappedWhenUpToDate() throws IOException {
+        Path json = copyTestData();
+        Path snapshot = directory.resolve("data.snapshot");
+        OffHeapDataService first = newService(snapshot);
+        assertTrue(first.readJsonFile(json.toString()));
+        assertTrue(Files.exists(snapshot));
+
+        // Same size and modification time, but no longer JSON: only the snapshot can be read.
+        FileTime modified = Files.getLastModifiedTime(json);
+        byte[] garbage = new byte[(int) Files.size(json)];
+        Arrays.fill(garbage, (byte) 'x');
+        Files.write(json, garbage);
+        Files.setLastModifiedTime(json, modified);
+
+        OffHeapDataService second = newService(snapshot);
+        assertTrue(second.readJsonFile(json.toString()));
+        assertEquals(first.getPersons(), second.getPersons());
+        assertEquals(first.getMedicalRecords(), second.getMedicalRecords());
+        assertEquals(describe(first.getFireStations()), describe(second.getFireStations()));
+        assertEquals(first.getPersonsByStationNumber(3), second.getPersonsByStationNumber(3));
+        assertEquals(first.getLastNamesByPrefix("b", 10), second.getLastNamesByPrefix("b", 10));
+        assertEquals(first.getMedicalRecordsByAllergy("peanut"), second.getMedicalRecordsByAllergy("peanut"));
+    }
+
+    /**
+     * Tests that a snapshot older than the JSON file is ignored and rewritten.
+     */
+    @Test
+    void testStaleSnapshotIsRebuilt() throws IOException {
+        Path json = copyTestData();
+        Path snapshot = directory.resolve("data.snapshot");
+        assertTrue(newService(snapshot).readJsonFile(json.toString()));
+        byte[] before = Files.readAllBytes(snapshot);
+
+        String content = Files.readString(json).replace("\"Culver\"", "\"Springfield\"");
+        Files.writeString(json, content);
+
+        OffHeapDataService reloaded = newService(snapshot);
+        assertTrue(reloaded.readJsonFile(json.toString()));
+        assertFalse(reloaded.getEmailsByCity("Springfield").isEmpty());
+        assertFalse(Arrays.equals(before, Files.readAllBytes(snapshot)));
+    }
+
+    /**
+     * Tests that changes made to a mapped snapshot are saved and mapped back on the next start.
+     */
+    @Test
+    void testMutationsOnMappedSnapshotAreSaved() throws IOException {
+        Path json = copyTestData();
+        Path snapshot = directory.resolve("data.snapshot");
+        assertTrue(newService(snapshot).readJsonFile(json.toString()));
+        OffHeapDataService mapped = newService(snapshot);
+        assertTrue(mapped.readJsonFile(json.toString()));
+
+        mapped.addPerson(new Person("Jane", "Doe", "1 New St", "Culver", "jane@email.com", 97451, "841-874-0000"));
+        assertTrue(mapped.updatePerson(new Person("John", "Boyd", "1 New St", "Culver", "jaboyd@email.com", 97451, "841-874-6512")));
+        assertTrue(mapped.deletePerson("Tenley", "Boyd"));
+        assertTrue(mapped.saveData(json.toString()));
+
+        OffHeapDataService restarted = newService(snapshot);
+        assertTrue(restarted.readJsonFile(json.toString()));
+        assertEquals(mapped.getPersons(), restarted.getPersons());
+        assertEquals(2, restarted.getPersonsByAddress("1 New St").size());
+        DataService fromJson = new DataService();
+        assertTrue(fromJson.readJsonFile(json.toString()));
+        assertEquals(fromJson.getPersons(), restarted.getPersons());
+    }
+
+    private static List<String> describe(List<FireStation> fireStations) {
+        return fireStations.stream().map(fireStation -> fireStation.getAddress() + " -> " + fireStation.getStation()).toList();
+    }
+
+    private OffHeapDataService newService(Path snapshot) {
+        OffHeapDataService service = new OffHeapDataService();
+        service.setSnapshotPath(snapshot.toString());
+        return service;
+    }
+
+    private Path copyTestData() throws IOException {
+        return Files.copy(Path.of("src/test/resources/data.json"), directory.resolve("data.json"));
+    }
+}
@@ -16,6 +16,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.when;
 
 class PersonInfoLastNameServiceTest {
@@ -54,7 +55,7 @@ class PersonInfoLastNameServiceTest {
     @Test
     void testGetPersonInfoLastNameSuccess() {
         // Simulation du comportement du dataService
-        when(dataService.getPersonsByLastName("Doe")).thenReturn(persons);
+        when(dataService.findPersons(argThat(query -> query.getLastNames().contains("Doe")))).thenReturn(persons);
         when(dataService.getMedicalRecordsByPersons(persons)).thenReturn(medicalRecords);
 
         // Appel du service
@@ -76,7 +77,7 @@ class PersonInfoLastNameServiceTest {
     @Test
     void testGetPersonInfoLastNameNotFound() {
         // Simulation du comportement du dataService
-        when(dataService.getPersonsByLastName("Doe")).thenReturn(Collections.emptyList());
+        when(dataService.findPersons(argThat(query -> query.getLastNames().contains("Doe")))).thenReturn(Collections.emptyList());
 
         // Appel du service
         List<PersonInfoLastNameResponse> responses = personInfoLastNameService.getPersonInfoLastNameService("Doe");
@@ -91,7 +92,7 @@ class PersonInfoLastNameServiceTest {
     @Test
     void testGetPersonInfoNoMedicalRecordsFound() {
         // Simulation du comportement du dataService
-        when(dataService.getPersonsByLastName("Doe")).thenReturn(persons);
+        when(dataService.findPersons(argThat(query -> query.getLastNames().contains("Doe")))).thenReturn(persons);
         when(dataService.getMedicalRecordsByPersons(persons)).thenReturn(Collections.emptyList());
 
         // Appel du service
@@ -100,4 +101,37 @@ class PersonInfoLastNameServiceTest {
         // Vérification que la liste est vide
         assertTrue(responses.isEmpty());
     }
+
+    /**
+     * Teste la recherche phonétique : les personnes renvoyées par l'index phonétique sont décrites dans le même ordre.
+     */
+    @Test
+    void testGetPersonInfoPhoneticLastNameSuccess() {
+        // Simulation du comportement du dataService
+        when(dataService.getPersonsByPhoneticLastName("Do")).thenReturn(persons);
+        when(dataService.getMedicalRecordsByPersons(persons)).thenReturn(medicalRecords);
+
+        // Appel du service
+        List<PersonInfoLastNameResponse> responses = personInfoLastNameService.getPersonInfoPhoneticLastNameService("Do");
+
+        // Vérification des résultats
+        assertEquals(2, responses.size());
+        assertEquals("john@example.com", responses.get(0).getEmail());
+        assertEquals("jane@example.com", responses.get(1).getEmail());
+    }
+
+    /**
+     * Teste la recherche phonétique lorsqu'aucun nom ne se prononce de la même façon.
+     */
+    @Test
+    void testGetPersonInfoPhoneticLastNameNotFound() {
+        // Simulation du comportement du dataService
+        when(dataService.getPersonsByPhoneticLastName("Xyz")).thenReturn(Collections.emptyList());
+
+        // Appel du service
+        List<PersonInfoLastNameResponse> responses = personInfoLastNameService.getPersonInfoPhoneticLastNameService("Xyz");
+
+        // Vérification que la liste est vide
+        assertTrue(responses.isEmpty());
+    }
 }
@@ -0,0 +1,65 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.dto.MedicalAlertResponse;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.index.ResidentQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class ResidentServiceTest {
+
+    @Mock
+    private IDataService dataService;
+
+    @InjectMocks
+    private ResidentService residentService;
+
+    private ResidentQuery query;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        query = new ResidentQuery();
+        query.getStations().add(3);
+    }
+
+    /**
+     * Test that matching persons are joined with their medical record.
+     */
+    @Test
+    void testFindResidentsSuccess() {
+        when(dataService.findPersons(query)).thenReturn(List.of(
+                new Person("John", "Doe", "123 Main St", "City", "john@example.com", 71100, "123-456-7890"),
+                new Person("Jane", "Doe", "123 Main St", "City", "jane@example.com", 71100, "987-654-3210")));
+        when(dataService.getMedicalRecordsByName("John", "Doe")).thenReturn(List.of(
+                new MedicalRecord("John", "Doe", "01/01/1985", List.of("aspirin:100mg"), List.of("peanut"))));
+        when(dataService.getMedicalRecordsByName("Jane", "Doe")).thenReturn(Collections.emptyList());
+
+        List<MedicalAlertResponse> responses = residentService.findResidents(query);
+
+        assertEquals(2, responses.size());
+        assertEquals(List.of("peanut"), responses.get(0).getAllergies());
+        assertEquals(-1, responses.get(1).getAge());
+        assertTrue(responses.get(1).getMedications().isEmpty());
+    }
+
+    /**
+     * Test that no matching person returns an empty list.
+     */
+    @Test
+    void testFindResidentsNotFound() {
+        when(dataService.findPersons(query)).thenReturn(Collections.emptyList());
+
+        assertTrue(residentService.findResidents(query).isEmpty());
+    }
+}
@@ -0,0 +1,61 @@
+package com.safetyname.alerts.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    private final ResponseCache<String, Object> cache = new ResponseCache<>();
+    private final AtomicInteger computations = new AtomicInteger();
+
+    private Object compute() {
+        computations.incrementAndGet();
+        return new Object();
+    }
+
+    @Test
+    void testValueIsKeptForTheSameVersion() {
+        Object first = cache.get(1, "key", this::compute);
+        Object second = cache.get(1, "key", this::compute);
+
+        assertSame(first, second);
+        assertEquals(1, computations.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void testNewVersionDropsTheEntries() {
+        Object first = cache.get(1, "key", this::compute);
+        Object second = cache.get(2, "key", this::compute);
+
+        assertNotSame(first, second);
+        assertSame(second, cache.get(2, "key", this::compute));
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    void testOlderVersionIsComputedButNotKept() {
+        Object current = cache.get(2, "key", this::compute);
+        Object stale = cache.get(1, "key", this::compute);
+
+        assertNotSame(current, stale);
+        // The newer generation is still in place
+        assertSame(current, cache.get(2, "key", this::compute));
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    void testFullGenerationDoesNotKeepNewValues() {
+        ResponseCache<String, Object> small = new ResponseCache<>(1);
+        Object kept = small.get(1, "first", this::compute);
+        small.get(1, "second", this::compute);
+        small.get(1, "second", this::compute);
+
+        assertSame(kept, small.get(1, "first", this::compute));
+        assertEquals(3, computations.get());
+    }
+}
@@ -0,0 +1,101 @@
+package com.safetyname.alerts.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, Object> flights = new SingleFlight<>();
+
+    @Test
+    void testConcurrentCallsShareOneComputation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> flights.execute("key", () -> {
+                    computations.incrementAndGet();
+                    awaitQuietly(release);
+                    return new Object();
+                })));
+            }
+            while (flights.getCoalesced() < 7) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            Object first = results.get(0).get();
+            for (Future<Object> result : results) {
+                assertSame(first, result.get());
+            }
+            assertEquals(1, computations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDifferentKeysAreNotShared() {
+        Object first = flights.execute("first", Object::new);
+        Object second = flights.execute("second", Object::new);
+
+        assertNotSame(first, second);
+        assertEquals(0, flights.getCoalesced());
+    }
+
+    @Test
+    void testCompletedComputationIsNotCached() {
+        Object first = flights.execute("key", Object::new);
+        Object second = flights.execute("key", Object::new);
+
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void testFailureIsRethrownToEveryCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                results.add(executor.submit(() -> flights.execute("key", () -> {
+                    awaitQuietly(release);
+                    throw new IllegalStateException("boom");
+                })));
+            }
+            while (flights.getCoalesced() < 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<Object> result : results) {
+                ExecutionException failure = assertThrows(ExecutionException.class, result::get);
+                assertInstanceOf(IllegalStateException.class, failure.getCause());
+            }
+            // The key is released after the failure
+            assertNotNull(flights.execute("key", Object::new));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
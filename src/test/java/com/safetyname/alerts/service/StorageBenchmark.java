@@ -0,0 +1,140 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.store.Dataset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares the storage engines side by side behind {@link IDataService}: every data store ({@code data.store})
+ * with every change persistence ({@code data.persistence}) and data file format ({@code data.format}), on the
+ * loading of the data file, the update of one person followed by a save as the controllers do, and a lookup by
+ * station.
+ * <p>
+ * Run after {@code mvn test-compile} with the test classpath, for example from the IDE, or:
+ * {@code java -cp target/test-classes:target/classes:<dependencies> com.safetyname.alerts.service.StorageBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StorageBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"object", "columnar", "offheap"})
+    private String store;
+
+    @Param({"full", "journal"})
+    private String persistence;
+
+    @Param({"json", "smile"})
+    private String format;
+
+    private Path directory;
+    private Path dataFile;
+    private AbstractDataService dataService;
+    private ChangePersistence changePersistence;
+    private int updates;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("storage-benchmark-");
+        dataFile = directory.resolve("data." + format);
+        changePersistence = persistence.equals("journal") ? new JournalPersistence(1000) : new FullFilePersistence();
+        dataService = newStore();
+        dataService.setChangePersistence(changePersistence);
+        dataService.load(dataset(size));
+        dataService.saveData(dataFile.toString());
+        if (!dataService.readJsonFile(dataFile.toString())) {
+            throw new IllegalStateException("Failed to read " + dataFile);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public boolean updateAndSave() {
+        int i = updates++ % size;
+        dataService.updatePerson(new Person("First" + i, "Last" + i / 4, (i / 4) + " Culver St", "Culver",
+                "updated" + updates + "@email.com", 97451, "841-874-0000"));
+        // What saveData() does with the data.filepathWrite property
+        return changePersistence.persist(dataService, dataFile);
+    }
+
+    @Benchmark
+    public boolean load() {
+        return newStore().readJsonFile(dataFile.toString());
+    }
+
+    @Benchmark
+    public List<Person> personsByStation() {
+        return dataService.getPersonsByStationNumber(updates++ % 10 + 1);
+    }
+
+    private AbstractDataService newStore() {
+        AbstractDataService service = switch (store) {
+            case "columnar" -> new ColumnarDataService();
+            case "offheap" -> new OffHeapDataService();
+            default -> new DataService();
+        };
+        service.setDataFileFormat(format);
+        service.setChangePersistence(persistence.equals("journal") ? new JournalPersistence(1000) : new FullFilePersistence());
+        return service;
+    }
+
+    private static Dataset dataset(int size) {
+        List<Person> persons = new ArrayList<>(size);
+        List<MedicalRecord> medicalRecords = new ArrayList<>(size);
+        List<FireStation> fireStations = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            persons.add(new Person("First" + i, "Last" + i / 4, (i / 4) + " Culver St", "Culver",
+                    "first" + i + "@email.com", 97451, "841-874-" + (1000 + i % 9000)));
+            medicalRecords.add(new MedicalRecord("First" + i, "Last" + i / 4, "03/06/1984",
+                    List.of("aznol:350mg", "hydrapermazol:100mg"), List.of("nillacilan")));
+            if (i % 4 == 0) {
+                fireStations.add(new FireStation((i / 4) + " Culver St", i / 4 % 10 + 1));
+            }
+        }
+        return new Dataset(persons, fireStations, medicalRecords);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StorageBenchmark.class.getSimpleName()).build()).run();
+    }
+}
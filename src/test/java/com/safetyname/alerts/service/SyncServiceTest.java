@@ -0,0 +1,153 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.dto.SyncResponse;
+import com.safetyname.alerts.entity.FireStation;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link SyncService}.
+ * <p>
+ * The changes are made on a {@link DataService} loaded from the test data file, so the deltas are computed
+ * from the events its change log actually records.
+ */
+class SyncServiceTest {
+
+    private static final String DATA_FILE = "src/test/resources/data.json";
+
+    private DataService dataService;
+    private SyncService syncService;
+
+    @BeforeEach
+    void setUp() {
+        dataService = new DataService();
+        assertTrue(dataService.readJsonFile(DATA_FILE));
+        syncService = new SyncService(dataService);
+    }
+
+    @Test
+    void testWithoutVersionReturnsTheWholeCoverage() {
+        SyncResponse response = syncService.getChanges(List.of(2), null);
+
+        assertTrue(response.isFull());
+        assertEquals(position(dataService.getVersion()), response.getVersion());
+        assertEquals(dataService.getPersonsByStationNumber(2), response.getPersons());
+        assertEquals(response.getPersons().size(), response.getMedicalRecords().size());
+        assertEquals(List.of("29 15th St", "892 Downing Ct", "951 LoneTree Rd"),
+                addresses(response.getFireStations()).stream().sorted().toList());
+        assertTrue(response.getDeletedPersons().isEmpty());
+    }
+
+    @Test
+    void testEditsOfOneEntityAreCompacted() {
+        long version = dataService.getVersion();
+        Person boyd = dataService.getPersonsByName("John", "Boyd").get(0);
+        dataService.updatePerson(new Person("Jonanathan", "Marrack", "29 15th St", "Culver", "jm@email.com", 97451, "841-874-0000"));
+        dataService.updatePerson(new Person("Jonanathan", "Marrack", "29 15th St", "Culver", "jm@email.com", 97451, "841-874-1111"));
+        dataService.addPerson(new Person("Zoe", "Newman", "892 Downing Ct", "Culver", "zn@email.com", 97451, "841-874-2222"));
+        dataService.deletePerson("Zoe", "Newman");
+        dataService.updatePerson(new Person("John", "Boyd", boyd.getAddress(), boyd.getCity(), "other@email.com", boyd.getZip(), boyd.getPhone()));
+
+        SyncResponse response = syncService.getChanges(List.of(2), position(version));
+
+        assertFalse(response.isFull());
+        assertEquals(position(version + 5), response.getVersion());
+        assertEquals(1, response.getPersons().size());
+        assertEquals("841-874-1111", response.getPersons().get(0).getPhone());
+        assertTrue(response.getDeletedPersons().isEmpty());
+        assertTrue(response.getMedicalRecords().isEmpty());
+        assertTrue(response.getFireStations().isEmpty());
+
+        assertTrue(syncService.getChanges(List.of(2), response.getVersion()).getPersons().isEmpty());
+    }
+
+    @Test
+    void testMappingChangesMoveTheResidentsBetweenStations() {
+        long version = dataService.getVersion();
+        List<Person> boyds = dataService.getPersonsByAddress("1509 Culver St");
+        dataService.updateFireStation(new FireStation("1509 Culver St", 2));
+
+        SyncResponse joined = syncService.getChanges(List.of(2), position(version));
+        assertEquals(List.of("1509 Culver St"), addresses(joined.getFireStations()));
+        assertEquals(boyds, joined.getPersons());
+        assertEquals(dataService.getMedicalRecordsByPersons(boyds), joined.getMedicalRecords());
+
+        SyncResponse left = syncService.getChanges(List.of(3), position(version));
+        assertEquals(List.of("1509 Culver St"), addresses(left.getDeletedFireStations()));
+        assertEquals(boyds, left.getDeletedPersons());
+        assertEquals(dataService.getMedicalRecordsByPersons(boyds), left.getDeletedMedicalRecords());
+        assertTrue(left.getPersons().isEmpty());
+
+        SyncResponse both = syncService.getChanges(List.of(2, 3), position(version));
+        assertEquals(List.of("1509 Culver St"), addresses(both.getFireStations()));
+        assertEquals(List.of("1509 Culver St"), addresses(both.getDeletedFireStations()));
+        assertTrue(both.getPersons().isEmpty());
+        assertTrue(both.getDeletedPersons().isEmpty());
+    }
+
+    @Test
+    void testDeletedPersonTakesItsMedicalRecordAlong() {
+        long version = dataService.getVersion();
+        Person marrack = dataService.getPersonsByName("Jonanathan", "Marrack").get(0);
+        MedicalRecord record = dataService.getMedicalRecordsByName("Jonanathan", "Marrack").get(0);
+        dataService.deletePerson("Jonanathan", "Marrack");
+
+        SyncResponse response = syncService.getChanges(List.of(2), position(version));
+
+        assertEquals(List.of(marrack), response.getDeletedPersons());
+        assertEquals(List.of(record), response.getDeletedMedicalRecords());
+        assertTrue(syncService.getChanges(List.of(1), position(version)).getDeletedPersons().isEmpty());
+    }
+
+    @Test
+    void testVersionOutsideTheWindowReturnsTheWholeCoverage() {
+        dataService.getChangeLog().setCapacity(1);
+        long version = dataService.getVersion();
+        dataService.deletePerson("Jonanathan", "Marrack");
+        dataService.deletePerson("Sophia", "Zemicks");
+
+        assertTrue(syncService.getChanges(List.of(2), position(version)).isFull());
+        assertFalse(syncService.getChanges(List.of(2), position(version + 1)).isFull());
+        assertTrue(syncService.getChanges(List.of(2), position(version + 3)).isFull());
+    }
+
+    /**
+     * Tests that a version from before a restart of the application, which starts again from 0 with another epoch,
+     * is not taken for a version of this run, nor is a version without epoch.
+     */
+    @Test
+    void testVersionFromAnotherRunReturnsTheWholeCoverage() {
+        String beforeRestart = position(dataService.getVersion());
+        DataService restarted = new DataService();
+        assertTrue(restarted.readJsonFile(DATA_FILE));
+        SyncService restartedSync = new SyncService(restarted);
+        restarted.deletePerson("Jonanathan", "Marrack");
+        // Without its epoch, the version of the previous run would be within the window of the new one
+        assertEquals(dataService.getVersion(), restarted.getVersion() - 1);
+
+        SyncResponse response = restartedSync.getChanges(List.of(2), beforeRestart);
+
+        assertTrue(response.isFull());
+        assertEquals(restarted.getChangeLog().positionOf(restarted.getVersion()), response.getVersion());
+        assertEquals(restarted.getPersonsByStationNumber(2), response.getPersons());
+        assertTrue(restartedSync.getChanges(List.of(2), String.valueOf(dataService.getVersion())).isFull());
+        assertFalse(restartedSync.getChanges(List.of(2), response.getVersion()).isFull());
+    }
+
+    private String position(long version) {
+        return dataService.getChangeLog().positionOf(version);
+    }
+
+    private static List<String> addresses(List<FireStation> fireStations) {
+        List<String> addresses = new ArrayList<>();
+        fireStations.forEach(fireStation -> addresses.add(fireStation.getAddress()));
+        return addresses;
+    }
+}
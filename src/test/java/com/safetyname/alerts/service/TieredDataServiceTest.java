@@ -0,0 +1,166 @@
+package com.safetyname.alerts.service;
+
+import com.safetyname.alerts.dto.MedicalRecordResidency;
+import com.safetyname.alerts.entity.MedicalRecord;
+import com.safetyname.alerts.entity.Person;
+import com.safetyname.alerts.index.ResidentQuery;
+import com.safetyname.alerts.store.Dataset;
+import com.safetyname.alerts.store.JacksonDataFileFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link DataService} with tiered medical records.
+ * <p>
+ * The tiered store must answer like the plain one while keeping the lists of at most three records on the heap,
+ * so both are loaded from the test data file and compared, before and after mutations.
+ */
+class TieredDataServiceTest {
+
+    private static final String DATA_FILE = "src/test/resources/data.json";
+
+    @TempDir
+    Path directory;
+
+    private DataService plainStore;
+    private DataService tieredStore;
+
+    @BeforeEach
+    void setUp() {
+        plainStore = new DataService();
+        tieredStore = new DataService();
+        tieredStore.setMedicalRecordTiering(true, 3, directory.toString());
+        assertTrue(plainStore.readJsonFile(DATA_FILE));
+        assertTrue(tieredStore.readJsonFile(DATA_FILE));
+    }
+
+    /**
+     * Tests that the lookups return the same medical records, and the residency counters once every record was read.
+     */
+    @Test
+    void testQueriesMatchPlainStore() {
+        assertNull(plainStore.getMedicalRecordResidency());
+        MedicalRecordResidency loaded = tieredStore.getMedicalRecordResidency();
+        int records = plainStore.getMedicalRecords().size();
+        assertEquals(records, loaded.getRecords());
+        assertEquals(0, loaded.getHits() + loaded.getMisses());
+        assertTrue(loaded.getSegmentBytes() > 0);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        } catch (IOException e) {
+            fail(e);
+        }
+
+        assertEquals(plainStore.getMedicalRecords(), tieredStore.getMedicalRecords());
+        assertEquals(plainStore.getMedicalRecordsByMedication("aznol"), tieredStore.getMedicalRecordsByMedication("aznol"));
+        assertEquals(plainStore.getMedicalRecordsByAllergy("peanut"), tieredStore.getMedicalRecordsByAllergy("peanut"));
+        assertEquals(plainStore.getMedicalRecordsByName("John", "Boyd"), tieredStore.getMedicalRecordsByName("John", "Boyd"));
+
+        MedicalRecordResidency residency = tieredStore.getMedicalRecordResidency();
+        assertEquals(3, residency.getHotCapacity());
+        assertEquals(3, residency.getHotRecords());
+        assertEquals(records - 3, residency.getColdRecords());
+        assertTrue(residency.getMisses() >= records);
+        assertTrue(residency.getEvictions() >= records - 3);
+    }
+
+    /**
+     * Tests that mutations of medical records are applied to the tier like they are to the plain store.
+     */
+    @Test
+    void testMutationsMatchPlainStore() {
+        for (DataService store : List.of(plainStore, tieredStore)) {
+            store.addMedicalRecord(new MedicalRecord("Jane", "Boyd", "01/01/2000", List.of("aznol:60mg"), List.of()));
+            assertTrue(store.updateMedicalRecord(new MedicalRecord("John", "Boyd", "03/06/1984", List.of(), List.of("peanut"))));
+            assertTrue(store.deleteMedicalRecord("Roger", "Boyd"));
+            store.addPerson(new Person("Jane", "Boyd", "29 15th St", "Culver", "jane@email.com", 97451, "841-874-0000"));
+        }
+
+        assertEquals(plainStore.getMedicalRecords(), tieredStore.getMedicalRecords());
+        assertEquals(new HashSet<>(plainStore.getMedicalRecordsByAllergy("peanut")), new HashSet<>(tieredStore.getMedicalRecordsByAllergy("peanut")));
+        assertEquals(new HashSet<>(plainStore.getMedicalRecordsByMedication("aznol")), new HashSet<>(tieredStore.getMedicalRecordsByMedication("aznol")));
+        ResidentQuery onAznol = new ResidentQuery();
+        onAznol.getMedications().add("aznol");
+        assertEquals(plainStore.findPersons(onAznol), tieredStore.findPersons(onAznol));
+
+        // The deleted record's event keeps its lists, read before they were released
+        ChangeEvent deleted = tieredStore.getChangeLog().getEventsSince(tieredStore.getVersion() - 2).get(0);
+        assertEquals(ChangeEvent.Operation.DELETED, deleted.getOperation());
+        assertEquals(plainStore.getChangeLog().getEventsSince(plainStore.getVersion() - 2).get(0).getBefore(), deleted.getBefore());
+        assertEquals(plainStore.getMedicalRecords().size(), tieredStore.getMedicalRecordResidency().getRecords());
+        MedicalRecordResidency residency = tieredStore.getMedicalRecordResidency();
+        assertEquals(residency.getRecords(), residency.getHotRecords() + residency.getColdRecords());
+    }
+
+    /**
+     * Tests that updating a medical record appends a single entry to the segment, and that reloading a changed data
+     * file compacts the segment.
+     */
+    @Test
+    void testUpdateAppendsOnceAndReloadCompacts() throws IOException {
+        Path file = Files.copy(Path.of(DATA_FILE), directory.resolve("data.json"));
+        DataService store = new DataService();
+        store.setMedicalRecordTiering(true, 3, directory.toString());
+        assertTrue(store.readJsonFile(file.toString()));
+        long bytes = store.getMedicalRecordResidency().getSegmentBytes();
+        String birthdate = store.getMedicalRecordsByName("John", "Boyd").get(0).getBirthdate();
+
+        assertTrue(store.updateMedicalRecord(new MedicalRecord("John", "Boyd", birthdate,
+                List.of("noxidian:100mg"), List.of())));
+        long updated = store.getMedicalRecordResidency().getSegmentBytes();
+        assertTrue(store.updateMedicalRecord(new MedicalRecord("John", "Boyd", birthdate,
+                List.of("noxidian:200mg"), List.of())));
+        // Same list sizes: each update appends one entry of the same size
+        assertEquals(updated - bytes, store.getMedicalRecordResidency().getSegmentBytes() - updated);
+
+        Dataset changed = JacksonDataFileFormat.JSON.read(file);
+        changed.getMedicalRecords().removeIf(medicalRecord -> medicalRecord.getLastName().equals("Zemicks"));
+        JacksonDataFileFormat.JSON.write(changed, file);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 60_000L));
+        long segments = countFiles();
+        assertNotNull(store.reloadDataFile(file.toString()));
+
+        assertTrue(store.getMedicalRecordResidency().getSegmentBytes() < bytes);
+        assertEquals(changed.getMedicalRecords().size(), store.getMedicalRecords().size());
+        assertEquals(changed.getMedicalRecords().stream()
+                        .filter(medicalRecord -> medicalRecord.getFirstName().equals("John")
+                                && medicalRecord.getLastName().equals("Boyd"))
+                        .findFirst().orElseThrow().getMedications(),
+                store.getMedicalRecordsByName("John", "Boyd").get(0).getMedications());
+        // The compacted segment replaces the previous file
+        assertEquals(segments, countFiles());
+    }
+
+    /**
+     * Tests that saved data can be read back by the plain store.
+     */
+    @Test
+    void testSaveDataRoundTrip() throws IOException {
+        File file = Files.createTempFile(directory, "tiered", ".json").toFile();
+        tieredStore.updateMedicalRecord(new MedicalRecord("John", "Boyd", "03/06/1984", List.of("noxidian:100mg"), List.of()));
+
+        assertTrue(tieredStore.saveData(file.getPath()));
+        DataService reloaded = new DataService();
+        assertTrue(reloaded.readJsonFile(file.getPath()));
+
+        assertEquals(tieredStore.getMedicalRecords(), reloaded.getMedicalRecords());
+    }
+
+    private long countFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.safetyname.alerts.store;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link ScalarAgeKernel} and the {@link VectorAgeKernel} on the adult count (one threshold)
+ * and on an age histogram (eight thresholds).
+ * <p>
+ * Run after {@code mvn test-compile} with the test classpath, for example from the IDE, or:
+ * {@code java --add-modules jdk.incubator.vector -cp target/test-classes:target/classes:<dependencies>
+ * com.safetyname.alerts.store.AgeKernelBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class AgeKernelBenchmark {
+
+    @Param({"1000", "1000000"})
+    private int size;
+
+    private final AgeKernel scalar = new ScalarAgeKernel();
+    private AgeKernel vector;
+    private int[] births;
+    private int[] adult;
+    private int[] histogram;
+
+    @Setup
+    public void setUp() {
+        vector = new VectorAgeKernel();
+        LocalDate today = LocalDate.now();
+        Random random = new Random(35);
+        births = new int[size];
+        for (int i = 0; i < size; i++) {
+            births[i] = (int) today.minusDays(random.nextInt(100 * 365)).toEpochDay();
+        }
+        adult = new int[]{(int) today.minusYears(18).toEpochDay()};
+        int[] bounds = {0, 6, 12, 18, 30, 45, 65, 80};
+        histogram = new int[bounds.length];
+        for (int k = 0; k < bounds.length; k++) {
+            histogram[k] = (int) today.minusYears(bounds[k]).toEpochDay();
+        }
+    }
+
+    @Benchmark
+    public int[] adultCountScalar() {
+        return scalar.countAtMost(births, size, adult);
+    }
+
+    @Benchmark
+    public int[] adultCountVector() {
+        return vector.countAtMost(births, size, adult);
+    }
+
+    @Benchmark
+    public int[] histogramScalar() {
+        return scalar.countAtMost(births, size, histogram);
+    }
+
+    @Benchmark
+    public int[] histogramVector() {
+        return vector.countAtMost(births, size, histogram);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AgeKernelBenchmark.class.getSimpleName()).build()).run();
+    }
+}
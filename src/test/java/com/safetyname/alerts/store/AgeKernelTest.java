@@ -0,0 +1,72 @@
+package com.safetyname.alerts.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link ScalarAgeKernel} and {@link VectorAgeKernel}.
+ * <p>
+ * The tests run with the {@code jdk.incubator.vector} module added by the build, so both kernels are
+ * checked against a plain count.
+ */
+class AgeKernelTest {
+
+    static Stream<AgeKernel> kernels() {
+        return Stream.of(new ScalarAgeKernel(), new VectorAgeKernel());
+    }
+
+    /**
+     * Tests the counts on small arrays, shorter and longer than a vector, with unknown birthdates.
+     */
+    @ParameterizedTest
+    @MethodSource("kernels")
+    void testCountAtMost(AgeKernel kernel) {
+        int[] values = {5, 1, 10, AgeKernel.UNKNOWN_BIRTHDATE, 3, 10, -20, 7, 8, 2, 11, 0, 9, 4, 6, 12, 1};
+
+        assertArrayEquals(new int[]{0, 4, 14, 16}, kernel.countAtMost(values, values.length, new int[]{-21, 1, 10, 12}));
+        assertArrayEquals(new int[]{4}, kernel.countAtMost(values, 5, new int[]{10}));
+        assertArrayEquals(new int[]{0, 0}, kernel.countAtMost(values, 0, new int[]{0, 100}));
+        assertArrayEquals(new int[0], kernel.countAtMost(values, values.length, new int[0]));
+    }
+
+    /**
+     * Tests the counts against a plain loop, on random epoch days and every tail length.
+     */
+    @ParameterizedTest
+    @MethodSource("kernels")
+    void testMatchesPlainCount(AgeKernel kernel) {
+        Random random = new Random(35);
+        int[] values = new int[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(20) == 0 ? AgeKernel.UNKNOWN_BIRTHDATE : -40000 + random.nextInt(60000);
+        }
+        int[] thresholds = {-30000, -1, 0, 5000, 19000};
+        for (int length = 990; length <= values.length; length++) {
+            int[] counts = kernel.countAtMost(values, length, thresholds);
+            for (int t = 0; t < thresholds.length; t++) {
+                int expected = 0;
+                for (int i = 0; i < length; i++) {
+                    if (values[i] <= thresholds[t]) {
+                        expected++;
+                    }
+                }
+                assertEquals(expected, counts[t]);
+            }
+        }
+    }
+
+    /**
+     * Tests that the vector kernel is selected when the incubator module is present.
+     */
+    @Test
+    void testSelect() {
+        assertTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent());
+        assertEquals(VectorAgeKernel.isAccelerated(), AgeKernel.select() instanceof VectorAgeKernel);
+    }
+}
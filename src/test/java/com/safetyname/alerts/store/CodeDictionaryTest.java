@@ -0,0 +1,68 @@
+package com.safetyname.alerts.store;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the {@link CodeDictionary} implementations of every {@link ColumnStorage}.
+ */
+class CodeDictionaryTest {
+
+    /**
+     * Tests that equal values get the same code and that codes decode to the values.
+     */
+    @ParameterizedTest
+    @EnumSource(ColumnStorage.class)
+    void testEncodeFindDecode(ColumnStorage storage) {
+        CodeDictionary dictionary = storage.newDictionary();
+
+        int culver = dictionary.encode("Culver");
+        int chalon = dictionary.encode("Chalon-sur-Saône");
+
+        assertEquals(culver, dictionary.encode(new String("Culver")));
+        assertEquals(chalon, dictionary.find("Chalon-sur-Saône"));
+        assertEquals("Chalon-sur-Saône", dictionary.decode(chalon));
+        assertEquals(CodeDictionary.NULL, dictionary.find("Springfield"));
+        assertEquals(CodeDictionary.NULL, dictionary.encode(null));
+        assertNull(dictionary.decode(CodeDictionary.NULL));
+        assertEquals(2, dictionary.size());
+    }
+
+    /**
+     * Tests dense codes on a dictionary growing well past its initial capacity, empty string included.
+     */
+    @ParameterizedTest
+    @EnumSource(ColumnStorage.class)
+    void testManyValues(ColumnStorage storage) {
+        CodeDictionary dictionary = storage.newDictionary();
+        assertEquals(0, dictionary.encode(""));
+        for (int i = 1; i <= 5000; i++) {
+            assertEquals(i, dictionary.encode(i + " Culver St"));
+        }
+
+        for (int i = 1; i <= 5000; i++) {
+            assertEquals(i, dictionary.find(i + " Culver St"));
+            assertEquals(i + " Culver St", dictionary.decode(i));
+        }
+        assertEquals("", dictionary.decode(0));
+        assertEquals(5001, dictionary.size());
+    }
+
+    /**
+     * Tests that clearing removes every value.
+     */
+    @ParameterizedTest
+    @EnumSource(ColumnStorage.class)
+    void testClear(ColumnStorage storage) {
+        CodeDictionary dictionary = storage.newDictionary();
+        dictionary.encode("Culver");
+
+        dictionary.clear();
+
+        assertEquals(0, dictionary.size());
+        assertEquals(CodeDictionary.NULL, dictionary.find("Culver"));
+        assertEquals(0, dictionary.encode("Boyd"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.safetyname.alerts.store;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the {@link IntColumn} implementations of every {@link ColumnStorage}.
+ */
+class IntColumnTest {
+
+    /**
+     * Tests appending past the initial capacity, then overwriting and trimming.
+     */
+    @ParameterizedTest
+    @EnumSource(ColumnStorage.class)
+    void testAddGetSetTrim(ColumnStorage storage) {
+        IntColumn column = storage.newIntColumn();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, column.add(i * 3 - 500));
+        }
+        column.set(999, Integer.MIN_VALUE);
+        column.trim();
+
+        assertEquals(1000, column.size());
+        assertEquals(-500, column.get(0));
+        assertEquals(Integer.MIN_VALUE, column.get(999));
+        assertEquals(1000, column.add(7));
+    }
+
+    /**
+     * Tests that clearing removes every row.
+     */
+    @ParameterizedTest
+    @EnumSource(ColumnStorage.class)
+    void testClear(ColumnStorage storage) {
+        IntColumn column = storage.newIntColumn();
+        column.add(1);
+        column.add(2);
+
+        column.clear();
+
+        assertEquals(0, column.size());
+        assertEquals(0, column.add(3));
+        assertEquals(3, column.get(0));
+    }
+}
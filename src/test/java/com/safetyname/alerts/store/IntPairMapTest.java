@@ -0,0 +1,67 @@
+package com.safetyname.alerts.store;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link IntPairMap}.
+ */
+class IntPairMapTest {
+
+    /**
+     * Tests putting, replacing and removing pairs.
+     */
+    @ParameterizedTest
+    @EnumSource(ColumnStorage.class)
+    void testPutGetRemove(ColumnStorage storage) {
+        IntPairMap map = new IntPairMap(storage);
+        map.put(1, 2, 10);
+        map.put(2, 1, 20);
+        map.put(1, 2, 30);
+
+        assertEquals(30, map.get(1, 2));
+        assertEquals(20, map.get(2, 1));
+        assertEquals(IntPairMap.MISSING, map.get(1, 1));
+        assertEquals(2, map.size());
+
+        map.remove(1, 2);
+        assertEquals(IntPairMap.MISSING, map.get(1, 2));
+        assertEquals(20, map.get(2, 1));
+        assertEquals(1, map.size());
+    }
+
+    /**
+     * Tests the map against a {@link HashMap} with random insertions and removals.
+     */
+    @ParameterizedTest
+    @EnumSource(ColumnStorage.class)
+    void testAgainstHashMap(ColumnStorage storage) {
+        IntPairMap map = new IntPairMap(storage);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20000; i++) {
+            int first = random.nextInt(200);
+            int second = random.nextInt(200);
+            if (random.nextInt(3) == 0) {
+                map.remove(first, second);
+                expected.remove(((long) first << 32) | second);
+            } else {
+                map.put(first, second, i);
+                expected.put(((long) first << 32) | second, i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int first = 0; first < 200; first++) {
+            for (int second = 0; second < 200; second++) {
+                assertEquals(expected.getOrDefault(((long) first << 32) | second, IntPairMap.MISSING), map.get(first, second));
+            }
+        }
+    }
+}
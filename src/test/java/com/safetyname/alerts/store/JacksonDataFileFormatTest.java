@@ -0,0 +1,74 @@
+package com.safetyname.alerts.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the {@link JacksonDataFileFormat} formats.
+ */
+class JacksonDataFileFormatTest {
+
+    private static final Path DATA_FILE = Path.of("src/test/resources/data.json");
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that a dataset written in a format is read back unchanged.
+     */
+    @ParameterizedTest
+    @EnumSource(JacksonDataFileFormat.class)
+    void testRoundTrip(JacksonDataFileFormat format) throws IOException {
+        Dataset dataset = JacksonDataFileFormat.JSON.read(DATA_FILE);
+        Path file = directory.resolve("data." + format.name().toLowerCase());
+
+        format.write(dataset, file);
+        Dataset read = format.read(file);
+
+        assertEquals(23, read.getPersons().size());
+        assertEquals(dataset.getPersons(), read.getPersons());
+        assertEquals(dataset.getMedicalRecords(), read.getMedicalRecords());
+        assertEquals(dataset.getFireStations().size(), read.getFireStations().size());
+        assertEquals(dataset.getFireStations().get(0).getAddress(), read.getFireStations().get(0).getAddress());
+    }
+
+    /**
+     * Tests that Smile files are smaller than JSON files, and that a file in another format is rejected.
+     */
+    @Test
+    void testSmileIsSmallerAndDistinct() throws IOException {
+        Dataset dataset = JacksonDataFileFormat.JSON.read(DATA_FILE);
+        Path json = directory.resolve("data.json");
+        Path smile = directory.resolve("data.smile");
+        JacksonDataFileFormat.JSON.write(dataset, json);
+        JacksonDataFileFormat.SMILE.write(dataset, smile);
+
+        assertTrue(Files.size(smile) < Files.size(json));
+        assertThrows(IOException.class, () -> JacksonDataFileFormat.SMILE.read(json));
+        assertThrows(IOException.class, () -> JacksonDataFileFormat.JSON.read(smile));
+    }
+
+    /**
+     * Tests the lookup of a format by the name of the {@code data.format} property, and missing arrays.
+     */
+    @Test
+    void testOfAndEmptyFile() throws IOException {
+        assertSame(JacksonDataFileFormat.SMILE, JacksonDataFileFormat.of(" smile"));
+        assertSame(JacksonDataFileFormat.JSON, JacksonDataFileFormat.of("JSON"));
+        assertThrows(IllegalArgumentException.class, () -> JacksonDataFileFormat.of("xml"));
+
+        Path empty = Files.writeString(directory.resolve("empty.json"), "{\"persons\":[]}");
+        Dataset dataset = JacksonDataFileFormat.JSON.read(empty);
+        assertTrue(dataset.getPersons().isEmpty());
+        assertTrue(dataset.getFireStations().isEmpty());
+        assertTrue(dataset.getMedicalRecords().isEmpty());
+    }
+}
@@ -0,0 +1,207 @@
+package com.safetyname.alerts.store;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link MedicalRecordTier} and its {@link SegmentFile}.
+ */
+class MedicalRecordTierTest {
+
+    @TempDir
+    Path directory;
+
+    private MedicalRecordTier tier;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tier = new MedicalRecordTier(directory.resolve("records.segment"), 2, UnaryOperator.identity(), String::intern);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        tier.close();
+    }
+
+    /**
+     * Tests that stored lists are read back, from the segment first and then from the hot tier.
+     */
+    @Test
+    void testStoreAndLoad() {
+        long offset = tier.store(List.of("aznol:350mg", "hydrapermazol:100mg"), Arrays.asList("nillacilan", null));
+        long empty = tier.store(null, List.of());
+
+        MedicalRecordTier.Lists lists = tier.load(offset);
+        assertEquals(List.of("aznol:350mg", "hydrapermazol:100mg"), lists.getMedications());
+        assertEquals(Arrays.asList("nillacilan", null), lists.getAllergies());
+        assertSame("nillacilan", lists.getAllergies().get(0));
+        assertThrows(UnsupportedOperationException.class, () -> lists.getMedications().add("tetracyclaz:650mg"));
+        assertSame(lists, tier.load(offset));
+        assertNull(tier.load(empty).getMedications());
+        assertEquals(List.of(), tier.load(empty).getAllergies());
+
+        assertEquals(2, tier.getMisses());
+        assertEquals(2, tier.getHits());
+        assertEquals(2, tier.getHotCount());
+        assertEquals(0, tier.getColdCount());
+    }
+
+    /**
+     * Tests that the least recently read lists leave the hot tier once it is full, and that released lists are no
+     * longer counted.
+     */
+    @Test
+    void testEvictionAndRelease() {
+        List<Long> offsets = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            offsets.add(tier.store(List.of("pharmacol:" + i + "mg"), List.of()));
+        }
+        assertEquals(5, tier.getColdCount());
+
+        offsets.forEach(tier::load);
+        tier.load(offsets.get(3));
+        tier.load(offsets.get(0));
+
+        assertEquals(4, tier.getEvictions());
+        assertEquals(6, tier.getMisses());
+        assertEquals(1, tier.getHits());
+        assertEquals(2, tier.getHotCount());
+        assertEquals(3, tier.getColdCount());
+        assertEquals(List.of("pharmacol:3mg"), tier.load(offsets.get(3)).getMedications());
+
+        tier.release(offsets.get(0));
+        tier.release(offsets.get(1));
+        assertEquals(1, tier.getHotCount());
+        assertEquals(2, tier.getColdCount());
+
+        tier.resetCounters();
+        assertEquals(0, tier.getHits() + tier.getMisses() + tier.getEvictions());
+    }
+
+    /**
+     * Tests that replacing the lists of a record appends a single entry and keeps its id.
+     */
+    @Test
+    void testReplace() {
+        long id = tier.store(List.of("aznol:350mg"), List.of("nillacilan"));
+        long other = tier.store(List.of("pharmacol:5000mg"), List.of());
+        tier.load(id);
+
+        tier.replace(id, List.of("tetracyclaz:650mg"), null);
+
+        assertEquals(List.of("tetracyclaz:650mg"), tier.load(id).getMedications());
+        assertNull(tier.load(id).getAllergies());
+        assertEquals(List.of("pharmacol:5000mg"), tier.load(other).getMedications());
+        // Replacing with lists of the same size appends one entry as large as the one it makes dead
+        long bytes = tier.getSegmentBytes();
+        long deadBytes = tier.getDeadBytes();
+        tier.replace(id, List.of("tetracyclaz:650mg"), null);
+        assertEquals(tier.getSegmentBytes() - bytes, tier.getDeadBytes() - deadBytes);
+        assertEquals(2, tier.getColdCount() + tier.getHotCount());
+        assertThrows(IllegalArgumentException.class, () -> tier.replace(42, List.of(), List.of()));
+    }
+
+    /**
+     * Tests that the segment is compacted once its dead entries pass the threshold and outweigh the live ones, the
+     * lists staying readable under the same ids.
+     */
+    @Test
+    void testCompaction() {
+        tier.setCompactionBytes(200);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(tier.store(List.of("pharmacol:" + i + "mg"), List.of("shellfish")));
+        }
+        long bytes = tier.getSegmentBytes();
+
+        for (int i = 0; i < 4; i++) {
+            tier.release(ids.get(i));
+        }
+        assertEquals(0, tier.getCompactions());
+        assertTrue(tier.getDeadBytes() > 0);
+        for (int i = 4; i < 7; i++) {
+            tier.replace(ids.get(i), List.of("pharmacol:" + i + "0mg"), List.of());
+        }
+
+        assertEquals(1, tier.getCompactions());
+        assertTrue(tier.getSegmentBytes() < bytes);
+        assertEquals(List.of("pharmacol:50mg"), tier.load(ids.get(5)).getMedications());
+        assertEquals(List.of("shellfish"), tier.load(ids.get(9)).getAllergies());
+        assertThrows(IllegalArgumentException.class, () -> tier.load(ids.get(0)));
+        assertEquals(6, tier.getColdCount() + tier.getHotCount());
+
+        tier.compact();
+        assertEquals(0, tier.getDeadBytes());
+        assertEquals(List.of("pharmacol:40mg"), tier.load(ids.get(4)).getMedications());
+    }
+
+    /**
+     * Tests that values longer than 65,535 bytes once encoded, and values outside of the basic multilingual plane,
+     * are stored and read back.
+     */
+    @Test
+    void testLargeAndNonAsciiValues() {
+        String large = "é".repeat(40_000) + "\uD83D\uDC8A";
+        long id = tier.store(List.of(large, ""), Arrays.asList(null, "pénicilline"));
+
+        MedicalRecordTier.Lists lists = tier.load(id);
+
+        assertEquals(List.of(large, ""), lists.getMedications());
+        assertEquals(Arrays.asList(null, "pénicilline"), lists.getAllergies());
+    }
+
+    /**
+     * Tests a tier without hot capacity, and that closing deletes the segment file.
+     */
+    @Test
+    void testColdOnlyAndClose() throws IOException {
+        Path path = directory.resolve("cold.segment");
+        MedicalRecordTier cold = new MedicalRecordTier(path, 0, UnaryOperator.identity(), UnaryOperator.identity());
+        long offset = cold.store(List.of("noznazol:250mg"), null);
+
+        assertEquals(List.of("noznazol:250mg"), cold.load(offset).getMedications());
+        assertEquals(List.of("noznazol:250mg"), cold.load(offset).getMedications());
+        assertEquals(2, cold.getMisses());
+        assertEquals(0, cold.getHotCount());
+        assertTrue(cold.getSegmentBytes() > 0);
+
+        cold.close();
+        assertFalse(Files.exists(path));
+    }
+
+    /**
+     * Tests that entries are appended to new chunks once one is full, and that an entry too large is refused.
+     */
+    @Test
+    void testSegmentChunks() throws IOException {
+        try (SegmentFile segment = new SegmentFile(directory.resolve("chunks.segment"))) {
+            byte[] large = new byte[SegmentFile.CHUNK_SIZE / 2];
+            large[0] = 1;
+            long first = segment.append(large);
+            large[0] = 2;
+            long second = segment.append(large);
+            long third = segment.append(new byte[]{3});
+
+            assertEquals(0, first);
+            assertEquals(SegmentFile.CHUNK_SIZE, second);
+            assertEquals(SegmentFile.CHUNK_SIZE + Integer.BYTES + large.length, third);
+            assertEquals(1, segment.read(first)[0]);
+            assertEquals(2, segment.read(second)[0]);
+            assertArrayEquals(new byte[]{3}, segment.read(third));
+            assertThrows(IllegalArgumentException.class, () -> segment.read(segment.size()));
+            assertThrows(IllegalArgumentException.class, () -> segment.append(new byte[SegmentFile.CHUNK_SIZE]));
+        }
+    }
+}